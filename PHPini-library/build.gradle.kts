@@ -24,4 +24,72 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+val catalogGenerator: SourceSet by sourceSets.creating
+
+val directivesCsv = layout.projectDirectory.file("src/main/resources/phpini_directives.csv")
+val generatedCatalogDir = layout.buildDirectory.dir("generated/resources/directiveCatalog")
+
+val generateDirectiveCatalog by tasks.registering(JavaExec::class) {
+    description = "Compiles phpini_directives.csv into the phpini_directives.bin snapshot."
+    group = "build"
+    classpath = catalogGenerator.runtimeClasspath
+    mainClass.set("de.hermannbsd.phpini.library.generator.DirectiveCatalogGenerator")
+    inputs.file(directivesCsv)
+    outputs.dir(generatedCatalogDir)
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(directivesCsv.asFile.absolutePath, generatedCatalogDir.get().asFile.absolutePath)
+    })
+}
+
+sourceSets.main {
+    resources.srcDir(generateDirectiveCatalog)
+}
+
+// the catalog is read from the snapshot; the tests compare it with their own copy of the CSV
+tasks.processResources {
+    exclude("phpini_directives.csv")
+}
+
+val generatedTextIndexDir = layout.buildDirectory.dir("generated/resources/directiveTextIndex")
+
+// the generators of the text index and of the class data sharing archive use the compiled library classes
+catalogGenerator.compileClasspath += files(tasks.compileJava) + configurations.compileClasspath.get()
+
+// runs on the compiled classes rather than the main output, whose resources would then depend on this task
+val generateDirectiveTextIndex by tasks.registering(JavaExec::class) {
+    description = "Builds the full-text index of the directive catalog into phpini_directives.idx."
+    group = "build"
+    classpath = files(catalogGenerator.output, tasks.compileJava, tasks.processResources,
+            configurations.runtimeClasspath)
+    mainClass.set("de.hermannbsd.phpini.library.DirectiveTextIndexGenerator")
+    outputs.dir(generatedTextIndexDir)
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(generatedTextIndexDir.get().asFile.absolutePath)
+    })
+}
+
+tasks.jar {
+    from(generateDirectiveTextIndex)
+}
+
+// the tests read the CSV file with the splitter of the generator
+sourceSets.test {
+    compileClasspath += catalogGenerator.output
+    runtimeClasspath += catalogGenerator.output + files(generateDirectiveTextIndex)
+}
+
+val catalogClassDataArchive = layout.buildDirectory.file("cds/phpini-library.jsa")
+
+// start a JVM with -XX:SharedArchiveFile=build/cds/phpini-library.jsa and the same class path to use the archive
+val archiveDirectiveCatalogClasses by tasks.registering(JavaExec::class) {
+    description = "Dumps a class data sharing archive of the classes loading and querying the directive catalog."
+    group = "build"
+    classpath = files(tasks.jar, catalogGenerator.output, configurations.runtimeClasspath)
+    mainClass.set("de.hermannbsd.phpini.library.generator.DirectiveCatalogTrainingRun")
+    outputs.file(catalogClassDataArchive)
+    jvmArgumentProviders.add(CommandLineArgumentProvider {
+        listOf("-XX:ArchiveClassesAtExit=" + catalogClassDataArchive.get().asFile.absolutePath)
+    })
+}
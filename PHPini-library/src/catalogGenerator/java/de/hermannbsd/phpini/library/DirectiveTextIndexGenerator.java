@@ -0,0 +1,39 @@
+package de.hermannbsd.phpini.library;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generator writing the full-text index of the bundled directive catalog at build time.
+ * The generator is in the package of the index, as it writes the index through its package-private methods.
+ *
+ * <p>Usage: {@code DirectiveTextIndexGenerator <output directory>}</p>
+ */
+public final class DirectiveTextIndexGenerator {
+
+    /**
+     * Private constructor, the class is only used through {@link #main(String[])}.
+     */
+    private DirectiveTextIndexGenerator() {
+    }
+
+    /**
+     * Write the index of the bundled catalog into the given directory.
+     *
+     * @param args the output directory
+     * @exception IOException if the index cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: DirectiveTextIndexGenerator <output directory>");
+        }
+
+        Path output = Path.of(args[0]).resolve(DirectiveTextIndex.INDEX_RESOURCE);
+        Files.createDirectories(output.getParent());
+        try (OutputStream out = Files.newOutputStream(output)) {
+            DirectiveTextIndex.build(PhpIniDirective.getCatalog()).write(out);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package de.hermannbsd.phpini.library.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Generator compiling the directive CSV file into a binary snapshot at build time.
+ * The snapshot holds the cleaned fields of every directive in a string table and fixed-width records, so loading the
+ * catalog does not read or split the CSV file.
+ *
+ * <p>Usage: {@code DirectiveCatalogGenerator <csv file> <output directory>}</p>
+ */
+public final class DirectiveCatalogGenerator {
+
+    /**
+     * The name of the snapshot resource.
+     */
+    static final String SNAPSHOT = "phpini_directives.bin";
+    /**
+     * The magic number at the start of a snapshot.
+     */
+    static final int MAGIC = 0x50494443;
+    /**
+     * The version of the snapshot format.
+     */
+    static final int FORMAT_VERSION = 1;
+    /**
+     * The number of columns of the CSV file.
+     */
+    static final int COLUMNS = 8;
+    /**
+     * The pattern of the version columns.
+     */
+    private static final Pattern VERSION = Pattern.compile("\\d+(\\.\\d+){0,2}");
+    /**
+     * The first column holding a version.
+     */
+    private static final int FIRST_VERSION_COLUMN = 6;
+
+    /**
+     * Private constructor, the class is only used through {@link #main(String[])}.
+     */
+    private DirectiveCatalogGenerator() {
+    }
+
+    /**
+     * Generate the catalog snapshot.
+     *
+     * @param args the CSV file and the output directory of the generated resources
+     * @exception IOException if the CSV file cannot be read or the snapshot cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: DirectiveCatalogGenerator <csv file> <output directory>");
+        }
+
+        Path csv = Path.of(args[0]);
+        Path output = Path.of(args[1]).resolve(SNAPSHOT);
+
+        List<String[]> rows = readRows(csv);
+        Files.createDirectories(output.getParent());
+        try (OutputStream out = Files.newOutputStream(output)) {
+            writeSnapshot(rows, out);
+        }
+    }
+
+    /**
+     * Read the directives from the CSV file, cleaning each field.
+     *
+     * @param csv the CSV file
+     * @return the fields of each directive
+     * @exception IOException if the file cannot be read, a line has too few fields or an invalid version
+     */
+    static List<String[]> readRows(Path csv) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            // skip the header line
+            String line = reader.readLine();
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                List<String> parts = splitCsvLine(line);
+                if (parts.size() < 5) {
+                    throw new IOException(csv + ":" + lineNumber + ": invalid directive format: " + line);
+                }
+                String[] row = new String[COLUMNS];
+                for (int column = 0; column < COLUMNS; column++) {
+                    row[column] = column < parts.size() ? clean(parts.get(column), column) : "";
+                    if (column >= FIRST_VERSION_COLUMN && !row[column].isEmpty()
+                            && !VERSION.matcher(row[column]).matches()) {
+                        throw new IOException(csv + ":" + lineNumber + ": invalid version: " + row[column]);
+                    }
+                }
+                rows.add(row);
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     * Split the given line of the CSV file at each semicolon outside quotation marks.
+     * The fields keep their quotation marks. This is the only CSV splitter; the tests read the CSV file with it, too.
+     *
+     * @param line the line
+     * @return the fields of the line
+     */
+    public static List<String> splitCsvLine(String line) {
+        List<String> result = new ArrayList<>();
+        boolean quoted = false;
+        int start = 0;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ';' && !quoted) {
+                result.add(line.substring(start, i));
+                start = i + 1;
+            }
+        }
+        result.add(line.substring(start));
+
+        return result;
+    }
+
+    /**
+     * Clean the given field of the CSV file.
+     * The default value keeps its surrounding white space, every other field is trimmed.
+     *
+     * @param field  the field
+     * @param column the column of the field
+     * @return the field without quotation marks
+     */
+    private static String clean(String field, int column) {
+        String result = field.replace("\"", "");
+        return column == 1 ? result : result.trim();
+    }
+
+    /**
+     * Write the snapshot of the directives.
+     * The snapshot starts with a header of five integers: the magic number, the format version, the number of
+     * columns, of directives and of distinct strings. The string table follows as the end offset of each string in the
+     * UTF-8 bytes of all strings, then those bytes. The directives are fixed-width records holding the index of the
+     * string of each column. Every integer is a big-endian int.
+     *
+     * @param rows the fields of each directive
+     * @param out  the stream to write the snapshot to
+     * @exception IOException if the snapshot cannot be written
+     */
+    static void writeSnapshot(List<String[]> rows, OutputStream out) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        int[] records = new int[rows.size() * COLUMNS];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = strings.computeIfAbsent(rows.get(i / COLUMNS)[i % COLUMNS], s -> strings.size());
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int[] ends = new int[strings.size()];
+        int index = 0;
+        for (String string : strings.keySet()) {
+            bytes.write(string.getBytes(StandardCharsets.UTF_8));
+            ends[index++] = bytes.size();
+        }
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(COLUMNS);
+        data.writeInt(rows.size());
+        data.writeInt(strings.size());
+        for (int end : ends) {
+            data.writeInt(end);
+        }
+        bytes.writeTo(data);
+        for (int record : records) {
+            data.writeInt(record);
+        }
+        data.flush();
+    }
+}
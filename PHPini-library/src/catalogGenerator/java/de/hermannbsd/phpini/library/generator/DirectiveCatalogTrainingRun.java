@@ -0,0 +1,32 @@
+package de.hermannbsd.phpini.library.generator;
+
+import de.hermannbsd.phpini.library.DirectiveCatalog;
+import de.hermannbsd.phpini.library.PhpIniDirective;
+import de.hermannbsd.phpini.library.PhpVersion;
+
+/**
+ * Training run of the class data sharing archive of the directive catalog, at build time.
+ * The run loads the catalog and queries it once, so the archive holds every class the catalog needs and a JVM
+ * started with it does not load them again.
+ */
+public final class DirectiveCatalogTrainingRun {
+
+    /**
+     * Private constructor, the class is only used through {@link #main(String[])}.
+     */
+    private DirectiveCatalogTrainingRun() {
+    }
+
+    /**
+     * Load the catalog and query it once.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        DirectiveCatalog catalog = PhpIniDirective.getCatalog();
+        catalog.find("memory_limit");
+        catalog.findValidIn(PhpVersion.parse("8.3"));
+        catalog.complete("session.", 10);
+        catalog.search("deprecated", 10);
+    }
+}
@@ -0,0 +1,190 @@
+package de.hermannbsd.phpini.library;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Group commit replacing PHP INI files atomically.
+ * <p>Each file is written to a sibling file; the sibling files are synced to disk and renamed over their targets
+ * with an atomic move, and then each directory holding a renamed file is synced once, so the cost of the syncs is
+ * shared by all files. A crash leaves either the old or the new content, never a truncated file.</p>
+ */
+final class AtomicFileCommit {
+
+    /**
+     * Logger for the AtomicFileCommit class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(AtomicFileCommit.class);
+
+    /**
+     * Class representing the sibling file holding the new content of a file.
+     *
+     * @param temp  the sibling file, or null if nothing changed
+     * @param lines the lines of the document written, or null if the lines are not kept
+     */
+    record Sibling(@Nullable Path temp, @Nullable List<PhpIniDocumentLine> lines) {
+    }
+
+    private AtomicFileCommit() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Replace the given files atomically.
+     * <p>The content of each file is prepared and serialized while holding the lock of the file, and the lines
+     * remembered as saved are the ones serialized, so changes made while the sibling files are synced are written
+     * by the next save.</p>
+     *
+     * @param phpInis the files to replace
+     * @return the files saved
+     */
+    static @NotNull Set<PhpIni> commit(@NotNull List<? extends PhpIni> phpInis) {
+        Map<PhpIni, Sibling> siblings = new LinkedHashMap<>();
+        Set<PhpIni> result = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        try {
+            for (PhpIni phpIni : phpInis) {
+                try {
+                    synchronized (phpIni) {
+                        phpIni.prepareContent();
+                        if (phpIni.isWritable()) {
+                            siblings.put(phpIni, phpIni.writeSibling());
+                        }
+                    }
+                } catch (IOException e) {
+                    logger.error("Error saving file: {}", phpIni.getFilePath(), e);
+                }
+            }
+
+            List<Path> pending = new ArrayList<>();
+            for (Sibling sibling : siblings.values()) {
+                if (sibling.temp != null) {
+                    pending.add(sibling.temp);
+                }
+            }
+            Set<Path> synced = syncFiles(pending);
+
+            Set<Path> directories = new LinkedHashSet<>();
+            for (Map.Entry<PhpIni, Sibling> entry : siblings.entrySet()) {
+                PhpIni phpIni = entry.getKey();
+                Sibling sibling = entry.getValue();
+                try {
+                    if (sibling.temp == null) {
+                        result.add(phpIni);
+                    } else if (synced.contains(sibling.temp)) {
+                        synchronized (phpIni) {
+                            Path target = phpIni.getPath().toAbsolutePath();
+                            Files.move(sibling.temp, target, StandardCopyOption.ATOMIC_MOVE);
+                            directories.add(target.getParent());
+                            if (sibling.lines != null) {
+                                phpIni.markSaved(sibling.lines);
+                            }
+                        }
+                        result.add(phpIni);
+                    }
+                } catch (IOException e) {
+                    logger.error("Error saving file: {}", phpIni.getFilePath(), e);
+                }
+            }
+
+            for (Path directory : directories) {
+                syncDirectory(directory);
+            }
+        } finally {
+            for (Sibling sibling : siblings.values()) {
+                deleteQuietly(sibling.temp);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Create an empty sibling file of the given file with the same permissions.
+     *
+     * @param target the file
+     * @param prefix the prefix of the name of the sibling file
+     * @return the sibling file
+     * @exception IOException if the sibling file cannot be created
+     */
+    static @NotNull Path createSiblingFile(@NotNull Path target, @NotNull String prefix) throws IOException {
+        Path temp;
+
+        if (target.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            temp = Files.createTempFile(target.getParent(), prefix, ".tmp", PhpIni.FILE_ATTRIBUTES);
+            Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+        } else {
+            temp = Files.createTempFile(target.getParent(), prefix, ".tmp");
+        }
+
+        return temp;
+    }
+
+    /**
+     * Sync the given files to disk, in parallel on the common fork/join pool if there is more than one.
+     *
+     * @param files the files to sync
+     * @return the files synced successfully
+     */
+    private static Set<Path> syncFiles(List<Path> files) {
+        Set<Path> result = ConcurrentHashMap.newKeySet();
+
+        (files.size() > 1 ? files.parallelStream() : files.stream()).forEach(file -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.force(true);
+                result.add(file);
+            } catch (IOException e) {
+                logger.error("Error syncing file: {}", file, e);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Sync a directory to disk, so a rename inside it is durable.
+     * Platforms that cannot open a directory, like Windows, make renames durable on their own.
+     *
+     * @param directory the directory
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.debug("Directory {} cannot be synced", directory, e);
+        }
+    }
+
+    /**
+     * Delete a file if it exists, logging instead of throwing on failure.
+     *
+     * @param file the file, may be null
+     */
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Temporary file {} cannot be deleted", file, e);
+            }
+        }
+    }
+}
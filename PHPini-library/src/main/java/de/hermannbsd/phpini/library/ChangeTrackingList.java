@@ -0,0 +1,78 @@
+package de.hermannbsd.phpini.library;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * List reporting every change of its elements to a listener.
+ * <p>Elements are stored in the wrapped list. Each call which adds, removes or replaces elements reports one change;
+ * clearing an empty list reports none.</p>
+ *
+ * @param <E> the type of the elements
+ */
+final class ChangeTrackingList<E> extends AbstractList<E> implements RandomAccess {
+
+    /**
+     * The list holding the elements.
+     */
+    private final List<E> elements;
+    /**
+     * The listener told about changes.
+     */
+    private final Runnable listener;
+
+    /**
+     * Constructor with the list holding the elements and the listener.
+     *
+     * @param elements the list holding the elements
+     * @param listener the listener told about changes
+     */
+    ChangeTrackingList(@NotNull List<E> elements, @NotNull Runnable listener) {
+        this.elements = elements;
+        this.listener = listener;
+    }
+
+    @Override
+    public E get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E result = elements.set(index, element);
+        listener.run();
+        return result;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        elements.add(index, element);
+        modCount++;
+        listener.run();
+    }
+
+    @Override
+    public E remove(int index) {
+        E result = elements.remove(index);
+        modCount++;
+        listener.run();
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        if (!elements.isEmpty()) {
+            elements.clear();
+            modCount++;
+            listener.run();
+        }
+    }
+}
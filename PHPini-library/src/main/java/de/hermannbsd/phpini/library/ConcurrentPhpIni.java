@@ -0,0 +1,390 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIni;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe PHP INI file, to share one file between threads.
+ * <p>The sections and directives of a {@link PhpIni} are copied into {@link ConcurrentPhpIniSection}s. The list of
+ * sections has its own lock, every section has another one, so writes to different sections run in parallel. Reads
+ * of the section list are optimistic and directives are found through a concurrent index of their names, so readers
+ * never block. Directive names are unique in the whole file.</p>
+ * <p>{@link #getIni()} returns an unmodifiable snapshot of the sections. Changes are written back to the wrapped
+ * {@link PhpIni} when the file is saved, so its comments and layout are kept.</p>
+ */
+public class ConcurrentPhpIni implements IPhpIni {
+
+    /**
+     * Logger for the ConcurrentPhpIni class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentPhpIni.class);
+
+    /**
+     * The PHP INI file the sections and directives are read from and saved to.
+     */
+    private final PhpIni source;
+    /**
+     * The lock of the section list.
+     */
+    private final StampedLock lock = new StampedLock();
+    /**
+     * The sections, guarded by the lock. The array is replaced on every change, so a snapshot never changes.
+     */
+    private ConcurrentPhpIniSection[] sections = new ConcurrentPhpIniSection[0];
+    /**
+     * The first section with each lower case name.
+     */
+    private final ConcurrentMap<String, ConcurrentPhpIniSection> sectionIndex = new ConcurrentHashMap<>();
+    /**
+     * The directive with each lower case name and its section.
+     */
+    private final ConcurrentMap<String, Entry> directiveIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Class representing an indexed directive and its section.
+     */
+    static final class Entry {
+
+        /**
+         * The section of the directive.
+         */
+        private final ConcurrentPhpIniSection section;
+        /**
+         * The directive.
+         */
+        private final IPhpIniDirective directive;
+
+        /**
+         * Constructor with the section and the directive.
+         *
+         * @param section   the section of the directive
+         * @param directive the directive
+         */
+        Entry(@NotNull ConcurrentPhpIniSection section, @NotNull IPhpIniDirective directive) {
+            this.section = section;
+            this.directive = directive;
+        }
+
+        /**
+         * Get the section of the directive.
+         *
+         * @return the section
+         */
+        @NotNull ConcurrentPhpIniSection getSection() {
+            return section;
+        }
+
+        /**
+         * Get the directive.
+         *
+         * @return the directive
+         */
+        @NotNull IPhpIniDirective getDirective() {
+            return directive;
+        }
+    }
+
+    /**
+     * Constructor reading the PHP INI file at the given path.
+     *
+     * @param filePath the file path to the PHP INI file
+     * @exception IOException if the file path is invalid or cannot be created
+     */
+    public ConcurrentPhpIni(String filePath) throws IOException {
+        this(new PhpIni(filePath));
+    }
+
+    /**
+     * Constructor with the PHP INI file to share.
+     * The file should not be changed directly afterwards, only through this object.
+     *
+     * @param source the PHP INI file
+     */
+    public ConcurrentPhpIni(@NotNull PhpIni source) {
+        this.source = source;
+
+        synchronized (source) {
+            for (IPhpIniSection section : source.getIni()) {
+                ConcurrentPhpIniSection existing = sectionIndex.get(ConcurrentPhpIniSection.key(section.getName()));
+                if (existing == null) {
+                    addSection(section);
+                } else {
+                    // a section repeated in the file continues the first one
+                    for (IPhpIniDirective directive : section.getDirectives()) {
+                        existing.tryAddDirective(directive);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public String getFilePath() {
+        return source.getFilePath();
+    }
+
+    @Override
+    public void setFilePath(String filePath) {
+        source.setFilePath(filePath);
+    }
+
+    @Override
+    public String getFileName() {
+        return source.getFileName();
+    }
+
+    @Override
+    public void setFileName(String fileName) {
+        source.setFileName(fileName);
+    }
+
+    @Override
+    public String getFileNameWithoutExtension() {
+        return source.getFileNameWithoutExtension();
+    }
+
+    @Override
+    public void setFileNameWithoutExtension(String fileNameWithoutExtension) {
+        source.setFileNameWithoutExtension(fileNameWithoutExtension);
+    }
+
+    @Override
+    public String getFileExtension() {
+        return source.getFileExtension();
+    }
+
+    /**
+     * Get the content of the PHP INI file with the current sections and directives.
+     *
+     * @return the content, or null if the content is not kept
+     */
+    @Override
+    public String getFileContent() {
+        synchronized (source) {
+            syncSource();
+            return source.getFileContent();
+        }
+    }
+
+    /**
+     * Get a snapshot of the sections.
+     *
+     * @return an unmodifiable list of the sections
+     */
+    @Override
+    public List<IPhpIniSection> getIni() {
+        long stamp = lock.tryOptimisticRead();
+        ConcurrentPhpIniSection[] result = sections;
+
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = sections;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(result));
+    }
+
+    @Override
+    public boolean containsSection(String sectionName) {
+        return sectionName != null && sectionIndex.containsKey(ConcurrentPhpIniSection.key(sectionName));
+    }
+
+    @Override
+    public boolean containsDirective(String directiveName) {
+        return directiveName != null && directiveIndex.containsKey(ConcurrentPhpIniSection.key(directiveName));
+    }
+
+    /**
+     * Adds a copy of the given section and its directives to the PHP INI file.
+     * Directives whose name is already part of the file are skipped.
+     *
+     * @param section the section to add
+     * @return true if the section was added successfully, false otherwise
+     */
+    @Override
+    public boolean addSection(IPhpIniSection section) {
+        boolean result = false;
+
+        if (section != null && section.getName() != null && !section.getName().isEmpty()) {
+            long stamp = lock.writeLock();
+            try {
+                ConcurrentPhpIniSection added = new ConcurrentPhpIniSection(section.getName(), directiveIndex);
+                if (sectionIndex.putIfAbsent(ConcurrentPhpIniSection.key(section.getName()), added) == null) {
+                    for (IPhpIniDirective directive : section.getDirectives()) {
+                        added.tryAddDirective(directive);
+                    }
+                    ConcurrentPhpIniSection[] grown = Arrays.copyOf(sections, sections.length + 1);
+                    grown[sections.length] = added;
+                    sections = grown;
+                    result = true;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+
+            if (result) {
+                logger.info("Section {} added to PHP INI file", section.getName());
+            } else {
+                logger.warn("Section {} already exists in PHP INI file", section.getName());
+            }
+        } else {
+            logger.error(PhpIni.SECTION_IS_NULL_OR_EMPTY);
+        }
+
+        return result;
+    }
+
+    @Override
+    public boolean removeSection(IPhpIniSection section) {
+        return section != null && removeSection(section.getName());
+    }
+
+    @Override
+    public boolean removeSection(String sectionName) {
+        ConcurrentPhpIniSection removed = null;
+
+        if (sectionName != null) {
+            long stamp = lock.writeLock();
+            try {
+                removed = sectionIndex.remove(ConcurrentPhpIniSection.key(sectionName));
+                if (removed != null) {
+                    List<ConcurrentPhpIniSection> remaining = new ArrayList<>(Arrays.asList(sections));
+                    remaining.remove(removed);
+                    sections = remaining.toArray(new ConcurrentPhpIniSection[0]);
+                    removed.detach();
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        if (removed != null) {
+            logger.info(PhpIni.SECTION_REMOVED_FROM_PHP_INI_FILE, sectionName);
+        } else {
+            logger.warn(PhpIni.SECTION_NOT_FOUND_IN_PHP_INI_FILE, sectionName);
+        }
+
+        return removed != null;
+    }
+
+    /**
+     * Adds a given directive to its section of the PHP INI file.
+     *
+     * @param directive the directive to add
+     * @return true if the directive was added successfully, false otherwise
+     */
+    @Override
+    public boolean addDirective(IPhpIniDirective directive) {
+        boolean result = false;
+
+        if (directive != null && !directive.getName().isEmpty() && directive.getSection() != null) {
+            ConcurrentPhpIniSection section = sectionIndex.get(ConcurrentPhpIniSection.key(directive.getSection()));
+            result = section != null && section.tryAddDirective(directive);
+        } else {
+            logger.error("Directive is null or empty");
+        }
+
+        return result;
+    }
+
+    /**
+     * Updates a directive of the PHP INI file.
+     * The directive is replaced by an updated copy, so directives read before keep their value.
+     *
+     * @param name  the name of the directive
+     * @param value the new value of the directive
+     * @return true if the directive was updated successfully, false otherwise
+     */
+    @Override
+    public boolean updateDirective(String name, String value) {
+        Entry entry = name == null ? null : directiveIndex.get(ConcurrentPhpIniSection.key(name));
+        return entry != null && entry.getSection().updateValue(name, value);
+    }
+
+    @Override
+    public boolean removeDirective(@NotNull IPhpIniDirective directive) {
+        return removeDirective(directive.getName());
+    }
+
+    @Override
+    public boolean removeDirective(String name) {
+        Entry entry = name == null ? null : directiveIndex.get(ConcurrentPhpIniSection.key(name));
+        boolean result = entry != null && entry.getSection().tryRemoveDirective(name);
+
+        if (!result) {
+            logger.warn(PhpIni.DIRECTIVE_NOT_FOUND_IN_PHP_INI_FILE, name);
+        }
+
+        return result;
+    }
+
+    @Override
+    public @Nullable IPhpIniDirective getDirective(String name) {
+        Entry entry = name == null ? null : directiveIndex.get(ConcurrentPhpIniSection.key(name));
+        return entry == null ? null : entry.getDirective();
+    }
+
+    /**
+     * Saves the PHP INI file with the current sections and directives.
+     * The sections are read while none of them changes, so the file holds a consistent state.
+     *
+     * @return true if the file was saved successfully, false otherwise
+     */
+    @Override
+    public boolean save() {
+        synchronized (source) {
+            syncSource();
+            return source.save();
+        }
+    }
+
+    /**
+     * Bring the wrapped PHP INI file in line with the sections and directives. Called while holding its monitor.
+     * The read locks of all sections are taken one after the other and released in reverse order, so the copies
+     * are taken while none of the sections changes.
+     */
+    private void syncSource() {
+        List<IPhpIniSection> snapshot = new ArrayList<>();
+        long stamp = lock.readLock();
+        try {
+            ConcurrentPhpIniSection[] locked = sections;
+            long[] stamps = new long[locked.length];
+            int count = 0;
+            try {
+                for (; count < locked.length; count++) {
+                    stamps[count] = locked[count].readLock();
+                }
+                for (ConcurrentPhpIniSection section : locked) {
+                    snapshot.add(new PhpIniSection(section.getName(), new ArrayList<>(section.getDirectives())));
+                }
+            } finally {
+                while (count > 0) {
+                    count--;
+                    locked[count].unlockRead(stamps[count]);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        source.applySections(snapshot);
+    }
+}
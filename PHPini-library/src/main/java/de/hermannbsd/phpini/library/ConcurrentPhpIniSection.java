@@ -0,0 +1,369 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe PHP INI section.
+ * <p>Every section has its own lock, so writes to different sections run in parallel. Reads are optimistic: they
+ * read the directives without locking and only take the read lock if a write happened meanwhile, so readers do not
+ * block each other and usually not writers either.</p>
+ * <p>{@link #getDirectives()} returns an unmodifiable snapshot; the section is changed through its methods only. An
+ * update replaces the directive with an updated copy, so a directive once handed out never changes.</p>
+ */
+public class ConcurrentPhpIniSection implements IPhpIniSection {
+
+    /**
+     * Logger for the ConcurrentPhpIniSection class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentPhpIniSection.class);
+
+    /**
+     * The initial capacity of the directive array.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The name of the section.
+     */
+    private final String sectionName;
+    /**
+     * The lock of the section.
+     */
+    private final StampedLock lock = new StampedLock();
+    /**
+     * The index of the directives of the PHP INI file the section belongs to, or null for a section on its own.
+     */
+    private final ConcurrentMap<String, ConcurrentPhpIni.Entry> index;
+    /**
+     * The directives in the section, guarded by the lock.
+     */
+    private IPhpIniDirective[] directives = new IPhpIniDirective[INITIAL_CAPACITY];
+    /**
+     * The number of directives in the section, guarded by the lock.
+     */
+    private int size;
+    /**
+     * Was the section removed from its PHP INI file? Guarded by the lock.
+     */
+    private boolean removed;
+
+    /**
+     * Constructor with a given section name.
+     *
+     * @param sectionName the given section name
+     */
+    public ConcurrentPhpIniSection(@NotNull String sectionName) {
+        this(sectionName, null);
+    }
+
+    /**
+     * Constructor with a given section name and the directive index of the PHP INI file of the section.
+     * Directive names are unique in the whole file then.
+     *
+     * @param sectionName the given section name
+     * @param index       the directive index of the PHP INI file, or null
+     */
+    ConcurrentPhpIniSection(@NotNull String sectionName, @Nullable ConcurrentMap<String, ConcurrentPhpIni.Entry> index) {
+        this.sectionName = sectionName;
+        this.index = index;
+    }
+
+    @Override
+    public String getName() {
+        return sectionName;
+    }
+
+    /**
+     * Get a snapshot of the directives in the section.
+     *
+     * @return an unmodifiable list of the directives
+     */
+    @Override
+    public List<IPhpIniDirective> getDirectives() {
+        long stamp = lock.tryOptimisticRead();
+        IPhpIniDirective[] result = copy(directives, size);
+
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = copy(directives, size);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(result));
+    }
+
+    @Override
+    public @Nullable IPhpIniDirective getDirectiveByName(String directiveName) {
+        IPhpIniDirective result = null;
+
+        if (directiveName != null) {
+            long stamp = lock.tryOptimisticRead();
+            result = find(directives, size, directiveName);
+
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    result = find(directives, size, directiveName);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+        }
+
+        logger.trace("Directive {} found in section {}: {}", directiveName, sectionName, result != null);
+
+        return result;
+    }
+
+    @Override
+    public boolean containsDirectiveByName(@NotNull String directiveName) {
+        return getDirectiveByName(directiveName) != null;
+    }
+
+    @Override
+    public boolean tryAddDirective(@NotNull IPhpIniDirective directive) {
+        boolean result = false;
+        long stamp = lock.writeLock();
+
+        try {
+            if (!removed && indexOf(directive.getName()) < 0 && claim(directive)) {
+                append(directive);
+                result = true;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        if (result) {
+            logger.info("Directive {} added to section {}", directive.getName(), sectionName);
+        } else {
+            logger.info("Directive {} already exists or section {} was removed", directive.getName(), sectionName);
+        }
+
+        return result;
+    }
+
+    /**
+     * Update the directive with the given name in the section or add it if the section does not contain it.
+     *
+     * @param directive the directive with the new value
+     * @return true if the directive was updated or added, false otherwise
+     */
+    @Override
+    public boolean tryUpdateDirective(@NotNull IPhpIniDirective directive) {
+        return updateValue(directive.getName(), directive.getValue()) || tryAddDirective(directive);
+    }
+
+    /**
+     * Replace the directive with the given name by a copy with the given value.
+     *
+     * @param directiveName the name of the directive
+     * @param value         the new value
+     * @return true if the section contains the directive, false otherwise
+     */
+    boolean updateValue(@NotNull String directiveName, String value) {
+        boolean result = false;
+        long stamp = lock.writeLock();
+
+        try {
+            int position = removed ? -1 : indexOf(directiveName);
+            if (position >= 0) {
+                PhpIniDirective updated = new PhpIniDirective(directives[position]);
+                updated.setValue(value);
+                directives[position] = updated;
+                if (index != null) {
+                    index.put(key(updated.getName()), new ConcurrentPhpIni.Entry(this, updated));
+                }
+                result = true;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        if (result) {
+            logger.info("Directive {} updated in section {}", directiveName, sectionName);
+        }
+
+        return result;
+    }
+
+    @Override
+    public boolean tryRemoveDirective(@NotNull IPhpIniDirective directive) {
+        return tryRemoveDirective(directive.getName());
+    }
+
+    @Override
+    public boolean tryRemoveDirective(@NotNull String directiveName) {
+        boolean result = false;
+        long stamp = lock.writeLock();
+
+        try {
+            int position = indexOf(directiveName);
+            if (position >= 0) {
+                release(directives[position]);
+                System.arraycopy(directives, position + 1, directives, position, size - position - 1);
+                directives[--size] = null;
+                result = true;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        if (result) {
+            logger.info("Directive {} removed from section {}", directiveName, sectionName);
+        } else {
+            logger.info("Directive {} not found in section {}", directiveName, sectionName);
+        }
+
+        return result;
+    }
+
+    /**
+     * Mark the section as removed from its PHP INI file and release the names of its directives.
+     * The section keeps its directives but cannot be changed any more.
+     */
+    void detach() {
+        long stamp = lock.writeLock();
+
+        try {
+            removed = true;
+            for (int i = 0; i < size; i++) {
+                release(directives[i]);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Take the read lock of the section, so the section does not change until {@link #unlockRead(long)} is called.
+     *
+     * @return the stamp to release the lock with
+     */
+    long readLock() {
+        return lock.readLock();
+    }
+
+    /**
+     * Release the read lock of the section taken by {@link #readLock()}.
+     *
+     * @param stamp the stamp returned by {@link #readLock()}
+     */
+    void unlockRead(long stamp) {
+        lock.unlockRead(stamp);
+    }
+
+    /**
+     * Claim the name of the given directive in the index of the PHP INI file.
+     *
+     * @param directive the directive
+     * @return true if no other directive of the file has the name, false otherwise
+     */
+    private boolean claim(@NotNull IPhpIniDirective directive) {
+        return index == null || index.putIfAbsent(key(directive.getName()), new ConcurrentPhpIni.Entry(this, directive)) == null;
+    }
+
+    /**
+     * Release the name of the given directive in the index of the PHP INI file.
+     *
+     * @param directive the directive of the section
+     */
+    private void release(@NotNull IPhpIniDirective directive) {
+        if (index != null) {
+            index.computeIfPresent(key(directive.getName()), (name, entry) -> entry.getSection() == this ? null : entry);
+        }
+    }
+
+    /**
+     * Append a directive, growing the array if needed. Called with the write lock held.
+     *
+     * @param directive the directive
+     */
+    private void append(@NotNull IPhpIniDirective directive) {
+        if (size == directives.length) {
+            directives = Arrays.copyOf(directives, size * 2);
+        }
+        directives[size++] = directive;
+    }
+
+    /**
+     * Get the position of the directive with the given name, ignoring case. Called with a lock held.
+     *
+     * @param directiveName the name of the directive
+     * @return the position of the directive or -1 if the section does not contain it
+     */
+    private int indexOf(@NotNull String directiveName) {
+        for (int i = 0; i < size; i++) {
+            if (directives[i].getName().equalsIgnoreCase(directiveName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the directive with the given name, ignoring case.
+     * The directives may be read during a write; the result is only used if the read is validated afterwards.
+     *
+     * @param array         the directives
+     * @param count         the number of directives
+     * @param directiveName the name of the directive
+     * @return the directive or null if not found
+     */
+    private static @Nullable IPhpIniDirective find(IPhpIniDirective[] array, int count, @NotNull String directiveName) {
+        for (int i = 0, end = Math.min(count, array.length); i < end; i++) {
+            IPhpIniDirective directive = array[i];
+            if (directive != null && directiveName.equalsIgnoreCase(directive.getName())) {
+                return directive;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copy the directives.
+     * The directives may be read during a write; the result is only used if the read is validated afterwards.
+     *
+     * @param array the directives
+     * @param count the number of directives
+     * @return the copy
+     */
+    private static IPhpIniDirective @NotNull [] copy(IPhpIniDirective[] array, int count) {
+        return Arrays.copyOf(array, Math.max(0, Math.min(count, array.length)));
+    }
+
+    /**
+     * Get the key of the given name in the index.
+     *
+     * @param name the name
+     * @return the name in lower case
+     */
+    static @NotNull String key(@NotNull String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Section: ").append(sectionName).append("\n");
+        for (IPhpIniDirective directive : getDirectives()) {
+            sb.append(directive.getName()).append(" = ").append(directive.getValue()).append("\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,322 @@
+package de.hermannbsd.phpini.library;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class representing the catalog of the known PHP INI directives.
+ * The catalog is immutable and indexed by the case-insensitive directive name, so a lookup does not depend on the
+ * number of directives in the catalog.
+ */
+public final class DirectiveCatalog {
+
+    /**
+     * Logger for the DirectiveCatalog class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(DirectiveCatalog.class);
+
+    /**
+     * The directives of the catalog in the order they were given.
+     */
+    private final List<DirectiveDefinition> directives;
+    /**
+     * The case-insensitive hash of the name of each directive.
+     */
+    private final int[] hashes;
+    /**
+     * The open addressing table with the index of a directive plus one in each used slot and 0 in each free slot.
+     * The table is at most half full, so a lookup usually needs a single probe.
+     */
+    private final int[] table;
+    /**
+     * The index of the PHP versions the directives are valid in.
+     */
+    private final DirectiveVersionIndex versionIndex;
+    /**
+     * The index of the directive names for prefix and namespace queries.
+     */
+    private final NamePrefixIndex<DirectiveDefinition> prefixIndex;
+    /**
+     * The full-text index of the descriptions and changelogs, loaded by the first search.
+     */
+    private volatile DirectiveTextIndex textIndex;
+    /**
+     * The number of lookups which found a directive.
+     */
+    private final LongAdder hits = new LongAdder();
+    /**
+     * The number of lookups which found no directive.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor with the directives of the catalog.
+     * If several directives have the same name, ignoring case, only the first one is kept.
+     *
+     * @param directives the directives of the catalog
+     */
+    public DirectiveCatalog(@NotNull Collection<? extends DirectiveDefinition> directives) {
+        DirectiveDefinition[] entries = new DirectiveDefinition[directives.size()];
+        int[] entryHashes = new int[entries.length];
+        int[] slots = new int[tableSize(entries.length)];
+        int count = 0;
+
+        for (DirectiveDefinition directive : directives) {
+            int hash = hash(directive.getName());
+            int found = find(slots, Arrays.asList(entries), entryHashes, directive.getName(), hash);
+            if (found < 0) {
+                entries[count] = directive;
+                entryHashes[count] = hash;
+                count++;
+                slots[-found - 1] = count;
+            } else if (logger.isWarnEnabled()) {
+                logger.warn("Duplicate directive in catalog: {}", directive.getName());
+            }
+        }
+
+        this.directives = List.of(Arrays.copyOf(entries, count));
+        this.hashes = Arrays.copyOf(entryHashes, count);
+        this.table = slots;
+        this.versionIndex = new DirectiveVersionIndex(this.directives);
+        this.prefixIndex = new NamePrefixIndex<>(this.directives, DirectiveDefinition::getName);
+    }
+
+    /**
+     * Get the directive with the given name, ignoring case.
+     *
+     * @param name the name of the directive
+     * @return the directive or null if the catalog has no directive with the name
+     */
+    public @Nullable DirectiveDefinition find(@Nullable String name) {
+        DirectiveDefinition result = null;
+
+        if (name != null) {
+            int index = find(table, directives, hashes, name, hash(name));
+            if (index >= 0) {
+                result = directives.get(index);
+            }
+        }
+        if (result != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+
+        return result;
+    }
+
+    /**
+     * Check if the catalog has a directive with the given name, ignoring case.
+     *
+     * @param name the name of the directive
+     * @return true if the catalog has the directive, false otherwise
+     */
+    public boolean contains(@Nullable String name) {
+        return find(name) != null;
+    }
+
+    /**
+     * Get the directives whose name starts with the given prefix, ignoring case.
+     *
+     * @param prefix the prefix
+     * @return an unmodifiable list of the directives in the order of their names
+     */
+    public @NotNull List<DirectiveDefinition> findByPrefix(@NotNull String prefix) {
+        return prefixIndex.findByPrefix(prefix);
+    }
+
+    /**
+     * Get the directives in the given namespace, like {@code opcache} for {@code opcache.enable}, ignoring case.
+     *
+     * @param namespace the namespace without the separator
+     * @return an unmodifiable list of the directives in the order of their names
+     */
+    public @NotNull List<DirectiveDefinition> findByNamespace(@NotNull String namespace) {
+        return prefixIndex.findByNamespace(namespace);
+    }
+
+    /**
+     * Get the best completions of the given prefix, the shortest directive names starting with it first.
+     *
+     * @param prefix the prefix
+     * @param limit  the maximum number of completions
+     * @return the names of the completions, best first
+     */
+    public @NotNull List<String> complete(@NotNull String prefix, int limit) {
+        return prefixIndex.complete(prefix, limit);
+    }
+
+    /**
+     * Get the distinct namespaces of the directive names.
+     *
+     * @return an unmodifiable list of the namespaces in lower case and ascending order
+     */
+    public @NotNull List<String> getNamespaces() {
+        return prefixIndex.getNamespaces();
+    }
+
+    /**
+     * Get the directives whose description or changelog best match the given words, like {@code deprecated 8.3}.
+     * The full-text index is loaded by the first search.
+     *
+     * @param query the words to search for
+     * @param limit the maximum number of hits
+     * @return the hits, best first
+     */
+    public @NotNull List<DirectiveTextIndex.Hit> search(@NotNull String query, int limit) {
+        return getTextIndex().search(query, limit);
+    }
+
+    /**
+     * Get the full-text index of the descriptions and changelogs, loading it on first use.
+     *
+     * @return the index
+     */
+    @NotNull DirectiveTextIndex getTextIndex() {
+        DirectiveTextIndex result = textIndex;
+        if (result == null) {
+            synchronized (this) {
+                result = textIndex;
+                if (result == null) {
+                    result = DirectiveTextIndex.load(this);
+                    textIndex = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the directives valid in the given PHP version.
+     *
+     * @param version the PHP version
+     * @return an unmodifiable list of the valid directives in catalog order
+     */
+    public @NotNull List<DirectiveDefinition> findValidIn(@NotNull PhpVersion version) {
+        return versionIndex.findValidIn(version);
+    }
+
+    /**
+     * Check if the directive with the given name is valid in the given PHP version.
+     *
+     * @param name    the name of the directive
+     * @param version the PHP version
+     * @return true if the catalog has the directive and it is valid in the version, false otherwise
+     */
+    public boolean isValidIn(@Nullable String name, @NotNull PhpVersion version) {
+        DirectiveDefinition directive = find(name);
+        return directive != null && directive.isValidIn(version);
+    }
+
+    /**
+     * Get the directives of the catalog.
+     *
+     * @return an unmodifiable list of the directives in the order they were loaded
+     */
+    public @NotNull List<DirectiveDefinition> getDirectives() {
+        return directives;
+    }
+
+    /**
+     * Get the number of directives in the catalog.
+     *
+     * @return the number of directives
+     */
+    public int size() {
+        return directives.size();
+    }
+
+    /**
+     * Check if the catalog has no directives.
+     *
+     * @return true if the catalog is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return directives.isEmpty();
+    }
+
+    /**
+     * Get the number of lookups which found a directive.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups which found no directive.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Reset the hit and miss counts.
+     */
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Find the slot of the given name in the table.
+     *
+     * @param slots   the open addressing table
+     * @param entries the directives referenced by the table
+     * @param hashes  the hashes of the directives
+     * @param name    the name to find
+     * @param hash    the case-insensitive hash of the name
+     * @return the index of the directive, or the negative free slot minus one if the name is not in the table
+     */
+    private static int find(int @NotNull [] slots, @NotNull List<? extends DirectiveDefinition> entries,
+                            int @NotNull [] hashes, @NotNull String name, int hash) {
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+
+        while (slots[slot] != 0) {
+            int index = slots[slot] - 1;
+            if (hashes[index] == hash && entries.get(index).getName().equalsIgnoreCase(name)) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return -slot - 1;
+    }
+
+    /**
+     * Get the size of the table for the given number of directives.
+     *
+     * @param count the number of directives
+     * @return a power of two at least twice the number of directives
+     */
+    private static int tableSize(int count) {
+        return Math.max(2, Integer.highestOneBit(Math.max(1, count) * 2 - 1) << 1);
+    }
+
+    /**
+     * Get the case-insensitive hash of the given name.
+     * Names which are equal ignoring case have the same hash.
+     *
+     * @param name the name
+     * @return the hash of the name
+     */
+    static int hash(@NotNull CharSequence name) {
+        int hash = 0;
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+        }
+        // spread the high bits, the table only uses the low ones
+        return hash ^ (hash >>> 16);
+    }
+}
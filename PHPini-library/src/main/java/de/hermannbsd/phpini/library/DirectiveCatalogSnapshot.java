@@ -0,0 +1,182 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.enums.DirectiveChangeable;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reader of the binary catalog snapshot generated from the CSV file at build time.
+ * The snapshot holds a table of the distinct strings of the catalog and a fixed-width record per directive with the
+ * index of the string of each column, so it is read in one shot and every string is decoded once, however many
+ * directives share it. See {@code DirectiveCatalogGenerator} for the layout.
+ * <p>This saves splitting and cleaning the CSV file, not the work per directive: a definition is still built for
+ * every record, as the catalog indexes all of them, so loading takes time in the number of directives.</p>
+ */
+final class DirectiveCatalogSnapshot {
+
+    /**
+     * Logger for the DirectiveCatalogSnapshot class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(DirectiveCatalogSnapshot.class);
+
+    /**
+     * The name of the snapshot resource.
+     */
+    static final String RESOURCE = "phpini_directives.bin";
+
+    /**
+     * The magic number at the start of a snapshot.
+     */
+    private static final int MAGIC = 0x50494443;
+    /**
+     * The version of the snapshot format.
+     */
+    private static final int FORMAT_VERSION = 1;
+    /**
+     * The number of columns of a record: name, default value, type, changeable, changelog, description, minimum and
+     * maximum version.
+     */
+    private static final int COLUMNS = 8;
+
+    private DirectiveCatalogSnapshot() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Load the directives from the snapshot resource.
+     *
+     * @return the directives in the order of the CSV file, empty if the snapshot cannot be read
+     */
+    static @NotNull List<DirectiveDefinition> load() {
+        List<DirectiveDefinition> result = List.of();
+
+        try (InputStream in = DirectiveCatalogSnapshot.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                if (logger.isErrorEnabled()) {
+                    logger.error("Directive catalog snapshot not found: {}", RESOURCE);
+                }
+            } else {
+                result = read(ByteBuffer.wrap(in.readAllBytes()));
+            }
+        } catch (IOException e) {
+            if (logger.isErrorEnabled()) {
+                logger.error("Error loading the directive catalog snapshot", e);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Load the directives from the given snapshot file by mapping it into memory.
+     *
+     * @param file the snapshot file
+     * @return the directives in the order of the CSV file
+     * @exception IOException if the file cannot be read or is no valid snapshot
+     */
+    static @NotNull List<DirectiveDefinition> map(@NotNull Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Read the directives from the given snapshot.
+     *
+     * @param buffer the snapshot, read from its position
+     * @return the directives in the order of the CSV file
+     * @exception IOException if the buffer holds no valid snapshot
+     */
+    static @NotNull List<DirectiveDefinition> read(@NotNull ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION || buffer.getInt() != COLUMNS) {
+                throw new IOException("Unsupported directive catalog snapshot");
+            }
+            int size = buffer.getInt();
+            String[] strings = readStrings(buffer, buffer.getInt());
+            PhpVersion[] versions = new PhpVersion[strings.length];
+
+            int[] records = new int[size * COLUMNS];
+            buffer.asIntBuffer().get(records);
+            List<DirectiveDefinition> result = new ArrayList<>(size);
+            for (int i = 0; i < records.length; i += COLUMNS) {
+                result.add(new DirectiveDefinition(string(strings, records[i]), string(strings, records[i + 1]),
+                        string(strings, records[i + 2]), string(strings, records[i + 5]),
+                        string(strings, records[i + 4]), DirectiveChangeable.valueOf(string(strings, records[i + 3])),
+                        version(strings, versions, records[i + 6]), version(strings, versions, records[i + 7])));
+            }
+
+            return result;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException
+                 | IllegalArgumentException e) {
+            throw new IOException("Invalid directive catalog snapshot", e);
+        }
+    }
+
+    /**
+     * Read the string table.
+     *
+     * @param buffer the snapshot, positioned after the header
+     * @param count  the number of strings
+     * @return the strings, the buffer is positioned after the table
+     */
+    private static @NotNull String[] readStrings(@NotNull ByteBuffer buffer, int count) {
+        int[] ends = new int[count];
+        buffer.asIntBuffer().get(ends);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+
+        byte[] bytes = new byte[count == 0 ? 0 : ends[count - 1]];
+        buffer.get(bytes);
+        String[] result = new String[count];
+        for (int i = 0, start = 0; i < count; start = ends[i], i++) {
+            result[i] = new String(bytes, start, ends[i] - start, StandardCharsets.UTF_8);
+        }
+
+        return result;
+    }
+
+    /**
+     * Get a string of the table.
+     *
+     * @param strings the string table
+     * @param index   the index of the string
+     * @return the string
+     * @exception IOException if the index is out of the table
+     */
+    private static @NotNull String string(@NotNull String[] strings, int index) throws IOException {
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("Invalid string index in directive catalog snapshot: " + index);
+        }
+        return strings[index];
+    }
+
+    /**
+     * Get the version of a string of the table, parsing each distinct version once.
+     *
+     * @param strings  the string table
+     * @param versions the versions parsed so far, by string index
+     * @param index    the index of the string
+     * @return the version or null if the string is empty
+     * @exception IOException if the index is out of the table
+     */
+    private static PhpVersion version(@NotNull String[] strings, @NotNull PhpVersion[] versions, int index)
+            throws IOException {
+        String version = string(strings, index);
+        if (versions[index] == null && !version.isEmpty()) {
+            versions[index] = PhpVersion.parse(version);
+        }
+        return versions[index];
+    }
+}
@@ -0,0 +1,213 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.enums.DirectiveChangeable;
+import de.hermannbsd.phpini.library.enums.PhpValueType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Class representing the definition of a PHP INI directive in the catalog.
+ * A definition is immutable and shared by every directive with its name, in every parsed file; the directives only
+ * keep their own values.
+ */
+public final class DirectiveDefinition {
+
+    /**
+     * The definition of directives which are not in the catalog.
+     */
+    static final DirectiveDefinition UNKNOWN = new DirectiveDefinition("", "", PhpIniDirective.PHP_STRING, "", "",
+            DirectiveChangeable.INI_SYSTEM, null, null);
+
+    /**
+     * The name of the directive.
+     */
+    private final String name;
+    /**
+     * The default value of the directive.
+     */
+    private final String defaultValue;
+    /**
+     * The PHP type name of the directive.
+     */
+    private final String type;
+    /**
+     * The value type of the directive.
+     */
+    private final PhpValueType valueType;
+    /**
+     * The description of the directive.
+     */
+    private final String description;
+    /**
+     * The changelog of the directive.
+     */
+    private final String changelog;
+    /**
+     * The changeable type of the directive.
+     */
+    private final DirectiveChangeable directiveChangeable;
+    /**
+     * The first PHP version the directive is valid in, or null.
+     */
+    private final PhpVersion minVersion;
+    /**
+     * The first PHP version the directive is no longer valid in, or null.
+     */
+    private final PhpVersion maxVersion;
+
+    /**
+     * Constructor with every part of the definition.
+     *
+     * @param name         the name of the directive
+     * @param defaultValue the default value of the directive
+     * @param type         the PHP type name of the directive
+     * @param description  the description of the directive
+     * @param changelog    the changelog of the directive
+     * @param changeable   the changeable type of the directive
+     * @param minVersion   the first PHP version the directive is valid in, or null
+     * @param maxVersion   the first PHP version the directive is no longer valid in, or null
+     */
+    public DirectiveDefinition(@NotNull String name, @NotNull String defaultValue, @NotNull String type,
+                               @NotNull String description, @NotNull String changelog,
+                               @NotNull DirectiveChangeable changeable, @Nullable PhpVersion minVersion,
+                               @Nullable PhpVersion maxVersion) {
+        this.name = name;
+        this.defaultValue = defaultValue;
+        this.type = type;
+        this.valueType = PhpIniDirective.getValueTypeByName(type);
+        this.description = description;
+        this.changelog = changelog;
+        this.directiveChangeable = changeable;
+        this.minVersion = minVersion;
+        this.maxVersion = maxVersion;
+    }
+
+    /**
+     * Get the name of the directive.
+     *
+     * @return the name
+     */
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * Get the default value of the directive.
+     *
+     * @return the default value, empty if there is none
+     */
+    public @NotNull String getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Get the PHP type name of the directive.
+     *
+     * @return the type name
+     */
+    public @NotNull String getType() {
+        return type;
+    }
+
+    /**
+     * Get the value type of the directive.
+     *
+     * @return the value type
+     */
+    @NotNull PhpValueType getValueType() {
+        return valueType;
+    }
+
+    /**
+     * Get the description of the directive.
+     *
+     * @return the description, empty if there is none
+     */
+    public @NotNull String getDescription() {
+        return description;
+    }
+
+    /**
+     * Get the changelog of the directive.
+     *
+     * @return the changelog, empty if there is none
+     */
+    public @NotNull String getChangelog() {
+        return changelog;
+    }
+
+    /**
+     * Gets where the directive can be changed.
+     *
+     * @return the changeable type
+     */
+    public @NotNull DirectiveChangeable getDirectiveChangeable() {
+        return directiveChangeable;
+    }
+
+    /**
+     * Get the first PHP version the directive is valid in.
+     *
+     * @return the minimum version, inclusive, or null if there is no lower bound
+     */
+    public @Nullable PhpVersion getMinVersion() {
+        return minVersion;
+    }
+
+    /**
+     * Get the first PHP version the directive is no longer valid in.
+     *
+     * @return the maximum version, exclusive, or null if there is no upper bound
+     */
+    public @Nullable PhpVersion getMaxVersion() {
+        return maxVersion;
+    }
+
+    /**
+     * Check if the directive is valid in the given PHP version.
+     *
+     * @param version the PHP version
+     * @return true if the version is within the bounds of the directive, false otherwise
+     */
+    public boolean isValidIn(@NotNull PhpVersion version) {
+        return DirectiveVersionIndex.isValidIn(minVersion, maxVersion, version);
+    }
+
+    /**
+     * Get a copy of the definition with another description.
+     *
+     * @param description the description
+     * @return the new definition
+     */
+    @NotNull DirectiveDefinition withDescription(@NotNull String description) {
+        return new DirectiveDefinition(name, defaultValue, type, description, changelog, directiveChangeable,
+                minVersion, maxVersion);
+    }
+
+    /**
+     * Get a copy of the definition with another changelog.
+     *
+     * @param changelog the changelog
+     * @return the new definition
+     */
+    @NotNull DirectiveDefinition withChangelog(@NotNull String changelog) {
+        return new DirectiveDefinition(name, defaultValue, type, description, changelog, directiveChangeable,
+                minVersion, maxVersion);
+    }
+
+    /**
+     * Get a copy of the definition with another changeable type.
+     *
+     * @param changeable the changeable type
+     * @return the new definition
+     */
+    @NotNull DirectiveDefinition withDirectiveChangeable(@NotNull DirectiveChangeable changeable) {
+        return new DirectiveDefinition(name, defaultValue, type, description, changelog, changeable,
+                minVersion, maxVersion);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + type + ", default: " + defaultValue + ")";
+    }
+}
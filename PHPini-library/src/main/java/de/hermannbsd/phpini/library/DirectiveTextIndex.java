@@ -0,0 +1,410 @@
+package de.hermannbsd.phpini.library;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Full-text index over the descriptions and changelogs of the directives of a catalog.
+ * Each term maps to the list of directives containing it, with the number of occurrences; queries are ranked
+ * with BM25. The index is immutable and can be written to a file, so it does not have to be built at runtime;
+ * {@code DirectiveTextIndexGenerator} writes the index of the bundled catalog at build time.
+ */
+public final class DirectiveTextIndex {
+
+    /**
+     * Logger for the DirectiveTextIndex class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(DirectiveTextIndex.class);
+
+    /**
+     * The name of the resource holding the persisted index of the bundled catalog.
+     */
+    static final String INDEX_RESOURCE = "phpini_directives.idx";
+
+    /**
+     * The magic number at the start of a persisted index.
+     */
+    private static final int MAGIC = 0x50494458;
+    /**
+     * The version of the format of a persisted index.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The BM25 parameter saturating the term frequency.
+     */
+    private static final double K1 = 1.2;
+    /**
+     * The BM25 parameter normalizing the document length.
+     */
+    private static final double B = 0.75;
+
+    /**
+     * The catalog the index belongs to.
+     */
+    private final DirectiveCatalog catalog;
+    /**
+     * The index of each term in the posting arrays.
+     */
+    private final Map<String, Integer> terms;
+    /**
+     * The directives containing each term, in ascending order of their index in the catalog.
+     */
+    private final int[][] postings;
+    /**
+     * The number of occurrences of each term in each directive of its postings.
+     */
+    private final int[][] frequencies;
+    /**
+     * The number of terms of each directive.
+     */
+    private final int[] lengths;
+    /**
+     * The average number of terms of a directive.
+     */
+    private final double averageLength;
+
+    /**
+     * Class representing a directive found by a query.
+     */
+    public static final class Hit {
+
+        /**
+         * The found directive.
+         */
+        private final DirectiveDefinition definition;
+        /**
+         * The BM25 score of the directive.
+         */
+        private final double score;
+
+        /**
+         * Constructor with the found directive and its score.
+         *
+         * @param definition the found directive
+         * @param score      the score of the directive
+         */
+        Hit(@NotNull DirectiveDefinition definition, double score) {
+            this.definition = definition;
+            this.score = score;
+        }
+
+        /**
+         * Get the found directive.
+         *
+         * @return the definition of the directive
+         */
+        public @NotNull DirectiveDefinition getDefinition() {
+            return definition;
+        }
+
+        /**
+         * Get the score of the directive, higher is better.
+         *
+         * @return the BM25 score
+         */
+        public double getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return definition.getName() + " (" + score + ")";
+        }
+    }
+
+    /**
+     * Constructor with the parts of the index.
+     *
+     * @param catalog     the catalog
+     * @param terms       the index of each term
+     * @param postings    the directives containing each term
+     * @param frequencies the number of occurrences of each term in each of its directives
+     * @param lengths     the number of terms of each directive
+     */
+    private DirectiveTextIndex(@NotNull DirectiveCatalog catalog, @NotNull Map<String, Integer> terms,
+                               int @NotNull [] @NotNull [] postings, int @NotNull [] @NotNull [] frequencies,
+                               int @NotNull [] lengths) {
+        this.catalog = catalog;
+        this.terms = terms;
+        this.postings = postings;
+        this.frequencies = frequencies;
+        this.lengths = lengths;
+
+        long total = 0;
+        for (int length : lengths) {
+            total += length;
+        }
+        this.averageLength = lengths.length == 0 ? 0 : Math.max(1.0, (double) total / lengths.length);
+    }
+
+    /**
+     * Build the index of the given catalog.
+     *
+     * @param catalog the catalog
+     * @return the index
+     */
+    static @NotNull DirectiveTextIndex build(@NotNull DirectiveCatalog catalog) {
+        List<DirectiveDefinition> directives = catalog.getDirectives();
+        Map<String, Map<Integer, Integer>> occurrences = new LinkedHashMap<>();
+        int[] lengths = new int[directives.size()];
+
+        for (int i = 0; i < directives.size(); i++) {
+            DirectiveDefinition directive = directives.get(i);
+            List<String> tokens = tokenize(directive.getDescription() + " " + directive.getChangelog());
+            lengths[i] = tokens.size();
+            for (String token : tokens) {
+                occurrences.computeIfAbsent(token, t -> new LinkedHashMap<>()).merge(i, 1, Integer::sum);
+            }
+        }
+
+        Map<String, Integer> terms = new HashMap<>(occurrences.size() * 2);
+        int[][] postings = new int[occurrences.size()][];
+        int[][] frequencies = new int[occurrences.size()][];
+        int term = 0;
+        for (Map.Entry<String, Map<Integer, Integer>> entry : occurrences.entrySet()) {
+            terms.put(entry.getKey(), term);
+            postings[term] = new int[entry.getValue().size()];
+            frequencies[term] = new int[entry.getValue().size()];
+            int posting = 0;
+            for (Map.Entry<Integer, Integer> directive : entry.getValue().entrySet()) {
+                postings[term][posting] = directive.getKey();
+                frequencies[term][posting] = directive.getValue();
+                posting++;
+            }
+            term++;
+        }
+
+        return new DirectiveTextIndex(catalog, terms, postings, frequencies, lengths);
+    }
+
+    /**
+     * Get the directives matching the given query, best first.
+     * A directive matches if it contains at least one term of the query.
+     *
+     * @param query the query, like {@code deprecated 8.3}
+     * @param limit the maximum number of hits
+     * @return the hits, ordered by descending score
+     */
+    public @NotNull List<Hit> search(@NotNull String query, int limit) {
+        double[] scores = new double[lengths.length];
+        int count = 0;
+
+        for (String token : new LinkedHashSet<>(tokenize(query))) {
+            Integer term = terms.get(token);
+            if (term == null) {
+                continue;
+            }
+            int[] directives = postings[term];
+            double idf = Math.log(1 + (lengths.length - directives.length + 0.5) / (directives.length + 0.5));
+            for (int i = 0; i < directives.length; i++) {
+                int frequency = frequencies[term][i];
+                double norm = K1 * (1 - B + B * lengths[directives[i]] / averageLength);
+                if (scores[directives[i]] == 0) {
+                    count++;
+                }
+                scores[directives[i]] += idf * frequency * (K1 + 1) / (frequency + norm);
+            }
+        }
+
+        Integer[] matches = new Integer[count];
+        for (int i = 0, match = 0; i < scores.length && match < count; i++) {
+            if (scores[i] > 0) {
+                matches[match++] = i;
+            }
+        }
+        Arrays.sort(matches, (a, b) -> Double.compare(scores[b], scores[a]));
+
+        List<Hit> result = new ArrayList<>(Math.min(Math.max(limit, 0), count));
+        for (int i = 0; i < matches.length && i < limit; i++) {
+            result.add(new Hit(catalog.getDirectives().get(matches[i]), scores[matches[i]]));
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the number of distinct terms.
+     *
+     * @return the number of terms
+     */
+    public int getTermCount() {
+        return terms.size();
+    }
+
+    /**
+     * Split the given text into lower case terms.
+     * Words and numbers are terms; a version like {@code 8.3.0} is one term and adds its shorter forms like
+     * {@code 8.3}, so a query for a minor version finds its patch versions. Escape sequences like {@code \r} in the
+     * text separate terms.
+     *
+     * @param text the text
+     * @return the terms in the order of the text
+     */
+    static @NotNull List<String> tokenize(@NotNull CharSequence text) {
+        List<String> result = new ArrayList<>();
+        int length = text.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < length && Character.isLetter(text.charAt(i + 1))) {
+                i += 2;
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(text.charAt(i)) || isVersionDot(text, i))) {
+                    i++;
+                }
+                String token = text.subSequence(start, i).toString().toLowerCase(Locale.ROOT);
+                for (int dot = token.indexOf('.'); dot > 0; dot = token.indexOf('.', dot + 1)) {
+                    result.add(token.substring(0, dot));
+                }
+                result.add(token);
+            } else {
+                i++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Check if the character at the given index is a dot between two digits.
+     *
+     * @param text  the text
+     * @param index the index of the character
+     * @return true if the character is a dot inside a number, false otherwise
+     */
+    private static boolean isVersionDot(@NotNull CharSequence text, int index) {
+        return text.charAt(index) == '.' && index > 0 && index + 1 < text.length()
+                && Character.isDigit(text.charAt(index - 1)) && Character.isDigit(text.charAt(index + 1));
+    }
+
+    /**
+     * Write the index.
+     *
+     * @param out the stream to write to, left open
+     * @exception IOException if the index cannot be written
+     */
+    void write(@NotNull OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(fingerprint(catalog));
+        data.writeInt(lengths.length);
+        for (int length : lengths) {
+            data.writeInt(length);
+        }
+        data.writeInt(terms.size());
+        for (Map.Entry<String, Integer> entry : terms.entrySet()) {
+            int term = entry.getValue();
+            data.writeUTF(entry.getKey());
+            data.writeInt(postings[term].length);
+            for (int i = 0; i < postings[term].length; i++) {
+                data.writeInt(postings[term][i]);
+                data.writeInt(frequencies[term][i]);
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Read an index of the given catalog.
+     *
+     * @param in      the stream to read from, left open
+     * @param catalog the catalog the index was written for
+     * @return the index or null if it was written for another catalog or in another format
+     * @exception IOException if the index cannot be read
+     */
+    static @Nullable DirectiveTextIndex read(@NotNull InputStream in, @NotNull DirectiveCatalog catalog)
+            throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+
+        if (data.readInt() != MAGIC || data.readInt() != FORMAT_VERSION || data.readInt() != fingerprint(catalog)
+                || data.readInt() != catalog.size()) {
+            return null;
+        }
+
+        int[] lengths = new int[catalog.size()];
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] = data.readInt();
+        }
+        int count = data.readInt();
+        Map<String, Integer> terms = new HashMap<>(count * 2);
+        int[][] postings = new int[count][];
+        int[][] frequencies = new int[count][];
+        for (int term = 0; term < count; term++) {
+            terms.put(data.readUTF(), term);
+            int size = data.readInt();
+            postings[term] = new int[size];
+            frequencies[term] = new int[size];
+            for (int i = 0; i < size; i++) {
+                postings[term][i] = data.readInt();
+                frequencies[term][i] = data.readInt();
+            }
+        }
+
+        return new DirectiveTextIndex(catalog, terms, postings, frequencies, lengths);
+    }
+
+    /**
+     * Load the index of the given catalog, reading the persisted index resource if it was written for the catalog
+     * and building the index otherwise.
+     *
+     * @param catalog the catalog
+     * @return the index
+     */
+    static @NotNull DirectiveTextIndex load(@NotNull DirectiveCatalog catalog) {
+        DirectiveTextIndex result = null;
+
+        try (InputStream in = DirectiveTextIndex.class.getClassLoader().getResourceAsStream(INDEX_RESOURCE)) {
+            if (in != null) {
+                result = read(in, catalog);
+            }
+        } catch (IOException e) {
+            logger.warn("Error reading the directive text index, building it", e);
+        }
+
+        if (result == null) {
+            logger.debug("Building the directive text index");
+            result = build(catalog);
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the fingerprint of the text of the given catalog.
+     *
+     * @param catalog the catalog
+     * @return a hash of the names, descriptions and changelogs of the directives
+     */
+    private static int fingerprint(@NotNull DirectiveCatalog catalog) {
+        int result = catalog.size();
+        for (DirectiveDefinition directive : catalog.getDirectives()) {
+            result = 31 * result + directive.getName().hashCode();
+            result = 31 * result + directive.getDescription().hashCode();
+            result = 31 * result + directive.getChangelog().hashCode();
+        }
+        return result;
+    }
+}
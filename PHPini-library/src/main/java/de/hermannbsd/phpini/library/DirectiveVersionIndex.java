@@ -0,0 +1,121 @@
+package de.hermannbsd.phpini.library;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Index of the PHP versions the directives of a catalog are valid in.
+ * A directive is valid from its minimum version, inclusive, up to its maximum version, exclusive; a missing bound
+ * is open. The distinct bounds split the versions into segments in which the same directives are valid. The index
+ * keeps the first and the last segment of each directive in catalog order, so it takes memory in the number of
+ * directives only; a query is a binary search for the segment of the version and one pass over the ranges.
+ */
+final class DirectiveVersionIndex {
+
+    /**
+     * The distinct bounds of the directives in ascending order.
+     */
+    private final PhpVersion[] bounds;
+    /**
+     * The directives in catalog order.
+     */
+    private final DirectiveDefinition[] directives;
+    /**
+     * The first segment each directive is valid in. Segment {@code i} holds the versions with exactly {@code i}
+     * bounds lower than or equal to them.
+     */
+    private final int[] firstSegments;
+    /**
+     * The last segment each directive is valid in, lower than its first segment if it is valid in none.
+     */
+    private final int[] lastSegments;
+
+    /**
+     * Constructor with the directives to index.
+     *
+     * @param directives the directives
+     */
+    DirectiveVersionIndex(@NotNull List<DirectiveDefinition> directives) {
+        TreeSet<PhpVersion> distinct = new TreeSet<>();
+        for (DirectiveDefinition directive : directives) {
+            addBound(distinct, directive.getMinVersion());
+            addBound(distinct, directive.getMaxVersion());
+        }
+        bounds = distinct.toArray(new PhpVersion[0]);
+
+        this.directives = directives.toArray(new DirectiveDefinition[0]);
+        firstSegments = new int[this.directives.length];
+        lastSegments = new int[this.directives.length];
+        for (int i = 0; i < this.directives.length; i++) {
+            DirectiveDefinition directive = this.directives[i];
+            firstSegments[i] = directive.getMinVersion() == null ? 0 : segment(directive.getMinVersion());
+            lastSegments[i] = directive.getMaxVersion() == null ? bounds.length : segment(directive.getMaxVersion()) - 1;
+        }
+    }
+
+    /**
+     * Get the directives valid in the given version.
+     *
+     * @param version the PHP version
+     * @return an unmodifiable list of the valid directives in catalog order
+     */
+    @NotNull List<DirectiveDefinition> findValidIn(@NotNull PhpVersion version) {
+        int segment = segment(version);
+        int count = 0;
+
+        for (int i = 0; i < directives.length; i++) {
+            if (firstSegments[i] <= segment && segment <= lastSegments[i]) {
+                count++;
+            }
+        }
+
+        DirectiveDefinition[] result = new DirectiveDefinition[count];
+        for (int i = 0, next = 0; next < count; i++) {
+            if (firstSegments[i] <= segment && segment <= lastSegments[i]) {
+                result[next++] = directives[i];
+            }
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(result));
+    }
+
+    /**
+     * Check if a version is within the given bounds.
+     *
+     * @param min     the minimum version, inclusive, or null
+     * @param max     the maximum version, exclusive, or null
+     * @param version the PHP version
+     * @return true if the version is within the bounds, false otherwise
+     */
+    static boolean isValidIn(@Nullable PhpVersion min, @Nullable PhpVersion max, @NotNull PhpVersion version) {
+        return (min == null || min.compareTo(version) <= 0) && (max == null || version.compareTo(max) < 0);
+    }
+
+    /**
+     * Get the segment of the given version.
+     *
+     * @param version the PHP version
+     * @return the number of bounds lower than or equal to the version
+     */
+    private int segment(@NotNull PhpVersion version) {
+        int index = Arrays.binarySearch(bounds, version);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Add the given bound if there is one.
+     *
+     * @param bounds the bounds
+     * @param bound  the bound or null
+     */
+    private static void addBound(@NotNull TreeSet<PhpVersion> bounds, @Nullable PhpVersion bound) {
+        if (bound != null) {
+            bounds.add(bound);
+        }
+    }
+}
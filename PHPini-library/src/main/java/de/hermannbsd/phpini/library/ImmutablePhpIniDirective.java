@@ -0,0 +1,82 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Directive of a {@link PhpIniSnapshot} which cannot be changed.
+ * <p>A snapshot is shared between threads and versions, so its directives must not change. A new value is set
+ * through a {@link PhpIniTransaction}, which replaces the directive by an updated copy.</p>
+ */
+final class ImmutablePhpIniDirective extends PhpIniDirective {
+
+    /**
+     * Constructor copying the given directive into the given section.
+     *
+     * @param directive   the directive to copy
+     * @param sectionName the name of the section of the directive
+     */
+    private ImmutablePhpIniDirective(@NotNull IPhpIniDirective directive, @NotNull String sectionName) {
+        super(directive);
+        super.setSection(sectionName);
+    }
+
+    /**
+     * Get an immutable copy of the given directive in the given section.
+     *
+     * @param directive   the directive
+     * @param sectionName the name of the section of the directive
+     * @return the directive itself if it is already immutable and in the section, a copy otherwise
+     */
+    static @NotNull ImmutablePhpIniDirective of(@NotNull IPhpIniDirective directive, @NotNull String sectionName) {
+        if (directive instanceof ImmutablePhpIniDirective immutable && sectionName.equals(immutable.getSection())) {
+            return immutable;
+        }
+        return new ImmutablePhpIniDirective(directive, sectionName);
+    }
+
+    /**
+     * Get an immutable copy of the given directive with the given value.
+     *
+     * @param directive the directive
+     * @param value     the new value
+     * @return the updated copy
+     */
+    static @NotNull ImmutablePhpIniDirective withValue(@NotNull IPhpIniDirective directive, String value) {
+        PhpIniDirective updated = new PhpIniDirective(directive);
+        updated.setValue(value);
+        return new ImmutablePhpIniDirective(updated, directive.getSection());
+    }
+
+    /**
+     * @exception UnsupportedOperationException always, the directive cannot be changed
+     */
+    @Override
+    public void setValue(String value) {
+        throw new UnsupportedOperationException("Directive " + getName() + " of a snapshot cannot be changed");
+    }
+
+    /**
+     * @exception UnsupportedOperationException always, the directive cannot be changed
+     */
+    @Override
+    public boolean trySetRealValue(Object value) {
+        throw new UnsupportedOperationException("Directive " + getName() + " of a snapshot cannot be changed");
+    }
+
+    /**
+     * @exception UnsupportedOperationException always, the directive cannot be changed
+     */
+    @Override
+    public void setType(String type) {
+        throw new UnsupportedOperationException("Directive " + getName() + " of a snapshot cannot be changed");
+    }
+
+    /**
+     * @exception UnsupportedOperationException always, the directive cannot be changed
+     */
+    @Override
+    protected void setSection(String section) {
+        throw new UnsupportedOperationException("Directive " + getName() + " of a snapshot cannot be changed");
+    }
+}
@@ -5,6 +5,8 @@ import de.hermannbsd.phpini.library.interfaces.IIniLine;
 /**
  * Class representing a line in an INI file.
  * This class implements the IIniLine interface and provides methods to manipulate the line.
+ * <p>The name, value and comment are stored as spans (start and end offsets) into the line.
+ * Their strings are only created when they are read for the first time.</p>
  */
 public class IniLine implements IIniLine {
 
@@ -13,28 +15,83 @@ public class IniLine implements IIniLine {
      */
     private final String line;
     /**
-     * The name of the directive.
+     * The start offset of the name in the line.
+     */
+    private final int nameStart;
+    /**
+     * The end offset (exclusive) of the name in the line.
+     */
+    private final int nameEnd;
+    /**
+     * The start offset of the value in the line.
+     */
+    private final int valueStart;
+    /**
+     * The end offset (exclusive) of the value in the line.
+     */
+    private final int valueEnd;
+    /**
+     * The start offset of the comment in the line.
+     */
+    private final int commentStart;
+    /**
+     * The end offset (exclusive) of the comment in the line.
+     */
+    private final int commentEnd;
+    /**
+     * The name of the directive, created on first access or set explicitly.
      */
     private String directiveName;
     /**
-     * The value of the directive.
+     * The value of the directive, created on first access or set explicitly.
      */
     private String value;
     /**
-     * The comment of the directive.
+     * The comment of the directive, created on first access or set explicitly.
      */
     private String comment;
 
     /**
      * Constructor with a given line.
+     * The name, value and comment are empty until they are set.
      *
      * @param line the given line
      */
     public IniLine(String line) {
+        this(line, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Constructor with a given line and the spans of its parts.
+     *
+     * @param line         the given line
+     * @param nameStart    the start offset of the name
+     * @param nameEnd      the end offset (exclusive) of the name
+     * @param valueStart   the start offset of the value
+     * @param valueEnd     the end offset (exclusive) of the value
+     * @param commentStart the start offset of the comment
+     * @param commentEnd   the end offset (exclusive) of the comment
+     */
+    public IniLine(String line, int nameStart, int nameEnd, int valueStart, int valueEnd,
+                   int commentStart, int commentEnd) {
         this.line = line;
-        this.directiveName = "";
-        this.value = "";
-        this.comment = "";
+        this.nameStart = nameStart;
+        this.nameEnd = nameEnd;
+        this.valueStart = valueStart;
+        this.valueEnd = valueEnd;
+        this.commentStart = commentStart;
+        this.commentEnd = commentEnd;
+    }
+
+    /**
+     * Get the part of the line between the given offsets.
+     *
+     * @param start the start offset
+     * @param end   the end offset (exclusive)
+     * @return the part of the line, or an empty string if the span is empty
+     */
+    private String span(int start, int end) {
+        return start < end ? line.substring(start, end) : "";
     }
 
     /**
@@ -54,6 +111,9 @@ public class IniLine implements IIniLine {
      */
     @Override
     public String getDirectiveName() {
+        if (directiveName == null) {
+            directiveName = span(nameStart, nameEnd);
+        }
         return directiveName;
     }
 
@@ -73,6 +133,9 @@ public class IniLine implements IIniLine {
      */
     @Override
     public String getValue() {
+        if (value == null) {
+            value = span(valueStart, valueEnd);
+        }
         return value;
     }
 
@@ -92,6 +155,9 @@ public class IniLine implements IIniLine {
      */
     @Override
     public String getComment() {
+        if (comment == null) {
+            comment = span(commentStart, commentEnd);
+        }
         return comment;
     }
 
@@ -111,7 +177,7 @@ public class IniLine implements IIniLine {
      */
     @Override
     public boolean isCommented() {
-        return comment != null && !comment.isEmpty();
+        return comment != null ? !comment.isEmpty() : commentStart < commentEnd;
     }
 
     /**
@@ -121,7 +187,7 @@ public class IniLine implements IIniLine {
      */
     @Override
     public boolean isCommentOnly() {
-        return isCommented() && directiveName.isEmpty() && value.isEmpty();
+        return isCommented() && getDirectiveName().isEmpty() && !hasValue();
     }
 
     /**
@@ -131,7 +197,7 @@ public class IniLine implements IIniLine {
      */
     @Override
     public boolean hasValue() {
-        return !value.isEmpty();
+        return value != null ? !value.isEmpty() : valueStart < valueEnd;
     }
 
     /**
@@ -0,0 +1,263 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.parser.IniLineTokenizer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * List of directives which are only built when they are accessed for the first time.
+ * <p>Until then an entry is a compact line record: the start and end offset of the line in the
+ * content of the PHP INI file and a case-insensitive hash of the directive name. Directives added
+ * to the list are stored as they are.</p>
+ */
+final class LazyDirectiveList extends AbstractList<IPhpIniDirective> implements RandomAccess {
+
+    /**
+     * The initial capacity of the list.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The content of the PHP INI file the line records point into.
+     */
+    private final CharSequence source;
+    /**
+     * The name of the section of the directives.
+     */
+    private final String sectionName;
+    /**
+     * The tokenizer used to build the directives.
+     */
+    private final IniLineTokenizer tokenizer = new IniLineTokenizer();
+
+    /**
+     * The start offsets of the lines, -1 for directives added to the list.
+     */
+    private int[] lineStarts = new int[INITIAL_CAPACITY];
+    /**
+     * The end offsets of the lines.
+     */
+    private int[] lineEnds = new int[INITIAL_CAPACITY];
+    /**
+     * The case-insensitive hashes of the directive names.
+     */
+    private int[] nameHashes = new int[INITIAL_CAPACITY];
+    /**
+     * The built directives, null for entries which are not built yet.
+     */
+    private IPhpIniDirective[] directives = new IPhpIniDirective[INITIAL_CAPACITY];
+    /**
+     * The number of entries.
+     */
+    private int size;
+    /**
+     * The number of built directives.
+     */
+    private int materializedCount;
+
+    /**
+     * Constructor with the content and the section name.
+     *
+     * @param source      the content of the PHP INI file
+     * @param sectionName the name of the section
+     */
+    LazyDirectiveList(@NotNull CharSequence source, String sectionName) {
+        this.source = source;
+        this.sectionName = sectionName;
+    }
+
+    /**
+     * Compute the case-insensitive hash of a directive name.
+     *
+     * @param name the directive name
+     * @return the hash of the name
+     */
+    static int nameHash(@NotNull CharSequence name) {
+        int hash = 0;
+        for (int i = 0, length = name.length(); i < length; i++) {
+            hash = 31 * hash + Character.toLowerCase(name.charAt(i));
+        }
+        return hash;
+    }
+
+    /**
+     * Append a line record for a directive line which is not built yet.
+     *
+     * @param lineStart the start offset of the line in the content
+     * @param lineEnd   the end offset (exclusive) of the line in the content
+     * @param nameHash  the case-insensitive hash of the directive name
+     */
+    void addLine(int lineStart, int lineEnd, int nameHash) {
+        ensureCapacity(size + 1);
+        lineStarts[size] = lineStart;
+        lineEnds[size] = lineEnd;
+        nameHashes[size] = nameHash;
+        directives[size] = null;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Get the name of the directive at the given index without building it.
+     *
+     * @param index the index of the directive
+     * @return the name of the directive
+     */
+    @NotNull String nameAt(int index) {
+        Objects.checkIndex(index, size);
+
+        String result;
+        if (directives[index] != null) {
+            result = directives[index].getName();
+        } else {
+            tokenizer.tokenize(source, lineStarts[index], lineEnds[index]);
+            result = tokenizer.getName();
+        }
+
+        return result;
+    }
+
+    /**
+     * Find the index of the directive with the given name, ignoring case.
+     * Only the matching entry is built.
+     *
+     * @param name the name of the directive
+     * @return the index of the directive, or -1 if not found
+     */
+    int indexOfName(String name) {
+        int result = -1;
+
+        if (name != null) {
+            int hash = nameHash(name);
+            for (int i = 0; i < size && result < 0; i++) {
+                if (nameHashes[i] == hash && nameEqualsIgnoreCase(i, name)) {
+                    result = i;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets whether the entry at the given index has the given name, ignoring case.
+     *
+     * @param index the index of the entry
+     * @param name  the name to compare with
+     * @return is the name equal?
+     */
+    private boolean nameEqualsIgnoreCase(int index, String name) {
+        boolean result;
+
+        if (directives[index] != null) {
+            result = name.equalsIgnoreCase(directives[index].getName());
+        } else {
+            tokenizer.tokenize(source, lineStarts[index], lineEnds[index]);
+            result = tokenizer.nameEqualsIgnoreCase(name);
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the number of directives which are already built.
+     *
+     * @return the number of built directives
+     */
+    int getMaterializedCount() {
+        return materializedCount;
+    }
+
+    @Override
+    public IPhpIniDirective get(int index) {
+        Objects.checkIndex(index, size);
+
+        IPhpIniDirective result = directives[index];
+        if (result == null) {
+            tokenizer.tokenize(source, lineStarts[index], lineEnds[index]);
+            result = new PhpIniDirective(tokenizer.toIniLine(), sectionName);
+            directives[index] = result;
+            materializedCount++;
+        }
+
+        return result;
+    }
+
+    @Override
+    public IPhpIniDirective set(int index, @NotNull IPhpIniDirective directive) {
+        IPhpIniDirective previous = get(index);
+        store(index, directive);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, @NotNull IPhpIniDirective directive) {
+        Objects.checkIndex(index, size + 1);
+        ensureCapacity(size + 1);
+
+        int moved = size - index;
+        System.arraycopy(lineStarts, index, lineStarts, index + 1, moved);
+        System.arraycopy(lineEnds, index, lineEnds, index + 1, moved);
+        System.arraycopy(nameHashes, index, nameHashes, index + 1, moved);
+        System.arraycopy(directives, index, directives, index + 1, moved);
+        size++;
+        store(index, directive);
+        materializedCount++;
+        modCount++;
+    }
+
+    @Override
+    public IPhpIniDirective remove(int index) {
+        IPhpIniDirective previous = get(index);
+
+        int moved = size - index - 1;
+        System.arraycopy(lineStarts, index + 1, lineStarts, index, moved);
+        System.arraycopy(lineEnds, index + 1, lineEnds, index, moved);
+        System.arraycopy(nameHashes, index + 1, nameHashes, index, moved);
+        System.arraycopy(directives, index + 1, directives, index, moved);
+        size--;
+        directives[size] = null;
+        materializedCount--;
+        modCount++;
+
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Store a directive at the given index.
+     *
+     * @param index     the index of the entry
+     * @param directive the directive to store
+     */
+    private void store(int index, IPhpIniDirective directive) {
+        lineStarts[index] = -1;
+        lineEnds[index] = -1;
+        nameHashes[index] = nameHash(directive.getName());
+        directives[index] = directive;
+    }
+
+    /**
+     * Grow the arrays to hold at least the given number of entries.
+     *
+     * @param capacity the required capacity
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > directives.length) {
+            int newCapacity = Math.max(capacity, directives.length * 2);
+            lineStarts = Arrays.copyOf(lineStarts, newCapacity);
+            lineEnds = Arrays.copyOf(lineEnds, newCapacity);
+            nameHashes = Arrays.copyOf(nameHashes, newCapacity);
+            directives = Arrays.copyOf(directives, newCapacity);
+        }
+    }
+}
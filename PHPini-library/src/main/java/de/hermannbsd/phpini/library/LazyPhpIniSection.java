@@ -0,0 +1,112 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class representing a PHP INI section whose directives are built on first access.
+ * Name lookups compare the line records of the section and only build the directive that matches.
+ */
+final class LazyPhpIniSection extends PhpIniSection {
+
+    private static final Logger logger = LoggerFactory.getLogger(LazyPhpIniSection.class);
+
+    /**
+     * The directives in the section.
+     */
+    private final LazyDirectiveList lazyDirectives;
+
+    /**
+     * Constructor with a given section name and the content the line records point into.
+     *
+     * @param sectionName the given section name
+     * @param source      the content of the PHP INI file
+     */
+    LazyPhpIniSection(String sectionName, @NotNull CharSequence source) {
+        this(sectionName, new LazyDirectiveList(source, sectionName));
+    }
+
+    /**
+     * Constructor with a given section name and lazy directives.
+     *
+     * @param sectionName    the given section name
+     * @param lazyDirectives the lazy directives
+     */
+    private LazyPhpIniSection(String sectionName, LazyDirectiveList lazyDirectives) {
+        super(sectionName, lazyDirectives);
+        this.lazyDirectives = lazyDirectives;
+    }
+
+    /**
+     * Append a line record for a directive line which is not built yet.
+     *
+     * @param lineStart the start offset of the line in the content
+     * @param lineEnd   the end offset (exclusive) of the line in the content
+     * @param name      the name of the directive
+     */
+    void addLine(int lineStart, int lineEnd, @NotNull String name) {
+        lazyDirectives.addLine(lineStart, lineEnd, LazyDirectiveList.nameHash(name));
+        changed();
+    }
+
+    /**
+     * Get the name of the directive at the given index without building it.
+     *
+     * @param index the index of the directive
+     * @return the name of the directive
+     */
+    @NotNull String getDirectiveName(int index) {
+        return lazyDirectives.nameAt(index);
+    }
+
+    /**
+     * Get the number of directives which are already built.
+     *
+     * @return the number of built directives
+     */
+    int getMaterializedCount() {
+        return lazyDirectives.getMaterializedCount();
+    }
+
+    @Override
+    public @Nullable IPhpIniDirective getDirectiveByName(String directiveName) {
+        int index = lazyDirectives.indexOfName(directiveName);
+        IPhpIniDirective result = index >= 0 ? lazyDirectives.get(index) : null;
+
+        logger.trace("Directive {} found in section {}: {}", directiveName, getName(), result != null);
+
+        return result;
+    }
+
+    @Override
+    public boolean containsDirectiveByName(@NotNull String directiveName) {
+        return lazyDirectives.indexOfName(directiveName) >= 0;
+    }
+
+    @Override
+    public boolean tryUpdateDirective(@NotNull IPhpIniDirective directive) {
+        IPhpIniDirective existing = getDirectiveByName(directive.getName());
+
+        if (existing != null) {
+            existing.setValue(directive.getValue());
+        } else {
+            getDirectives().add(directive);
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean tryRemoveDirective(@NotNull String directiveName) {
+        int index = lazyDirectives.indexOfName(directiveName);
+
+        if (index >= 0) {
+            getDirectives().remove(index);
+        }
+
+        return index >= 0;
+    }
+}
@@ -0,0 +1,210 @@
+package de.hermannbsd.phpini.library;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Immutable index of items by their case-insensitive name, answering prefix and namespace queries.
+ * The names are kept in a sorted array, so the items with a given prefix are found by two binary searches and
+ * returned as a view without copying them.
+ *
+ * @param <T> the type of the indexed items
+ */
+public final class NamePrefixIndex<T> {
+
+    /**
+     * The separator between the namespace and the rest of a name, like in {@code opcache.enable}.
+     */
+    public static final char NAMESPACE_SEPARATOR = '.';
+
+    /**
+     * The lower case names in ascending order.
+     */
+    private final String[] keys;
+    /**
+     * The names as given, in the order of the keys.
+     */
+    private final String[] names;
+    /**
+     * The items in the order of the keys.
+     */
+    private final List<T> items;
+    /**
+     * The distinct namespaces in ascending order.
+     */
+    private final List<String> namespaces;
+
+    /**
+     * Constructor with the items to index.
+     * Items with the same name keep their given order.
+     *
+     * @param items  the items
+     * @param nameOf the function getting the name of an item
+     */
+    public NamePrefixIndex(@NotNull Collection<? extends T> items, @NotNull Function<? super T, String> nameOf) {
+        List<T> sorted = new ArrayList<>(items);
+        String[] sortedKeys = new String[sorted.size()];
+        String[] sortedNames = new String[sorted.size()];
+        Integer[] order = new Integer[sorted.size()];
+
+        for (int i = 0; i < order.length; i++) {
+            sortedNames[i] = nameOf.apply(sorted.get(i));
+            sortedKeys[i] = key(sortedNames[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> sortedKeys[i]));
+
+        keys = new String[order.length];
+        names = new String[order.length];
+        List<T> ordered = new ArrayList<>(order.length);
+        TreeSet<String> distinct = new TreeSet<>();
+        for (int i = 0; i < order.length; i++) {
+            keys[i] = sortedKeys[order[i]];
+            names[i] = sortedNames[order[i]];
+            ordered.add(sorted.get(order[i]));
+            int separator = keys[i].indexOf(NAMESPACE_SEPARATOR);
+            if (separator > 0) {
+                distinct.add(keys[i].substring(0, separator));
+            }
+        }
+        this.items = List.copyOf(ordered);
+        this.namespaces = List.copyOf(distinct);
+    }
+
+    /**
+     * Get the items whose name starts with the given prefix, ignoring case.
+     *
+     * @param prefix the prefix, empty for every item
+     * @return an unmodifiable list of the items in the order of their names
+     */
+    public @NotNull List<T> findByPrefix(@NotNull String prefix) {
+        String key = key(prefix);
+        int from = lowerBound(key);
+        return items.subList(from, upperBound(key, from));
+    }
+
+    /**
+     * Get the items in the given namespace, like {@code session} for {@code session.save_path}, ignoring case.
+     *
+     * @param namespace the namespace without the separator
+     * @return an unmodifiable list of the items in the order of their names
+     */
+    public @NotNull List<T> findByNamespace(@NotNull String namespace) {
+        return findByPrefix(namespace + NAMESPACE_SEPARATOR);
+    }
+
+    /**
+     * Get the best completions of the given prefix: the shortest names starting with it, ignoring case.
+     * Names of the same length are ordered alphabetically.
+     *
+     * @param prefix the prefix
+     * @param limit  the maximum number of completions
+     * @return the names of the completions, best first
+     */
+    public @NotNull List<String> complete(@NotNull String prefix, int limit) {
+        String key = key(prefix);
+        int from = lowerBound(key);
+        int to = upperBound(key, from);
+
+        // the indexes are in key order, so the index breaks ties between names of the same length
+        Comparator<Integer> best = Comparator.<Integer>comparingInt(i -> keys[i].length()).thenComparingInt(i -> i);
+        PriorityQueue<Integer> worstFirst = new PriorityQueue<>(Math.max(1, limit), best.reversed());
+        for (int i = from; i < to && limit > 0; i++) {
+            worstFirst.add(i);
+            if (worstFirst.size() > limit) {
+                worstFirst.poll();
+            }
+        }
+
+        Integer[] selected = worstFirst.toArray(new Integer[0]);
+        Arrays.sort(selected, best);
+        List<String> result = new ArrayList<>(selected.length);
+        for (Integer i : selected) {
+            result.add(names[i]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the distinct namespaces of the names, in lower case.
+     *
+     * @return an unmodifiable list of the namespaces in ascending order
+     */
+    public @NotNull List<String> getNamespaces() {
+        return namespaces;
+    }
+
+    /**
+     * Get the number of indexed items.
+     *
+     * @return the number of items
+     */
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Get the index of the first key which is not lower than the given key.
+     *
+     * @param key the key
+     * @return the index of the first key greater than or equal to the given key
+     */
+    private int lowerBound(@NotNull String key) {
+        int low = 0;
+        int high = keys.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Get the index of the first key after the given index which does not start with the given prefix.
+     *
+     * @param prefix the prefix
+     * @param from   the index of the first key starting with the prefix
+     * @return the end of the range of keys starting with the prefix
+     */
+    private int upperBound(@NotNull String prefix, int from) {
+        int low = from;
+        int high = keys.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].startsWith(prefix)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Get the key of the given name.
+     *
+     * @param name the name
+     * @return the name in lower case
+     */
+    private static @NotNull String key(@NotNull String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,351 @@
+package de.hermannbsd.phpini.library;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Immutable hash map sharing its structure with the map it was derived from.
+ * <p>The entries are held in a hash array mapped trie: each level uses five bits of the hash code to pick one of up
+ * to 32 children, and a node only holds the children it has. Adding or removing an entry copies the nodes on the
+ * path to the entry and shares all others, so it costs time and memory in the depth of the trie rather than in the
+ * size of the map. Keys with the same hash code are kept in one collision node.</p>
+ * <p>Neither keys nor values may be null.</p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+final class PersistentHashMap<K, V> {
+
+    /**
+     * The number of hash bits used by each level of the trie.
+     */
+    private static final int BITS = 5;
+    /**
+     * The mask of the hash bits used by each level of the trie.
+     */
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * The empty map.
+     */
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    /**
+     * The root node, null for the empty map.
+     */
+    private final Object root;
+    /**
+     * The number of entries.
+     */
+    private final int size;
+
+    /**
+     * Class representing an entry.
+     */
+    private record Leaf(int hash, @NotNull Object key, @NotNull Object value) {
+    }
+
+    /**
+     * Class representing the entries of keys with the same hash code.
+     */
+    private record Collision(int hash, Leaf @NotNull [] leaves) {
+    }
+
+    /**
+     * Class representing an inner node: the bitmap has a bit for each child, in the order of the children.
+     */
+    private record Branch(int bitmap, Object @NotNull [] children) {
+    }
+
+    /**
+     * Constructor with the root node and the number of entries.
+     *
+     * @param root the root node
+     * @param size the number of entries
+     */
+    private PersistentHashMap(@Nullable Object root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Get the empty map.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @return the empty map
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> @NotNull PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Get the number of entries.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get the value of the given key.
+     *
+     * @param key the key
+     * @return the value or null if the map does not contain the key
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable V get(@NotNull Object key) {
+        int hash = key.hashCode();
+        Object node = root;
+
+        for (int shift = 0; node instanceof Branch branch; shift += BITS) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            node = (branch.bitmap & bit) == 0 ? null : branch.children[index(branch.bitmap, bit)];
+        }
+
+        Object result = null;
+        if (node instanceof Leaf leaf) {
+            result = leaf.hash == hash && leaf.key.equals(key) ? leaf.value : null;
+        } else if (node instanceof Collision collision && collision.hash == hash) {
+            int i = find(collision, key);
+            result = i < 0 ? null : collision.leaves[i].value;
+        }
+
+        return (V) result;
+    }
+
+    /**
+     * Check if the map contains the given key.
+     *
+     * @param key the key
+     * @return true if the map contains the key, false otherwise
+     */
+    boolean containsKey(@NotNull Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Get a map with the given entry added or replaced.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the new map, or this map if it already maps the key to the value
+     */
+    @NotNull PersistentHashMap<K, V> put(@NotNull K key, @NotNull V value) {
+        Leaf leaf = new Leaf(key.hashCode(), key, value);
+        Object newRoot = put(root, leaf, 0);
+        return newRoot == root ? this : new PersistentHashMap<>(newRoot, containsKey(key) ? size : size + 1);
+    }
+
+    /**
+     * Get a map without the given key.
+     *
+     * @param key the key
+     * @return the new map, or this map if it does not contain the key
+     */
+    @NotNull PersistentHashMap<K, V> remove(@NotNull Object key) {
+        Object newRoot = remove(root, key.hashCode(), key, 0);
+        return newRoot == root ? this : new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    /**
+     * Add or replace an entry below the given node.
+     *
+     * @param node  the node, or null if there is none
+     * @param leaf  the entry
+     * @param shift the position of the hash bits of the node's level
+     * @return the new node, or the given node if it already holds the entry
+     */
+    private static @NotNull Object put(@Nullable Object node, @NotNull Leaf leaf, int shift) {
+        Object result;
+
+        if (node == null) {
+            result = leaf;
+        } else if (node instanceof Branch branch) {
+            int bit = 1 << ((leaf.hash >>> shift) & MASK);
+            int i = index(branch.bitmap, bit);
+            if ((branch.bitmap & bit) == 0) {
+                Object[] children = new Object[branch.children.length + 1];
+                System.arraycopy(branch.children, 0, children, 0, i);
+                children[i] = leaf;
+                System.arraycopy(branch.children, i, children, i + 1, branch.children.length - i);
+                result = new Branch(branch.bitmap | bit, children);
+            } else {
+                Object child = put(branch.children[i], leaf, shift + BITS);
+                result = child == branch.children[i] ? branch : new Branch(branch.bitmap, replace(branch.children, i, child));
+            }
+        } else if (hash(node) != leaf.hash) {
+            result = split(node, leaf, shift);
+        } else if (node instanceof Leaf existing) {
+            if (!existing.key.equals(leaf.key)) {
+                result = new Collision(leaf.hash, new Leaf[]{existing, leaf});
+            } else {
+                result = existing.value.equals(leaf.value) ? existing : leaf;
+            }
+        } else {
+            Collision collision = (Collision) node;
+            int i = find(collision, leaf.key);
+            if (i < 0) {
+                Leaf[] leaves = Arrays.copyOf(collision.leaves, collision.leaves.length + 1);
+                leaves[collision.leaves.length] = leaf;
+                result = new Collision(leaf.hash, leaves);
+            } else if (collision.leaves[i].value.equals(leaf.value)) {
+                result = collision;
+            } else {
+                Leaf[] leaves = collision.leaves.clone();
+                leaves[i] = leaf;
+                result = new Collision(leaf.hash, leaves);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Remove an entry below the given node.
+     *
+     * @param node  the node, or null if there is none
+     * @param hash  the hash code of the key
+     * @param key   the key
+     * @param shift the position of the hash bits of the node's level
+     * @return the new node, null if it is empty, or the given node if it does not hold the key
+     */
+    private static @Nullable Object remove(@Nullable Object node, int hash, @NotNull Object key, int shift) {
+        Object result = node;
+
+        if (node instanceof Branch branch) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((branch.bitmap & bit) != 0) {
+                int i = index(branch.bitmap, bit);
+                Object child = remove(branch.children[i], hash, key, shift + BITS);
+                if (child != branch.children[i]) {
+                    result = withChild(branch, bit, i, child);
+                }
+            }
+        } else if (node instanceof Leaf leaf) {
+            result = leaf.hash == hash && leaf.key.equals(key) ? null : leaf;
+        } else if (node instanceof Collision collision && collision.hash == hash) {
+            int i = find(collision, key);
+            if (i >= 0 && collision.leaves.length == 2) {
+                result = collision.leaves[1 - i];
+            } else if (i >= 0) {
+                Leaf[] leaves = new Leaf[collision.leaves.length - 1];
+                System.arraycopy(collision.leaves, 0, leaves, 0, i);
+                System.arraycopy(collision.leaves, i + 1, leaves, i, leaves.length - i);
+                result = new Collision(hash, leaves);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the branch with the given child replaced, removing the child if it is null.
+     * A branch left with a single entry or collision node is replaced by it, so the trie stays as shallow as if the
+     * removed key had never been added.
+     *
+     * @param branch the branch
+     * @param bit    the bit of the child
+     * @param i      the index of the child
+     * @param child  the new child, or null to remove it
+     * @return the new node, or null if the branch is empty
+     */
+    private static @Nullable Object withChild(@NotNull Branch branch, int bit, int i, @Nullable Object child) {
+        Object result;
+
+        if (child != null) {
+            result = branch.children.length == 1 && !(child instanceof Branch)
+                    ? child : new Branch(branch.bitmap, replace(branch.children, i, child));
+        } else if (branch.children.length == 1) {
+            result = null;
+        } else if (branch.children.length == 2 && !(branch.children[1 - i] instanceof Branch)) {
+            result = branch.children[1 - i];
+        } else {
+            Object[] children = new Object[branch.children.length - 1];
+            System.arraycopy(branch.children, 0, children, 0, i);
+            System.arraycopy(branch.children, i + 1, children, i, children.length - i);
+            result = new Branch(branch.bitmap & ~bit, children);
+        }
+
+        return result;
+    }
+
+    /**
+     * Get a branch holding the given node and the given entry of a different hash code.
+     *
+     * @param node  the entry or collision node
+     * @param leaf  the entry
+     * @param shift the position of the hash bits of the branch's level
+     * @return the branch
+     */
+    private static @NotNull Branch split(@NotNull Object node, @NotNull Leaf leaf, int shift) {
+        int nodeIndex = (hash(node) >>> shift) & MASK;
+        int leafIndex = (leaf.hash >>> shift) & MASK;
+        Branch result;
+
+        if (nodeIndex == leafIndex) {
+            result = new Branch(1 << nodeIndex, new Object[]{split(node, leaf, shift + BITS)});
+        } else if (nodeIndex < leafIndex) {
+            result = new Branch((1 << nodeIndex) | (1 << leafIndex), new Object[]{node, leaf});
+        } else {
+            result = new Branch((1 << nodeIndex) | (1 << leafIndex), new Object[]{leaf, node});
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the hash code of an entry or collision node.
+     *
+     * @param node the node
+     * @return the hash code
+     */
+    private static int hash(@NotNull Object node) {
+        return node instanceof Leaf leaf ? leaf.hash : ((Collision) node).hash;
+    }
+
+    /**
+     * Get the index of the entry of the given key in a collision node.
+     *
+     * @param collision the collision node
+     * @param key       the key
+     * @return the index, or -1 if the node does not hold the key
+     */
+    private static int find(@NotNull Collision collision, @NotNull Object key) {
+        for (int i = 0; i < collision.leaves.length; i++) {
+            if (collision.leaves[i].key.equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the index of the child with the given bit.
+     *
+     * @param bitmap the bitmap of the branch
+     * @param bit    the bit of the child
+     * @return the index
+     */
+    private static int index(int bitmap, int bit) {
+        return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    /**
+     * Get a copy of the given children with one child replaced.
+     *
+     * @param children the children
+     * @param i        the index of the child
+     * @param child    the new child
+     * @return the copy
+     */
+    private static Object @NotNull [] replace(Object @NotNull [] children, int i, @NotNull Object child) {
+        Object[] result = children.clone();
+        result[i] = child;
+        return result;
+    }
+}
@@ -1,17 +1,38 @@
 package de.hermannbsd.phpini.library;
 
+import de.hermannbsd.phpini.library.enums.IniLineKind;
+import de.hermannbsd.phpini.library.enums.ParseMode;
+import de.hermannbsd.phpini.library.enums.SaveMode;
+import de.hermannbsd.phpini.library.interfaces.IIniLineView;
+import de.hermannbsd.phpini.library.interfaces.IIniLine;
 import de.hermannbsd.phpini.library.interfaces.IPhpIni;
 import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniHandler;
 import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import de.hermannbsd.phpini.library.parser.IniLineTokenizer;
+import de.hermannbsd.phpini.library.parser.MappedPhpIniParser;
+import de.hermannbsd.phpini.library.parser.ParallelPhpIniParser;
+import de.hermannbsd.phpini.library.parser.PhpIniEventParser;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.*;
 
 /**
@@ -22,21 +43,10 @@ public class PhpIni implements IPhpIni {
 
     /**
      * Default file attributes for the PHP INI file.
-     * This is used to set the permissions of the temporary file created for the PHP INI.
+     * This is used to set the permissions of the temporary file created for the PHP INI. File systems without POSIX
+     * permissions, like the ones of Windows, reject them, so there are none on such a file system.
      */
-    protected static final FileAttribute<?>[] FILE_ATTRIBUTES = {
-            new FileAttribute<>() {
-                @Override
-                public String name() {
-                    return "posix:permissions";
-                }
-
-                @Override
-                public Object value() {
-                    return "rw-r--r--";
-                }
-            }
-    };
+    protected static final FileAttribute<?>[] FILE_ATTRIBUTES = fileAttributes();
 
     /**
      * Logger for the PhpIni class.
@@ -49,6 +59,11 @@ public class PhpIni implements IPhpIni {
     static final String SECTION_REMOVED_FROM_PHP_INI_FILE = "Section {} removed from PHP INI file";
     static final String SECTION_IS_NULL_OR_EMPTY = "Section is null or empty";
 
+    /**
+     * Size of the buffer used to stream the PHP INI file from disk.
+     */
+    static final int READ_BUFFER_SIZE = 8192;
+
     /**
      * The path of the PHP INI file.
      */
@@ -75,6 +90,56 @@ public class PhpIni implements IPhpIni {
      */
     private String fileContent;
 
+    /**
+     * Is the file content only kept on disk since the last save, to be read back on demand?
+     */
+    private boolean contentOnDisk;
+
+    /**
+     * Should the raw file content be kept in memory after loading?
+     */
+    private final boolean keepFileContent;
+
+    /**
+     * How the PHP INI file is parsed when it is loaded.
+     */
+    private final ParseMode parseMode;
+
+    /**
+     * How the PHP INI file is written when it is saved.
+     */
+    private SaveMode saveMode = SaveMode.DIRECT;
+
+    /**
+     * The lines of the PHP INI file, or null if the raw file content is not kept.
+     */
+    private PhpIniDocument document;
+
+    /**
+     * The lines of the document as they were last read from or written to the file, or null if unknown.
+     */
+    private SavedDocument savedDocument;
+
+    /**
+     * The content the line records of lazy sections point into, or null if the file was not parsed lazily.
+     */
+    private String lazySource;
+
+    /**
+     * The number of bytes read from disk while loading the PHP INI file.
+     */
+    private long bytesRead;
+
+    /**
+     * The number of bytes written from memory during the last save.
+     */
+    private long bytesWritten;
+
+    /**
+     * The number of unchanged bytes copied from the old file during the last save.
+     */
+    private long bytesCopied;
+
     /**
      * Is the PHP INI file created?
      */
@@ -90,14 +155,59 @@ public class PhpIni implements IPhpIni {
      */
     private List<IPhpIniSection> ini;
 
+    /**
+     * The case-insensitive index of the sections and directives, kept up to date by every change of the sections.
+     */
+    private final PhpIniIndex nameIndex = new PhpIniIndex();
+
+    /**
+     * The index of the directive names for prefix queries, built on first use and dropped when directives are
+     * added or removed.
+     */
+    private NamePrefixIndex<IPhpIniDirective> prefixIndex;
+
+    /**
+     * The number of changes of the sections and directives when the prefix index was built, to notice directives
+     * changed in a section directly.
+     */
+    private int prefixIndexChangeCount;
+
     /**
      * Constructor for the PhpIni class.
+     * The raw file content is kept in memory and available through {@link #getFileContent()}.
      *
      * @param filePath the file path to the PHP INI file
      * @exception IOException if the file path is invalid or cannot be created
      */
     public PhpIni(String filePath) throws IOException {
+        this(filePath, true);
+    }
+
+    /**
+     * Constructor for the PhpIni class.
+     * The file is read once and sections and directives are built while streaming through it.
+     *
+     * @param filePath        the file path to the PHP INI file
+     * @param keepFileContent should the raw file content be kept in memory?
+     * @exception IOException if the file path is invalid or cannot be created
+     */
+    public PhpIni(String filePath, boolean keepFileContent) throws IOException {
+        this(filePath, ParseMode.STREAMING, keepFileContent);
+    }
+
+    /**
+     * Constructor for the PhpIni class.
+     * The file is parsed with the given parse mode; all parse modes build the same sections and directives.
+     *
+     * @param filePath        the file path to the PHP INI file
+     * @param parseMode       how the PHP INI file is parsed
+     * @param keepFileContent should the raw file content be kept in memory?
+     * @exception IOException if the file path is invalid or cannot be created
+     */
+    public PhpIni(String filePath, @NotNull ParseMode parseMode, boolean keepFileContent) throws IOException {
         this.filePath = filePath;
+        this.parseMode = parseMode;
+        this.keepFileContent = keepFileContent;
 
         if (filePath != null && tryGetFilePath(filePath)) {
             innerPath = Paths.get(filePath);
@@ -132,19 +242,23 @@ public class PhpIni implements IPhpIni {
      * Initialize the file name, file name without extension, and file extension
      */
     private void init() {
+        initVariables();
+
         if (innerPath.toFile().canRead()) {
             try {
-                this.fileContent = new String(Files.readAllBytes(innerPath));
+                switch (parseMode) {
+                    case MEMORY_MAPPED -> initMappedDirectives();
+                    case LAZY -> initLazyDirectives();
+                    case PARALLEL -> initParallelDirectives();
+                    default -> initDirectives();
+                }
             } catch (IOException e) {
                 String message = "Error reading file: " + filePath;
                 logger.error(message, e);
             }
 
-            initVariables();
-
-            if (!fileContent.isEmpty()) {
-                logger.trace("File content of {} is not empty", filePath);
-                initDirectives();
+            if (bytesRead > 0) {
+                logger.trace("Read {} bytes of {}", bytesRead, filePath);
             } else {
                 logger.trace("File content of {} is empty", filePath);
             }
@@ -159,39 +273,838 @@ public class PhpIni implements IPhpIni {
         this.fileNameWithoutExtension = fileName.substring(0, fileName.lastIndexOf('.'));
         this.fileExtension = fileName.substring(fileName.lastIndexOf('.') + 1);
 
-        this.ini = new ArrayList<>();
+        this.ini = new ChangeTrackingList<>(new ArrayList<>(), nameIndex::changed);
+        nameIndex.clear();
     }
 
     /**
      * Initialize the directives in the PHP INI file.
-     * This method reads the file content and populates the ini HashMap with directives.
+     * This method streams the file once through a buffered channel and builds the sections and directives line by line.
+     * If the caller asked for the raw content, the file is streamed into a document of lines instead, so later
+     * changes of the content can be applied incrementally with {@link #update(String)}; the content is never held
+     * as a whole besides the lines.
+     *
+     * @exception IOException if the file cannot be read
      */
-    private void initDirectives() {
-        if (!isCreated && fileContent != null && !fileContent.isEmpty()) {
-            try {
-                List<String> lines = Files.readAllLines(innerPath);
-                for (String line : lines) {
-                    IPhpIniDirective directive = new PhpIniDirective(line, currentSectionName);
-
-                    if (directive.getName() != null && !directive.getName().isEmpty()
-                            && !containsDirective(directive.getName())) {
-                        addDirective(directive);
-                        logger.debug("Directive {} added to section {}", directive.getName(), directive.getSection());
-                    } else if (directive.getSection() != null && !directive.getSection().isEmpty()
-                            && !directive.getSection().equalsIgnoreCase(currentSectionName)) {
-                        currentSectionName = directive.getSection();
-                        ini.add(new PhpIniSection(currentSectionName));
-                        logger.debug("Section {} added to PHP INI file", currentSectionName);
-                    } else if (directive.getSection().equalsIgnoreCase(currentSectionName)) {
-                        logger.debug("Directive {} already exists in section {}", directive.getName(), directive.getSection());
+    private void initDirectives() throws IOException {
+        try (CountingByteChannel channel = new CountingByteChannel(FileChannel.open(innerPath, StandardOpenOption.READ));
+             Reader reader = Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), READ_BUFFER_SIZE)) {
+            if (keepFileContent) {
+                document = PhpIniDocument.read(reader);
+            } else {
+                new PhpIniEventParser().parse(reader, new ModelHandler());
+            }
+            bytesRead = channel.getCount();
+        }
+
+        if (keepFileContent) {
+            bindLines(new IniLineTokenizer());
+            markSaved(new ArrayList<>(document.lines()));
+        }
+    }
+
+    /**
+     * Initialize the directives in the PHP INI file lazily.
+     * The file is read once; each directive line is kept as a compact line record and the directive
+     * is only built when it is accessed for the first time. If the raw content is kept, the lines of the file are
+     * bound to their directives, so all directives are built while loading.
+     *
+     * @exception IOException if the file cannot be read
+     */
+    private void initLazyDirectives() throws IOException {
+        lazySource = readContent();
+        new PhpIniEventParser().parse(lazySource, new LazyModelHandler());
+
+        if (keepFileContent) {
+            bindDocument(lazySource);
+        }
+    }
+
+    /**
+     * Initialize the directives in the PHP INI file in parallel.
+     * The file is read once, the directives are built chunk by chunk on the common fork/join pool and then
+     * added in file order, so the result is the same as the one of a sequential parse.
+     *
+     * @exception IOException if the file cannot be read
+     */
+    private void initParallelDirectives() throws IOException {
+        String content = readContent();
+
+        if (!PhpIniDirective.loadDirectives()) {
+            logger.error("Error loading directives");
+        }
+
+        for (ParallelPhpIniParser.Entry entry : new ParallelPhpIniParser().parse(content)) {
+            if (entry.isSection()) {
+                initSection(entry.getSectionName(), entry.getSectionName());
+            } else if (isNewDirective(entry.getDirective().getName())) {
+                addDirective(entry.getDirective());
+                logger.debug("Directive {} added to section {}", entry.getDirective().getName(), entry.getDirective().getSection());
+            }
+        }
+
+        if (keepFileContent) {
+            bindDocument(content);
+        }
+    }
+
+    /**
+     * Read the whole content of the PHP INI file once.
+     *
+     * @return the content of the file
+     * @exception IOException if the file cannot be read
+     */
+    private String readContent() throws IOException {
+        StringBuilder content = new StringBuilder();
+
+        try (CountingByteChannel channel = new CountingByteChannel(FileChannel.open(innerPath, StandardOpenOption.READ));
+             Reader reader = Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), READ_BUFFER_SIZE)) {
+            char[] buffer = new char[READ_BUFFER_SIZE];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                content.append(buffer, 0, read);
+            }
+            bytesRead = channel.getCount();
+        }
+
+        return content.toString();
+    }
+
+    /**
+     * Initialize the directives in the PHP INI file through a memory mapping.
+     * The file is scanned byte by byte; only section names and the names and values of directives are decoded.
+     *
+     * @exception IOException if the file cannot be mapped
+     */
+    private void initMappedDirectives() throws IOException {
+        try (MappedPhpIniParser parser = new MappedPhpIniParser(innerPath, keepFileContent)) {
+            IniLineKind kind;
+            while ((kind = parser.next()) != null) {
+                switch (kind) {
+                    case SECTION -> initSection(parser.getName(), parser.getName());
+                    case DIRECTIVE -> {
+                        if (isNewDirective(parser.getName())) {
+                            initDirective(parser.toIniLine());
+                        }
+                    }
+                    case INVALID -> logger.warn("Invalid line in {}", filePath);
+                    default -> logger.trace("Skipping {} line", kind);
+                }
+            }
+
+            bytesRead = parser.getSize();
+            if (keepFileContent) {
+                bindDocument(parser.getContent());
+            }
+        }
+    }
+
+    /**
+     * Initialize a section line of the PHP INI file.
+     * Opens a new section unless the name is the current section.
+     *
+     * @param sectionName the name of the section
+     * @param line        the line of the PHP INI file
+     */
+    private void initSection(String sectionName, CharSequence line) {
+        if (sectionName.isEmpty()) {
+            logger.warn("Invalid section: {}", line);
+        } else if (!sectionName.equalsIgnoreCase(currentSectionName)) {
+            currentSectionName = sectionName;
+            IPhpIniSection section = lazySource != null
+                    ? new LazyPhpIniSection(currentSectionName, lazySource) : new PhpIniSection(currentSectionName);
+            ini.add(section);
+            nameIndex.addSection(section);
+            logger.debug("Section {} added to PHP INI file", currentSectionName);
+        } else {
+            logger.debug("Section {} already is the current section", sectionName);
+        }
+    }
+
+    /**
+     * Gets whether a directive line with the given name is the first occurrence of the directive.
+     * The first occurrence of a directive wins; later duplicates are skipped.
+     *
+     * @param name the name of the directive
+     * @return is the directive not yet part of the PHP INI file?
+     */
+    private boolean isNewDirective(String name) {
+        boolean result = !containsDirective(name);
+
+        if (!result) {
+            logger.debug("Directive {} already exists in section {}", name, currentSectionName);
+        }
+
+        return result;
+    }
+
+    /**
+     * Find the first section with the given name, ignoring case.
+     *
+     * @param sectionName the name of the section
+     * @return the section, or null if not found
+     */
+    private IPhpIniSection findSection(String sectionName) {
+        return nameIndex.findSection(sectionName, ini);
+    }
+
+    /**
+     * Initialize a directive line of the PHP INI file.
+     *
+     * @param iniLine the tokenized directive line
+     */
+    private void initDirective(IIniLine iniLine) {
+        IPhpIniDirective directive = new PhpIniDirective(iniLine, currentSectionName);
+        addDirective(directive);
+        logger.debug("Directive {} added to section {}", directive.getName(), directive.getSection());
+    }
+
+    /**
+     * Bind all lines of the document to a new model of sections and directives.
+     * Lines that were bound before and are still in the same section keep their directive.
+     *
+     * @param tokenizer the tokenizer to use
+     */
+    private void bindLines(IniLineTokenizer tokenizer) {
+        ini.clear();
+        nameIndex.clear();
+        currentSectionName = null;
+
+        for (PhpIniDocumentLine line : document.lines()) {
+            switch (line.tokenize(tokenizer)) {
+                case SECTION -> bindSection(line);
+                case DIRECTIVE -> {
+                    IPhpIniSection section = findSection(currentSectionName);
+                    if (section == null) {
+                        logger.error("Directive {} is outside of a section", line.getName());
+                        line.bind(null, null);
+                    } else if (isNewDirective(line.getName())) {
+                        IPhpIniDirective directive = newDirective(line, tokenizer, currentSectionName);
+                        section.getDirectives().add(directive);
+                        nameIndex.addDirective(section, directive);
+                        line.bind(directive, section);
                     } else {
-                        logger.warn("Invalid directive: {}", line);
+                        line.bind(null, null);
                     }
                 }
-            } catch (IOException e) {
-                logger.error("Error reading file: {}", filePath, e);
+                default -> bindOther(line);
+            }
+            line.setSectionName(currentSectionName);
+        }
+    }
+
+    /**
+     * Keep the given content as a document of lines bound to the sections and directives already built from it,
+     * so saving changes keeps comments and layout as for a file loaded with {@link ParseMode#STREAMING}.
+     *
+     * @param content the content of the PHP INI file
+     * @exception IOException if the file cannot be read
+     */
+    private void bindDocument(@NotNull String content) throws IOException {
+        IniLineTokenizer tokenizer = new IniLineTokenizer();
+        Set<IPhpIniDirective> bound = Collections.newSetFromMap(new IdentityHashMap<>());
+        int next = 0;
+        document = new PhpIniDocument(content);
+        currentSectionName = null;
+
+        for (PhpIniDocumentLine line : document.lines()) {
+            switch (line.tokenize(tokenizer)) {
+                case SECTION -> {
+                    String sectionName = line.getName();
+                    if (!sectionName.isEmpty() && !sectionName.equalsIgnoreCase(currentSectionName) && next < ini.size()) {
+                        // every other section line opened the next section of the file
+                        currentSectionName = sectionName;
+                        line.bind(null, ini.get(next++));
+                    } else {
+                        line.bind(null, null);
+                    }
+                }
+                case DIRECTIVE -> {
+                    // only the first line of a directive was built, in the first section with its name
+                    IPhpIniSection section = findSection(currentSectionName);
+                    PhpIniIndex.Entry entry = nameIndex.findDirective(line.getName(), ini);
+                    if (section != null && entry != null && entry.getSection() == section
+                            && bound.add(entry.getDirective())) {
+                        line.bind(entry.getDirective(), section);
+                    } else {
+                        line.bind(null, null);
+                    }
+                }
+                default -> bindOther(line);
             }
+            line.setSectionName(currentSectionName);
+        }
+
+        fileContent = null;
+        markSaved(new ArrayList<>(document.lines()));
+    }
+
+    /**
+     * Bind a section line of the document.
+     * Opens a new section unless the name is the current section; the section of an unchanged line is reused.
+     *
+     * @param line the section line
+     */
+    private void bindSection(PhpIniDocumentLine line) {
+        String sectionName = line.getName();
+        IPhpIniSection section = null;
+
+        if (sectionName.isEmpty()) {
+            logger.warn("Invalid section: {}", line.getText());
+        } else if (!sectionName.equalsIgnoreCase(currentSectionName)) {
+            if (line.getSection() instanceof PhpIniSection previous && previous.getName().equals(sectionName)) {
+                // the section is indexed again below, its old directives are gone from the index already
+                previous.setIndex(null);
+                previous.getDirectives().clear();
+                section = previous;
+            } else {
+                section = new PhpIniSection(sectionName);
+            }
+            currentSectionName = sectionName;
+            ini.add(section);
+            nameIndex.addSection(section);
+            logger.debug("Section {} added to PHP INI file", currentSectionName);
+        } else {
+            logger.debug("Section {} already is the current section", sectionName);
         }
+
+        line.bind(null, section);
+    }
+
+    /**
+     * Bind a line of the document that is neither a section nor a directive.
+     *
+     * @param line the line
+     */
+    private void bindOther(PhpIniDocumentLine line) {
+        if (line.getKind() == IniLineKind.INVALID) {
+            logger.warn("Invalid line: {}", line.getText());
+        }
+        line.bind(null, null);
+    }
+
+    /**
+     * Get the directive of a directive line.
+     * The directive the line was bound to is reused if the line is still in the same section.
+     *
+     * @param line        the directive line
+     * @param tokenizer   the tokenizer to use
+     * @param sectionName the name of the section of the line
+     * @return the directive
+     */
+    private IPhpIniDirective newDirective(PhpIniDocumentLine line, IniLineTokenizer tokenizer, String sectionName) {
+        if (line.getDirective() != null && Objects.equals(line.getSectionName(), sectionName)) {
+            return line.getDirective();
+        }
+
+        if (tokenizer.getSource() != line.getText()) {
+            tokenizer.tokenize(line.getText());
+        }
+
+        IPhpIniDirective directive = new PhpIniDirective(tokenizer.toIniLine(), sectionName);
+        logger.debug("Directive {} added to section {}", directive.getName(), directive.getSection());
+        return directive;
+    }
+
+    /**
+     * Update the PHP INI file with a new content.
+     * <p>The lines of the new content are compared with the lines of the current content; only the range between
+     * the unchanged leading and trailing lines is tokenized and resolved again. Directives of unchanged lines keep
+     * their identity. If the changed range adds or removes section lines, the model is stitched together again from
+     * all lines, but only directives of changed lines or of lines that moved to another section are built again.</p>
+     * <p>The model reflects the new content afterwards; directives that were added through the API but are not
+     * part of the content are dropped when sections are stitched together again.</p>
+     *
+     * @param newContent the new content of the PHP INI file
+     * @return true if the content changed, false otherwise
+     */
+    public boolean update(@NotNull String newContent) {
+        List<PhpIniDocumentLine> newLines = PhpIniDocument.split(newContent);
+        IniLineTokenizer tokenizer = new IniLineTokenizer();
+
+        if (document == null) {
+            document = new PhpIniDocument(newLines);
+            bindLines(tokenizer);
+            fileContent = null;
+            prefixIndex = null;
+            logger.debug("Built {} lines of {}", newLines.size(), filePath);
+            return true;
+        }
+
+        List<PhpIniDocumentLine> lines = document.lines();
+        int oldSize = lines.size();
+        int newSize = newLines.size();
+
+        int prefix = 0;
+        while (prefix < oldSize && prefix < newSize && lines.get(prefix).sameText(newLines.get(prefix))) {
+            prefix++;
+        }
+
+        int suffix = 0;
+        while (suffix < oldSize - prefix && suffix < newSize - prefix
+                && lines.get(oldSize - 1 - suffix).sameText(newLines.get(newSize - 1 - suffix))) {
+            suffix++;
+        }
+
+        if (prefix == oldSize && prefix == newSize) {
+            logger.debug("Content of {} is unchanged", filePath);
+            return false;
+        }
+
+        replaceLines(prefix, oldSize - suffix, new ArrayList<>(newLines.subList(prefix, newSize - suffix)), tokenizer);
+        return true;
+    }
+
+    /**
+     * Replace a range of lines of the document with new lines and resolve the model again.
+     * Lines equal to replaced lines are kept with their directives; only the other new lines are tokenized.
+     *
+     * @param from      the index of the first replaced line
+     * @param to        the index after the last replaced line
+     * @param inserted  the new lines, replaced by kept lines where they match
+     * @param tokenizer the tokenizer to use
+     */
+    private void replaceLines(int from, int to, List<PhpIniDocumentLine> inserted, IniLineTokenizer tokenizer) {
+        List<PhpIniDocumentLine> lines = document.lines();
+        List<PhpIniDocumentLine> removed = new ArrayList<>(lines.subList(from, to));
+        int[] matches = PhpIniDocument.match(removed, inserted);
+        boolean[] kept = new boolean[removed.size()];
+        boolean sectionsChanged = false;
+
+        for (int i = 0; i < inserted.size(); i++) {
+            if (matches[i] >= 0) {
+                inserted.set(i, removed.get(matches[i]));
+                kept[matches[i]] = true;
+            } else {
+                sectionsChanged |= inserted.get(i).tokenize(tokenizer) == IniLineKind.SECTION;
+            }
+        }
+        for (int i = 0; i < removed.size(); i++) {
+            sectionsChanged |= !kept[i] && removed.get(i).getKind() == IniLineKind.SECTION;
+        }
+
+        if (sectionsChanged) {
+            List<PhpIniDocumentLine> range = lines.subList(from, to);
+            range.clear();
+            range.addAll(inserted);
+            bindLines(tokenizer);
+        } else {
+            updateLines(from, removed, kept, inserted, matches, tokenizer);
+        }
+
+        fileContent = null;
+        prefixIndex = null;
+        logger.debug("Replaced lines {} to {} of {} with {} lines", from, to, filePath, inserted.size());
+    }
+
+    /**
+     * Update the PHP INI file by applying text edits to the current content.
+     * The edits refer to offsets in the current content and must not overlap.
+     * <p>If the lines of the file are kept, the offsets are mapped to lines through the line lengths; only the lines
+     * touched by the edits are edited, split and resolved again. The content is not built as a whole.</p>
+     *
+     * @param edits the edits to apply
+     * @return true if the content changed, false otherwise
+     * @see #update(String)
+     */
+    public boolean applyEdits(@NotNull List<TextEdit> edits) {
+        List<TextEdit> sorted = new ArrayList<>(edits);
+        sorted.sort(Comparator.comparingInt(TextEdit::getOffset));
+
+        if (document == null || document.size() == 0) {
+            String content = getFileContent();
+            if (content == null) {
+                logger.error("File content of {} is not available", filePath);
+                return false;
+            }
+            return checkEdits(sorted, content.length()) && update(edit(content, 0, sorted));
+        }
+
+        List<PhpIniDocumentLine> lines = document.lines();
+        int[] starts = new int[lines.size() + 1];
+        for (int i = 0; i < lines.size(); i++) {
+            starts[i + 1] = starts[i] + lines.get(i).getText().length() + lines.get(i).getSeparator().length();
+        }
+        if (sorted.isEmpty() || !checkEdits(sorted, starts[lines.size()])) {
+            return false;
+        }
+
+        TextEdit last = sorted.get(sorted.size() - 1);
+        int from = lineAt(starts, sorted.get(0).getOffset());
+        int to = lineAt(starts, Math.max(last.getOffset(), last.getOffset() + last.getLength() - 1)) + 1;
+        StringBuilder range = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            range.append(lines.get(i).getText()).append(lines.get(i).getSeparator());
+        }
+        String original = range.toString();
+        StringBuilder edited = new StringBuilder(edit(original, starts[from], sorted));
+
+        // a line feed left at the start may belong to the carriage return ending the previous line
+        if (from > 0 && !edited.isEmpty() && edited.charAt(0) == '\n' && lines.get(from - 1).getSeparator().equals("\r")) {
+            from--;
+            edited.insert(0, lines.get(from).getText() + "\r");
+            original = lines.get(from).getText() + "\r" + original;
+        }
+        // an edit removing the last line separator joins the range with the next line
+        while (to < lines.size() && !edited.isEmpty() && !isLineBreak(edited.charAt(edited.length() - 1))) {
+            String next = lines.get(to).getText() + lines.get(to).getSeparator();
+            edited.append(next);
+            original += next;
+            to++;
+        }
+
+        if (original.contentEquals(edited)) {
+            logger.debug("Content of {} is unchanged", filePath);
+            return false;
+        }
+
+        replaceLines(from, to, PhpIniDocument.split(edited), new IniLineTokenizer());
+        return true;
+    }
+
+    /**
+     * Check that the given sorted edits do not overlap and lie within the content.
+     *
+     * @param sorted the edits sorted by offset
+     * @param length the length of the content
+     * @return true if the edits are valid, false otherwise
+     */
+    private boolean checkEdits(@NotNull List<TextEdit> sorted, int length) {
+        int position = 0;
+
+        for (TextEdit edit : sorted) {
+            int end = edit.getOffset() + edit.getLength();
+            if (edit.getOffset() < position || end > length) {
+                logger.error("Invalid edit {} of {}", edit, filePath);
+                return false;
+            }
+            position = end;
+        }
+
+        return true;
+    }
+
+    /**
+     * Apply the given sorted edits to a part of the content.
+     *
+     * @param text   the part of the content
+     * @param offset the offset of the part in the content
+     * @param sorted the valid edits sorted by offset, all within the part
+     * @return the edited part
+     */
+    private static @NotNull String edit(@NotNull String text, int offset, @NotNull List<TextEdit> sorted) {
+        StringBuilder sb = new StringBuilder(text.length());
+        int position = 0;
+
+        for (TextEdit edit : sorted) {
+            int start = edit.getOffset() - offset;
+            sb.append(text, position, start).append(edit.getReplacement());
+            position = start + edit.getLength();
+        }
+        sb.append(text, position, text.length());
+
+        return sb.toString();
+    }
+
+    /**
+     * Get the index of the line containing the given offset.
+     *
+     * @param starts the start offsets of the lines, followed by the length of the content
+     * @param offset the offset in the content
+     * @return the index of the line, the last line for the end of the content
+     */
+    private static int lineAt(int @NotNull [] starts, int offset) {
+        int index = Arrays.binarySearch(starts, 0, starts.length - 1, offset);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Gets whether the given character ends a line.
+     *
+     * @param c the character
+     * @return is the character a line feed or a carriage return?
+     */
+    private static boolean isLineBreak(char c) {
+        return c == '\n' || c == '\r';
+    }
+
+    /**
+     * Replace a range of lines of the document that does not add or remove section lines.
+     * Lines kept from the old range keep their directives; only the other lines are resolved again.
+     *
+     * @param from      the index of the first replaced line
+     * @param removed   the old lines of the range
+     * @param kept      for each old line, is it kept in the new range?
+     * @param inserted  the tokenized lines replacing the range
+     * @param matches   for each new line, the index of the kept old line or -1
+     * @param tokenizer the tokenizer to use
+     */
+    private void updateLines(int from, List<PhpIniDocumentLine> removed, boolean[] kept, List<PhpIniDocumentLine> inserted,
+                             int[] matches, IniLineTokenizer tokenizer) {
+        List<PhpIniDocumentLine> lines = document.lines();
+        String sectionName = from > 0 ? lines.get(from - 1).getSectionName() : null;
+        List<String> removedNames = new ArrayList<>();
+
+        for (int i = 0; i < removed.size(); i++) {
+            PhpIniDocumentLine line = removed.get(i);
+            if (!kept[i] && line.getDirective() != null) {
+                detachDirective(line);
+                removedNames.add(line.getName());
+            }
+        }
+
+        List<PhpIniDocumentLine> range = lines.subList(from, from + removed.size());
+        range.clear();
+        range.addAll(inserted);
+
+        for (int i = 0; i < inserted.size(); i++) {
+            PhpIniDocumentLine line = inserted.get(i);
+
+            if (matches[i] >= 0) {
+                sectionName = line.getSectionName();
+                continue;
+            }
+
+            line.setSectionName(sectionName);
+            if (line.getKind() != IniLineKind.DIRECTIVE) {
+                bindOther(line);
+            } else if (findSection(sectionName) == null) {
+                logger.error("Directive {} is outside of a section", line.getName());
+                line.bind(null, null);
+            } else if (!containsDirective(line.getName())) {
+                attachDirective(from + i, tokenizer);
+            } else {
+                // a later occurrence loses against the new line
+                PhpIniDocumentLine shadowed = findDirectiveLine(line.getName(), from + i + 1, true);
+                if (shadowed != null) {
+                    detachDirective(shadowed);
+                    attachDirective(from + i, tokenizer);
+                } else {
+                    line.bind(null, null);
+                }
+            }
+        }
+
+        for (String name : removedNames) {
+            if (!containsDirective(name)) {
+                // a later occurrence wins once the first one is gone
+                PhpIniDocumentLine promoted = findDirectiveLine(name, from, false);
+                if (promoted != null) {
+                    attachDirective(lines.indexOf(promoted), tokenizer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the first directive line with the given name starting at the given line.
+     *
+     * @param name  the name of the directive
+     * @param from  the index of the first line to search
+     * @param bound should only lines bound to a directive be found, or lines inside a section?
+     * @return the line, or null if not found
+     */
+    private PhpIniDocumentLine findDirectiveLine(String name, int from, boolean bound) {
+        List<PhpIniDocumentLine> lines = document.lines();
+
+        for (int i = from; i < lines.size(); i++) {
+            PhpIniDocumentLine line = lines.get(i);
+            if (line.getKind() == IniLineKind.DIRECTIVE && line.getName().equalsIgnoreCase(name)
+                    && (bound ? line.getDirective() != null : findSection(line.getSectionName()) != null)) {
+                return line;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Build the directive of a directive line and add it to its section after the directives of the previous lines.
+     *
+     * @param index     the index of the directive line
+     * @param tokenizer the tokenizer to use
+     */
+    private void attachDirective(int index, IniLineTokenizer tokenizer) {
+        List<PhpIniDocumentLine> lines = document.lines();
+        PhpIniDocumentLine line = lines.get(index);
+        String sectionName = line.getSectionName();
+        IPhpIniSection section = findSection(sectionName);
+
+        if (section == null) {
+            logger.error("Directive {} is outside of a section", line.getName());
+            line.bind(null, null);
+            return;
+        }
+
+        int position = 0;
+        for (int i = index - 1; i >= 0; i--) {
+            PhpIniDocumentLine previous = lines.get(i);
+            if (previous.getSection() == section) {
+                if (previous.getDirective() != null) {
+                    position = section.getDirectives().indexOf(previous.getDirective()) + 1;
+                }
+                break;
+            }
+        }
+
+        IPhpIniDirective directive = newDirective(line, tokenizer, sectionName);
+        section.getDirectives().add(position, directive);
+        nameIndex.addDirective(section, directive);
+        line.bind(directive, section);
+    }
+
+    /**
+     * Remove the directive of a directive line from its section.
+     *
+     * @param line the directive line
+     */
+    private void detachDirective(PhpIniDocumentLine line) {
+        if (line.getSection() != null && line.getSection().getDirectives().remove(line.getDirective())) {
+            nameIndex.removeDirective(line.getSection(), line.getDirective().getName());
+        }
+        line.bind(null, null);
+    }
+
+    /**
+     * Bring the lines of the document in line with the sections and directives.
+     * <p>Lines of directives with a changed value get the new value in place of the old one, keeping the rest of
+     * the line. Lines of removed directives and all lines of removed sections are dropped. Directives that are not
+     * bound to a line yet are inserted after the last line of their section; sections without a line are appended
+     * with their directives. All other lines are kept as they are.</p>
+     */
+    private void syncDocument() {
+        List<PhpIniDocumentLine> lines = document.lines();
+        List<PhpIniDocumentLine> result = new ArrayList<>(lines.size());
+        Set<IPhpIniSection> sections = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<IPhpIniDirective> bound = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<IPhpIniSection, Integer> lastLines = new IdentityHashMap<>();
+        IniLineTokenizer tokenizer = new IniLineTokenizer();
+        boolean removed = false;
+
+        sections.addAll(ini);
+
+        for (PhpIniDocumentLine line : lines) {
+            IPhpIniSection section = line.getSection();
+
+            if (line.getKind() == IniLineKind.SECTION && section != null) {
+                removed = !sections.contains(section);
+            }
+            if (removed || (line.getDirective() != null && !containsIdentical(section, line.getDirective()))) {
+                continue;
+            }
+
+            if (line.getDirective() != null) {
+                bound.add(line.getDirective());
+                if (line.isChanged()) {
+                    line = line.withText(replaceValue(line, tokenizer), line.getSeparator());
+                }
+            }
+            if (section != null) {
+                lastLines.put(section, result.size());
+            }
+            result.add(line);
+        }
+
+        String separator = document.getSeparator();
+        List<PhpIniDocumentLine> appended = new ArrayList<>();
+        // insert from the last section backwards, so the recorded line indexes stay valid
+        for (int i = ini.size() - 1; i >= 0; i--) {
+            IPhpIniSection section = ini.get(i);
+            List<PhpIniDocumentLine> added = new ArrayList<>();
+
+            for (IPhpIniDirective directive : section.getDirectives()) {
+                if (!bound.contains(directive)) {
+                    added.add(newLine(directive.getName() + " = " + getOutValue(directive), separator, tokenizer,
+                            directive, section));
+                }
+            }
+
+            Integer last = lastLines.get(section);
+            if (last != null) {
+                result.addAll(last + 1, added);
+            } else {
+                added.add(0, newLine("[" + section.getName() + "]", separator, tokenizer, null, section));
+                appended.addAll(0, added);
+            }
+        }
+
+        if (!appended.isEmpty() && !result.isEmpty() && result.get(result.size() - 1).getSeparator().isEmpty()) {
+            PhpIniDocumentLine last = result.get(result.size() - 1);
+            result.set(result.size() - 1, last.withText(last.getText(), separator));
+        }
+        result.addAll(appended);
+
+        lines.clear();
+        lines.addAll(result);
+        fileContent = null;
+    }
+
+    /**
+     * Gets whether the given section still contains the given directive instance.
+     *
+     * @param section   the section, may be null
+     * @param directive the directive
+     * @return is the directive part of the section?
+     */
+    private static boolean containsIdentical(IPhpIniSection section, IPhpIniDirective directive) {
+        if (section != null) {
+            for (IPhpIniDirective other : section.getDirectives()) {
+                if (other == directive) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the text of a directive line with the value replaced by the current value of its directive.
+     * Everything before and after the value, including the comment, is kept.
+     *
+     * @param line      the directive line
+     * @param tokenizer the tokenizer to use
+     * @return the new text of the line
+     */
+    private static String replaceValue(PhpIniDocumentLine line, IniLineTokenizer tokenizer) {
+        String text = line.getText();
+        String value = getOutValue(line.getDirective());
+        tokenizer.tokenize(text);
+
+        if (tokenizer.getValueStart() <= tokenizer.getNameEnd()) {
+            // the line has no assignment yet
+            return text.substring(0, tokenizer.getNameEnd()) + " = " + value + text.substring(tokenizer.getNameEnd());
+        }
+
+        return text.substring(0, tokenizer.getValueStart()) + value + text.substring(tokenizer.getValueEnd());
+    }
+
+    /**
+     * Get the value of the given directive as it is written to a PHP INI file.
+     *
+     * @param directive the directive
+     * @return the value to write
+     */
+    private static String getOutValue(IPhpIniDirective directive) {
+        return directive instanceof PhpIniDirective phpIniDirective ? phpIniDirective.getOutValue() : directive.getValue();
+    }
+
+    /**
+     * Create a new tokenized line bound to the given directive or section.
+     *
+     * @param text      the text of the line
+     * @param separator the line separator
+     * @param tokenizer the tokenizer to use
+     * @param directive the directive of the line, or null for a section line
+     * @param section   the section of the line
+     * @return the line
+     */
+    private static PhpIniDocumentLine newLine(String text, String separator, IniLineTokenizer tokenizer,
+                                              IPhpIniDirective directive, IPhpIniSection section) {
+        PhpIniDocumentLine line = new PhpIniDocumentLine(text, separator);
+        line.tokenize(tokenizer);
+        line.setSectionName(section.getName());
+        line.bind(directive, section);
+        return line;
     }
 
     @Override
@@ -229,11 +1142,99 @@ public class PhpIni implements IPhpIni {
         return fileExtension;
     }
 
+    /**
+     * Get the file content of the PHP INI file.
+     *
+     * @return the file content as a String, or null if the content was not kept while loading
+     */
     @Override
     public String getFileContent() {
+        if (fileContent == null && document != null) {
+            fileContent = document.getText();
+        } else if (fileContent == null && contentOnDisk) {
+            try {
+                fileContent = Files.readString(innerPath);
+            } catch (IOException e) {
+                logger.error("Error reading file: {}", filePath, e);
+            }
+        }
         return fileContent;
     }
 
+    /**
+     * Get the lines of the PHP INI file.
+     *
+     * @return the document, or null if the raw file content is not kept
+     */
+    public PhpIniDocument getDocument() {
+        return document;
+    }
+
+    /**
+     * Gets whether the raw file content is kept in memory.
+     *
+     * @return is the raw file content kept?
+     */
+    public boolean isKeepFileContent() {
+        return keepFileContent;
+    }
+
+    /**
+     * Get how the PHP INI file was parsed when it was loaded.
+     *
+     * @return the parse mode
+     */
+    public ParseMode getParseMode() {
+        return parseMode;
+    }
+
+    /**
+     * Get how the PHP INI file is written when it is saved.
+     *
+     * @return the save mode
+     */
+    public SaveMode getSaveMode() {
+        return saveMode;
+    }
+
+    /**
+     * Set how the PHP INI file is written when it is saved.
+     *
+     * @param saveMode the save mode
+     */
+    public void setSaveMode(@NotNull SaveMode saveMode) {
+        this.saveMode = saveMode;
+    }
+
+    /**
+     * Get the number of bytes read from disk while loading the PHP INI file.
+     *
+     * @return the number of bytes read
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Get the number of bytes written from memory during the last save.
+     * If only a few lines were changed, this is the size of the changed region instead of the size of the file.
+     *
+     * @return the number of bytes written
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Get the number of unchanged bytes copied from the old file during the last save.
+     * The bytes are copied between the files without passing through the heap.
+     *
+     * @return the number of bytes copied
+     */
+    public long getBytesCopied() {
+        return bytesCopied;
+    }
+
     /**
      * Get the directives of the PHP INI file as a dictionary.
      *
@@ -245,26 +1246,19 @@ public class PhpIni implements IPhpIni {
     }
 
     /**
-     * Gets whether the PHP INI file contains a section with the given name.
-     *
-     * @param sectionName the given name
-     * @return true if the section exists, false otherwise
-     */
-    @Override
-    public boolean containsSection(String sectionName) {
-        boolean result = false;
-
-        for (IPhpIniSection section : ini) {
-            if (section.getName().equalsIgnoreCase(sectionName)) {
-                result = true;
-                break;
-            }
-        }
+     * Gets whether the PHP INI file contains a section with the given name.
+     *
+     * @param sectionName the given name
+     * @return true if the section exists, false otherwise
+     */
+    @Override
+    public boolean containsSection(String sectionName) {
+        boolean result = findSection(sectionName) != null;
 
         if (!result) {
-            logger.info(SECTION_NOT_FOUND_IN_PHP_INI_FILE, sectionName);
+            logger.debug(SECTION_NOT_FOUND_IN_PHP_INI_FILE, sectionName);
         } else {
-            logger.info(SECTION_FOUND_IN_PHP_INI_FILE, sectionName);
+            logger.debug(SECTION_FOUND_IN_PHP_INI_FILE, sectionName);
         }
 
         return result;
@@ -278,19 +1272,12 @@ public class PhpIni implements IPhpIni {
      */
     @Override
     public boolean containsDirective(String directiveName) {
-        boolean result = false;
-
-        for (IPhpIniSection section : ini) {
-            if (section.getDirectiveByName(directiveName) != null) {
-                result = true;
-                break;
-            }
-        }
+        boolean result = nameIndex.findDirective(directiveName, ini) != null;
 
         if (!result) {
-            logger.info(DIRECTIVE_NOT_FOUND_IN_PHP_INI_FILE, directiveName);
+            logger.debug(DIRECTIVE_NOT_FOUND_IN_PHP_INI_FILE, directiveName);
         } else {
-            logger.info(DIRECTIVE_FOUND_IN_PHP_INI_FILE, directiveName);
+            logger.debug(DIRECTIVE_FOUND_IN_PHP_INI_FILE, directiveName);
         }
 
         return result;
@@ -308,6 +1295,8 @@ public class PhpIni implements IPhpIni {
         if (section != null && !section.getName().isEmpty()) {
             if (!containsSection(section.getName())) {
                 ini.add(section);
+                nameIndex.addSection(section);
+                prefixIndex = null;
                 result = true;
                 logger.info("Section {} added to PHP INI file", section.getName());
             } else {
@@ -332,6 +1321,8 @@ public class PhpIni implements IPhpIni {
 
         if (section != null && containsSection(section.getName())) {
             ini.remove(section);
+            nameIndex.removeSection(section);
+            prefixIndex = null;
             result = true;
             logger.info(SECTION_REMOVED_FROM_PHP_INI_FILE, section.getName());
         } else if (section != null) {
@@ -353,15 +1344,14 @@ public class PhpIni implements IPhpIni {
     public boolean removeSection(String sectionName) {
         boolean result = false;
 
-        if (containsSection(sectionName)) {
-            for (IPhpIniSection section : ini) {
-                if (section.getName().equalsIgnoreCase(sectionName)) {
-                    ini.remove(section);
-                    result = true;
-                    logger.info(SECTION_REMOVED_FROM_PHP_INI_FILE, sectionName);
-                    break;
-                }
-            }
+        IPhpIniSection section = findSection(sectionName);
+
+        if (section != null) {
+            ini.remove(section);
+            nameIndex.removeSection(section);
+            prefixIndex = null;
+            result = true;
+            logger.info(SECTION_REMOVED_FROM_PHP_INI_FILE, sectionName);
         } else {
             logger.warn(SECTION_NOT_FOUND_IN_PHP_INI_FILE, sectionName);
         }
@@ -381,13 +1371,13 @@ public class PhpIni implements IPhpIni {
 
         if (directive != null && !directive.getName().isEmpty()) {
             if (!containsDirective(directive.getName())) {
-                for (IPhpIniSection section : ini) {
-                    if (section.getName().equalsIgnoreCase(directive.getSection())) {
-                        section.getDirectives().add(directive);
-                        result = true;
-                        logger.info("Directive {} added to section {} in PHP INI file", directive.getName(), directive.getSection());
-                        break;
-                    }
+                IPhpIniSection section = findSection(directive.getSection());
+                if (section != null) {
+                    section.getDirectives().add(directive);
+                    nameIndex.addDirective(section, directive);
+                    prefixIndex = null;
+                    result = true;
+                    logger.debug("Directive {} added to section {} in PHP INI file", directive.getName(), directive.getSection());
                 }
             } else {
                 logger.warn("Directive {} already exists in PHP INI file", directive.getName());
@@ -411,14 +1401,11 @@ public class PhpIni implements IPhpIni {
         boolean result = false;
 
         if (name != null && !name.isEmpty()) {
-            for (IPhpIniSection section : ini) {
-                IPhpIniDirective directive = section.getDirectiveByName(name);
-                if (directive != null) {
-                    directive.setValue(value);
-                    result = true;
-                    logger.info("Directive {} updated in section {} in PHP INI file", name, section.getName());
-                    break;
-                }
+            PhpIniIndex.Entry entry = nameIndex.findDirective(name, ini);
+            if (entry != null) {
+                entry.getDirective().setValue(value);
+                result = true;
+                logger.info("Directive {} updated in section {} in PHP INI file", name, entry.getSection().getName());
             }
         } else {
             logger.error("Directive name is null or empty");
@@ -448,21 +1435,15 @@ public class PhpIni implements IPhpIni {
     public boolean removeDirective(String name) {
         boolean result = false;
 
-        if (containsDirective(name)) {
-            for (IPhpIniSection section : ini) {
-                for (IPhpIniDirective directive : section.getDirectives()) {
-                    if (directive.getName().equalsIgnoreCase(name)) {
-                        section.getDirectives().remove(directive);
-                        result = true;
-                        logger.info("Directive {} removed from section {} in PHP INI file", name, section.getName());
-                        break;
-                    }
-                }
+        PhpIniIndex.Entry entry = nameIndex.findDirective(name, ini);
 
-                if (result) {
-                    break;
-                }
-            }
+        if (entry != null) {
+            IPhpIniSection section = entry.getSection();
+            section.tryRemoveDirective(name);
+            nameIndex.removeDirective(section, name);
+            prefixIndex = null;
+            result = true;
+            logger.info("Directive {} removed from section {} in PHP INI file", name, section.getName());
         } else {
             logger.warn(DIRECTIVE_NOT_FOUND_IN_PHP_INI_FILE, name);
         }
@@ -483,13 +1464,11 @@ public class PhpIni implements IPhpIni {
         String sectionName = null;
 
         if (name != null && !name.isEmpty()) {
-            for (IPhpIniSection section : ini) {
-                directive = section.getDirectiveByName(name);
-                if (directive != null) {
-                    found = true;
-                    sectionName = section.getName();
-                    break;
-                }
+            PhpIniIndex.Entry entry = nameIndex.findDirective(name, ini);
+            if (entry != null) {
+                directive = entry.getDirective();
+                found = true;
+                sectionName = entry.getSection().getName();
             }
         } else {
             logger.error("Directive name is null or empty");
@@ -498,42 +1477,225 @@ public class PhpIni implements IPhpIni {
         if (!found) {
             logger.warn(DIRECTIVE_NOT_FOUND_IN_PHP_INI_FILE, name);
         } else {
-            logger.info("Directive {} found in section {} in PHP INI file", name, sectionName);
+            logger.debug("Directive {} found in section {} in PHP INI file", name, sectionName);
         }
 
         return directive;
     }
 
     /**
-     * Tries to save the PHP INI file.
+     * Get the directives of the PHP INI file whose name starts with the given prefix, ignoring case.
      *
-     * @return true if the file was saved successfully, false otherwise
+     * @param prefix the prefix
+     * @return an unmodifiable list of the directives in the order of their names
      */
-    @Override
-    public boolean save() {
-        boolean result = false;
+    public @NotNull List<IPhpIniDirective> findDirectivesByPrefix(@NotNull String prefix) {
+        return getPrefixIndex().findByPrefix(prefix);
+    }
+
+    /**
+     * Get the directives of the PHP INI file in the given namespace, like {@code session} for
+     * {@code session.save_path}, ignoring case.
+     *
+     * @param namespace the namespace without the separator
+     * @return an unmodifiable list of the directives in the order of their names
+     */
+    public @NotNull List<IPhpIniDirective> findDirectivesByNamespace(@NotNull String namespace) {
+        return getPrefixIndex().findByNamespace(namespace);
+    }
+
+    /**
+     * Get the best completions of the given prefix among the directive names of the PHP INI file, the shortest
+     * names first.
+     *
+     * @param prefix the prefix
+     * @param limit  the maximum number of completions
+     * @return the names of the completions, best first
+     */
+    public @NotNull List<String> completeDirectiveName(@NotNull String prefix, int limit) {
+        return getPrefixIndex().complete(prefix, limit);
+    }
+
+    /**
+     * Get the index of the directive names, building it again if directives were added, removed or replaced.
+     *
+     * @return the prefix index
+     */
+    private @NotNull NamePrefixIndex<IPhpIniDirective> getPrefixIndex() {
+        int changeCount = nameIndex.getChangeCount(ini);
+
+        if (prefixIndex == null || prefixIndexChangeCount != changeCount) {
+            List<IPhpIniDirective> directives = new ArrayList<>();
+            for (IPhpIniSection section : ini) {
+                directives.addAll(section.getDirectives());
+            }
+            prefixIndex = new NamePrefixIndex<>(directives, IPhpIniDirective::getName);
+            prefixIndexChangeCount = changeCount;
+        }
+
+        return prefixIndex;
+    }
+
+    /**
+     * Get the directives of the PHP INI file which are not valid in the given PHP version.
+     * Directives missing in the catalog have no version bounds and are always valid.
+     *
+     * @param version the target PHP version
+     * @return the invalid directives in file order
+     */
+    public @NotNull List<IPhpIniDirective> getInvalidDirectives(@NotNull PhpVersion version) {
+        List<IPhpIniDirective> result = new ArrayList<>();
+
+        for (IPhpIniSection section : ini) {
+            for (IPhpIniDirective directive : section.getDirectives()) {
+                if (!DirectiveVersionIndex.isValidIn(directive.getMinVersion(), directive.getMaxVersion(), version)) {
+                    result.add(directive);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Check if every directive of the PHP INI file is valid in the given PHP version.
+     *
+     * @param version the target PHP version
+     * @return true if no directive is invalid in the version, false otherwise
+     */
+    public boolean isValidIn(@NotNull PhpVersion version) {
+        List<IPhpIniDirective> invalid = getInvalidDirectives(version);
+
+        for (IPhpIniDirective directive : invalid) {
+            logger.warn("Directive {} is not valid in PHP {}", directive.getName(), version);
+        }
+
+        return invalid.isEmpty();
+    }
 
-        StringBuilder sb = new StringBuilder();
+    /**
+     * Remove the directives which are not valid in the given PHP version from the PHP INI file.
+     *
+     * @param version the target PHP version
+     * @return the number of removed directives
+     */
+    public int removeInvalidDirectives(@NotNull PhpVersion version) {
+        int result = 0;
 
         for (IPhpIniSection section : ini) {
-            sb.append("[").append(section.getName()).append("]").append(System.lineSeparator());
+            Iterator<IPhpIniDirective> directives = section.getDirectives().iterator();
+            while (directives.hasNext()) {
+                IPhpIniDirective directive = directives.next();
+                if (!DirectiveVersionIndex.isValidIn(directive.getMinVersion(), directive.getMaxVersion(), version)) {
+                    directives.remove();
+                    nameIndex.removeDirective(section, directive.getName());
+                    prefixIndex = null;
+                    result++;
+                    logger.info("Directive {} not valid in PHP {} removed from section {}", directive.getName(),
+                            version, section.getName());
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Bring the sections and directives of the PHP INI file in line with the given sections.
+     * <p>Sections and directives missing in the given sections are removed, new ones are added and changed values are
+     * updated, so the lines of unchanged directives, comments and the layout of the file are kept.</p>
+     *
+     * @param sections the sections the file should hold
+     */
+    void applySections(@NotNull List<? extends IPhpIniSection> sections) {
+        for (IPhpIniSection section : List.copyOf(ini)) {
+            if (findSection(sections, section.getName()) == null) {
+                removeSection(section);
+            }
+        }
 
-            List<IPhpIniDirective> directives = section.getDirectives();
-            for (IPhpIniDirective directive : directives) {
-                sb.append(directive.getContent());
-                sb.append(System.lineSeparator());
+        for (IPhpIniSection section : sections) {
+            if (!containsSection(section.getName())) {
+                addSection(new PhpIniSection(section.getName()));
+            }
+            for (IPhpIniDirective directive : section.getDirectives()) {
+                applyDirective(directive, section.getName());
+            }
+        }
+
+        for (IPhpIniSection section : List.copyOf(ini)) {
+            IPhpIniSection current = findSection(sections, section.getName());
+            for (IPhpIniDirective directive : List.copyOf(section.getDirectives())) {
+                if (current == null || current.getDirectiveByName(directive.getName()) == null) {
+                    removeDirective(directive.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Bring a directive of the PHP INI file in line with the given directive.
+     *
+     * @param directive   the directive
+     * @param sectionName the name of the section of the directive
+     */
+    private void applyDirective(@NotNull IPhpIniDirective directive, @NotNull String sectionName) {
+        IPhpIniDirective existing = getDirective(directive.getName());
+
+        if (existing != null && !sectionName.equalsIgnoreCase(existing.getSection())) {
+            removeDirective(existing.getName());
+            existing = null;
+        }
+
+        if (existing == null) {
+            PhpIniDirective added = new PhpIniDirective(directive);
+            added.setSection(sectionName);
+            addDirective(added);
+        } else if (!Objects.equals(existing.getValue(), directive.getValue())) {
+            updateDirective(directive.getName(), directive.getValue());
+        }
+    }
+
+    /**
+     * Find the section with the given name in the given sections, ignoring case.
+     *
+     * @param sections    the sections
+     * @param sectionName the name of the section
+     * @return the section or null if not found
+     */
+    private static IPhpIniSection findSection(@NotNull List<? extends IPhpIniSection> sections, String sectionName) {
+        for (IPhpIniSection section : sections) {
+            if (section.getName().equalsIgnoreCase(sectionName)) {
+                return section;
             }
         }
+        return null;
+    }
 
-        fileContent = sb.toString();
+    /**
+     * Tries to save the PHP INI file.
+     * <p>If the lines of the file are kept, only the lines of changed, added and removed directives and sections
+     * are written differently; comments, blank lines and the order of the lines are kept. Otherwise the file is
+     * rebuilt from the sections and directives.</p>
+     * <p>How the file is written depends on the {@link #getSaveMode() save mode}. The file is saved while holding
+     * the lock of this instance, like by a {@link PhpIniSaver}.</p>
+     *
+     * @return true if the file was saved successfully, false otherwise
+     */
+    @Override
+    public synchronized boolean save() {
+        boolean result = false;
 
         try {
-            if (innerPath != null && innerPath.toFile().canWrite()) {
-                Files.writeString(innerPath, fileContent);
+            if (saveMode == SaveMode.ATOMIC) {
+                result = !AtomicFileCommit.commit(List.of(this)).isEmpty();
+            } else if (isWritable()) {
+                prepareContent();
+                writeDirect();
                 result = true;
+            }
+            if (result) {
                 logger.info("File saved successfully: {}", filePath);
-            } else {
-                logger.error("File is not writable: {}", filePath);
             }
         } catch (IOException e) {
             logger.error("Error saving file: {}", filePath, e);
@@ -541,4 +1703,332 @@ public class PhpIni implements IPhpIni {
 
         return result;
     }
+
+    /**
+     * Check if the PHP INI file can be written, logging an error otherwise.
+     *
+     * @return true if the file is writable, false otherwise
+     */
+    boolean isWritable() {
+        boolean result = innerPath != null && innerPath.toFile().canWrite();
+        if (!result) {
+            logger.error("File is not writable: {}", filePath);
+        }
+        return result;
+    }
+
+    /**
+     * Save several PHP INI files atomically with one group commit.
+     * <p>The new content of every file is written to a sibling file first. The sibling files are then synced to
+     * disk together, renamed over their targets, and each directory is synced once, so the cost of the syncs is
+     * shared by all files. Every file is either replaced completely or left as it was, regardless of the save
+     * mode of the files.</p>
+     *
+     * @param phpInis the PHP INI files to save
+     * @return true if all files were saved successfully, false otherwise
+     */
+    public static boolean saveAll(@NotNull Collection<? extends PhpIni> phpInis) {
+        int saved = AtomicFileCommit.commit(new ArrayList<>(phpInis)).size();
+        logger.info("{} of {} files saved in one group commit", saved, phpInis.size());
+
+        return saved == phpInis.size();
+    }
+
+    /**
+     * Bring the lines of the file in line with the sections and directives, if the lines are kept.
+     */
+    void prepareContent() {
+        if (document != null) {
+            syncDocument();
+        }
+    }
+
+    /**
+     * Write the content straight onto the file.
+     *
+     * @exception IOException if the file cannot be written
+     */
+    private void writeDirect() throws IOException {
+        if (document != null) {
+            writeDocument();
+        } else {
+            bytesWritten = writeAll(innerPath);
+            bytesCopied = 0;
+        }
+    }
+
+    /**
+     * Stream the whole content into the given file, replacing its content.
+     * If the lines of the file are not kept, the written content is not kept in memory either; it is read back
+     * from the file if {@link #getFileContent()} is called.
+     *
+     * @param path the file to write
+     * @return the number of bytes written
+     * @exception IOException if the file cannot be written
+     */
+    private long writeAll(Path path) throws IOException {
+        long result;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            result = new PhpIniWriter().writeModel(this, channel);
+        }
+
+        if (document == null) {
+            fileContent = null;
+            contentOnDisk = keepFileContent;
+        }
+
+        return result;
+    }
+
+    /**
+     * Stream the PHP INI file to an output stream, e.g. for an export.
+     * Changes of the sections and directives are applied to the lines of the file first, like on save.
+     *
+     * @param out the output stream, flushed but not closed
+     * @return the number of bytes written
+     * @exception IOException if the output stream cannot be written
+     */
+    public long writeTo(@NotNull OutputStream out) throws IOException {
+        return new PhpIniWriter().write(this, out);
+    }
+
+    /**
+     * Write the lines of the document that changed since the file was last read or written.
+     * <p>The changed region lies between the longest runs of unchanged leading and trailing lines. If the region
+     * keeps its size in bytes, it is patched in place. Otherwise a sibling file is written from the unchanged
+     * prefix and suffix of the old file, copied with {@link FileChannel#transferTo}, and the changed region in
+     * between, and then replaces the old file. If the file was changed on disk by someone else, or the lines on
+     * disk are not known, the whole document is written.</p>
+     *
+     * @exception IOException if the file cannot be written
+     */
+    private void writeDocument() throws IOException {
+        SavedDocument.ChangedRegion region = findChangedRegion();
+        bytesWritten = 0;
+        bytesCopied = 0;
+
+        if (region == null) {
+            bytesWritten = writeAll(innerPath);
+            logger.debug("Wrote all {} bytes of {}", bytesWritten, filePath);
+        } else if (region.isEmpty()) {
+            logger.debug("No lines of {} changed", filePath);
+        } else {
+            if (region.isSameSize()) {
+                savedDocument.patch(region);
+            } else {
+                Path target = innerPath.toAbsolutePath();
+                Path temp = AtomicFileCommit.createSiblingFile(target, "." + fileNameWithoutExtension);
+                try {
+                    bytesCopied = savedDocument.splice(temp, region);
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+            bytesWritten = region.getByteCount();
+            logger.debug("Wrote lines {} to {} of {}: {} bytes written, {} bytes copied",
+                    region.getFrom(), region.getTo(), filePath, bytesWritten, bytesCopied);
+        }
+
+        markSaved(new ArrayList<>(document.lines()));
+    }
+
+    /**
+     * Find the region of the document that changed since the file was last read or written.
+     *
+     * @return the changed region, or null if the lines on disk are not known or the file was changed on disk
+     * @exception IOException if the file cannot be read
+     */
+    private SavedDocument.ChangedRegion findChangedRegion() throws IOException {
+        return savedDocument != null ? savedDocument.findChangedRegion(document.lines()) : null;
+    }
+
+    /**
+     * Remember the lines of the document as they are on disk, with the attributes and the checksum of the file.
+     *
+     * @param lines the lines of the document on disk
+     * @exception IOException if the attributes of the file cannot be read
+     */
+    void markSaved(@NotNull List<PhpIniDocumentLine> lines) throws IOException {
+        if (savedDocument == null) {
+            savedDocument = new SavedDocument(innerPath);
+        }
+        savedDocument.mark(lines);
+    }
+
+    /**
+     * Get the path of the PHP INI file.
+     *
+     * @return the path
+     */
+    Path getPath() {
+        return innerPath;
+    }
+
+    /**
+     * Get the attributes of new files: read and write permissions for the owner and read permissions for everyone
+     * else, or no attributes if the default file system has no POSIX permissions.
+     *
+     * @return the attributes
+     */
+    private static FileAttribute<?>[] fileAttributes() {
+        FileAttribute<?>[] result = new FileAttribute<?>[0];
+
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            result = new FileAttribute<?>[]{
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-r--r--"))
+            };
+        }
+
+        return result;
+    }
+
+    /**
+     * Write the new content of the file into a sibling file.
+     *
+     * @return the sibling file, without a file if nothing changed
+     * @exception IOException if the sibling file cannot be written
+     */
+    AtomicFileCommit.Sibling writeSibling() throws IOException {
+        Path target = innerPath.toAbsolutePath();
+        SavedDocument.ChangedRegion region = document != null ? findChangedRegion() : null;
+        List<PhpIniDocumentLine> lines = document != null ? new ArrayList<>(document.lines()) : null;
+        bytesWritten = 0;
+        bytesCopied = 0;
+
+        if (region != null && region.isEmpty()) {
+            logger.debug("No lines of {} changed", filePath);
+            return new AtomicFileCommit.Sibling(null, lines);
+        }
+
+        Path temp = AtomicFileCommit.createSiblingFile(target, "." + fileNameWithoutExtension);
+        try {
+            if (region != null) {
+                bytesCopied = savedDocument.splice(temp, region);
+                bytesWritten = region.getByteCount();
+            } else {
+                bytesWritten = writeAll(temp);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        return new AtomicFileCommit.Sibling(temp, lines);
+    }
+
+    /**
+     * Handler building the sections and directives of the PHP INI file from the events of the parser.
+     */
+    private final class ModelHandler implements IPhpIniHandler {
+
+        @Override
+        public boolean onSection(@NotNull String sectionName, @NotNull IIniLineView line) {
+            initSection(sectionName, line.getSource());
+            return true;
+        }
+
+        @Override
+        public boolean onDirective(String sectionName, @NotNull IIniLineView line) {
+            if (isNewDirective(line.getName())) {
+                initDirective(line.toIniLine());
+            }
+            return true;
+        }
+
+        @Override
+        public boolean onInvalid(@NotNull IIniLineView line) {
+            logger.warn("Invalid line: {}", line.getSource());
+            return true;
+        }
+    }
+
+    /**
+     * Handler storing compact line records for the directives instead of building them.
+     */
+    private final class LazyModelHandler implements IPhpIniHandler {
+
+        @Override
+        public boolean onSection(@NotNull String sectionName, @NotNull IIniLineView line) {
+            initSection(sectionName, sectionName);
+            return true;
+        }
+
+        @Override
+        public boolean onDirective(String sectionName, @NotNull IIniLineView line) {
+            String name = line.getName();
+
+            if (isNewDirective(name)) {
+                IPhpIniSection section = findSection(currentSectionName);
+                if (section instanceof LazyPhpIniSection lazySection) {
+                    lazySection.addLine(line.getLineStart(), line.getLineEnd(), name);
+                    nameIndex.addLine(lazySection, name);
+                } else {
+                    logger.error("Directive {} is outside of a section", name);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean onInvalid(@NotNull IIniLineView line) {
+            logger.warn("Invalid line: {}", line.getSource().subSequence(line.getLineStart(), line.getLineEnd()));
+            return true;
+        }
+    }
+
+    /**
+     * Readable byte channel counting the bytes read from the wrapped channel.
+     */
+    private static final class CountingByteChannel implements ReadableByteChannel {
+
+        /**
+         * The wrapped channel.
+         */
+        private final ReadableByteChannel channel;
+
+        /**
+         * The number of bytes read so far.
+         */
+        private long count;
+
+        /**
+         * Constructor with the channel to wrap.
+         *
+         * @param channel the channel to wrap
+         */
+        CountingByteChannel(ReadableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            int read = channel.read(dst);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        /**
+         * Get the number of bytes read so far.
+         *
+         * @return the number of bytes read
+         */
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
 }
@@ -1,19 +1,20 @@
 package de.hermannbsd.phpini.library;
 
 import de.hermannbsd.phpini.library.enums.DirectiveChangeable;
+import de.hermannbsd.phpini.library.enums.PhpValueType;
 import de.hermannbsd.phpini.library.helper.StringHelper;
 import de.hermannbsd.phpini.library.interfaces.IIniLine;
 import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpTypeInterpreter;
+import de.hermannbsd.phpini.library.interfaces.IPhpValueInterpreter;
 import de.hermannbsd.phpini.library.php_type_interpreter.BoolInterpreter;
+import de.hermannbsd.phpini.library.php_type_interpreter.PhpTypeInterpreters;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Type;
-import java.util.List;
-import java.util.ArrayList;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.io.IOException;
 import java.util.Objects;
 
@@ -28,19 +29,6 @@ public class PhpIniDirective implements IPhpIniDirective {
      * Logger for the PhpIniDirective class.
      */
     private static final Logger logger = LoggerFactory.getLogger(PhpIniDirective.class);
-    /**
-     * The name of the CSV file containing the directives.
-     */
-    private static final String DIRECTIVES_CSV = "phpini_directives.csv";
-    /**
-     * The list of directives loaded from the CSV file.
-     */
-    private static final List<IPhpIniDirective> directives = new ArrayList<>();
-
-    /**
-     * The PHP type name for float.
-     */
-    static final String PHP_FLOAT = "float";
     /**
      * The PHP type name for string.
      */
@@ -66,46 +54,31 @@ public class PhpIniDirective implements IPhpIniDirective {
     private String value;
 
     /**
-     * The real value of the directive.
+     * The real value of the directive if it is not kept as a primitive: the value of a directive whose type is not
+     * primitive, or the unparsed value of an integer or float directive. Null if the value is kept as a primitive.
      */
     private Object realValue;
-    
+
+    /**
+     * The primitive real value of the directive: the value of an integer, the raw bits of the value of a float, or
+     * 1 for true and 0 for false. Zero if the value is not kept as a primitive.
+     */
+    private long primitiveValue;
+
     /**
      * The type of the directive.
      */
-    private Type type;
+    private PhpValueType type;
     
      /**
      * The section of the directive.
      */
     private String section;
-    /**
-     * The description of the directive.
-     */
-    private String description;
-    /**
-     * The changelog of the directive.
-     */
-    private String changelog;
-    /**
-     * The default value of the directive.
-     */
-    private String defaultValue;
 
     /**
-     * The changeable type of the directive.
+     * The shared definition of the directive, {@link DirectiveDefinition#UNKNOWN} if it is not in the catalog.
      */
-    private DirectiveChangeable directiveChangeable;
-
-    /**
-     * The default directive for this directive.
-     */
-    private IPhpIniDirective defaultDirective;
-
-    /**
-     * The INI line associated with this directive.
-     */
-    private IIniLine iniLine;
+    private DirectiveDefinition definition = DirectiveDefinition.UNKNOWN;
 
     /**
      * Constructor for the PhpIniDirective class.
@@ -120,18 +93,45 @@ public class PhpIniDirective implements IPhpIniDirective {
         } else if (row.startsWith("[")) {
             section = handleSection(row);
         } else {
-            iniLine = StringHelper.splitPhpIniLine(row);
-            defaultInit(sectionString);
+            defaultInit(StringHelper.splitPhpIniLine(row), sectionString);
         }
     }
 
+    /**
+     * Constructor for the PhpIniDirective class.
+     * This constructor takes an already tokenized line from the INI file and initializes the directive.
+     *
+     * @param iniLine the tokenized line from the INI file
+     * @param sectionString the section name of the directive
+     */
+    public PhpIniDirective(@NotNull IIniLine iniLine, String sectionString) {
+        defaultInit(iniLine, sectionString);
+    }
+
+    /**
+     * Constructor for the PhpIniDirective class.
+     * This constructor is used to create a new directive of the given definition with the given value.
+     *
+     * @param name       the name of the directive
+     * @param definition the definition of the directive
+     * @param value      the value of the directive
+     */
+    PhpIniDirective(String name, @NotNull DirectiveDefinition definition, String value) {
+        this.name = name;
+        this.definition = definition;
+        this.type = definition.getValueType();
+        this.setValue(value);
+    }
+
     /**
      * Default initialization method for the PhpIniDirective class.
-     * This method initializes the directive with the given row and section string.
+     * This method initializes the directive with the given line and section string.
+     * The line is not kept, so the directive does not retain the text of the file.
      *
+     * @param iniLine the tokenized line from the INI file
      * @param sectionString the section name of the directive
      */
-    private void defaultInit(String sectionString) {
+    private void defaultInit(@NotNull IIniLine iniLine, String sectionString) {
         if (sectionString != null && !sectionString.trim().isEmpty()) {
             section = sectionString;
         } else {
@@ -147,28 +147,16 @@ public class PhpIniDirective implements IPhpIniDirective {
         this.name = iniLine.getDirectiveName();
         this.value = iniLine.getValue();
 
-        defaultDirective = getDirectiveByName(this.name);
-        if (defaultDirective != null) {
-            this.type = getTypeByName(defaultDirective.getType());
-            this.defaultValue = defaultDirective.getDefaultValue();
-            this.section = defaultDirective.getSection();
-            this.description = defaultDirective.getDescription();
-            this.changelog = defaultDirective.getChangelog();
-            this.directiveChangeable = defaultDirective.getDirectiveChangeable();
+        DirectiveDefinition found = getDirectiveByName(this.name);
+        if (found != null) {
+            this.definition = found;
+            this.type = found.getValueType();
         } else {
-            this.type = String.class;
-            this.defaultValue = "";
-            this.description = "";
-            this.changelog = "";
-            this.directiveChangeable = DirectiveChangeable.INI_SYSTEM;
+            this.type = PhpValueType.STRING;
             getDirectiveNotFoundInCsvWarn(this.name);
         }
 
-        trySetPhpStyleValue(iniLine.getValue());
-
-        if (this.section == null || this.section.isEmpty()) {
-            this.section = sectionString;
-        }
+        trySetPhpStyleValue(this.value);
     }
 
     /**
@@ -186,7 +174,26 @@ public class PhpIniDirective implements IPhpIniDirective {
      * @param realValue the real value of the directive
      */
     protected void setRealValue(Object realValue) {
-        this.realValue = realValue;
+        if (type == PhpValueType.BOOL && realValue instanceof Boolean bool) {
+            setPrimitiveValue(bool ? 1 : 0);
+        } else if (type == PhpValueType.FLOAT && realValue instanceof Number number) {
+            setPrimitiveValue(Double.doubleToRawLongBits(number.doubleValue()));
+        } else if ((type == PhpValueType.INT || type == PhpValueType.SIZE) && realValue instanceof Number number) {
+            setPrimitiveValue(number.longValue());
+        } else {
+            this.realValue = realValue;
+            this.primitiveValue = 0;
+        }
+    }
+
+    /**
+     * Sets the primitive real value of the directive.
+     *
+     * @param primitiveValue the value of an integer, the raw bits of a float, or 1 for true and 0 for false
+     */
+    private void setPrimitiveValue(long primitiveValue) {
+        this.realValue = null;
+        this.primitiveValue = primitiveValue;
     }
 
     /**
@@ -195,7 +202,23 @@ public class PhpIniDirective implements IPhpIniDirective {
      * @param type the type of the directive
      */
     protected void setType(Type type) {
-        this.type = type;
+        PhpValueType found = PhpValueType.fromJavaType(type);
+        changeType(found != null ? found : PhpValueType.STRING);
+    }
+
+    /**
+     * Change the type of the directive and parse its value again, so the real value matches the type.
+     *
+     * @param type the new type of the directive
+     */
+    private void changeType(@NotNull PhpValueType type) {
+        if (this.type != type) {
+            this.type = type;
+            setRealValue(null);
+            if (value != null) {
+                trySetPhpStyleValue(value);
+            }
+        }
     }
 
     /**
@@ -213,7 +236,7 @@ public class PhpIniDirective implements IPhpIniDirective {
      * @param description the description of the directive
      */
     protected void setDescription(String description) {
-        this.description = description;
+        this.definition = definition.withDescription(getNotEmptyString(description));
     }
 
     /**
@@ -222,7 +245,7 @@ public class PhpIniDirective implements IPhpIniDirective {
      * @param changelog the changelog of the directive
      */
     void setChangelog(String changelog) {
-        this.changelog = changelog;
+        this.definition = definition.withChangelog(getNotEmptyString(changelog));
     }
 
     /**
@@ -231,25 +254,25 @@ public class PhpIniDirective implements IPhpIniDirective {
      * @param changeable the changeable type of the directive
      */
     protected void setDirectiveChangeable(DirectiveChangeable changeable) {
-        this.directiveChangeable = changeable;
+        this.definition = definition.withDirectiveChangeable(changeable);
     }
 
     /**
-     * Get the default directive for this directive.
+     * Get the catalog definition of this directive.
      *
-     * @return the default directive
+     * @return the shared definition or null if the directive is not in the catalog
      */
-    public IPhpIniDirective getDefaultDirective() {
-        return defaultDirective;
+    public @Nullable DirectiveDefinition getDefinition() {
+        return definition == DirectiveDefinition.UNKNOWN ? null : definition;
     }
 
     /**
-     * Set the default directive for this directive.
+     * Set the catalog definition of this directive.
      *
-     * @param defaultDirective the default directive
+     * @param definition the definition or null if the directive is not in the catalog
      */
-    protected void setDefaultDirective(IPhpIniDirective defaultDirective) {
-        this.defaultDirective = defaultDirective;
+    protected void setDefinition(@Nullable DirectiveDefinition definition) {
+        this.definition = definition != null ? definition : DirectiveDefinition.UNKNOWN;
     }
 
     /**
@@ -286,55 +309,40 @@ public class PhpIniDirective implements IPhpIniDirective {
     public PhpIniDirective(@NotNull IPhpIniDirective directive) {
         this.name = directive.getName();
         this.value = directive.getValue();
-        this.type = getTypeByName(directive.getType());
         this.section = directive.getSection();
-        this.description = directive.getDescription();
-        this.changelog = directive.getChangelog();
-        this.defaultValue = directive.getDefaultValue();
-        this.directiveChangeable = directive.getDirectiveChangeable();
-        this.realValue = directive.getRealValue();
+        if (directive instanceof PhpIniDirective phpIniDirective) {
+            this.type = phpIniDirective.type;
+            this.realValue = phpIniDirective.realValue;
+            this.primitiveValue = phpIniDirective.primitiveValue;
+            this.definition = phpIniDirective.definition;
+        } else {
+            this.type = getValueTypeByName(directive.getType());
+            setRealValue(directive.getRealValue());
+            this.definition = new DirectiveDefinition(getNotEmptyString(directive.getName()),
+                    getNotEmptyString(directive.getDefaultValue()), directive.getType(),
+                    getNotEmptyString(directive.getDescription()), getNotEmptyString(directive.getChangelog()),
+                    directive.getDirectiveChangeable(), directive.getMinVersion(), directive.getMaxVersion());
+        }
     }
 
     /**
-     * Constructor for the PhpIniDirective class.
-     * This constructor is used to create a new directive with the given parameters.
+     * Tries to get the directive by the given name, ignoring case.
      *
-     * @param name         the name of the directive
-     * @param defaultValue the default value of the directive
-     * @param type         the type of the value of the directive
-     * @param description  the description of the directive
-     * @param changelog    the changelog of the directive
-     * @param changeable   the changeable type of the directive
+     * @param name the given directive name
+     * @return the found directive or null if not found
      */
-    private PhpIniDirective(String name, String defaultValue, String type, String description,
-                           String changelog, DirectiveChangeable changeable) {
-        this.name = name;
-        this.type = getTypeByName(type);
-        this.setValue(defaultValue);
-        this.section = null;
-        this.description = description.replace("\"", "").trim();
-        this.changelog = changelog.replace("\"", "").trim();
-        this.defaultValue = defaultValue.replace("\"", "");
-        this.directiveChangeable = changeable;
-
-        defaultDirective = null;
+    protected static DirectiveDefinition getDirectiveByName(String name) {
+        return CatalogHolder.CATALOG.find(name);
     }
 
     /**
-     * Tries to get the directive by the given name
+     * Get the catalog of the known directives, loading it on first use.
+     * The catalog is loaded exactly once, even if several threads ask for it at the same time.
      *
-     * @param name the given directive name
-     * @return the found directive or null if not found
+     * @return the catalog
      */
-    protected static IPhpIniDirective getDirectiveByName(String name) {
-        IPhpIniDirective result = null;
-        for (IPhpIniDirective directive : directives) {
-            if (directive.getName().equals(name)) {
-                result = directive;
-                break;
-            }
-        }
-        return result;
+    public static @NotNull DirectiveCatalog getCatalog() {
+        return CatalogHolder.CATALOG;
     }
 
     /**
@@ -344,28 +352,31 @@ public class PhpIniDirective implements IPhpIniDirective {
      * @return the found Java type or String.class if not found
      */
     protected static Type getTypeByName(String typeName) {
-        Type result = String.class;
+        return getValueTypeByName(typeName).getJavaType();
+    }
+
+    /**
+     * Get the value type by the given PHP type name.
+     *
+     * @param typeName the given PHP type name
+     * @return the found value type, {@link PhpValueType#OBJECT} if the name is empty or {@link PhpValueType#STRING}
+     * if it is unknown
+     */
+    static @NotNull PhpValueType getValueTypeByName(String typeName) {
+        PhpValueType result;
 
         if (typeName == null || typeName.trim().isEmpty()) {
             if (logger.isInfoEnabled()) {
                 logger.info("Type shouldn't be null or empty ('{}')", typeName);
             }
-            result = Object.class;
-        } else if (typeName.equalsIgnoreCase("int")) {
-            result = Integer.class;
-        } else if (typeName.equalsIgnoreCase("bool")) {
-            result = Boolean.class;
-        } else if (typeName.equalsIgnoreCase(PHP_FLOAT)) {
-            result = Float.class;
-        } else if (typeName.equalsIgnoreCase(PHP_STRING)) {
-            result = String.class;
-        } else if (typeName.equalsIgnoreCase("array")) {
-            result = List.class;
-        } else if (typeName.equalsIgnoreCase("object")) {
-            result = Object.class;
+            result = PhpValueType.OBJECT;
         } else {
-            if (logger.isWarnEnabled()) {
-                logger.warn("Type not implemented: {}", typeName);
+            result = PhpValueType.fromTypeName(typeName);
+            if (result == null) {
+                if (logger.isWarnEnabled()) {
+                    logger.warn("Type not implemented: {}", typeName);
+                }
+                result = PhpValueType.STRING;
             }
         }
 
@@ -380,80 +391,26 @@ public class PhpIniDirective implements IPhpIniDirective {
      */
     @NotNull
     protected static String getTypeName(@NotNull Type type) {
-        String result;
-
-        if (type.equals(Integer.class)) {
-            result = "int";
-        } else if (type.equals(Boolean.class)) {
-            result = "bool";
-        } else if (type.equals(Float.class)) {
-            result = PHP_FLOAT;
-        } else if (type.equals(String.class)) {
-            result = PHP_STRING;
-        } else if (type.equals(List.class)) {
-            result = "array";
-        } else if (type.equals(Object.class)) {
-            result = "object";
-        } else {
-            result = type.getTypeName();
-        }
-
-        return result;
+        PhpValueType found = PhpValueType.fromJavaType(type);
+        return found != null ? found.getTypeName() : type.getTypeName();
     }
 
     /**
-     * Try to load the directives from the CSV file.
+     * Try to load the directives of the catalog.
      *
      * @return true if the directives were loaded successfully, false otherwise
      */
     private boolean tryLoadDirectives() {
-        if (directives.isEmpty()) {
-            try (
-                BufferedReader reader = new BufferedReader(new InputStreamReader(
-                    Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream(DIRECTIVES_CSV))))) {
-                String line;
-                int lineNumber = 0;
-                while ((line = reader.readLine()) != null) {
-                    List<String> parts = List.of(line.split(";", 8));
-                    loadDirectivesLine(parts, lineNumber, line);
-                    lineNumber++;
-                }
-            } catch (IOException e) {
-                if (logger.isErrorEnabled()) {
-                    logger.error("Error loading directives", e);
-                }
-            }
-        }
-        return !directives.isEmpty();
+        return loadDirectives();
     }
 
     /**
-     * Load the given line from the CSV file.
+     * Load the directives of the catalog unless they are already loaded.
      *
-     * @param parts the parts of the line
-     * @param lineNumber the line number
-     * @param line the line itself
+     * @return true if the directives are loaded, false otherwise
      */
-    private static void loadDirectivesLine(@NotNull List<String> parts, int lineNumber, String line) {
-        if (parts.size() >= 5 && lineNumber > 0) {
-            String tmpName = parts.get(0).trim();
-            String tmpDefaultValue = parts.get(1).replace("\"", "");
-            String tmpType = parts.get(2).replace("\"", "").trim();
-            DirectiveChangeable tmpChangeable = DirectiveChangeable.valueOf(parts.get(3).trim());
-            String tmpChangeLog = parts.get(4).replace("\"", "").trim();
-            String tmpDescription = parts.size() >= 6 ? parts.get(5).replace("\"", "").trim() : "";
-            PhpIniDirective phpIniDirective = new PhpIniDirective(tmpName, tmpDefaultValue, tmpType, tmpDescription, tmpChangeLog, tmpChangeable);
-            // min and max versions should be added by setters
-            directives.add(phpIniDirective);
-        } else if (lineNumber > 0) {
-            if (logger.isErrorEnabled()) {
-                logger.error(INVALID_DIRECTIVE_FORMAT, line);
-            }
-        } else {
-            if (logger.isInfoEnabled()) {
-                logger.info("Skipping header line: {}", line);
-            }
-        }
+    static boolean loadDirectives() {
+        return !CatalogHolder.CATALOG.isEmpty();
     }
 
     /**
@@ -492,12 +449,20 @@ public class PhpIniDirective implements IPhpIniDirective {
     protected boolean trySetPhpStyleValue(String value) {
         boolean result = false;
         if (value != null) {
-            String typeName = type.getTypeName();
-            switch (typeName) {
-                case "java.lang.Integer", "int" -> result = setPhpStyleValueByTypeInt(value);
-                case "java.lang.Boolean", "bool" -> result = trySetRealValue(BoolInterpreter.getBoolValue(value));
-                case PHP_FLOAT -> result = setPhpStyleValueByTypeFloat(value);
-                default -> result = setPhpStyleValueByValueTypeDefault(value);
+            IPhpTypeInterpreter interpreter = PhpTypeInterpreters.forType(type);
+            if (interpreter == null) {
+                result = setPhpStyleValueByValueTypeDefault(value);
+            } else if (type == PhpValueType.BOOL) {
+                // as in PHP, every value is a boolean
+                result = setBoolValue(BoolInterpreter.getBoolValue(value));
+            } else if (interpreter.isValid(value)) {
+                setPrimitiveValue(interpreter.parse(value));
+                result = true;
+            } else {
+                setRealValue(value);
+                if (logger.isErrorEnabled()) {
+                    logger.error("Failed to parse {} value: {}", type.getTypeName(), value);
+                }
             }
         }
         return result;
@@ -506,52 +471,32 @@ public class PhpIniDirective implements IPhpIniDirective {
     protected String getPhpStyleValue() {
         String result;
 
-        switch (type.getTypeName()) {
-            case "java.lang.Integer", "int" -> result = String.valueOf(realValue);
-            case "java.lang.Boolean", "bool" -> result = BoolInterpreter.getStringValue((Boolean) realValue);
-            case PHP_FLOAT -> result = String.valueOf(realValue);
-            default -> result = String.valueOf(realValue);
+        IPhpValueInterpreter objectInterpreter = PhpTypeInterpreters.forObjectType(type);
+
+        if (objectInterpreter != null && realValue != null) {
+            result = objectInterpreter.format(realValue);
+        } else if (type == PhpValueType.SIZE && realValue == null) {
+            // a byte size is written as it was set, so the shorthand of the file is kept
+            result = value;
+        } else if (realValue != null || !type.isPrimitive()) {
+            result = String.valueOf(realValue);
+        } else {
+            result = Objects.requireNonNull(PhpTypeInterpreters.forType(type)).format(primitiveValue);
         }
 
         return result;
     }
 
     /**
-     * Set the Integer value of the directive as string.
+     * Set the boolean value of the directive.
      *
-     * @param value the Integer value of the directive
-     * @return true if the value was set successfully, false otherwise
+     * @param boolValue the boolean value
+     * @return true, a boolean is always valid
      */
-    private boolean setPhpStyleValueByTypeInt(@NotNull String value) {
-        boolean result = false;
-        try {
-            this.realValue = Integer.parseInt(value.replace("\"", ""));
-            result = true;
-        } catch (NumberFormatException e) {
-            if (logger.isErrorEnabled()) {
-                logger.error("Failed to parse int value: {}", e.getMessage());
-            }
-        }
-        return result;
-    }
-
-    /**
-     * Set the Float value of the directive as string..
-     *
-     * @param value the Float value of the directive
-     * @return true if the value was set successfully, false otherwise
-     */
-    private boolean setPhpStyleValueByTypeFloat(String value) {
-        boolean result = false;
-        try {
-            this.realValue = Float.parseFloat(value);
-            result = true;
-        } catch (NumberFormatException e) {
-            if (logger.isErrorEnabled()) {
-                logger.error("Failed to parse float value: {}", e.getMessage());
-            }
-        }
-        return result;
+    private boolean setBoolValue(boolean boolValue) {
+        setPrimitiveValue(boolValue ? 1 : 0);
+        this.value = boolValue ? "true" : "false";
+        return true;
     }
 
     /**
@@ -561,10 +506,14 @@ public class PhpIniDirective implements IPhpIniDirective {
      * @return true if the value was set successfully, false otherwise
      */
     private boolean setPhpStyleValueByValueTypeDefault(String value) {
+        IPhpValueInterpreter objectInterpreter = PhpTypeInterpreters.forObjectType(type);
+
         if (value.equalsIgnoreCase("null")) {
-            this.realValue = null;
+            setRealValue(null);
+        } else if (objectInterpreter != null && objectInterpreter.isValid(value)) {
+            setRealValue(objectInterpreter.read(value));
         } else {
-            this.realValue = value;
+            setRealValue(value);
         }
         return true;
     }
@@ -589,9 +538,13 @@ public class PhpIniDirective implements IPhpIniDirective {
     public boolean trySetRealValue(Object value) {
         boolean result = false;
 
-        if (value != null && value.getClass().equals(type)) {
-            this.realValue = value;
-            this.value = value.toString();
+        if (value != null && value.getClass().equals(type.getJavaType())) {
+            setRealValue(value);
+            if (type == PhpValueType.SIZE) {
+                this.value = Objects.requireNonNull(PhpTypeInterpreters.forType(type)).format(primitiveValue);
+            } else {
+                this.value = value.toString();
+            }
             result = true;
         } else if (value != null) {
             if (logger.isErrorEnabled()) {
@@ -613,7 +566,65 @@ public class PhpIniDirective implements IPhpIniDirective {
      */
     @Override
     public Object getRealValue() {
-        return realValue;
+        Object result = realValue;
+
+        if (result == null && type != null && type.isPrimitive()) {
+            switch (type) {
+                case INT -> {
+                    // an integer beyond the range of int is kept as a Long
+                    if (primitiveValue == (int) primitiveValue) {
+                        result = (int) primitiveValue;
+                    } else {
+                        result = primitiveValue;
+                    }
+                }
+                case SIZE -> result = primitiveValue;
+                case BOOL -> result = primitiveValue != 0;
+                default -> result = (float) Double.longBitsToDouble(primitiveValue);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the value type of the directive.
+     *
+     * @return the value type
+     */
+    @Override
+    public @NotNull PhpValueType getValueType() {
+        return type;
+    }
+
+    /**
+     * Get the value of the directive as a long, without boxing.
+     *
+     * @return the value of an integer, the truncated value of a float, 1 for true, or 0 otherwise
+     */
+    @Override
+    public long getLong() {
+        return type == PhpValueType.FLOAT ? (long) Double.longBitsToDouble(primitiveValue) : primitiveValue;
+    }
+
+    /**
+     * Get the value of the directive as a double, without boxing.
+     *
+     * @return the value of an integer or float, 1 for true, or 0 otherwise
+     */
+    @Override
+    public double getDouble() {
+        return type == PhpValueType.FLOAT ? Double.longBitsToDouble(primitiveValue) : primitiveValue;
+    }
+
+    /**
+     * Get the value of the directive as a boolean, without boxing.
+     *
+     * @return the value of a boolean, true for an integer or float other than 0, or false otherwise
+     */
+    @Override
+    public boolean getBoolean() {
+        return type == PhpValueType.FLOAT ? Double.longBitsToDouble(primitiveValue) != 0 : primitiveValue != 0;
     }
 
     /**
@@ -623,7 +634,7 @@ public class PhpIniDirective implements IPhpIniDirective {
      */
     @Override
     public void setType(String type) {
-        this.type = getTypeByName(type);
+        changeType(getValueTypeByName(type));
     }
 
     /**
@@ -633,7 +644,7 @@ public class PhpIniDirective implements IPhpIniDirective {
      */
     @Override
     public String getType() {
-        return getTypeName(type);
+        return type.getTypeName();
     }
 
     /**
@@ -643,7 +654,7 @@ public class PhpIniDirective implements IPhpIniDirective {
      */
     @Override
     public @NotNull String getDefaultValue() {
-        return getNotEmptyString(defaultValue);
+        return definition.getDefaultValue();
     }
 
     /**
@@ -653,7 +664,7 @@ public class PhpIniDirective implements IPhpIniDirective {
      */
     @Override
     public DirectiveChangeable getDirectiveChangeable() {
-        return directiveChangeable;
+        return definition.getDirectiveChangeable();
     }
 
     /**
@@ -663,7 +674,7 @@ public class PhpIniDirective implements IPhpIniDirective {
      */
     @Override
     public @NotNull String getDescription() {
-        return getNotEmptyString(description);
+        return definition.getDescription();
     }
 
     /**
@@ -673,7 +684,17 @@ public class PhpIniDirective implements IPhpIniDirective {
      */
     @Override
     public @NotNull String getChangelog() {
-        return getNotEmptyString(changelog);
+        return definition.getChangelog();
+    }
+
+    @Override
+    public @Nullable PhpVersion getMinVersion() {
+        return definition.getMinVersion();
+    }
+
+    @Override
+    public @Nullable PhpVersion getMaxVersion() {
+        return definition.getMaxVersion();
     }
 
     /**
@@ -697,12 +718,13 @@ public class PhpIniDirective implements IPhpIniDirective {
     }
 
     /**
-     * Get a directive by the given name and sets the given value.
+     * Create a directive with the given name and value.
+     * The directive gets the definition of the catalog, if there is one; the catalog itself is not changed.
      *
      * @param name the given directive name
      * @param value the given directive value
      *
-     * @return the found directive or a new directive with the given name and value
+     * @return a new directive with the given name and value
      * @throws IllegalArgumentException if the name is null or empty
      */
     public static @NotNull IPhpIniDirective getDirectiveByNameAndSetValue(String name, String value) throws IllegalArgumentException {
@@ -713,20 +735,13 @@ public class PhpIniDirective implements IPhpIniDirective {
             }
             throw new IllegalArgumentException(DIRECTIVE_NAME_CANNOT_BE_NULL_OR_EMPTY);
         } else {
-            directive = getDirectiveByName(name);
-            if (directive == null) {
-                DirectiveChangeable changeable = DirectiveChangeable.INI_SYSTEM;
+            DirectiveDefinition definition = getDirectiveByName(name);
+            if (definition == null) {
                 getDirectiveNotFoundInCsvWarn(name);
-                directive = new PhpIniDirective(name,
-                        value,
-                        PHP_STRING,
-                        "",
-                        "",
-                        changeable);
+                directive = new PhpIniDirective(name, DirectiveDefinition.UNKNOWN, value);
             } else {
-                directive.setValue(value);
+                directive = new PhpIniDirective(definition.getName(), definition, value);
             }
-
         }
 
         return directive;
@@ -750,24 +765,58 @@ public class PhpIniDirective implements IPhpIniDirective {
      */
     @Override
     public String toString() {
-        return "[" + section + "]: " + name + " = " + value + " (" + getTypeName(type) + ")";
+        return "[" + section + "]: " + name + " = " + value + " (" + getType() + ")";
+    }
+
+    /**
+     * Get the value of the directive as it is written to a PHP INI file.
+     *
+     * @return the PHP style value with balanced quotation marks
+     */
+    String getOutValue() {
+        return secureEqualQuotationMarks(getPhpStyleValue());
     }
 
     @Override
     public String getContent() {
         StringBuilder sb = new StringBuilder();
-        String outValue = secureEqualQuotationMarks(getPhpStyleValue());
 
-        sb.append(name).append(" = ").append(outValue);
-        if (description != null && !description.isEmpty()) {
-            sb.append("\t; ").append(description);
+        try {
+            appendContent(sb);
+        } catch (IOException e) {
+            // a StringBuilder does not throw
+            throw new IllegalStateException(e);
         }
 
         return sb.toString();
     }
 
+    /**
+     * Append the content of the directive, as returned by {@link #getContent()}, without building it first.
+     *
+     * @param out the appendable to append to
+     * @exception IOException if the appendable cannot be written
+     */
+    void appendContent(@NotNull Appendable out) throws IOException {
+        out.append(name).append(" = ").append(getOutValue());
+        if (!definition.getDescription().isEmpty()) {
+            out.append("\t; ").append(definition.getDescription());
+        }
+    }
 
+    /**
+     * Holder of the catalog, loaded when the holder class is initialized on first use.
+     * The class initialization publishes the immutable catalog safely, so reading it takes no lock.
+     */
+    private static final class CatalogHolder {
 
+        /**
+         * The catalog of the known directives.
+         */
+        static final DirectiveCatalog CATALOG = new DirectiveCatalog(DirectiveCatalogSnapshot.load());
 
+        private CatalogHolder() {
+            // Prevent instantiation
+        }
+    }
 }
-
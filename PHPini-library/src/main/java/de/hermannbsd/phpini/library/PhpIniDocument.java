@@ -0,0 +1,289 @@
+package de.hermannbsd.phpini.library;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class representing the lines of a PHP INI file.
+ * <p>The document keeps every line of the file with its original text and line separator, including comments,
+ * blank lines and commented-out directives, so the content of the file can be reproduced exactly. Directive and
+ * section lines are bound to the sections and directives of the {@link PhpIni} model; saving the model only
+ * writes the lines of directives that were changed, added or removed.</p>
+ */
+public final class PhpIniDocument {
+
+    /**
+     * The lines of the document.
+     */
+    private final List<PhpIniDocumentLine> lines;
+
+    /**
+     * Constructor with the content of a PHP INI file.
+     *
+     * @param content the content of the file
+     */
+    public PhpIniDocument(@NotNull CharSequence content) {
+        this.lines = split(content);
+    }
+
+    /**
+     * Constructor with the lines of a PHP INI file.
+     *
+     * @param lines the lines of the file
+     */
+    PhpIniDocument(@NotNull List<PhpIniDocumentLine> lines) {
+        this.lines = new ArrayList<>(lines);
+    }
+
+    /**
+     * Read a document from the given reader, line by line.
+     * Only the current line is buffered, so the content of the file is never held as a whole besides its lines.
+     *
+     * @param reader the reader, left open
+     * @return the document
+     * @exception IOException if the reader cannot be read
+     */
+    static @NotNull PhpIniDocument read(@NotNull Reader reader) throws IOException {
+        List<PhpIniDocumentLine> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+        char[] buffer = new char[PhpIni.READ_BUFFER_SIZE];
+        boolean carriageReturn = false;
+        int read;
+
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char c = buffer[i];
+                if (carriageReturn) {
+                    // the carriage return may be the last character of the previous buffer
+                    carriageReturn = false;
+                    lines.add(new PhpIniDocumentLine(line.toString(), c == '\n' ? "\r\n" : "\r"));
+                    line.setLength(0);
+                    if (c == '\n') {
+                        continue;
+                    }
+                }
+                if (c == '\r') {
+                    carriageReturn = true;
+                } else if (c == '\n') {
+                    lines.add(new PhpIniDocumentLine(line.toString(), "\n"));
+                    line.setLength(0);
+                } else {
+                    line.append(c);
+                }
+            }
+        }
+
+        if (carriageReturn) {
+            lines.add(new PhpIniDocumentLine(line.toString(), "\r"));
+        } else if (!line.isEmpty()) {
+            lines.add(new PhpIniDocumentLine(line.toString(), ""));
+        }
+
+        return new PhpIniDocument(lines);
+    }
+
+    /**
+     * Split the given content into lines.
+     * A line ends with a line feed, a carriage return and a line feed, or a single carriage return.
+     *
+     * @param content the content to split
+     * @return the lines of the content
+     */
+    static @NotNull List<PhpIniDocumentLine> split(@NotNull CharSequence content) {
+        List<PhpIniDocumentLine> result = new ArrayList<>();
+        int length = content.length();
+        int start = 0;
+        int i = 0;
+
+        while (i < length) {
+            char c = content.charAt(i);
+            if (c == '\n' || c == '\r') {
+                int next = c == '\r' && i + 1 < length && content.charAt(i + 1) == '\n' ? i + 2 : i + 1;
+                result.add(new PhpIniDocumentLine(content.subSequence(start, i).toString(),
+                        content.subSequence(i, next).toString()));
+                start = next;
+                i = next;
+            } else {
+                i++;
+            }
+        }
+
+        if (start < length) {
+            result.add(new PhpIniDocumentLine(content.subSequence(start, length).toString(), ""));
+        }
+
+        return result;
+    }
+
+    /**
+     * Match the lines of an old range with the lines of a new range.
+     * <p>Lines that occur exactly once in both ranges are used as anchors; the longest run of anchors in the
+     * same order is kept, and equal lines next to the anchors are matched as well. The matches never cross,
+     * so matched lines keep their relative order.</p>
+     *
+     * @param oldLines the lines of the old range
+     * @param newLines the lines of the new range
+     * @return for each new line, the index of the matching old line or -1
+     */
+    static int @NotNull [] match(@NotNull List<PhpIniDocumentLine> oldLines, @NotNull List<PhpIniDocumentLine> newLines) {
+        int[] result = new int[newLines.size()];
+        Arrays.fill(result, -1);
+
+        // text -> occurrences in the old range, occurrences in the new range, last old index
+        Map<String, int[]> occurrences = new HashMap<>();
+        for (int i = 0; i < oldLines.size(); i++) {
+            int[] entry = occurrences.computeIfAbsent(oldLines.get(i).getText(), k -> new int[3]);
+            entry[0]++;
+            entry[2] = i;
+        }
+        for (PhpIniDocumentLine line : newLines) {
+            int[] entry = occurrences.get(line.getText());
+            if (entry != null) {
+                entry[1]++;
+            }
+        }
+
+        List<int[]> anchors = new ArrayList<>();
+        for (int j = 0; j < newLines.size(); j++) {
+            int[] entry = occurrences.get(newLines.get(j).getText());
+            if (entry != null && entry[0] == 1 && entry[1] == 1 && oldLines.get(entry[2]).sameText(newLines.get(j))) {
+                anchors.add(new int[]{entry[2], j});
+            }
+        }
+
+        int oldStart = 0;
+        int newStart = 0;
+        for (int[] anchor : longestIncreasingRun(anchors)) {
+            matchAround(oldLines, newLines, oldStart, anchor[0], newStart, anchor[1], result);
+            result[anchor[1]] = anchor[0];
+            oldStart = anchor[0] + 1;
+            newStart = anchor[1] + 1;
+        }
+        matchAround(oldLines, newLines, oldStart, oldLines.size(), newStart, newLines.size(), result);
+
+        return result;
+    }
+
+    /**
+     * Get the longest run of anchors whose old indexes increase.
+     *
+     * @param anchors the anchors ordered by their new index
+     * @return the longest increasing run
+     */
+    private static List<int[]> longestIncreasingRun(List<int[]> anchors) {
+        int[] tails = new int[anchors.size()];
+        int[] previous = new int[anchors.size()];
+        int length = 0;
+
+        for (int i = 0; i < anchors.size(); i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (anchors.get(tails[middle])[0] < anchors.get(i)[0]) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            length = Math.max(length, low + 1);
+        }
+
+        int[][] result = new int[length][];
+        for (int i = length - 1, k = length > 0 ? tails[length - 1] : -1; i >= 0; i--, k = previous[k]) {
+            result[i] = anchors.get(k);
+        }
+
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Match the equal leading and trailing lines of a gap between two anchors.
+     *
+     * @param oldLines the lines of the old range
+     * @param newLines the lines of the new range
+     * @param oldStart the start of the gap in the old range
+     * @param oldEnd   the end of the gap in the old range
+     * @param newStart the start of the gap in the new range
+     * @param newEnd   the end of the gap in the new range
+     * @param result   the matches to fill
+     */
+    private static void matchAround(List<PhpIniDocumentLine> oldLines, List<PhpIniDocumentLine> newLines,
+                                    int oldStart, int oldEnd, int newStart, int newEnd, int[] result) {
+        while (oldStart < oldEnd && newStart < newEnd && oldLines.get(oldStart).sameText(newLines.get(newStart))) {
+            result[newStart++] = oldStart++;
+        }
+        while (oldStart < oldEnd && newStart < newEnd && oldLines.get(oldEnd - 1).sameText(newLines.get(newEnd - 1))) {
+            result[--newEnd] = --oldEnd;
+        }
+    }
+
+    /**
+     * Get the lines of the document.
+     *
+     * @return an unmodifiable view of the lines
+     */
+    public @NotNull List<PhpIniDocumentLine> getLines() {
+        return Collections.unmodifiableList(lines);
+    }
+
+    /**
+     * Get the modifiable lines of the document.
+     *
+     * @return the lines
+     */
+    List<PhpIniDocumentLine> lines() {
+        return lines;
+    }
+
+    /**
+     * Get the number of lines of the document.
+     *
+     * @return the number of lines
+     */
+    public int size() {
+        return lines.size();
+    }
+
+    /**
+     * Get the line separator used by the document.
+     *
+     * @return the separator of the first line ending with one, or the system line separator
+     */
+    public @NotNull String getSeparator() {
+        for (PhpIniDocumentLine line : lines) {
+            if (!line.getSeparator().isEmpty()) {
+                return line.getSeparator();
+            }
+        }
+        return System.lineSeparator();
+    }
+
+    /**
+     * Get the content of the document.
+     *
+     * @return the text of all lines with their line separators
+     */
+    public @NotNull String getText() {
+        StringBuilder sb = new StringBuilder();
+        for (PhpIniDocumentLine line : lines) {
+            sb.append(line.getText()).append(line.getSeparator());
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getText();
+    }
+}
@@ -0,0 +1,265 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.enums.IniLineKind;
+import de.hermannbsd.phpini.library.helper.StringHelper;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import de.hermannbsd.phpini.library.parser.IniLineTokenizer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Class representing a single line of a PHP INI document.
+ * <p>The line keeps its original text and line separator. Once tokenized it also knows its kind and name, and
+ * directive and section lines are bound to the directive or section they produced in the {@link PhpIni} model.</p>
+ */
+public final class PhpIniDocumentLine {
+
+    /**
+     * The text of the line, without the line separator.
+     */
+    private final String text;
+    /**
+     * The line separator of the line, empty for the last line of a document without a trailing separator.
+     */
+    private final String separator;
+    /**
+     * The hash of the text and the separator.
+     */
+    private final int hash;
+    /**
+     * The length of the text and the separator in UTF-8, -1 until it is computed.
+     */
+    private int byteLength = -1;
+
+    /**
+     * The kind of the line, null if the line is not tokenized yet.
+     */
+    private IniLineKind kind;
+    /**
+     * The name of the directive or section of the line, empty for other lines.
+     */
+    private String name = "";
+    /**
+     * The name of the section in effect after the line.
+     */
+    private String sectionName;
+    /**
+     * The directive built from the line, null if the line is not the first occurrence of a directive.
+     */
+    private IPhpIniDirective directive;
+    /**
+     * The section the directive was added to, or the section opened by a section line.
+     */
+    private IPhpIniSection section;
+    /**
+     * The value of the directive when the line was bound or written, null if the line is not bound to a directive.
+     */
+    private String value;
+
+    /**
+     * Constructor with the text and the line separator.
+     *
+     * @param text      the text of the line, without the line separator
+     * @param separator the line separator
+     */
+    public PhpIniDocumentLine(@NotNull String text, @NotNull String separator) {
+        this.text = text;
+        this.separator = separator;
+        this.hash = 31 * text.hashCode() + separator.hashCode();
+    }
+
+    /**
+     * Tokenize the line unless it is already tokenized.
+     *
+     * @param tokenizer the tokenizer to use
+     * @return the kind of the line
+     */
+    IniLineKind tokenize(@NotNull IniLineTokenizer tokenizer) {
+        if (kind == null) {
+            kind = tokenizer.tokenize(text);
+            name = kind == IniLineKind.DIRECTIVE || kind == IniLineKind.SECTION ? tokenizer.getName() : "";
+        }
+        return kind;
+    }
+
+    /**
+     * Bind the line to the directive it produced.
+     *
+     * @param directive the directive, or null if the line did not produce a directive
+     * @param section   the section the directive was added to, or the section opened by the line
+     */
+    void bind(@Nullable IPhpIniDirective directive, @Nullable IPhpIniSection section) {
+        if (directive != this.directive) {
+            this.value = directive != null ? directive.getValue() : null;
+        }
+        this.directive = directive;
+        this.section = section;
+    }
+
+    /**
+     * Create a copy of the line with a new text and line separator.
+     * The copy keeps the kind, name and binding of the line and takes the current value of its directive.
+     *
+     * @param text      the new text of the line, without the line separator
+     * @param separator the new line separator
+     * @return the copy of the line
+     */
+    @NotNull PhpIniDocumentLine withText(@NotNull String text, @NotNull String separator) {
+        PhpIniDocumentLine result = new PhpIniDocumentLine(text, separator);
+        result.kind = kind;
+        result.name = name;
+        result.sectionName = sectionName;
+        result.directive = directive;
+        result.section = section;
+        result.value = directive != null ? directive.getValue() : null;
+        return result;
+    }
+
+    /**
+     * Gets whether the value of the directive of the line was changed since the line was bound or written.
+     *
+     * @return does the line need to be written again?
+     */
+    boolean isChanged() {
+        return directive != null && !Objects.equals(directive.getValue(), value);
+    }
+
+    /**
+     * Gets whether the line is a commented-out directive, e.g. {@code ;extension=curl}.
+     *
+     * @return is the line a comment containing a directive assignment?
+     */
+    public boolean isCommentedDirective() {
+        boolean result = false;
+
+        if (kind == IniLineKind.COMMENT) {
+            int start = text.indexOf(';') + 1;
+            while (start < text.length() && text.charAt(start) <= ' ') {
+                start++;
+            }
+            int i = start;
+            while (i < text.length() && isNameChar(text.charAt(i))) {
+                i++;
+            }
+            int assign = i;
+            while (assign < text.length() && text.charAt(assign) == ' ') {
+                assign++;
+            }
+            result = i > start && assign < text.length() && text.charAt(assign) == '=';
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets whether the given character can be part of a directive name.
+     *
+     * @param c the character
+     * @return is the character a letter, a digit, an underscore, a dot or a hyphen?
+     */
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '-';
+    }
+
+    /**
+     * Set the name of the section in effect after the line.
+     *
+     * @param sectionName the name of the section
+     */
+    void setSectionName(String sectionName) {
+        this.sectionName = sectionName;
+    }
+
+    /**
+     * Gets whether the line has the same text and line separator as the given line.
+     *
+     * @param other the line to compare with
+     * @return are text and line separator equal?
+     */
+    boolean sameText(@NotNull PhpIniDocumentLine other) {
+        return hash == other.hash && text.equals(other.text) && separator.equals(other.separator);
+    }
+
+    /**
+     * Get the text of the line, without the line separator.
+     *
+     * @return the text of the line
+     */
+    public @NotNull String getText() {
+        return text;
+    }
+
+    /**
+     * Get the length of the text and the line separator in UTF-8.
+     *
+     * @return the number of bytes of the line in the file
+     */
+    int getByteLength() {
+        if (byteLength < 0) {
+            byteLength = StringHelper.utf8Length(text) + separator.length();
+        }
+        return byteLength;
+    }
+
+    /**
+     * Get the line separator of the line.
+     *
+     * @return the line separator, empty for the last line of a document without a trailing separator
+     */
+    public @NotNull String getSeparator() {
+        return separator;
+    }
+
+    /**
+     * Get the kind of the line.
+     *
+     * @return the kind of the line, or null if the line is not tokenized yet
+     */
+    public @Nullable IniLineKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Get the name of the directive or section of the line.
+     *
+     * @return the name, empty for other lines
+     */
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * Get the name of the section in effect after the line.
+     *
+     * @return the name of the section, or null if no section was opened yet
+     */
+    public @Nullable String getSectionName() {
+        return sectionName;
+    }
+
+    /**
+     * Get the directive built from the line.
+     *
+     * @return the directive, or null if the line is not the first occurrence of a directive
+     */
+    public @Nullable IPhpIniDirective getDirective() {
+        return directive;
+    }
+
+    /**
+     * Get the section the directive of the line was added to, or the section opened by the line.
+     *
+     * @return the section, or null if the line is not bound to a section
+     */
+    public @Nullable IPhpIniSection getSection() {
+        return section;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,329 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Case-insensitive index of the sections and directives of a PHP INI file.
+ * <p>The PHP INI file keeps the index up to date while it adds and removes sections and directives, accounting for
+ * each change it makes. The section list of the file and the directive lists of {@link PhpIniSection}s report every
+ * change to the index, so changes made directly through the lists leave unaccounted changes behind and the index is
+ * built again on the next lookup. Other section implementations are checked by their number of directives. As in a
+ * scan of the file, the first section or directive with a name wins.</p>
+ * <p>Directives of lazy sections are indexed by the name of their line, so indexing them does not build them.</p>
+ */
+final class PhpIniIndex {
+
+    /**
+     * Logger for the PhpIniIndex class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(PhpIniIndex.class);
+
+    /**
+     * The first section with each lower case name.
+     */
+    private final Map<String, IPhpIniSection> sections = new HashMap<>();
+    /**
+     * The first directive with each lower case name.
+     */
+    private final Map<String, Entry> directives = new HashMap<>();
+    /**
+     * The number of directives of the sections which do not report their changes, when they were indexed.
+     */
+    private final Map<IPhpIniSection, Integer> untrackedSizes = new IdentityHashMap<>();
+    /**
+     * The number of indexed directives, including the ones with a name already indexed.
+     */
+    private int directiveCount;
+    /**
+     * The number of changes of the sections and directives, never reset.
+     */
+    private int changeCount;
+    /**
+     * The number of changes the index accounts for.
+     */
+    private int indexedChangeCount;
+    /**
+     * Has the index to be built again before the next lookup?
+     */
+    private boolean stale;
+
+    /**
+     * Class representing an indexed directive and its section.
+     */
+    static final class Entry {
+
+        /**
+         * The section of the directive.
+         */
+        private final IPhpIniSection section;
+        /**
+         * The name of the directive.
+         */
+        private final String name;
+        /**
+         * The directive, or null until the directive of a lazy section is built.
+         */
+        private IPhpIniDirective directive;
+
+        /**
+         * Constructor with the section and the directive.
+         *
+         * @param section   the section of the directive
+         * @param name      the name of the directive
+         * @param directive the directive, or null if it is not built yet
+         */
+        private Entry(@NotNull IPhpIniSection section, @NotNull String name, @Nullable IPhpIniDirective directive) {
+            this.section = section;
+            this.name = name;
+            this.directive = directive;
+        }
+
+        /**
+         * Get the section of the directive.
+         *
+         * @return the section
+         */
+        @NotNull IPhpIniSection getSection() {
+            return section;
+        }
+
+        /**
+         * Get the directive, building it if it belongs to a lazy section.
+         *
+         * @return the directive
+         */
+        IPhpIniDirective getDirective() {
+            if (directive == null) {
+                directive = section.getDirectiveByName(name);
+            }
+            return directive;
+        }
+    }
+
+    /**
+     * Remove every section and directive from the index.
+     */
+    void clear() {
+        sections.clear();
+        directives.clear();
+        untrackedSizes.clear();
+        directiveCount = 0;
+        indexedChangeCount = changeCount;
+        stale = false;
+    }
+
+    /**
+     * Report a change of the section list or of the directives of a section.
+     */
+    void changed() {
+        changeCount++;
+    }
+
+    /**
+     * Get the number of changes of the sections and directives, to notice changes since an earlier call.
+     *
+     * @param ini the sections of the PHP INI file
+     * @return the number of changes
+     */
+    int getChangeCount(@NotNull List<IPhpIniSection> ini) {
+        validate(ini);
+        return changeCount;
+    }
+
+    /**
+     * Add a section just added to the section list and its directives to the index.
+     *
+     * @param section the section
+     */
+    void addSection(@NotNull IPhpIniSection section) {
+        index(section);
+        indexedChangeCount++;
+    }
+
+    /**
+     * Remove a section just removed from the section list, so the index is built again on the next lookup.
+     *
+     * @param section the section
+     */
+    void removeSection(@NotNull IPhpIniSection section) {
+        if (section instanceof PhpIniSection tracked && tracked.getIndex() == this) {
+            tracked.setIndex(null);
+        }
+        stale = true;
+    }
+
+    /**
+     * Add a directive just added to the given section to the index.
+     *
+     * @param section   the section of the directive
+     * @param directive the directive
+     */
+    void addDirective(@NotNull IPhpIniSection section, @NotNull IPhpIniDirective directive) {
+        put(section, directive.getName(), directive);
+        account(section);
+    }
+
+    /**
+     * Add a directive line just added to the given lazy section to the index, without building its directive.
+     *
+     * @param section the lazy section of the line
+     * @param name    the name of the directive
+     */
+    void addLine(@NotNull LazyPhpIniSection section, @NotNull String name) {
+        put(section, name, null);
+        account(section);
+    }
+
+    /**
+     * Remove a directive just removed from the given section from the index.
+     *
+     * @param section the section of the directive
+     * @param name    the name of the directive
+     */
+    void removeDirective(@NotNull IPhpIniSection section, @NotNull String name) {
+        String key = key(name);
+        Entry entry = directives.get(key);
+
+        if (entry != null && entry.section == section) {
+            directives.remove(key);
+        }
+        directiveCount--;
+        account(section);
+
+        if (directiveCount != directives.size()) {
+            // another section may hold a directive with the name
+            stale = true;
+        }
+    }
+
+    /**
+     * Get the first section with the given name, ignoring case.
+     *
+     * @param name the name of the section
+     * @param ini  the sections of the PHP INI file
+     * @return the section or null if there is none
+     */
+    @Nullable IPhpIniSection findSection(@Nullable String name, @NotNull List<IPhpIniSection> ini) {
+        IPhpIniSection result = null;
+
+        if (name != null) {
+            validate(ini);
+            result = sections.get(key(name));
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the first directive with the given name, ignoring case.
+     *
+     * @param name the name of the directive
+     * @param ini  the sections of the PHP INI file
+     * @return the entry of the directive or null if there is none
+     */
+    @Nullable Entry findDirective(@Nullable String name, @NotNull List<IPhpIniSection> ini) {
+        Entry result = null;
+
+        if (name != null) {
+            validate(ini);
+            result = directives.get(key(name));
+        }
+
+        return result;
+    }
+
+    /**
+     * Build the index again if it is stale or changes were made the index does not account for.
+     *
+     * @param ini the sections of the PHP INI file
+     */
+    private void validate(@NotNull List<IPhpIniSection> ini) {
+        for (Map.Entry<IPhpIniSection, Integer> untracked : untrackedSizes.entrySet()) {
+            if (untracked.getKey().getDirectives().size() != untracked.getValue()) {
+                changeCount++;
+                break;
+            }
+        }
+
+        if (stale || indexedChangeCount != changeCount) {
+            logger.debug("Building the index of {} sections", ini.size());
+            clear();
+            for (IPhpIniSection section : ini) {
+                index(section);
+            }
+        }
+    }
+
+    /**
+     * Account for a change of the directives of the given section made by the PHP INI file.
+     *
+     * @param section the changed section
+     */
+    private void account(@NotNull IPhpIniSection section) {
+        if (section instanceof PhpIniSection tracked && tracked.getIndex() == this) {
+            indexedChangeCount++;
+        } else if (untrackedSizes.containsKey(section)) {
+            untrackedSizes.put(section, section.getDirectives().size());
+        }
+    }
+
+    /**
+     * Add a section and its directives to the index.
+     * The section reports its changes to the index unless it belongs to another PHP INI file.
+     *
+     * @param section the section
+     */
+    private void index(@NotNull IPhpIniSection section) {
+        sections.putIfAbsent(key(section.getName()), section);
+
+        if (section instanceof PhpIniSection tracked
+                && (tracked.getIndex() == null || tracked.getIndex() == this)) {
+            tracked.setIndex(this);
+        } else {
+            untrackedSizes.put(section, section.getDirectives().size());
+        }
+
+        if (section instanceof LazyPhpIniSection lazySection) {
+            for (int i = 0, size = lazySection.getDirectives().size(); i < size; i++) {
+                put(lazySection, lazySection.getDirectiveName(i), null);
+            }
+        } else {
+            for (IPhpIniDirective directive : section.getDirectives()) {
+                put(section, directive.getName(), directive);
+            }
+        }
+    }
+
+    /**
+     * Add a directive of the given section to the index.
+     *
+     * @param section   the section of the directive
+     * @param name      the name of the directive
+     * @param directive the directive, or null if it is not built yet
+     */
+    private void put(@NotNull IPhpIniSection section, @NotNull String name, @Nullable IPhpIniDirective directive) {
+        directives.putIfAbsent(key(name), new Entry(section, name, directive));
+        directiveCount++;
+    }
+
+    /**
+     * Get the key of the given name.
+     *
+     * @param name the name
+     * @return the name in lower case
+     */
+    private static @NotNull String key(@NotNull String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
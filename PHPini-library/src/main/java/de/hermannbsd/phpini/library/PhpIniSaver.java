@@ -0,0 +1,252 @@
+package de.hermannbsd.phpini.library;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saver writing PHP INI files asynchronously, coalescing the saves requested in a burst.
+ * <p>Each request of a save restarts the debounce window of its file, but a file is written at the latest after the
+ * maximum delay since the first request it has pending, so a file saved again and again is still written. All
+ * requests until the write get the same future and are served by one serialization and one write. Files due at
+ * the same time are saved in one group commit. A file is always written atomically and synced, and the future
+ * completes once the data is durable: with true if the file was saved, false otherwise.</p>
+ * <p>The saver owns the thread writing the files and the files it has pending. {@link #close()} writes the pending
+ * saves and stops the thread; saves still pending when the JVM exits without closing the saver are lost.</p>
+ * <p>A file is serialized on the thread of the saver while holding the lock of the file, so threads changing a file
+ * while a save is pending should synchronize on the file.</p>
+ */
+public final class PhpIniSaver implements Closeable {
+
+    /**
+     * Logger for the PhpIniSaver class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(PhpIniSaver.class);
+
+    /**
+     * Default quiet time after the last request of a save before the write.
+     */
+    public static final Duration DEFAULT_DEBOUNCE_WINDOW = Duration.ofMillis(100);
+    /**
+     * Default maximum time after the first request of a save before the write.
+     */
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(1);
+
+    /**
+     * The quiet time after the last request of a save before the write, in nanoseconds.
+     */
+    private final long debounceWindow;
+    /**
+     * The maximum time after the first request of a save before the write, in nanoseconds.
+     */
+    private final long maxDelay;
+    /**
+     * The thread writing the files, so the writes of a file never overlap.
+     */
+    private final ScheduledThreadPoolExecutor executor;
+    /**
+     * The files with a pending save, also used as the lock of the pending saves.
+     */
+    private final Map<PhpIni, PendingSave> pending = new LinkedHashMap<>();
+    /**
+     * Is the saver closed?
+     */
+    private boolean closed;
+
+    /**
+     * Class representing the pending save of a file.
+     */
+    private static final class PendingSave {
+
+        /**
+         * The future of the save.
+         */
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        /**
+         * The time in nanoseconds when the file is written at the latest.
+         */
+        private final long latest;
+        /**
+         * The time in nanoseconds when the file is written.
+         */
+        private long deadline;
+
+        /**
+         * Constructor with the time of the first request.
+         *
+         * @param latest the time in nanoseconds when the file is written at the latest
+         */
+        PendingSave(long latest) {
+            this.latest = latest;
+        }
+    }
+
+    /**
+     * Constructor with the default debounce window and maximum delay.
+     */
+    public PhpIniSaver() {
+        this(DEFAULT_DEBOUNCE_WINDOW, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Constructor with the debounce window and the maximum delay.
+     *
+     * @param debounceWindow the quiet time after the last request of a save before the write
+     * @param maxDelay       the maximum time after the first request of a save before the write, at least the
+     *                       debounce window
+     */
+    public PhpIniSaver(@NotNull Duration debounceWindow, @NotNull Duration maxDelay) {
+        if (debounceWindow.isNegative()) {
+            throw new IllegalArgumentException("Debounce window cannot be negative: " + debounceWindow);
+        }
+        if (maxDelay.compareTo(debounceWindow) < 0) {
+            throw new IllegalArgumentException("Maximum delay cannot be shorter than the debounce window: " + maxDelay);
+        }
+
+        this.debounceWindow = debounceWindow.toNanos();
+        this.maxDelay = maxDelay.toNanos();
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "PhpIni-save");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Save the given file once no save of it was requested for the debounce window, or once the maximum delay
+     * since the first pending request passed.
+     *
+     * @param phpIni the file to save
+     * @return the future of the pending save of the file
+     * @exception IllegalStateException if the saver is closed
+     */
+    public @NotNull CompletableFuture<Boolean> save(@NotNull PhpIni phpIni) {
+        synchronized (pending) {
+            if (closed) {
+                throw new IllegalStateException("Saver is closed");
+            }
+
+            long now = System.nanoTime();
+            PendingSave save = pending.get(phpIni);
+            if (save == null) {
+                save = new PendingSave(now + maxDelay);
+                pending.put(phpIni, save);
+                executor.schedule(() -> flushWhenDue(phpIni), debounceWindow, TimeUnit.NANOSECONDS);
+                logger.debug("Save of {} scheduled", phpIni.getFilePath());
+            }
+            save.deadline = Math.min(now + debounceWindow, save.latest);
+
+            return save.future;
+        }
+    }
+
+    /**
+     * Write all pending saves now, without waiting for their debounce windows to close.
+     *
+     * @return a future completing once the pending saves are written
+     */
+    public @NotNull CompletableFuture<Void> flush() {
+        synchronized (pending) {
+            if (closed) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return CompletableFuture.runAsync(() -> flushSaves(true), executor);
+        }
+    }
+
+    /**
+     * Write all pending saves and stop the thread of the saver.
+     * Further saves are rejected; closing a closed saver does nothing.
+     */
+    @Override
+    public void close() {
+        CompletableFuture<Void> flushed;
+
+        synchronized (pending) {
+            if (closed) {
+                return;
+            }
+            flushed = CompletableFuture.runAsync(() -> flushSaves(true), executor);
+            closed = true;
+        }
+
+        flushed.join();
+        executor.shutdown();
+    }
+
+    /**
+     * Write the pending saves once the window of the given file closed, or check again when it closes after a
+     * restart. This only runs on the thread of the saver.
+     *
+     * @param phpIni the file
+     */
+    private void flushWhenDue(@NotNull PhpIni phpIni) {
+        long remaining;
+
+        synchronized (pending) {
+            PendingSave save = pending.get(phpIni);
+            if (save == null) {
+                return;
+            }
+            remaining = save.deadline - System.nanoTime();
+        }
+
+        if (remaining > 0) {
+            executor.schedule(() -> flushWhenDue(phpIni), remaining, TimeUnit.NANOSECONDS);
+        } else {
+            flushSaves(false);
+        }
+    }
+
+    /**
+     * Write the pending saves in one group commit.
+     * This only runs on the thread of the saver, so the writes of a file never overlap.
+     *
+     * @param all should all pending saves be written, or only those which are due?
+     */
+    private void flushSaves(boolean all) {
+        Map<PhpIni, CompletableFuture<Boolean>> due = new LinkedHashMap<>();
+        long now = System.nanoTime();
+
+        synchronized (pending) {
+            for (Iterator<Map.Entry<PhpIni, PendingSave>> iterator = pending.entrySet().iterator(); iterator.hasNext(); ) {
+                Map.Entry<PhpIni, PendingSave> entry = iterator.next();
+                if (all || entry.getValue().deadline - now <= 0) {
+                    due.put(entry.getKey(), entry.getValue().future);
+                    iterator.remove();
+                }
+            }
+        }
+
+        if (due.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<PhpIni> phpInis = new ArrayList<>(due.keySet());
+            Set<PhpIni> saved = AtomicFileCommit.commit(phpInis);
+            logger.debug("{} of {} pending saves written", saved.size(), due.size());
+            for (Map.Entry<PhpIni, CompletableFuture<Boolean>> entry : due.entrySet()) {
+                entry.getValue().complete(saved.contains(entry.getKey()));
+            }
+        } catch (RuntimeException e) {
+            logger.error("Error writing pending saves", e);
+            for (CompletableFuture<Boolean> future : due.values()) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -13,6 +13,7 @@ import java.util.List;
 /**
  * Class representing a PHP INI section.
  * This class implements the IPhpIniSection interface and provides methods to manipulate the section.
+ * Changes of the directive list are reported to the index of the PHP INI file the section belongs to.
  */
 public class PhpIniSection implements IPhpIniSection {
 
@@ -27,23 +28,28 @@ public class PhpIniSection implements IPhpIniSection {
      */
     private final List<IPhpIniDirective> directives;
 
+    /**
+     * The index of the PHP INI file the section belongs to, or null.
+     */
+    private PhpIniIndex index;
+
     /**
      * Constructor with a given section name.
      * @param sectionName the given section name
      */
     public PhpIniSection(String sectionName) {
-        this.sectionName = sectionName;
-        this.directives = new ArrayList<>();
+        this(sectionName, new ArrayList<>());
     }
 
     /**
      * Constructor with a given section name and directives.
+     * The directives are kept in the given list; changes made to it directly are not noticed by the PHP INI file.
      * @param sectionName the given section name
      * @param directives the given directives
      */
     public PhpIniSection(String sectionName, List<IPhpIniDirective> directives) {
         this.sectionName = sectionName;
-        this.directives = directives;
+        this.directives = new ChangeTrackingList<>(directives, this::changed);
     }
 
     /**
@@ -209,6 +215,33 @@ public class PhpIniSection implements IPhpIniSection {
         return result;
     }
 
+    /**
+     * Get the index of the PHP INI file the section belongs to.
+     *
+     * @return the index, or null if the section does not belong to a file
+     */
+    @Nullable PhpIniIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Set the index of the PHP INI file the section belongs to.
+     *
+     * @param index the index, or null if the section does not belong to a file any more
+     */
+    void setIndex(@Nullable PhpIniIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Report a change of the directive list to the index of the PHP INI file.
+     */
+    void changed() {
+        if (index != null) {
+            index.changed();
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
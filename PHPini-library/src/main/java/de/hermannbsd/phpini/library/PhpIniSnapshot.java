@@ -0,0 +1,366 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable version of the sections and directives of a PHP INI file.
+ * <p>A snapshot never changes, so it can be read by any number of threads without locking. A new version is built
+ * by a {@link PhpIniTransaction}: sections the transaction did not touch are shared with the previous version, and
+ * the index of the directive names is a persistent map, so a commit only copies the paths to the names it added or
+ * removed.</p>
+ */
+public final class PhpIniSnapshot {
+
+    /**
+     * Logger for the PhpIniSnapshot class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(PhpIniSnapshot.class);
+
+    /**
+     * The version of the snapshot.
+     */
+    private final long version;
+    /**
+     * The sections.
+     */
+    private final Section[] sections;
+    /**
+     * The section with each lower case name.
+     */
+    private final Map<String, Section> sectionIndex;
+    /**
+     * The lower case name of the section of the directive with each lower case name. Changing a directive does not
+     * change its section, so the index is shared until directives are added or removed.
+     */
+    private final PersistentHashMap<String, String> directiveIndex;
+
+    /**
+     * Class representing an immutable section of a snapshot.
+     */
+    public static final class Section implements IPhpIniSection {
+
+        /**
+         * The name of the section.
+         */
+        private final String sectionName;
+        /**
+         * The directives in the section.
+         */
+        private final ImmutablePhpIniDirective[] directives;
+        /**
+         * The directive with each lower case name.
+         */
+        private final Map<String, ImmutablePhpIniDirective> byName;
+
+        /**
+         * Constructor with the name and the directives of the section.
+         *
+         * @param sectionName the name of the section
+         * @param directives  the directives, not copied
+         * @param byName      the directive with each lower case name, not copied
+         */
+        Section(@NotNull String sectionName, ImmutablePhpIniDirective @NotNull [] directives,
+                @NotNull Map<String, ImmutablePhpIniDirective> byName) {
+            this.sectionName = sectionName;
+            this.directives = directives;
+            this.byName = byName;
+        }
+
+        @Override
+        public String getName() {
+            return sectionName;
+        }
+
+        /**
+         * Get the directives in the section.
+         *
+         * @return an unmodifiable list of the directives
+         */
+        @Override
+        public List<IPhpIniDirective> getDirectives() {
+            return Collections.unmodifiableList(Arrays.asList(directives));
+        }
+
+        @Override
+        public @Nullable IPhpIniDirective getDirectiveByName(String directiveName) {
+            return directiveName == null ? null : byName.get(ConcurrentPhpIniSection.key(directiveName));
+        }
+
+        @Override
+        public boolean containsDirectiveByName(@NotNull String directiveName) {
+            return getDirectiveByName(directiveName) != null;
+        }
+
+        /**
+         * The section of a snapshot cannot be changed; use a {@link PhpIniTransaction}.
+         *
+         * @param directive the directive
+         * @return false
+         */
+        @Override
+        public boolean tryAddDirective(@NotNull IPhpIniDirective directive) {
+            return rejectChange(directive.getName());
+        }
+
+        /**
+         * The section of a snapshot cannot be changed; use a {@link PhpIniTransaction}.
+         *
+         * @param directive the directive
+         * @return false
+         */
+        @Override
+        public boolean tryUpdateDirective(@NotNull IPhpIniDirective directive) {
+            return rejectChange(directive.getName());
+        }
+
+        /**
+         * The section of a snapshot cannot be changed; use a {@link PhpIniTransaction}.
+         *
+         * @param directive the directive
+         * @return false
+         */
+        @Override
+        public boolean tryRemoveDirective(@NotNull IPhpIniDirective directive) {
+            return rejectChange(directive.getName());
+        }
+
+        /**
+         * The section of a snapshot cannot be changed; use a {@link PhpIniTransaction}.
+         *
+         * @param directiveName the name of the directive
+         * @return false
+         */
+        @Override
+        public boolean tryRemoveDirective(@NotNull String directiveName) {
+            return rejectChange(directiveName);
+        }
+
+        /**
+         * Get the number of directives in the section.
+         *
+         * @return the number of directives
+         */
+        int size() {
+            return directives.length;
+        }
+
+        /**
+         * Get the directives in the section without copying them.
+         *
+         * @return the directives, not to be changed
+         */
+        ImmutablePhpIniDirective @NotNull [] directives() {
+            return directives;
+        }
+
+        /**
+         * Get the directive with each lower case name without copying the map.
+         *
+         * @return the map, not to be changed
+         */
+        @NotNull Map<String, ImmutablePhpIniDirective> byName() {
+            return byName;
+        }
+
+        /**
+         * Log that the section cannot be changed.
+         *
+         * @param directiveName the name of the directive
+         * @return false
+         */
+        private boolean rejectChange(String directiveName) {
+            logger.warn("Directive {} not changed: section {} belongs to a snapshot", directiveName, sectionName);
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Section: ").append(sectionName).append("\n");
+            for (IPhpIniDirective directive : directives) {
+                sb.append(directive.getName()).append(" = ").append(directive.getValue()).append("\n");
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Constructor with the parts of the snapshot, which are not copied.
+     *
+     * @param version        the version of the snapshot
+     * @param sections       the sections
+     * @param sectionIndex   the section with each lower case name
+     * @param directiveIndex the lower case section name of the directive with each lower case name
+     */
+    PhpIniSnapshot(long version, Section @NotNull [] sections, @NotNull Map<String, Section> sectionIndex,
+                   @NotNull PersistentHashMap<String, String> directiveIndex) {
+        this.version = version;
+        this.sections = sections;
+        this.sectionIndex = sectionIndex;
+        this.directiveIndex = directiveIndex;
+    }
+
+    /**
+     * Get a snapshot of the given sections as first version.
+     * A section repeated under the same name continues the first one, and only the first directive with a name is
+     * kept, as in the lookups of a PHP INI file.
+     *
+     * @param ini the sections
+     * @return the snapshot
+     */
+    static @NotNull PhpIniSnapshot of(@NotNull List<IPhpIniSection> ini) {
+        PhpIniSnapshot empty = new PhpIniSnapshot(0, new Section[0], Map.of(), PersistentHashMap.empty());
+        PhpIniTransaction transaction = new PhpIniTransaction(empty);
+
+        for (IPhpIniSection section : ini) {
+            if (!transaction.containsSection(section.getName())) {
+                transaction.addSection(section.getName());
+            }
+            for (IPhpIniDirective directive : section.getDirectives()) {
+                if (!transaction.containsDirective(directive.getName())) {
+                    transaction.putDirective(section.getName(), directive);
+                }
+            }
+        }
+
+        return transaction.build(1);
+    }
+
+    /**
+     * Get the version of the snapshot. Every commit increases the version.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the sections.
+     *
+     * @return an unmodifiable list of the sections
+     */
+    public @NotNull List<IPhpIniSection> getIni() {
+        return Collections.unmodifiableList(Arrays.asList(sections));
+    }
+
+    /**
+     * Get the section with the given name, ignoring case.
+     *
+     * @param sectionName the name of the section
+     * @return the section or null if not found
+     */
+    public @Nullable Section getSection(String sectionName) {
+        return sectionName == null ? null : sectionIndex.get(ConcurrentPhpIniSection.key(sectionName));
+    }
+
+    /**
+     * Check if the snapshot contains a section with the given name, ignoring case.
+     *
+     * @param sectionName the name of the section
+     * @return true if the section exists, false otherwise
+     */
+    public boolean containsSection(String sectionName) {
+        return getSection(sectionName) != null;
+    }
+
+    /**
+     * Get the directive with the given name, ignoring case.
+     *
+     * @param name the name of the directive
+     * @return the directive or null if not found
+     */
+    public @Nullable IPhpIniDirective getDirective(String name) {
+        IPhpIniDirective result = null;
+
+        if (name != null) {
+            String sectionKey = directiveIndex.get(ConcurrentPhpIniSection.key(name));
+            Section section = sectionKey == null ? null : sectionIndex.get(sectionKey);
+            result = section == null ? null : section.getDirectiveByName(name);
+        }
+
+        return result;
+    }
+
+    /**
+     * Check if the snapshot contains a directive with the given name, ignoring case.
+     *
+     * @param name the name of the directive
+     * @return true if the directive exists, false otherwise
+     */
+    public boolean containsDirective(String name) {
+        return name != null && directiveIndex.containsKey(ConcurrentPhpIniSection.key(name));
+    }
+
+    /**
+     * Get the number of directives in all sections.
+     *
+     * @return the number of directives
+     */
+    public int getDirectiveCount() {
+        return directiveIndex.size();
+    }
+
+    /**
+     * Get the sections without copying them.
+     *
+     * @return the sections, not to be changed
+     */
+    Section @NotNull [] sections() {
+        return sections;
+    }
+
+    /**
+     * Get the lower case section name of the directive with each lower case name without copying it.
+     *
+     * @return the index, not to be changed
+     */
+    @NotNull PersistentHashMap<String, String> directiveIndex() {
+        return directiveIndex;
+    }
+
+    /**
+     * Get a copy of this snapshot with the given version, sharing all sections.
+     *
+     * @param newVersion the version of the copy
+     * @return the copy
+     */
+    @NotNull PhpIniSnapshot withVersion(long newVersion) {
+        return new PhpIniSnapshot(newVersion, sections, sectionIndex, directiveIndex);
+    }
+
+    /**
+     * Build the index of the sections with each lower case name.
+     *
+     * @param sections the sections
+     * @return the index
+     */
+    static @NotNull Map<String, Section> indexSections(Section @NotNull [] sections) {
+        Map<String, Section> result = new HashMap<>(sections.length * 2);
+        for (Section section : sections) {
+            result.put(ConcurrentPhpIniSection.key(section.getName()), section);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Version: ").append(version).append("\n");
+        for (Section section : sections) {
+            sb.append(section);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,458 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch of changes to the sections and directives of a {@link VersionedPhpIni}.
+ * <p>The changes are made to a private working copy of a {@link PhpIniSnapshot}: a section is only copied when the
+ * transaction changes it for the first time. Every change is validated when it is made, and the transaction sees its
+ * own changes. If one change is invalid, the whole transaction is rolled back on commit, so readers either see all
+ * changes or none of them.</p>
+ * <p>A transaction is only valid inside {@link VersionedPhpIni#transaction(java.util.function.Consumer)}.</p>
+ */
+public final class PhpIniTransaction {
+
+    /**
+     * Logger for the PhpIniTransaction class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(PhpIniTransaction.class);
+
+    /**
+     * The snapshot the transaction is based on.
+     */
+    private final PhpIniSnapshot base;
+    /**
+     * The sections of the working copy.
+     */
+    private final List<Draft> sections = new ArrayList<>();
+    /**
+     * The section of the working copy with each lower case name.
+     */
+    private final Map<String, Draft> sectionIndex = new HashMap<>();
+    /**
+     * The lower case section names of the directives added or removed by the transaction; removed names map to null.
+     */
+    private final Map<String, String> changedNames = new HashMap<>();
+    /**
+     * Did the transaction change anything?
+     */
+    private boolean changed;
+    /**
+     * Was a change invalid?
+     */
+    private boolean failed;
+    /**
+     * Was the transaction rolled back?
+     */
+    private boolean rolledBack;
+    /**
+     * Was the transaction committed or rolled back by its file?
+     */
+    private boolean closed;
+
+    /**
+     * Class representing a section of the working copy, which shares the section of the snapshot until it is changed.
+     */
+    private static final class Draft {
+
+        /**
+         * The name of the section.
+         */
+        private final String name;
+        /**
+         * The section of the snapshot, or null for a new section.
+         */
+        private final PhpIniSnapshot.Section original;
+        /**
+         * The directives, or null while the section is not changed.
+         */
+        private List<ImmutablePhpIniDirective> directives;
+        /**
+         * The directive with each lower case name, or null while the section is not changed.
+         */
+        private Map<String, ImmutablePhpIniDirective> byName;
+
+        /**
+         * Constructor with the section of the snapshot.
+         *
+         * @param original the section
+         */
+        private Draft(@NotNull PhpIniSnapshot.Section original) {
+            this.name = original.getName();
+            this.original = original;
+        }
+
+        /**
+         * Constructor for a new section.
+         *
+         * @param name the name of the section
+         */
+        private Draft(@NotNull String name) {
+            this.name = name;
+            this.original = null;
+            this.directives = new ArrayList<>();
+            this.byName = new HashMap<>();
+        }
+
+        /**
+         * Get the directive with the given lower case name.
+         *
+         * @param key the lower case name of the directive
+         * @return the directive or null if the section does not contain it
+         */
+        private @Nullable ImmutablePhpIniDirective get(@NotNull String key) {
+            return byName != null ? byName.get(key) : original.byName().get(key);
+        }
+
+        /**
+         * Copy the section of the snapshot on the first change.
+         */
+        private void copy() {
+            if (directives == null) {
+                directives = new ArrayList<>(Arrays.asList(original.directives()));
+                byName = new HashMap<>(original.byName());
+            }
+        }
+
+        /**
+         * Add or replace a directive.
+         *
+         * @param key       the lower case name of the directive
+         * @param directive the directive
+         */
+        private void put(@NotNull String key, @NotNull ImmutablePhpIniDirective directive) {
+            copy();
+            ImmutablePhpIniDirective previous = byName.put(key, directive);
+            if (previous == null) {
+                directives.add(directive);
+            } else {
+                directives.set(directives.indexOf(previous), directive);
+            }
+        }
+
+        /**
+         * Remove a directive.
+         *
+         * @param key the lower case name of the directive
+         */
+        private void remove(@NotNull String key) {
+            copy();
+            directives.remove(byName.remove(key));
+        }
+
+        /**
+         * Get the section for the snapshot.
+         *
+         * @return the section of the snapshot if it is not changed, a new section otherwise
+         */
+        private @NotNull PhpIniSnapshot.Section toSection() {
+            if (directives == null) {
+                return original;
+            }
+            return new PhpIniSnapshot.Section(name, directives.toArray(new ImmutablePhpIniDirective[0]), byName);
+        }
+    }
+
+    /**
+     * Constructor with the snapshot to change.
+     *
+     * @param base the snapshot
+     */
+    PhpIniTransaction(@NotNull PhpIniSnapshot base) {
+        this.base = base;
+        for (PhpIniSnapshot.Section section : base.sections()) {
+            Draft draft = new Draft(section);
+            sections.add(draft);
+            sectionIndex.put(ConcurrentPhpIniSection.key(section.getName()), draft);
+        }
+    }
+
+    /**
+     * Get the snapshot the transaction is based on.
+     *
+     * @return the snapshot
+     */
+    public @NotNull PhpIniSnapshot getBase() {
+        return base;
+    }
+
+    /**
+     * Check if the working copy contains a section with the given name, ignoring case.
+     *
+     * @param sectionName the name of the section
+     * @return true if the section exists, false otherwise
+     */
+    public boolean containsSection(String sectionName) {
+        return sectionName != null && sectionIndex.containsKey(ConcurrentPhpIniSection.key(sectionName));
+    }
+
+    /**
+     * Check if the working copy contains a directive with the given name, ignoring case.
+     *
+     * @param name the name of the directive
+     * @return true if the directive exists, false otherwise
+     */
+    public boolean containsDirective(String name) {
+        return getDirective(name) != null;
+    }
+
+    /**
+     * Get the directive with the given name from the working copy, ignoring case.
+     *
+     * @param name the name of the directive
+     * @return the directive or null if not found
+     */
+    public @Nullable IPhpIniDirective getDirective(String name) {
+        IPhpIniDirective result = null;
+
+        if (name != null) {
+            String key = ConcurrentPhpIniSection.key(name);
+            Draft section = findSectionOf(key);
+            result = section == null ? null : section.get(key);
+        }
+
+        return result;
+    }
+
+    /**
+     * Add an empty section with the given name.
+     *
+     * @param sectionName the name of the section
+     * @return true if the section was added, false if the name is empty or already used
+     */
+    public boolean addSection(String sectionName) {
+        checkOpen();
+        boolean result = false;
+
+        if (sectionName == null || sectionName.isEmpty()) {
+            reject(PhpIni.SECTION_IS_NULL_OR_EMPTY, null);
+        } else if (containsSection(sectionName)) {
+            reject("Section {} already exists in PHP INI file", sectionName);
+        } else {
+            Draft draft = new Draft(sectionName);
+            sections.add(draft);
+            sectionIndex.put(ConcurrentPhpIniSection.key(sectionName), draft);
+            changed = true;
+            result = true;
+        }
+
+        return result;
+    }
+
+    /**
+     * Remove the section with the given name and its directives.
+     *
+     * @param sectionName the name of the section
+     * @return true if the section was removed, false if it was not found
+     */
+    public boolean removeSection(String sectionName) {
+        checkOpen();
+        Draft removed = sectionName == null ? null : sectionIndex.remove(ConcurrentPhpIniSection.key(sectionName));
+
+        if (removed == null) {
+            reject(PhpIni.SECTION_NOT_FOUND_IN_PHP_INI_FILE, sectionName);
+        } else {
+            sections.remove(removed);
+            for (String key : removed.byName != null ? removed.byName.keySet() : removed.original.byName().keySet()) {
+                changedNames.put(key, null);
+            }
+            changed = true;
+        }
+
+        return removed != null;
+    }
+
+    /**
+     * Add a copy of the given directive to its section.
+     *
+     * @param directive the directive
+     * @return true if the directive was added, false if its section does not exist or its name is already used
+     */
+    public boolean addDirective(IPhpIniDirective directive) {
+        checkOpen();
+        boolean result = false;
+
+        if (directive == null || directive.getName() == null || directive.getName().isEmpty()) {
+            reject("Directive is null or empty", null);
+        } else if (containsDirective(directive.getName())) {
+            reject("Directive {} already exists in PHP INI file", directive.getName());
+        } else if (!containsSection(directive.getSection())) {
+            reject(PhpIni.SECTION_NOT_FOUND_IN_PHP_INI_FILE, directive.getSection());
+        } else {
+            putDirective(directive.getSection(), directive);
+            result = true;
+        }
+
+        return result;
+    }
+
+    /**
+     * Set the value of the directive with the given name. The directive is replaced by an updated copy.
+     *
+     * @param name  the name of the directive
+     * @param value the new value
+     * @return true if the directive was updated, false if it was not found or the value is null
+     */
+    public boolean updateDirective(String name, String value) {
+        checkOpen();
+        boolean result = false;
+        String key = name == null ? null : ConcurrentPhpIniSection.key(name);
+        Draft section = key == null ? null : findSectionOf(key);
+        ImmutablePhpIniDirective directive = section == null ? null : section.get(key);
+
+        if (directive == null) {
+            reject(PhpIni.DIRECTIVE_NOT_FOUND_IN_PHP_INI_FILE, name);
+        } else if (value == null) {
+            reject("Value of directive {} cannot be null", name);
+        } else {
+            section.put(key, ImmutablePhpIniDirective.withValue(directive, value));
+            changed = true;
+            result = true;
+        }
+
+        return result;
+    }
+
+    /**
+     * Remove the directive with the given name.
+     *
+     * @param name the name of the directive
+     * @return true if the directive was removed, false if it was not found
+     */
+    public boolean removeDirective(String name) {
+        checkOpen();
+        boolean result = false;
+        String key = name == null ? null : ConcurrentPhpIniSection.key(name);
+        Draft section = key == null ? null : findSectionOf(key);
+
+        if (section == null) {
+            reject(PhpIni.DIRECTIVE_NOT_FOUND_IN_PHP_INI_FILE, name);
+        } else {
+            section.remove(key);
+            changedNames.put(key, null);
+            changed = true;
+            result = true;
+        }
+
+        return result;
+    }
+
+    /**
+     * Discard all changes of the transaction. Nothing is committed.
+     */
+    public void rollback() {
+        checkOpen();
+        rolledBack = true;
+        logger.info("Transaction on version {} rolled back", base.getVersion());
+    }
+
+    /**
+     * Check if the transaction will be committed: no change was invalid and it was not rolled back.
+     *
+     * @return true if the transaction can be committed, false otherwise
+     */
+    public boolean isValid() {
+        return !failed && !rolledBack;
+    }
+
+    /**
+     * Check if the transaction changed anything.
+     *
+     * @return true if there is something to commit, false otherwise
+     */
+    boolean isChanged() {
+        return changed;
+    }
+
+    /**
+     * Add an immutable copy of the given directive to the given existing section without validating it.
+     *
+     * @param sectionName the name of the section
+     * @param directive   the directive
+     */
+    void putDirective(@NotNull String sectionName, @NotNull IPhpIniDirective directive) {
+        String sectionKey = ConcurrentPhpIniSection.key(sectionName);
+        Draft section = sectionIndex.get(sectionKey);
+        String key = ConcurrentPhpIniSection.key(directive.getName());
+
+        section.put(key, ImmutablePhpIniDirective.of(directive, section.name));
+        changedNames.put(key, sectionKey);
+        changed = true;
+    }
+
+    /**
+     * Build the snapshot of the working copy and close the transaction.
+     * Unchanged sections and the unchanged paths of the directive index are shared with the base.
+     *
+     * @param version the version of the snapshot
+     * @return the snapshot
+     */
+    @NotNull PhpIniSnapshot build(long version) {
+        closed = true;
+        PhpIniSnapshot.Section[] built = new PhpIniSnapshot.Section[sections.size()];
+        for (int i = 0; i < built.length; i++) {
+            built[i] = sections.get(i).toSection();
+        }
+
+        PersistentHashMap<String, String> directiveIndex = base.directiveIndex();
+        for (Map.Entry<String, String> entry : changedNames.entrySet()) {
+            if (entry.getValue() == null) {
+                directiveIndex = directiveIndex.remove(entry.getKey());
+            } else {
+                directiveIndex = directiveIndex.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return new PhpIniSnapshot(version, built, PhpIniSnapshot.indexSections(built), directiveIndex);
+    }
+
+    /**
+     * Close the transaction without building a snapshot.
+     */
+    void close() {
+        closed = true;
+    }
+
+    /**
+     * Find the section of the working copy holding the directive with the given lower case name.
+     *
+     * @param key the lower case name of the directive
+     * @return the section or null if no section holds the directive
+     */
+    private @Nullable Draft findSectionOf(@NotNull String key) {
+        String sectionKey = changedNames.containsKey(key) ? changedNames.get(key) : base.directiveIndex().get(key);
+        return sectionKey == null ? null : sectionIndex.get(sectionKey);
+    }
+
+    /**
+     * Mark the transaction as failed and log why. A rejected change is an expected outcome, so it is a warning.
+     *
+     * @param message the message
+     * @param name    the name of the section or directive
+     */
+    private void reject(@NotNull String message, @Nullable String name) {
+        failed = true;
+        logger.warn(message, name);
+    }
+
+    /**
+     * Check that the transaction is still open.
+     *
+     * @exception IllegalStateException if the transaction was already committed or rolled back by its file
+     */
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Transaction on version " + base.getVersion() + " is closed");
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Serializer streaming a PHP INI file into a writer or a byte channel.
+ * <p>Sections, directives and lines are written piece by piece; no copy of the whole file is built on the heap.
+ * Writing to a channel encodes through one reused buffer, so memory use does not depend on the size of the
+ * file. Files whose lines are kept are written line by line, all others are rebuilt from their sections and
+ * directives.</p>
+ */
+public final class PhpIniWriter {
+
+    /**
+     * Size of the buffer used to encode the content.
+     */
+    static final int WRITE_BUFFER_SIZE = 8192;
+
+    /**
+     * The line separator written after sections and directives that are rebuilt.
+     */
+    private final String lineSeparator;
+
+    /**
+     * Constructor for a writer using the system line separator.
+     */
+    public PhpIniWriter() {
+        this(System.lineSeparator());
+    }
+
+    /**
+     * Constructor for a writer using the given line separator.
+     *
+     * @param lineSeparator the line separator written after sections and directives that are rebuilt
+     */
+    public PhpIniWriter(@NotNull String lineSeparator) {
+        this.lineSeparator = lineSeparator;
+    }
+
+    /**
+     * Create a writer encoding UTF-8 into the given channel through a buffer of {@link #WRITE_BUFFER_SIZE}.
+     *
+     * @param channel the channel to write to
+     * @return the writer; closing it closes the channel
+     */
+    public static @NotNull Writer newWriter(@NotNull WritableByteChannel channel) {
+        return Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), WRITE_BUFFER_SIZE);
+    }
+
+    /**
+     * Write the given PHP INI file to a channel.
+     * Changes of the sections and directives are applied to the lines of the file first, like on save.
+     * The channel is not closed.
+     *
+     * @param phpIni  the PHP INI file
+     * @param channel the channel to write to
+     * @return the number of bytes written
+     * @exception IOException if the channel cannot be written
+     */
+    public long write(@NotNull PhpIni phpIni, @NotNull WritableByteChannel channel) throws IOException {
+        phpIni.prepareContent();
+        return writeModel(phpIni, channel);
+    }
+
+    /**
+     * Write the given PHP INI file to an output stream, e.g. for an export.
+     * The output stream is flushed but not closed.
+     *
+     * @param phpIni the PHP INI file
+     * @param out    the output stream to write to
+     * @return the number of bytes written
+     * @exception IOException if the output stream cannot be written
+     */
+    public long write(@NotNull PhpIni phpIni, @NotNull OutputStream out) throws IOException {
+        long result = write(phpIni, Channels.newChannel(out));
+        out.flush();
+        return result;
+    }
+
+    /**
+     * Write the lines or, if they are not kept, the sections and directives of the given PHP INI file.
+     *
+     * @param phpIni  the PHP INI file with its content prepared
+     * @param channel the channel to write to, not closed
+     * @return the number of bytes written
+     * @exception IOException if the channel cannot be written
+     */
+    long writeModel(PhpIni phpIni, WritableByteChannel channel) throws IOException {
+        CountingChannel counting = new CountingChannel(channel);
+        Writer writer = newWriter(counting);
+
+        if (phpIni.getDocument() != null) {
+            writeDocument(phpIni.getDocument(), writer);
+        } else {
+            writeSections(phpIni.getIni(), writer);
+        }
+        writer.flush();
+
+        return counting.count;
+    }
+
+    /**
+     * Write the lines of a document as they are.
+     *
+     * @param document the document
+     * @param writer   the writer to write to, not flushed
+     * @exception IOException if the writer cannot be written
+     */
+    public void writeDocument(@NotNull PhpIniDocument document, @NotNull Writer writer) throws IOException {
+        for (PhpIniDocumentLine line : document.getLines()) {
+            writer.write(line.getText());
+            writer.write(line.getSeparator());
+        }
+    }
+
+    /**
+     * Write the given sections with their directives, each directive with its description as a comment.
+     *
+     * @param sections the sections
+     * @param writer   the writer to write to, not flushed
+     * @exception IOException if the writer cannot be written
+     */
+    public void writeSections(@NotNull List<IPhpIniSection> sections, @NotNull Writer writer) throws IOException {
+        for (IPhpIniSection section : sections) {
+            writer.write('[');
+            writer.write(section.getName());
+            writer.write(']');
+            writer.write(lineSeparator);
+
+            for (IPhpIniDirective directive : section.getDirectives()) {
+                if (directive instanceof PhpIniDirective phpIniDirective) {
+                    phpIniDirective.appendContent(writer);
+                } else {
+                    writer.write(directive.getContent());
+                }
+                writer.write(lineSeparator);
+            }
+        }
+    }
+
+    /**
+     * Writable byte channel counting the bytes written to the wrapped channel.
+     */
+    private static final class CountingChannel implements WritableByteChannel {
+
+        /**
+         * The wrapped channel.
+         */
+        private final WritableByteChannel channel;
+
+        /**
+         * The number of bytes written so far.
+         */
+        private long count;
+
+        /**
+         * Constructor with the channel to wrap.
+         *
+         * @param channel the channel to wrap
+         */
+        CountingChannel(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            int written = channel.write(src);
+            count += written;
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
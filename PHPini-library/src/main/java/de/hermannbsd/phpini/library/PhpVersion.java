@@ -0,0 +1,130 @@
+package de.hermannbsd.phpini.library;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Class representing a PHP version like {@code 8.2} or {@code 7.4.33}.
+ * Missing minor and patch numbers are 0, so {@code 8.2} and {@code 8.2.0} are the same version.
+ */
+public final class PhpVersion implements Comparable<PhpVersion> {
+
+    /**
+     * The major version.
+     */
+    private final int major;
+    /**
+     * The minor version.
+     */
+    private final int minor;
+    /**
+     * The patch version.
+     */
+    private final int patch;
+
+    /**
+     * Constructor with the parts of the version.
+     *
+     * @param major the major version
+     * @param minor the minor version
+     * @param patch the patch version
+     */
+    public PhpVersion(int major, int minor, int patch) {
+        if (major < 0 || minor < 0 || patch < 0) {
+            throw new IllegalArgumentException("Invalid PHP version: " + major + "." + minor + "." + patch);
+        }
+        this.major = major;
+        this.minor = minor;
+        this.patch = patch;
+    }
+
+    /**
+     * Parse the given PHP version.
+     *
+     * @param version the version, with one to three numbers separated by dots
+     * @return the parsed version
+     * @throws IllegalArgumentException if the version cannot be parsed
+     */
+    public static @NotNull PhpVersion parse(@NotNull String version) throws IllegalArgumentException {
+        String[] parts = version.trim().split("\\.", -1);
+        if (parts.length > 3) {
+            throw new IllegalArgumentException("Invalid PHP version: " + version);
+        }
+
+        int[] numbers = new int[3];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                numbers[i] = Integer.parseInt(parts[i]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid PHP version: " + version, e);
+        }
+
+        return new PhpVersion(numbers[0], numbers[1], numbers[2]);
+    }
+
+    /**
+     * Parse the given PHP version if it is not empty.
+     *
+     * @param version the version or an empty string
+     * @return the parsed version or null if the version is null or empty
+     * @throws IllegalArgumentException if the version cannot be parsed
+     */
+    static @Nullable PhpVersion parseOrNull(@Nullable String version) throws IllegalArgumentException {
+        return version == null || version.isBlank() ? null : parse(version);
+    }
+
+    /**
+     * Get the major version.
+     *
+     * @return the major version
+     */
+    public int getMajor() {
+        return major;
+    }
+
+    /**
+     * Get the minor version.
+     *
+     * @return the minor version
+     */
+    public int getMinor() {
+        return minor;
+    }
+
+    /**
+     * Get the patch version.
+     *
+     * @return the patch version
+     */
+    public int getPatch() {
+        return patch;
+    }
+
+    @Override
+    public int compareTo(@NotNull PhpVersion other) {
+        int result = Integer.compare(major, other.major);
+        if (result == 0) {
+            result = Integer.compare(minor, other.minor);
+        }
+        if (result == 0) {
+            result = Integer.compare(patch, other.patch);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PhpVersion other && major == other.major && minor == other.minor && patch == other.patch;
+    }
+
+    @Override
+    public int hashCode() {
+        return (major * 31 + minor) * 31 + patch;
+    }
+
+    @Override
+    public String toString() {
+        return major + "." + minor + "." + patch;
+    }
+}
@@ -0,0 +1,343 @@
+package de.hermannbsd.phpini.library;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * The lines of a document as they are in its file, to write only the lines changed since the file was last read or
+ * written.
+ * <p>The changed region lies between the longest runs of unchanged leading and trailing lines; the lines are
+ * compared by identity, as the document keeps the instance of every unchanged line. The region is only used if the
+ * file is still as it was left: its size, its modification time and the checksum of its content are compared.</p>
+ */
+final class SavedDocument {
+
+    /**
+     * Logger for the SavedDocument class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(SavedDocument.class);
+
+    /**
+     * The file of the document.
+     */
+    private final Path file;
+    /**
+     * The lines of the document as they were last read from or written to the file, or null if unknown.
+     */
+    private List<PhpIniDocumentLine> lines;
+    /**
+     * The size of the file in bytes when it was last read or written.
+     */
+    private long size;
+    /**
+     * The last modification time of the file when it was last read or written.
+     */
+    private FileTime time;
+    /**
+     * The CRC-32C checksum of the file content when it was last read or written.
+     */
+    private long checksum;
+
+    /**
+     * Class representing the region of the document that changed since the file was last read or written.
+     */
+    static final class ChangedRegion {
+
+        /**
+         * The index of the first changed line in the document.
+         */
+        private final int from;
+        /**
+         * The index after the last changed line in the document.
+         */
+        private final int to;
+        /**
+         * The start of the region in the old file.
+         */
+        private final long start;
+        /**
+         * The end (exclusive) of the region in the old file.
+         */
+        private final long end;
+        /**
+         * The new bytes of the region.
+         */
+        private final byte[] bytes;
+
+        /**
+         * Constructor with the lines and the bytes of the region.
+         *
+         * @param from  the index of the first changed line in the document
+         * @param to    the index after the last changed line in the document
+         * @param start the start of the region in the old file
+         * @param end   the end (exclusive) of the region in the old file
+         * @param bytes the new bytes of the region
+         */
+        private ChangedRegion(int from, int to, long start, long end, byte[] bytes) {
+            this.from = from;
+            this.to = to;
+            this.start = start;
+            this.end = end;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Get the index of the first changed line in the document.
+         *
+         * @return the index
+         */
+        int getFrom() {
+            return from;
+        }
+
+        /**
+         * Get the index after the last changed line in the document.
+         *
+         * @return the index
+         */
+        int getTo() {
+            return to;
+        }
+
+        /**
+         * Get the number of new bytes of the region.
+         *
+         * @return the number of bytes
+         */
+        int getByteCount() {
+            return bytes.length;
+        }
+
+        /**
+         * Gets whether nothing changed.
+         *
+         * @return is the region empty in the old file and in the document?
+         */
+        boolean isEmpty() {
+            return start == end && bytes.length == 0;
+        }
+
+        /**
+         * Gets whether the region keeps its size, so it can be patched in place.
+         *
+         * @return has the region as many new bytes as it has in the old file?
+         */
+        boolean isSameSize() {
+            return bytes.length == end - start;
+        }
+    }
+
+    /**
+     * Constructor with the file of the document.
+     *
+     * @param file the file
+     */
+    SavedDocument(@NotNull Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Remember the lines of the document, the size, the modification time and the checksum of the file as they
+     * are on disk.
+     *
+     * @param lines the lines of the document on disk, not changed afterward
+     * @exception IOException if the attributes of the file cannot be read
+     */
+    void mark(@NotNull List<PhpIniDocumentLine> lines) throws IOException {
+        this.lines = lines;
+        size = Files.size(file);
+        time = Files.getLastModifiedTime(file);
+        checksum = checksum(lines);
+    }
+
+    /**
+     * Find the region of the given lines that changed since the file was last read or written.
+     * <p>Size and modification time of the file may stay the same although someone else changed it, e.g. within
+     * the resolution of the modification time, so the checksum of the file is compared as well. This reads the
+     * file once, but unchanged bytes are still neither encoded nor written.</p>
+     *
+     * @param current the current lines of the document
+     * @return the changed region, or null if the lines on disk are not known or the file was changed on disk
+     * @exception IOException if the file cannot be read
+     */
+    @Nullable ChangedRegion findChangedRegion(@NotNull List<PhpIniDocumentLine> current) throws IOException {
+        if (lines == null || size != Files.size(file) || !time.equals(Files.getLastModifiedTime(file))) {
+            return null;
+        }
+        if (checksum != checksum(file)) {
+            // changed on disk within the resolution of the modification time, keeping its size
+            logger.warn("File {} changed on disk since it was last read or written", file);
+            return null;
+        }
+
+        int oldSize = lines.size();
+        int newSize = current.size();
+
+        int prefix = 0;
+        while (prefix < oldSize && prefix < newSize && lines.get(prefix) == current.get(prefix)) {
+            prefix++;
+        }
+
+        int suffix = 0;
+        while (suffix < oldSize - prefix && suffix < newSize - prefix
+                && lines.get(oldSize - 1 - suffix) == current.get(newSize - 1 - suffix)) {
+            suffix++;
+        }
+
+        if (prefix == oldSize && prefix == newSize) {
+            return new ChangedRegion(prefix, prefix, size, size, new byte[0]);
+        }
+
+        return new ChangedRegion(prefix, newSize - suffix, byteLength(lines, 0, prefix),
+                size - byteLength(lines, oldSize - suffix, oldSize),
+                text(current, prefix, newSize - suffix).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Overwrite the region in the file with its new bytes, which have the same length.
+     *
+     * @param region the changed region
+     * @exception IOException if the file cannot be written
+     */
+    void patch(@NotNull ChangedRegion region) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(region.bytes);
+            long offset = region.start;
+            while (buffer.hasRemaining()) {
+                offset += channel.write(buffer, offset);
+            }
+        }
+    }
+
+    /**
+     * Write the file with the changed region into a sibling file.
+     * The unchanged prefix and suffix are copied from the old file around the new region with
+     * {@link FileChannel#transferTo}.
+     *
+     * @param temp   the sibling file
+     * @param region the changed region
+     * @return the number of bytes copied from the old file
+     * @exception IOException if the file cannot be written
+     */
+    long splice(@NotNull Path temp, @NotNull ChangedRegion region) throws IOException {
+        long result = 0;
+
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            result += transfer(source, 0, region.start, channel);
+            ByteBuffer buffer = ByteBuffer.wrap(region.bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            result += transfer(source, region.end, source.size() - region.end, channel);
+        }
+
+        return result;
+    }
+
+    /**
+     * Copy a range of a file channel to the end of another channel.
+     *
+     * @param source   the channel to copy from
+     * @param position the start of the range
+     * @param count    the length of the range
+     * @param target   the channel to copy to
+     * @return the number of bytes copied
+     * @exception IOException if the range cannot be copied
+     */
+    private static long transfer(FileChannel source, long position, long count, FileChannel target) throws IOException {
+        long done = 0;
+        while (done < count) {
+            long transferred = source.transferTo(position + done, count - done, target);
+            if (transferred <= 0) {
+                throw new IOException("Unexpected end of file while copying");
+            }
+            done += transferred;
+        }
+        return done;
+    }
+
+    /**
+     * Get the CRC-32C checksum of the content of a file.
+     *
+     * @param path the file
+     * @return the checksum
+     * @exception IOException if the file cannot be read
+     */
+    private static long checksum(Path path) throws IOException {
+        CRC32C crc = new CRC32C();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(PhpIni.READ_BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+
+        return crc.getValue();
+    }
+
+    /**
+     * Get the CRC-32C checksum of lines as they are written to a file.
+     *
+     * @param lines the lines
+     * @return the checksum of the text and separators of the lines in UTF-8
+     */
+    private static long checksum(List<PhpIniDocumentLine> lines) {
+        CRC32C crc = new CRC32C();
+
+        for (PhpIniDocumentLine line : lines) {
+            crc.update(line.getText().getBytes(StandardCharsets.UTF_8));
+            crc.update(line.getSeparator().getBytes(StandardCharsets.UTF_8));
+        }
+
+        return crc.getValue();
+    }
+
+    /**
+     * Get the length in bytes of a range of lines.
+     *
+     * @param lines the lines
+     * @param from  the index of the first line
+     * @param to    the index after the last line
+     * @return the length of the text and separators of the lines in UTF-8
+     */
+    private static long byteLength(List<PhpIniDocumentLine> lines, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            result += lines.get(i).getByteLength();
+        }
+        return result;
+    }
+
+    /**
+     * Get the text of a range of lines.
+     *
+     * @param lines the lines
+     * @param from  the index of the first line
+     * @param to    the index after the last line
+     * @return the text and separators of the lines
+     */
+    private static String text(List<PhpIniDocumentLine> lines, int from, int to) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            sb.append(lines.get(i).getText()).append(lines.get(i).getSeparator());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,71 @@
+package de.hermannbsd.phpini.library;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Class representing an edit of the text of a PHP INI file.
+ * The edit replaces a range of characters with a new text.
+ */
+public final class TextEdit {
+
+    /**
+     * The offset of the first replaced character.
+     */
+    private final int offset;
+    /**
+     * The number of replaced characters.
+     */
+    private final int length;
+    /**
+     * The text replacing the range.
+     */
+    private final String replacement;
+
+    /**
+     * Constructor with the replaced range and the new text.
+     *
+     * @param offset      the offset of the first replaced character
+     * @param length      the number of replaced characters, 0 for an insertion
+     * @param replacement the text replacing the range, empty for a deletion
+     */
+    public TextEdit(int offset, int length, @NotNull String replacement) {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Invalid edit range: " + offset + ", " + length);
+        }
+        this.offset = offset;
+        this.length = length;
+        this.replacement = replacement;
+    }
+
+    /**
+     * Get the offset of the first replaced character.
+     *
+     * @return the offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Get the number of replaced characters.
+     *
+     * @return the length of the replaced range
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Get the text replacing the range.
+     *
+     * @return the replacement
+     */
+    public @NotNull String getReplacement() {
+        return replacement;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + offset + ", " + (offset + length) + "): " + replacement;
+    }
+}
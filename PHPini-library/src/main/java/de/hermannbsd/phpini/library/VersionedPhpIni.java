@@ -0,0 +1,288 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIni;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * PHP INI file with versioned, immutable snapshots and transactional batch updates.
+ * <p>The sections and directives are held in a {@link PhpIniSnapshot}. {@link #snapshot()} returns the current one
+ * without locking or copying; a snapshot never changes, so readers see a consistent state for as long as they keep
+ * it. Changes are made in a {@link PhpIniTransaction} and committed by replacing the current snapshot in a single
+ * atomic step, so readers see either all changes of a transaction or none of them.</p>
+ * <p>Transactions run one after the other. Every single change through the {@link IPhpIni} methods is a transaction
+ * of its own. Changes are written back to the wrapped {@link PhpIni} when the file is saved, so its comments and
+ * layout are kept.</p>
+ */
+public class VersionedPhpIni implements IPhpIni {
+
+    /**
+     * Logger for the VersionedPhpIni class.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(VersionedPhpIni.class);
+
+    /**
+     * The PHP INI file the sections and directives are read from and saved to.
+     */
+    private final PhpIni source;
+    /**
+     * The current snapshot.
+     */
+    private final AtomicReference<PhpIniSnapshot> current;
+    /**
+     * The lock letting transactions run one after the other.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * Constructor reading the PHP INI file at the given path.
+     *
+     * @param filePath the file path to the PHP INI file
+     * @exception IOException if the file path is invalid or cannot be created
+     */
+    public VersionedPhpIni(String filePath) throws IOException {
+        this(new PhpIni(filePath));
+    }
+
+    /**
+     * Constructor with the PHP INI file to version.
+     * The file should not be changed directly afterwards, only through this object.
+     *
+     * @param source the PHP INI file
+     */
+    public VersionedPhpIni(@NotNull PhpIni source) {
+        this.source = source;
+        synchronized (source) {
+            this.current = new AtomicReference<>(PhpIniSnapshot.of(source.getIni()));
+        }
+    }
+
+    /**
+     * Get the current snapshot. Taking a snapshot neither locks nor copies anything.
+     *
+     * @return the current snapshot
+     */
+    public @NotNull PhpIniSnapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Get the version of the current snapshot.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return current.get().getVersion();
+    }
+
+    /**
+     * Run the given changes as one transaction on the current snapshot.
+     * <p>The changes are committed if all of them are valid and the transaction is not rolled back. If a change is
+     * invalid or {@link PhpIniTransaction#rollback()} is called, nothing is committed. If the changes throw an
+     * exception, nothing is committed either and the exception is passed on to the caller.</p>
+     *
+     * @param changes the changes
+     * @return true if the changes were committed, false if they were rolled back
+     * @exception RuntimeException the exception thrown by the changes, after the transaction was rolled back
+     */
+    public boolean transaction(@NotNull Consumer<PhpIniTransaction> changes) {
+        boolean result = false;
+
+        writeLock.lock();
+        try {
+            PhpIniSnapshot base = current.get();
+            PhpIniTransaction transaction = new PhpIniTransaction(base);
+            try {
+                changes.accept(transaction);
+            } catch (RuntimeException e) {
+                transaction.close();
+                logger.warn("Transaction on version {} rolled back by an exception", base.getVersion());
+                throw e;
+            }
+
+            if (!transaction.isValid()) {
+                transaction.close();
+                logger.warn("Transaction on version {} not committed", base.getVersion());
+            } else if (!transaction.isChanged()) {
+                transaction.close();
+                result = true;
+            } else {
+                current.set(transaction.build(base.getVersion() + 1));
+                logger.info("Version {} committed", base.getVersion() + 1);
+                result = true;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        return result;
+    }
+
+    /**
+     * Make the given snapshot of this file current again, as a new version.
+     *
+     * @param snapshot the snapshot, taken from this file
+     */
+    public void restore(@NotNull PhpIniSnapshot snapshot) {
+        writeLock.lock();
+        try {
+            long version = current.get().getVersion() + 1;
+            current.set(snapshot.withVersion(version));
+            logger.info("Version {} restored as version {}", snapshot.getVersion(), version);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public String getFilePath() {
+        return source.getFilePath();
+    }
+
+    @Override
+    public void setFilePath(String filePath) {
+        source.setFilePath(filePath);
+    }
+
+    @Override
+    public String getFileName() {
+        return source.getFileName();
+    }
+
+    @Override
+    public void setFileName(String fileName) {
+        source.setFileName(fileName);
+    }
+
+    @Override
+    public String getFileNameWithoutExtension() {
+        return source.getFileNameWithoutExtension();
+    }
+
+    @Override
+    public void setFileNameWithoutExtension(String fileNameWithoutExtension) {
+        source.setFileNameWithoutExtension(fileNameWithoutExtension);
+    }
+
+    @Override
+    public String getFileExtension() {
+        return source.getFileExtension();
+    }
+
+    /**
+     * Get the content of the PHP INI file with the sections and directives of the current snapshot.
+     *
+     * @return the content, or null if the content is not kept
+     */
+    @Override
+    public String getFileContent() {
+        synchronized (source) {
+            source.applySections(snapshot().getIni());
+            return source.getFileContent();
+        }
+    }
+
+    /**
+     * Get the sections of the current snapshot.
+     *
+     * @return an unmodifiable list of the sections
+     */
+    @Override
+    public List<IPhpIniSection> getIni() {
+        return snapshot().getIni();
+    }
+
+    @Override
+    public boolean containsSection(String sectionName) {
+        return snapshot().containsSection(sectionName);
+    }
+
+    @Override
+    public boolean containsDirective(String directiveName) {
+        return snapshot().containsDirective(directiveName);
+    }
+
+    /**
+     * Adds a copy of the given section and its directives to the PHP INI file, as one transaction.
+     *
+     * @param section the section to add
+     * @return true if the section was added successfully, false otherwise
+     */
+    @Override
+    public boolean addSection(IPhpIniSection section) {
+        return section != null && transaction(changes -> {
+            changes.addSection(section.getName());
+            for (IPhpIniDirective directive : section.getDirectives()) {
+                PhpIniDirective added = new PhpIniDirective(directive);
+                added.setSection(section.getName());
+                changes.addDirective(added);
+            }
+        });
+    }
+
+    @Override
+    public boolean removeSection(IPhpIniSection section) {
+        return section != null && removeSection(section.getName());
+    }
+
+    @Override
+    public boolean removeSection(String sectionName) {
+        return transaction(changes -> changes.removeSection(sectionName));
+    }
+
+    @Override
+    public boolean addDirective(IPhpIniDirective directive) {
+        return transaction(changes -> changes.addDirective(directive));
+    }
+
+    /**
+     * Updates a directive of the PHP INI file.
+     * The directive is replaced by an updated copy, so snapshots taken before keep the old value.
+     *
+     * @param name  the name of the directive
+     * @param value the new value of the directive
+     * @return true if the directive was updated successfully, false otherwise
+     */
+    @Override
+    public boolean updateDirective(String name, String value) {
+        return transaction(changes -> changes.updateDirective(name, value));
+    }
+
+    @Override
+    public boolean removeDirective(@NotNull IPhpIniDirective directive) {
+        return removeDirective(directive.getName());
+    }
+
+    @Override
+    public boolean removeDirective(String name) {
+        return transaction(changes -> changes.removeDirective(name));
+    }
+
+    @Override
+    public @Nullable IPhpIniDirective getDirective(String name) {
+        return snapshot().getDirective(name);
+    }
+
+    /**
+     * Saves the PHP INI file with the sections and directives of the current snapshot.
+     *
+     * @return true if the file was saved successfully, false otherwise
+     */
+    @Override
+    public boolean save() {
+        synchronized (source) {
+            source.applySections(snapshot().getIni());
+            return source.save();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package de.hermannbsd.phpini.library.enums;
+
+/// Enum representing the kind of line in a PHP INI file.
+///
+/// This enum is used by the tokenizer to classify each line before it is turned into sections and directives.
+///
+/// @author Aleandra Hermann
+/// @version 1.0
+/// @since 1.0
+public enum IniLineKind {
+
+    /// Line is empty or only contains whitespace
+    BLANK,
+    /// Line only contains a comment, e.g. `; comment`
+    COMMENT,
+    /// Line opens a section, e.g. `[PHP]`
+    SECTION,
+    /// Line contains a directive, e.g. `memory_limit = 128M ; comment`
+    DIRECTIVE,
+    /// Line cannot be interpreted, e.g. an unterminated section header
+    INVALID,
+}
@@ -0,0 +1,20 @@
+package de.hermannbsd.phpini.library.enums;
+
+/// Enum representing how a PHP INI file is parsed when it is loaded.
+///
+/// All modes produce the same sections and directives; they differ in how the file is read.
+///
+/// @author Aleandra Hermann
+/// @version 1.0
+/// @since 1.0
+public enum ParseMode {
+
+    /// File is streamed once through a buffered channel and decoded line by line
+    STREAMING,
+    /// File is memory-mapped and scanned byte by byte; only names and values of directives are decoded
+    MEMORY_MAPPED,
+    /// File is read once and kept as compact line records; a directive is only built when it is first accessed
+    LAZY,
+    /// File is read once, split into chunks and the directives of the chunks are built on a fork/join pool
+    PARALLEL,
+}
@@ -0,0 +1,92 @@
+package de.hermannbsd.phpini.library.enums;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/// Enum representing the PHP type of the values of a directive.
+///
+/// The type decides how a value is parsed and in which slot of a directive it is kept: integers, byte sizes, floats
+/// and booleans are kept as primitives, everything else as an object.
+///
+/// @author Aleandra Hermann
+/// @version 1.0
+/// @since 1.0
+public enum PhpValueType {
+
+    /// Integer value, kept as a long
+    INT("int", Integer.class),
+    /// Byte size with an optional shorthand suffix, like `512M`, kept as a long in bytes
+    SIZE("size", Long.class),
+    /// Floating point value, kept as a double
+    FLOAT("float", Float.class),
+    /// Boolean value, kept as a boolean
+    BOOL("bool", Boolean.class),
+    /// String value
+    STRING("string", String.class),
+    /// Array value
+    ARRAY("array", List.class),
+    /// Value of any other type
+    OBJECT("object", Object.class);
+
+    /// The PHP type name
+    private final String typeName;
+    /// The Java type of the real values
+    private final Type javaType;
+
+    PhpValueType(@NotNull String typeName, @NotNull Type javaType) {
+        this.typeName = typeName;
+        this.javaType = javaType;
+    }
+
+    /// Get the PHP type name, as written in the directive catalog.
+    ///
+    /// @return the type name
+    public @NotNull String getTypeName() {
+        return typeName;
+    }
+
+    /// Get the Java type of the real values, as returned by `IPhpIniDirective.getRealValue()`.
+    ///
+    /// @return the Java type
+    public @NotNull Type getJavaType() {
+        return javaType;
+    }
+
+    /// Check if the values are kept as primitives.
+    ///
+    /// @return true for integers, byte sizes, floats and booleans, false otherwise
+    public boolean isPrimitive() {
+        return this == INT || this == SIZE || this == FLOAT || this == BOOL;
+    }
+
+    /// Find the type with the given PHP type name, ignoring case.
+    ///
+    /// @param typeName the PHP type name
+    /// @return the type or null if the name is unknown
+    public static @Nullable PhpValueType fromTypeName(@Nullable String typeName) {
+        if (typeName != null) {
+            for (PhpValueType type : values()) {
+                if (type.typeName.equalsIgnoreCase(typeName)) {
+                    return type;
+                }
+            }
+        }
+        return null;
+    }
+
+    /// Find the type with the given Java type.
+    ///
+    /// @param javaType the Java type
+    /// @return the type or null if the Java type is not one of the types
+    public static @Nullable PhpValueType fromJavaType(@Nullable Type javaType) {
+        for (PhpValueType type : values()) {
+            if (type.javaType.equals(javaType)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,16 @@
+package de.hermannbsd.phpini.library.enums;
+
+/// Enum representing how a PHP INI file is written when it is saved.
+///
+/// Both modes write the same content; they differ in what a crash in the middle of a save leaves behind.
+///
+/// @author Aleandra Hermann
+/// @version 1.0
+/// @since 1.0
+public enum SaveMode {
+
+    /// Changed bytes are written onto the file itself; a crash can leave a partly written file
+    DIRECT,
+    /// File is written to a synced sibling file that atomically replaces it; a crash leaves the old or the new file
+    ATOMIC,
+}
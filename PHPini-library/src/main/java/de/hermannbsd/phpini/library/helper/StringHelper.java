@@ -2,6 +2,7 @@ package de.hermannbsd.phpini.library.helper;
 
 import de.hermannbsd.phpini.library.IniLine;
 import de.hermannbsd.phpini.library.interfaces.IIniLine;
+import de.hermannbsd.phpini.library.parser.IniLineTokenizer;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
@@ -22,29 +23,27 @@ public class StringHelper {
      * @return the modified string with an even number of quotation marks
      */
     public static @NotNull String secureEqualQuotationMarks(String value) {
-        StringBuilder sb = new StringBuilder(value);
-        if (value.contains("\"") && counts(value, '"') % 2 == 1) {
-            sb.append("\"");
+        String result = value;
+        if (counts(value, '"') % 2 == 1) {
+            result = value + "\"";
         }
 
-        return sb.toString();
+        return result;
     }
 
     /**
-     * Count the occurrences of a character in a string.
+     * Count the occurrences of a character in a character sequence.
      *
-     * @param value the string to search in
+     * @param value the character sequence to search in
      * @param search the character to count
-     * @return the number of occurrences of the character in the string
+     * @return the number of occurrences of the character in the character sequence
      */
     @Contract(pure = true)
-    public static int counts(@NotNull String value, char search) {
+    public static int counts(@NotNull CharSequence value, char search) {
         int count = 0;
 
-        char[] chars = value.toCharArray();
-
-        for (char c : chars) {
-            if (c == search) {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            if (value.charAt(i) == search) {
                 count++;
             }
         }
@@ -52,91 +51,51 @@ public class StringHelper {
         return count;
     }
 
-    public static @NotNull IIniLine splitPhpIniLine(String line) {
-        IniLine result = new IniLine(line);
-
-        if (line != null && !line.isEmpty()) {
-            String[] parts = line.split("=");
-            if (parts.length > 0) {
-                if (parts[0].contains(";")) {
-                    String[] subParts = parts[0].split(";");
-                    result.setComment(subParts[1].trim());
-                } else {
-                    result.setDirectiveName(parts[0].trim());
-                }
-            }
-            if (parts.length > 1) {
-                String secondPart = parts[1].trim();
-                handleSecondPart(secondPart, result);
+    /**
+     * Get the length of a character sequence encoded in UTF-8 without encoding it.
+     *
+     * @param value the character sequence
+     * @return the number of bytes of the character sequence in UTF-8
+     */
+    @Contract(pure = true)
+    public static int utf8Length(@NotNull CharSequence value) {
+        int length = 0;
+
+        for (int i = 0, size = value.length(); i < size; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
             }
         }
 
-        return result;
+        return length;
     }
 
-    private static void handleSecondPart(String secondPart, IniLine result) {
-        int count = counts(secondPart, '"');
-        int idx1;
-        int idx3;
-        String value;
-        String comment = null;
-
-        switch (count) {
-            case 0 -> {
-                idx3 = secondPart.indexOf(';');
-                if (idx3 > -1) {
-                    value = secondPart.substring(0, idx3).trim();
-                    comment = searchComment(secondPart.substring(idx3));
-                } else {
-                    value = secondPart.trim();
-                }
-            }
-            case 1 -> {
-                idx1 = secondPart.indexOf('"');
-                idx3 = secondPart.indexOf(';');
-
-                if (idx3 > -1) {
-                    value = secondPart.substring(0, idx3).trim();
-                    comment = searchComment(secondPart.substring(idx3));
-                } else {
-                    value = secondPart.substring(0, idx1 + 1).trim();
-                }
-            }
-            case 2 -> {
-                int idx2;
-
-                idx1 = secondPart.indexOf('"');
-                idx2 = secondPart.indexOf('"', idx1 + 1);
-                idx3 = secondPart.indexOf(';');
-
-                if (idx3 < idx2 || idx3 > idx2) {
-                    value = secondPart.substring(idx1, idx2 + 1).trim();
-                    comment = searchComment(secondPart.substring(idx2 + 1));
-                } else {
-                    value = secondPart.substring(0, idx3).trim();
-                    comment = searchComment(secondPart.substring(idx3));
-                }
-            }
-            default -> {
-                value = secondPart.substring(0, secondPart.lastIndexOf('"') + 1).trim();
-                comment = searchComment(secondPart);
-            }
-        }
-
-        result.setValue(value);
-
-        if (comment != null) {
-            result.setComment(comment);
-        }
-    }
+    /**
+     * Split a line of a PHP INI file into its name, value and comment.
+     * The line is scanned once by an {@link IniLineTokenizer}; the parts are created on first access.
+     *
+     * @param line the line to split
+     * @return the split line
+     */
+    public static @NotNull IIniLine splitPhpIniLine(String line) {
+        IIniLine result;
 
-    private static String searchComment(@NotNull String secondPart) {
-        int idx = secondPart.indexOf(';');
-        String comment = null;
-        if (idx > -1) {
-            comment = secondPart.substring(idx+1).trim();
+        if (line != null && !line.isEmpty()) {
+            IniLineTokenizer tokenizer = new IniLineTokenizer();
+            tokenizer.tokenize(line);
+            result = tokenizer.toIniLine();
+        } else {
+            result = new IniLine(line);
         }
 
-        return comment;
+        return result;
     }
 }
@@ -0,0 +1,123 @@
+package de.hermannbsd.phpini.library.interfaces;
+
+import de.hermannbsd.phpini.library.enums.IniLineKind;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Interface for a read-only view of a tokenized PHP INI line.
+ * <p>The view records the name, value and comment of the line as spans (start and end offsets) into its source.
+ * Strings are only created if a part is actually read. A view passed to a handler may be reused for the next
+ * line, so it is only valid during the call; use {@link #toIniLine()} to keep the line.</p>
+ */
+public interface IIniLineView {
+
+    /**
+     * Get the kind of the line.
+     *
+     * @return the kind of the line
+     */
+    IniLineKind getKind();
+
+    /**
+     * Get the character sequence containing the line.
+     *
+     * @return the character sequence
+     */
+    CharSequence getSource();
+
+    /**
+     * Get the start offset of the line.
+     *
+     * @return the start offset
+     */
+    int getLineStart();
+
+    /**
+     * Get the end offset (exclusive) of the line.
+     *
+     * @return the end offset
+     */
+    int getLineEnd();
+
+    /**
+     * Get the start offset of the name, the section name for section lines.
+     *
+     * @return the start offset
+     */
+    int getNameStart();
+
+    /**
+     * Get the end offset (exclusive) of the name.
+     *
+     * @return the end offset
+     */
+    int getNameEnd();
+
+    /**
+     * Get the start offset of the value.
+     *
+     * @return the start offset
+     */
+    int getValueStart();
+
+    /**
+     * Get the end offset (exclusive) of the value.
+     *
+     * @return the end offset
+     */
+    int getValueEnd();
+
+    /**
+     * Get the start offset of the comment.
+     *
+     * @return the start offset
+     */
+    int getCommentStart();
+
+    /**
+     * Get the end offset (exclusive) of the comment.
+     *
+     * @return the end offset
+     */
+    int getCommentEnd();
+
+    /**
+     * Get the name of the line, the section name for section lines.
+     * This creates a new string.
+     *
+     * @return the name as a String
+     */
+    @NotNull String getName();
+
+    /**
+     * Get the value of the line.
+     * This creates a new string.
+     *
+     * @return the value as a String
+     */
+    @NotNull String getValue();
+
+    /**
+     * Get the comment of the line.
+     * This creates a new string.
+     *
+     * @return the comment as a String
+     */
+    @NotNull String getComment();
+
+    /**
+     * Gets whether the name of the line equals the given name, ignoring case.
+     * This does not create a new string.
+     *
+     * @param name the name to compare with
+     * @return is the name equal?
+     */
+    boolean nameEqualsIgnoreCase(CharSequence name);
+
+    /**
+     * Create an INI line holding an immutable copy of the line.
+     *
+     * @return the INI line
+     */
+    @NotNull IIniLine toIniLine();
+}
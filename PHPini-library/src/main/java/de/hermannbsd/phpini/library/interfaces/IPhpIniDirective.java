@@ -1,6 +1,9 @@
 package de.hermannbsd.phpini.library.interfaces;
 
+import de.hermannbsd.phpini.library.PhpVersion;
 import de.hermannbsd.phpini.library.enums.DirectiveChangeable;
+import de.hermannbsd.phpini.library.enums.PhpValueType;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Interface for a PHP INI directive.
@@ -42,6 +45,58 @@ public interface IPhpIniDirective {
      */
     Object getRealValue();
 
+    /**
+     * Get the value type of the directive.
+     *
+     * @return the value type, {@link PhpValueType#STRING} if the type name is unknown
+     */
+    default PhpValueType getValueType() {
+        PhpValueType result = PhpValueType.fromTypeName(getType());
+        return result != null ? result : PhpValueType.STRING;
+    }
+
+    /**
+     * Get the value of the directive as a long.
+     * Implementations keeping the value as a primitive return it without boxing.
+     *
+     * @return the value of an integer, the truncated value of a float, 1 for true, or 0 otherwise
+     */
+    default long getLong() {
+        Object realValue = getRealValue();
+        if (realValue instanceof Boolean bool) {
+            return bool ? 1 : 0;
+        }
+        return realValue instanceof Number number ? number.longValue() : 0;
+    }
+
+    /**
+     * Get the value of the directive as a double.
+     * Implementations keeping the value as a primitive return it without boxing.
+     *
+     * @return the value of an integer or float, 1 for true, or 0 otherwise
+     */
+    default double getDouble() {
+        Object realValue = getRealValue();
+        if (realValue instanceof Boolean bool) {
+            return bool ? 1 : 0;
+        }
+        return realValue instanceof Number number ? number.doubleValue() : 0;
+    }
+
+    /**
+     * Get the value of the directive as a boolean.
+     * Implementations keeping the value as a primitive return it without boxing.
+     *
+     * @return the value of a boolean, true for an integer or float other than 0, or false otherwise
+     */
+    default boolean getBoolean() {
+        Object realValue = getRealValue();
+        if (realValue instanceof Boolean bool) {
+            return bool;
+        }
+        return realValue instanceof Number number && number.doubleValue() != 0;
+    }
+
     /**
      * Set the type of the directive.
      *
@@ -84,6 +139,20 @@ public interface IPhpIniDirective {
      */
     String getChangelog();
 
+    /**
+     * Get the first PHP version the directive is valid in.
+     *
+     * @return the minimum version, inclusive, or null if the directive has no lower bound
+     */
+    @Nullable PhpVersion getMinVersion();
+
+    /**
+     * Get the first PHP version the directive is no longer valid in.
+     *
+     * @return the maximum version, exclusive, or null if the directive has no upper bound
+     */
+    @Nullable PhpVersion getMaxVersion();
+
     /**
      * Get the section of the directive.
      *
@@ -0,0 +1,65 @@
+package de.hermannbsd.phpini.library.interfaces;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Interface for a handler receiving the events of a PHP INI parser.
+ * <p>The parser calls the handler once per line. The given view holds the spans of the current line
+ * and is only valid during the call; strings are only created if the handler reads a part of the line.
+ * Each method returns whether parsing should continue, so a handler can stop as soon as it has what it needs.</p>
+ */
+public interface IPhpIniHandler {
+
+    /**
+     * Called for a section line.
+     *
+     * @param sectionName the name of the section
+     * @param line        the view of the line
+     * @return true to continue parsing, false to stop
+     */
+    default boolean onSection(@NotNull String sectionName, @NotNull IIniLineView line) {
+        return true;
+    }
+
+    /**
+     * Called for a directive line.
+     *
+     * @param sectionName the name of the current section, or null if no section was opened yet
+     * @param line        the view of the line
+     * @return true to continue parsing, false to stop
+     */
+    default boolean onDirective(@Nullable String sectionName, @NotNull IIniLineView line) {
+        return true;
+    }
+
+    /**
+     * Called for a comment line.
+     *
+     * @param line the view of the line
+     * @return true to continue parsing, false to stop
+     */
+    default boolean onComment(@NotNull IIniLineView line) {
+        return true;
+    }
+
+    /**
+     * Called for a blank line.
+     *
+     * @param line the view of the line
+     * @return true to continue parsing, false to stop
+     */
+    default boolean onBlank(@NotNull IIniLineView line) {
+        return true;
+    }
+
+    /**
+     * Called for a line which cannot be interpreted.
+     *
+     * @param line the view of the line
+     * @return true to continue parsing, false to stop
+     */
+    default boolean onInvalid(@NotNull IIniLineView line) {
+        return true;
+    }
+}
@@ -0,0 +1,44 @@
+package de.hermannbsd.phpini.library.interfaces;
+
+import de.hermannbsd.phpini.library.enums.PhpValueType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Interface for an interpreter of the values of a primitive PHP type.
+ * <p>An interpreter reads a value directly from a {@link CharSequence}, without copying or allocating, and returns
+ * it in the form a directive keeps it: the value of an integer, the raw bits of the value of a float, or 1 for true
+ * and 0 for false. Whitespace and double quotes around the value are skipped.</p>
+ */
+public interface IPhpTypeInterpreter {
+
+    /**
+     * Get the value type the interpreter reads.
+     *
+     * @return the value type
+     */
+    @NotNull PhpValueType getValueType();
+
+    /**
+     * Check if the given value can be read.
+     *
+     * @param value the value
+     * @return true if the value is valid for the type, false otherwise
+     */
+    boolean isValid(@NotNull CharSequence value);
+
+    /**
+     * Read the given value.
+     *
+     * @param value the value, checked with {@link #isValid(CharSequence)}
+     * @return the primitive value, or 0 if the value is not valid
+     */
+    long parse(@NotNull CharSequence value);
+
+    /**
+     * Write the given primitive value as PHP writes it.
+     *
+     * @param primitiveValue the primitive value, as returned by {@link #parse(CharSequence)}
+     * @return the value as written to a PHP INI file
+     */
+    @NotNull String format(long primitiveValue);
+}
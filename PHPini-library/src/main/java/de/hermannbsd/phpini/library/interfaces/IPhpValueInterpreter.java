@@ -0,0 +1,44 @@
+package de.hermannbsd.phpini.library.interfaces;
+
+import de.hermannbsd.phpini.library.enums.PhpValueType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Interface for an interpreter of the values of a PHP type which a directive keeps as an object.
+ * <p>This is the counterpart of {@link IPhpTypeInterpreter} for types without a primitive form, like lists. The
+ * interpreter reads a value into the real value of a directive, of the Java type of its value type, and writes a
+ * real value back as PHP writes it.</p>
+ */
+public interface IPhpValueInterpreter {
+
+    /**
+     * Get the value type the interpreter reads.
+     *
+     * @return the value type
+     */
+    @NotNull PhpValueType getValueType();
+
+    /**
+     * Check if the given value can be read.
+     *
+     * @param value the value
+     * @return true if the value is valid for the type, false otherwise
+     */
+    boolean isValid(@NotNull CharSequence value);
+
+    /**
+     * Read the given value.
+     *
+     * @param value the value, checked with {@link #isValid(CharSequence)}
+     * @return the real value
+     */
+    @NotNull Object read(@NotNull CharSequence value);
+
+    /**
+     * Write the given real value as PHP writes it.
+     *
+     * @param realValue the real value, as returned by {@link #read(CharSequence)}
+     * @return the value as written to a PHP INI file
+     */
+    @NotNull String format(@NotNull Object realValue);
+}
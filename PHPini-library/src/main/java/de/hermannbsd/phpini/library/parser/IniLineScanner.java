@@ -0,0 +1,211 @@
+package de.hermannbsd.phpini.library.parser;
+
+import de.hermannbsd.phpini.library.enums.IniLineKind;
+
+import static de.hermannbsd.phpini.library.parser.IniLineTokenizer.ASSIGN_CHAR;
+import static de.hermannbsd.phpini.library.parser.IniLineTokenizer.COMMENT_CHAR;
+import static de.hermannbsd.phpini.library.parser.IniLineTokenizer.QUOTE_CHAR;
+import static de.hermannbsd.phpini.library.parser.IniLineTokenizer.SECTION_END_CHAR;
+import static de.hermannbsd.phpini.library.parser.IniLineTokenizer.SECTION_START_CHAR;
+
+/**
+ * Scanner holding the rules that split a line of a PHP INI file into name, value and comment.
+ * <p>The scanner only sees the units of its source through {@link #unitAt(int)}, so the same rules are used for
+ * characters by {@link IniLineTokenizer} and for the bytes of a mapped file by {@link MappedPhpIniParser}. All
+ * characters the rules look at are ASCII, so a UTF-8 byte never matches one of them by accident. The spans of
+ * the current line are offsets into the source.</p>
+ * <p>An instance is meant to be reused for every line of a file and is not thread-safe.</p>
+ */
+abstract class IniLineScanner {
+
+    /**
+     * The kind of the current line.
+     */
+    IniLineKind kind = IniLineKind.BLANK;
+    /**
+     * The start offset of the name, the section name for section lines.
+     */
+    int nameStart;
+    /**
+     * The end offset (exclusive) of the name.
+     */
+    int nameEnd;
+    /**
+     * The start offset of the value.
+     */
+    int valueStart;
+    /**
+     * The end offset (exclusive) of the value.
+     */
+    int valueEnd;
+    /**
+     * The start offset of the comment.
+     */
+    int commentStart;
+    /**
+     * The end offset (exclusive) of the comment.
+     */
+    int commentEnd;
+
+    /**
+     * Get the unit at the given offset of the source.
+     *
+     * @param index the offset
+     * @return the character, or the unsigned byte
+     */
+    abstract int unitAt(int index);
+
+    /**
+     * Scan the line between the given offsets of the source.
+     *
+     * @param start the start offset of the line
+     * @param end   the end offset (exclusive) of the line, without the line separator
+     * @return the kind of the line
+     */
+    final IniLineKind scan(int start, int end) {
+        nameStart = nameEnd = valueStart = valueEnd = commentStart = commentEnd = start;
+
+        int pos = skipWhitespace(start, end);
+        if (pos == end) {
+            kind = IniLineKind.BLANK;
+        } else {
+            int first = unitAt(pos);
+            if (first == COMMENT_CHAR) {
+                setComment(pos + 1, end);
+                kind = IniLineKind.COMMENT;
+            } else if (first == SECTION_START_CHAR) {
+                kind = scanSection(pos + 1, end);
+            } else {
+                kind = scanDirective(pos, end);
+            }
+        }
+
+        return kind;
+    }
+
+    /**
+     * Scan a section line, the opening bracket is already consumed.
+     *
+     * @param pos the offset after the opening bracket
+     * @param end the end offset of the line
+     * @return the kind of the line
+     */
+    private IniLineKind scanSection(int pos, int end) {
+        IniLineKind result = IniLineKind.INVALID;
+
+        for (int i = pos; i < end; i++) {
+            if (unitAt(i) == SECTION_END_CHAR) {
+                nameStart = skipWhitespace(pos, i);
+                nameEnd = trimEnd(nameStart, i);
+                int rest = skipWhitespace(i + 1, end);
+                if (rest < end && unitAt(rest) == COMMENT_CHAR) {
+                    setComment(rest + 1, end);
+                }
+                result = IniLineKind.SECTION;
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Scan a directive line.
+     *
+     * @param pos the offset of the first non-whitespace unit
+     * @param end the end offset of the line
+     * @return the kind of the line
+     */
+    private IniLineKind scanDirective(int pos, int end) {
+        int i = pos;
+        while (i < end) {
+            int c = unitAt(i);
+            if (c == ASSIGN_CHAR || c == COMMENT_CHAR) {
+                break;
+            }
+            i++;
+        }
+
+        nameStart = pos;
+        nameEnd = trimEnd(pos, i);
+
+        if (i < end && unitAt(i) == ASSIGN_CHAR) {
+            scanValue(i + 1, end);
+        } else if (i < end) {
+            setComment(i + 1, end);
+        }
+
+        return nameStart == nameEnd ? IniLineKind.COMMENT : IniLineKind.DIRECTIVE;
+    }
+
+    /**
+     * Scan the value part of a directive line, the assignment is already consumed.
+     * A comment character inside quotes is part of the value.
+     *
+     * @param pos the offset after the assignment
+     * @param end the end offset of the line
+     */
+    private void scanValue(int pos, int end) {
+        int start = skipWhitespace(pos, end);
+        boolean quoted = false;
+        int i = start;
+
+        while (i < end) {
+            int c = unitAt(i);
+            if (c == QUOTE_CHAR) {
+                quoted = !quoted;
+            } else if (c == COMMENT_CHAR && !quoted) {
+                break;
+            }
+            i++;
+        }
+
+        valueStart = start;
+        valueEnd = trimEnd(start, i);
+
+        if (i < end) {
+            setComment(i + 1, end);
+        }
+    }
+
+    /**
+     * Set the comment span, trimmed on both sides.
+     *
+     * @param start the offset after the comment character
+     * @param end   the end offset of the line
+     */
+    private void setComment(int start, int end) {
+        commentStart = skipWhitespace(start, end);
+        commentEnd = trimEnd(commentStart, end);
+    }
+
+    /**
+     * Skip the whitespace at the start of the given range.
+     *
+     * @param start the start offset
+     * @param end   the end offset
+     * @return the offset of the first non-whitespace unit, or end
+     */
+    private int skipWhitespace(int start, int end) {
+        int i = start;
+        while (i < end && unitAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Skip the whitespace at the end of the given range.
+     *
+     * @param start the start offset
+     * @param end   the end offset
+     * @return the offset after the last non-whitespace unit, or start
+     */
+    private int trimEnd(int start, int end) {
+        int i = end;
+        while (i > start && unitAt(i - 1) <= ' ') {
+            i--;
+        }
+        return i;
+    }
+}
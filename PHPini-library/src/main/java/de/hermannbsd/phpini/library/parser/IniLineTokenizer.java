@@ -0,0 +1,283 @@
+package de.hermannbsd.phpini.library.parser;
+
+import de.hermannbsd.phpini.library.IniLine;
+import de.hermannbsd.phpini.library.enums.IniLineKind;
+import de.hermannbsd.phpini.library.interfaces.IIniLineView;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Tokenizer for a single line of a PHP INI file.
+ * <p>The tokenizer scans the line once and records the name, value and comment of the line as spans
+ * (start and end offsets) into the given character sequence. No strings are created while scanning;
+ * they are only created if a part is actually read.</p>
+ * <p>An instance is meant to be reused for every line of a file and is not thread-safe.</p>
+ */
+public final class IniLineTokenizer implements IIniLineView {
+
+    /**
+     * The character starting a comment.
+     */
+    static final char COMMENT_CHAR = ';';
+    /**
+     * The character separating name and value.
+     */
+    static final char ASSIGN_CHAR = '=';
+    /**
+     * The character opening a section.
+     */
+    static final char SECTION_START_CHAR = '[';
+    /**
+     * The character closing a section.
+     */
+    static final char SECTION_END_CHAR = ']';
+    /**
+     * The character quoting a value.
+     */
+    static final char QUOTE_CHAR = '"';
+
+    /**
+     * The character sequence of the current line.
+     */
+    private CharSequence source;
+    /**
+     * The start offset of the current line.
+     */
+    private int lineStart;
+    /**
+     * The end offset (exclusive) of the current line.
+     */
+    private int lineEnd;
+    /**
+     * The scanner recording the spans of the current line.
+     */
+    private final IniLineScanner scanner = new SourceScanner();
+
+    /**
+     * Tokenize the given line.
+     *
+     * @param line the line to tokenize
+     * @return the kind of the line
+     */
+    public IniLineKind tokenize(@NotNull CharSequence line) {
+        return tokenize(line, 0, line.length());
+    }
+
+    /**
+     * Tokenize the line between the given offsets of the given character sequence.
+     *
+     * @param source the character sequence containing the line
+     * @param start  the start offset of the line
+     * @param end    the end offset (exclusive) of the line, without the line separator
+     * @return the kind of the line
+     */
+    public IniLineKind tokenize(@NotNull CharSequence source, int start, int end) {
+        this.source = source;
+        this.lineStart = start;
+        this.lineEnd = end;
+
+        return scanner.scan(start, end);
+    }
+
+    /**
+     * Skip the whitespace at the start of the given range.
+     *
+     * @param source the character sequence
+     * @param start  the start offset
+     * @param end    the end offset
+     * @return the offset of the first non-whitespace character, or end
+     */
+    static int skipWhitespace(CharSequence source, int start, int end) {
+        int i = start;
+        while (i < end && source.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Get the kind of the current line.
+     *
+     * @return the kind of the line
+     */
+    @Override
+    public IniLineKind getKind() {
+        return scanner.kind;
+    }
+
+    /**
+     * Get the character sequence of the current line.
+     *
+     * @return the character sequence
+     */
+    @Override
+    public CharSequence getSource() {
+        return source;
+    }
+
+    /**
+     * Get the start offset of the current line.
+     *
+     * @return the start offset
+     */
+    @Override
+    public int getLineStart() {
+        return lineStart;
+    }
+
+    /**
+     * Get the end offset (exclusive) of the current line.
+     *
+     * @return the end offset
+     */
+    @Override
+    public int getLineEnd() {
+        return lineEnd;
+    }
+
+    /**
+     * Get the start offset of the name, the section name for section lines.
+     *
+     * @return the start offset
+     */
+    @Override
+    public int getNameStart() {
+        return scanner.nameStart;
+    }
+
+    /**
+     * Get the end offset (exclusive) of the name.
+     *
+     * @return the end offset
+     */
+    @Override
+    public int getNameEnd() {
+        return scanner.nameEnd;
+    }
+
+    /**
+     * Get the start offset of the value.
+     *
+     * @return the start offset
+     */
+    @Override
+    public int getValueStart() {
+        return scanner.valueStart;
+    }
+
+    /**
+     * Get the end offset (exclusive) of the value.
+     *
+     * @return the end offset
+     */
+    @Override
+    public int getValueEnd() {
+        return scanner.valueEnd;
+    }
+
+    /**
+     * Get the start offset of the comment.
+     *
+     * @return the start offset
+     */
+    @Override
+    public int getCommentStart() {
+        return scanner.commentStart;
+    }
+
+    /**
+     * Get the end offset (exclusive) of the comment.
+     *
+     * @return the end offset
+     */
+    @Override
+    public int getCommentEnd() {
+        return scanner.commentEnd;
+    }
+
+    /**
+     * Get the name of the current line, the section name for section lines.
+     * This creates a new string.
+     *
+     * @return the name as a String
+     */
+    @Override
+    public @NotNull String getName() {
+        return source.subSequence(scanner.nameStart, scanner.nameEnd).toString();
+    }
+
+    /**
+     * Get the value of the current line.
+     * This creates a new string.
+     *
+     * @return the value as a String
+     */
+    @Override
+    public @NotNull String getValue() {
+        return source.subSequence(scanner.valueStart, scanner.valueEnd).toString();
+    }
+
+    /**
+     * Get the comment of the current line.
+     * This creates a new string.
+     *
+     * @return the comment as a String
+     */
+    @Override
+    public @NotNull String getComment() {
+        return source.subSequence(scanner.commentStart, scanner.commentEnd).toString();
+    }
+
+    /**
+     * Gets whether the name of the current line equals the given name, ignoring case.
+     * This does not create a new string.
+     *
+     * @param name the name to compare with
+     * @return is the name equal?
+     */
+    @Override
+    public boolean nameEqualsIgnoreCase(CharSequence name) {
+        boolean result = name != null && name.length() == scanner.nameEnd - scanner.nameStart;
+
+        for (int i = 0; result && i < name.length(); i++) {
+            char a = source.charAt(scanner.nameStart + i);
+            char b = name.charAt(i);
+            result = a == b || Character.toLowerCase(a) == Character.toLowerCase(b);
+        }
+
+        return result;
+    }
+
+    /**
+     * Create an INI line view for the current line.
+     * The view holds an immutable copy of the line and creates the strings of its parts on first access.
+     *
+     * @return the INI line
+     */
+    @Override
+    public @NotNull IniLine toIniLine() {
+        String line;
+        int offset;
+
+        if (source instanceof String string && lineStart == 0 && lineEnd == string.length()) {
+            line = string;
+            offset = 0;
+        } else {
+            line = source.subSequence(lineStart, lineEnd).toString();
+            offset = lineStart;
+        }
+
+        return new IniLine(line, scanner.nameStart - offset, scanner.nameEnd - offset, scanner.valueStart - offset,
+                scanner.valueEnd - offset, scanner.commentStart - offset, scanner.commentEnd - offset);
+    }
+
+    /**
+     * Scanner reading the characters of the current source.
+     */
+    private final class SourceScanner extends IniLineScanner {
+
+        @Override
+        int unitAt(int index) {
+            return source.charAt(index);
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package de.hermannbsd.phpini.library.parser;
+
+import de.hermannbsd.phpini.library.IniLine;
+import de.hermannbsd.phpini.library.enums.IniLineKind;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Pull parser reading a PHP INI file through a memory mapping.
+ * <p>The file is mapped with {@link FileChannel#map} and scanned byte by byte for line breaks; the lines are split
+ * with the same rules as by {@link IniLineTokenizer}. Only the parts that are read are decoded, so the file
+ * is never turned into one large string. Files larger than a single mapping are mapped in regions.</p>
+ * <p>Usage: call {@link #next()} until it returns null and read the parts of each line.
+ * An instance is not thread-safe.</p>
+ */
+public final class MappedPhpIniParser implements Closeable {
+
+    /**
+     * The default size of a mapped region.
+     */
+    static final int DEFAULT_REGION_SIZE = 1 << 30;
+
+    /**
+     * The byte of a line feed.
+     */
+    private static final byte LINE_FEED = '\n';
+
+    /**
+     * The channel of the mapped file.
+     */
+    private final FileChannel channel;
+    /**
+     * The size of the mapped file.
+     */
+    private final long size;
+    /**
+     * The maximum size of a mapped region.
+     */
+    private final int regionSize;
+    /**
+     * The collected content of the file, or null if the content is not collected.
+     */
+    private final StringBuilder content;
+
+    /**
+     * The currently mapped region.
+     */
+    private MappedByteBuffer region;
+    /**
+     * The file position of the start of the mapped region.
+     */
+    private long regionStart;
+    /**
+     * The position in the mapped region up to which the content was collected.
+     */
+    private int collected;
+    /**
+     * The position in the mapped region of the next line.
+     */
+    private int position;
+    /**
+     * Scratch buffer for decoding the parts of a line.
+     */
+    private byte[] scratch = new byte[256];
+
+    /**
+     * The scanner recording the spans of the current line in the mapped region.
+     */
+    private final IniLineScanner scanner = new RegionScanner();
+
+    /**
+     * Constructor with the path of the file to parse.
+     *
+     * @param path the path of the PHP INI file
+     * @exception IOException if the file cannot be opened or mapped
+     */
+    public MappedPhpIniParser(@NotNull Path path) throws IOException {
+        this(path, false);
+    }
+
+    /**
+     * Constructor with the path of the file to parse.
+     *
+     * @param path           the path of the PHP INI file
+     * @param collectContent should the decoded content of the whole file be collected?
+     * @exception IOException if the file cannot be opened or mapped
+     */
+    public MappedPhpIniParser(@NotNull Path path, boolean collectContent) throws IOException {
+        this(path, collectContent, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Constructor with the path of the file to parse and the size of the mapped regions.
+     *
+     * @param path           the path of the PHP INI file
+     * @param collectContent should the decoded content of the whole file be collected?
+     * @param regionSize     the maximum size of a mapped region, must be larger than the longest line
+     * @exception IOException if the file cannot be opened or mapped
+     */
+    MappedPhpIniParser(@NotNull Path path, boolean collectContent, int regionSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.regionSize = regionSize;
+        this.content = collectContent ? new StringBuilder((int) Math.min(size, Integer.MAX_VALUE - 8)) : null;
+
+        try {
+            map(0);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Map the region starting at the given file position.
+     *
+     * @param start the file position of the region
+     * @exception IOException if the region cannot be mapped
+     */
+    private void map(long start) throws IOException {
+        regionStart = start;
+        region = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(regionSize, size - start));
+        position = 0;
+        collected = 0;
+    }
+
+    /**
+     * Advance to the next line of the file.
+     *
+     * @return the kind of the next line, or null if the end of the file is reached
+     * @exception IOException if the next region of the file cannot be mapped
+     */
+    public @Nullable IniLineKind next() throws IOException {
+        int lineEnd = findLineEnd();
+
+        if (lineEnd < 0 && regionStart + region.limit() < size) {
+            collectContent(position);
+            if (position > 0) {
+                // map the region again from the start of the line
+                map(regionStart + position);
+                lineEnd = findLineEnd();
+            }
+            if (lineEnd < 0 && regionStart + region.limit() < size) {
+                throw new IOException("Line at position " + regionStart + " is longer than the mapped region");
+            }
+        }
+
+        IniLineKind result = null;
+        if (position < region.limit()) {
+            int end = lineEnd < 0 ? region.limit() : lineEnd;
+            result = scanner.scan(position, end);
+            position = lineEnd < 0 ? end : end + 1;
+        } else {
+            collectContent(position);
+        }
+
+        return result;
+    }
+
+    /**
+     * Find the end of the current line in the mapped region.
+     *
+     * @return the position of the line feed, or -1 if the line is not terminated in the region
+     */
+    private int findLineEnd() {
+        int limit = region.limit();
+        for (int i = position; i < limit; i++) {
+            if (region.get(i) == LINE_FEED) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decode the given range of the mapped region as UTF-8.
+     *
+     * @param start the start position
+     * @param end   the end position (exclusive)
+     * @return the decoded string
+     */
+    private @NotNull String decode(int start, int end) {
+        int length = end - start;
+        String result = "";
+
+        if (length > 0) {
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            region.get(start, scratch, 0, length);
+            result = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        return result;
+    }
+
+    /**
+     * Collect the decoded content of the mapped region up to the given position.
+     *
+     * @param end the position up to which the content is collected
+     */
+    private void collectContent(int end) {
+        if (content != null && end > collected) {
+            content.append(StandardCharsets.UTF_8.decode(region.slice(collected, end - collected)));
+            collected = end;
+        }
+    }
+
+    /**
+     * Get the kind of the current line.
+     *
+     * @return the kind of the line
+     */
+    public IniLineKind getKind() {
+        return scanner.kind;
+    }
+
+    /**
+     * Get the name of the current line, the section name for section lines.
+     *
+     * @return the decoded name
+     */
+    public @NotNull String getName() {
+        return decode(scanner.nameStart, scanner.nameEnd);
+    }
+
+    /**
+     * Get the value of the current line.
+     *
+     * @return the decoded value
+     */
+    public @NotNull String getValue() {
+        return decode(scanner.valueStart, scanner.valueEnd);
+    }
+
+    /**
+     * Get the comment of the current line.
+     *
+     * @return the decoded comment
+     */
+    public @NotNull String getComment() {
+        return decode(scanner.commentStart, scanner.commentEnd);
+    }
+
+    /**
+     * Create an INI line for the current directive line.
+     * Only the part from the start of the name to the end of the comment, or of the value if there is no comment,
+     * is decoded; the spans of the name, value and comment point into that part.
+     *
+     * @return the INI line
+     */
+    public @NotNull IniLine toIniLine() {
+        int start = scanner.nameStart;
+        boolean commented = scanner.commentStart < scanner.commentEnd;
+        int from = Math.max(scanner.valueStart, scanner.nameEnd);
+        int to = Math.max(scanner.valueEnd, from);
+        int end = commented ? scanner.commentEnd : to;
+        String line = decode(start, end);
+
+        if (line.length() == end - start) {
+            return new IniLine(line, 0, scanner.nameEnd - start, from - start, to - start,
+                    commented ? scanner.commentStart - start : 0, commented ? scanner.commentEnd - start : 0);
+        }
+
+        // multibyte characters, so the spans are counted in decoded characters
+        return new IniLine(line, 0, charOffset(scanner.nameEnd), charOffset(from), charOffset(to),
+                commented ? charOffset(scanner.commentStart) : 0, commented ? line.length() : 0);
+    }
+
+    /**
+     * Get the number of characters from the start of the name of the current line to the given position.
+     *
+     * @param position the position in the mapped region
+     * @return the number of decoded characters
+     */
+    private int charOffset(int position) {
+        return decode(scanner.nameStart, position).length();
+    }
+
+    /**
+     * Get the size of the parsed file.
+     *
+     * @return the size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Get the decoded content of the file parsed so far.
+     *
+     * @return the content, or null if the content is not collected
+     */
+    public @Nullable String getContent() {
+        return content != null ? content.toString() : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        region = null;
+        channel.close();
+    }
+
+    /**
+     * Scanner reading the bytes of the mapped region.
+     */
+    private final class RegionScanner extends IniLineScanner {
+
+        @Override
+        int unitAt(int index) {
+            return region.get(index) & 0xFF;
+        }
+    }
+}
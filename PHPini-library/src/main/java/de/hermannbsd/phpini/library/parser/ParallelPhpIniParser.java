@@ -0,0 +1,314 @@
+package de.hermannbsd.phpini.library.parser;
+
+import de.hermannbsd.phpini.library.PhpIniDirective;
+import de.hermannbsd.phpini.library.enums.IniLineKind;
+import de.hermannbsd.phpini.library.interfaces.IIniLineView;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parser building the directives of a PHP INI file in parallel.
+ * <p>The content is split into chunks at line boundaries. Each chunk carries the name of the section in effect
+ * at its start, so a chunk can start inside a section. The chunks are tokenized and their directives are built on
+ * a {@link ForkJoinPool}. The result lists the section and directive lines of all chunks in file order, so the
+ * caller can stitch them together exactly like a sequential parse.</p>
+ * <p>Within a chunk only the first occurrence of a directive is built; later duplicates can never win.</p>
+ * <p>The directive catalog has to be loaded before parsing, because it is read by all worker threads.</p>
+ */
+public final class ParallelPhpIniParser {
+
+    /**
+     * The default number of characters of a chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * The pool running the chunk tasks.
+     */
+    private final ForkJoinPool pool;
+    /**
+     * The minimum number of characters of a chunk.
+     */
+    private final int chunkSize;
+
+    /**
+     * Constructor using the common pool and the default chunk size.
+     */
+    public ParallelPhpIniParser() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor with the pool and the chunk size.
+     *
+     * @param pool      the pool running the chunk tasks
+     * @param chunkSize the minimum number of characters of a chunk, a chunk always ends at a line boundary
+     */
+    public ParallelPhpIniParser(@NotNull ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Parse the given content.
+     *
+     * @param content the PHP INI content
+     * @return the section and directive lines in file order
+     */
+    public @NotNull List<Entry> parse(@NotNull String content) {
+        List<Chunk> chunks = split(content);
+        List<Entry> result = new ArrayList<>();
+
+        if (chunks.size() == 1) {
+            chunks.get(0).compute();
+        } else {
+            pool.invoke(new ChunksTask(chunks, 0, chunks.size()));
+        }
+
+        for (Chunk chunk : chunks) {
+            result.addAll(chunk.entries);
+        }
+
+        return result;
+    }
+
+    /**
+     * Split the content into chunks at line boundaries and record the section in effect at the start of each chunk.
+     *
+     * @param content the PHP INI content
+     * @return the chunks in file order
+     */
+    @NotNull List<Chunk> split(@NotNull String content) {
+        List<Chunk> chunks = new ArrayList<>();
+        IniLineTokenizer tokenizer = new IniLineTokenizer();
+        int length = content.length();
+        int chunkStart = 0;
+        String chunkSection = null;
+        String sectionName = null;
+        int lineStart = 0;
+
+        while (lineStart < length) {
+            int lineEnd = content.indexOf('\n', lineStart);
+            int next = lineEnd < 0 ? length : lineEnd + 1;
+
+            int first = IniLineTokenizer.skipWhitespace(content, lineStart, next);
+            if (first < next && content.charAt(first) == IniLineTokenizer.SECTION_START_CHAR
+                    && tokenizer.tokenize(content, lineStart, lineEnd < 0 ? length : lineEnd) == IniLineKind.SECTION
+                    && tokenizer.getNameStart() < tokenizer.getNameEnd()
+                    && !tokenizer.nameEqualsIgnoreCase(sectionName)) {
+                sectionName = tokenizer.getName();
+            }
+
+            if (next - chunkStart >= chunkSize || next == length) {
+                chunks.add(new Chunk(content, chunkStart, next, chunkSection));
+                chunkStart = next;
+                chunkSection = sectionName;
+            }
+            lineStart = next;
+        }
+
+        if (chunks.isEmpty()) {
+            chunks.add(new Chunk(content, 0, 0, null));
+        }
+
+        return chunks;
+    }
+
+    /**
+     * A section or directive line of the parsed content.
+     */
+    public static final class Entry {
+
+        /**
+         * The name of the section, null for directive lines.
+         */
+        private final String sectionName;
+        /**
+         * The directive, null for section lines.
+         */
+        private final IPhpIniDirective directive;
+
+        /**
+         * Constructor with the section name or the directive.
+         *
+         * @param sectionName the name of the section, null for directive lines
+         * @param directive   the directive, null for section lines
+         */
+        private Entry(String sectionName, IPhpIniDirective directive) {
+            this.sectionName = sectionName;
+            this.directive = directive;
+        }
+
+        /**
+         * Gets whether the entry is a section line.
+         *
+         * @return is the entry a section line?
+         */
+        public boolean isSection() {
+            return sectionName != null;
+        }
+
+        /**
+         * Get the name of the section.
+         *
+         * @return the name of the section, or null for directive lines
+         */
+        public @Nullable String getSectionName() {
+            return sectionName;
+        }
+
+        /**
+         * Get the directive.
+         *
+         * @return the directive, or null for section lines
+         */
+        public @Nullable IPhpIniDirective getDirective() {
+            return directive;
+        }
+    }
+
+    /**
+     * A part of the content parsed by one task.
+     */
+    static final class Chunk implements IPhpIniHandler {
+
+        /**
+         * The PHP INI content.
+         */
+        private final String content;
+        /**
+         * The start offset of the chunk.
+         */
+        private final int start;
+        /**
+         * The end offset (exclusive) of the chunk.
+         */
+        private final int end;
+        /**
+         * The name of the section in effect at the start of the chunk.
+         */
+        private final String sectionName;
+        /**
+         * The section and directive lines of the chunk.
+         */
+        private final List<Entry> entries = new ArrayList<>();
+        /**
+         * The lower case names of the directives already built in this chunk.
+         */
+        private final Set<String> names = new HashSet<>();
+
+        /**
+         * Constructor with the content and the range of the chunk.
+         *
+         * @param content     the PHP INI content
+         * @param start       the start offset of the chunk
+         * @param end         the end offset (exclusive) of the chunk
+         * @param sectionName the name of the section in effect at the start of the chunk
+         */
+        Chunk(String content, int start, int end, String sectionName) {
+            this.content = content;
+            this.start = start;
+            this.end = end;
+            this.sectionName = sectionName;
+        }
+
+        /**
+         * Parse the chunk.
+         */
+        void compute() {
+            new PhpIniEventParser().parse(content, start, end, sectionName, this);
+        }
+
+        /**
+         * Get the start offset of the chunk.
+         *
+         * @return the start offset
+         */
+        int getStart() {
+            return start;
+        }
+
+        /**
+         * Get the name of the section in effect at the start of the chunk.
+         *
+         * @return the section name
+         */
+        String getSectionName() {
+            return sectionName;
+        }
+
+        @Override
+        public boolean onSection(@NotNull String sectionName, @NotNull IIniLineView line) {
+            entries.add(new Entry(sectionName, null));
+            return true;
+        }
+
+        @Override
+        public boolean onDirective(String sectionName, @NotNull IIniLineView line) {
+            if (names.add(line.getName().toLowerCase(Locale.ROOT))) {
+                entries.add(new Entry(null, new PhpIniDirective(line.toIniLine(), sectionName)));
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Task parsing a range of chunks, splitting the range until a single chunk is left.
+     */
+    private static final class ChunksTask extends RecursiveAction {
+
+        /**
+         * The version of the serialized form, as ForkJoinTask is serializable. Tasks are never serialized.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The chunks of the content.
+         */
+        private final transient List<Chunk> chunks;
+        /**
+         * The index of the first chunk of the range.
+         */
+        private final int from;
+        /**
+         * The index after the last chunk of the range.
+         */
+        private final int to;
+
+        /**
+         * Constructor with the chunks and the range.
+         *
+         * @param chunks the chunks of the content
+         * @param from   the index of the first chunk of the range
+         * @param to     the index after the last chunk of the range
+         */
+        ChunksTask(List<Chunk> chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                chunks.get(from).compute();
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunksTask(chunks, from, middle), new ChunksTask(chunks, middle, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package de.hermannbsd.phpini.library.parser;
+
+import de.hermannbsd.phpini.library.interfaces.IIniLineView;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Event parser for PHP INI content.
+ * <p>The parser does not build an object model. It tokenizes each line with a reused {@link IniLineTokenizer}
+ * and pushes a read-only {@link IIniLineView} of it to an {@link IPhpIniHandler}. Memory use only depends on the
+ * longest line, not on the size of the content. Parsing stops as soon as the handler returns false.</p>
+ */
+public final class PhpIniEventParser {
+
+    /**
+     * Size of the buffer used to read the content.
+     */
+    static final int READ_BUFFER_SIZE = 8192;
+
+    /**
+     * The builder collecting the content read, or null if the content is not collected.
+     */
+    private final StringBuilder content;
+
+    /**
+     * The tokenizer reused for every line.
+     */
+    private final IniLineTokenizer tokenizer = new IniLineTokenizer();
+
+    /**
+     * The name of the current section.
+     */
+    private String sectionName;
+
+    /**
+     * Constructor for a parser not collecting the content.
+     */
+    public PhpIniEventParser() {
+        this(null);
+    }
+
+    /**
+     * Constructor for a parser appending all content read from a reader to the given builder.
+     *
+     * @param content the builder collecting the content, or null if the content should not be collected
+     */
+    public PhpIniEventParser(@Nullable StringBuilder content) {
+        this.content = content;
+    }
+
+    /**
+     * Parse the PHP INI file with the given path as UTF-8.
+     *
+     * @param path    the path of the PHP INI file
+     * @param handler the handler receiving the events
+     * @return true if the whole file was parsed, false if the handler stopped parsing
+     * @exception IOException if the file cannot be read
+     */
+    public boolean parse(@NotNull Path path, @NotNull IPhpIniHandler handler) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parse(reader, handler);
+        }
+    }
+
+    /**
+     * Parse the content read from the given reader.
+     * The reader is not closed.
+     *
+     * @param reader  the reader of the PHP INI content
+     * @param handler the handler receiving the events
+     * @return true if the whole content was parsed, false if the handler stopped parsing
+     * @exception IOException if the content cannot be read
+     */
+    public boolean parse(@NotNull Reader reader, @NotNull IPhpIniHandler handler) throws IOException {
+        StringBuilder line = new StringBuilder();
+        char[] buffer = new char[READ_BUFFER_SIZE];
+        boolean proceed = true;
+        sectionName = null;
+
+        int read;
+        while (proceed && (read = reader.read(buffer)) != -1) {
+            if (content != null) {
+                content.append(buffer, 0, read);
+            }
+
+            int from = 0;
+            for (int i = 0; proceed && i < read; i++) {
+                if (buffer[i] == '\n') {
+                    line.append(buffer, from, i - from);
+                    proceed = parseLine(line, 0, line.length(), handler);
+                    line.setLength(0);
+                    from = i + 1;
+                }
+            }
+
+            if (proceed) {
+                line.append(buffer, from, read - from);
+            }
+        }
+
+        if (proceed && !line.isEmpty()) {
+            proceed = parseLine(line, 0, line.length(), handler);
+        }
+
+        return proceed;
+    }
+
+    /**
+     * Parse the given content in place, without copying it.
+     *
+     * @param content the PHP INI content
+     * @param handler the handler receiving the events
+     * @return true if the whole content was parsed, false if the handler stopped parsing
+     */
+    public boolean parse(@NotNull CharSequence content, @NotNull IPhpIniHandler handler) {
+        return parse(content, 0, content.length(), null, handler);
+    }
+
+    /**
+     * Parse the lines between the given offsets of the given content in place, without copying it.
+     * This allows parsing a part of a file which starts inside a section.
+     *
+     * @param content     the PHP INI content
+     * @param start       the start offset, must be the start of a line
+     * @param end         the end offset (exclusive), must be the end of a line or of the content
+     * @param sectionName the name of the section in effect at the start offset, or null if none
+     * @param handler     the handler receiving the events
+     * @return true if the whole range was parsed, false if the handler stopped parsing
+     */
+    public boolean parse(@NotNull CharSequence content, int start, int end, @Nullable String sectionName,
+                         @NotNull IPhpIniHandler handler) {
+        boolean proceed = true;
+        int from = start;
+        this.sectionName = sectionName;
+
+        for (int i = start; proceed && i < end; i++) {
+            if (content.charAt(i) == '\n') {
+                proceed = parseLine(content, from, i, handler);
+                from = i + 1;
+            }
+        }
+
+        if (proceed && from < end) {
+            proceed = parseLine(content, from, end, handler);
+        }
+
+        return proceed;
+    }
+
+    /**
+     * Tokenize one line and push it to the handler.
+     *
+     * @param source  the character sequence containing the line
+     * @param start   the start offset of the line
+     * @param end     the end offset of the line, including a trailing carriage return if present
+     * @param handler the handler receiving the event
+     * @return true to continue parsing, false to stop
+     */
+    private boolean parseLine(CharSequence source, int start, int end, IPhpIniHandler handler) {
+        int lineEnd = end > start && source.charAt(end - 1) == '\r' ? end - 1 : end;
+
+        return switch (tokenizer.tokenize(source, start, lineEnd)) {
+            case SECTION -> {
+                String name = tokenizer.nameEqualsIgnoreCase(sectionName) ? sectionName : tokenizer.getName();
+                if (!name.isEmpty()) {
+                    sectionName = name;
+                }
+                yield handler.onSection(name, tokenizer);
+            }
+            case DIRECTIVE -> handler.onDirective(sectionName, tokenizer);
+            case COMMENT -> handler.onComment(tokenizer);
+            case BLANK -> handler.onBlank(tokenizer);
+            case INVALID -> handler.onInvalid(tokenizer);
+        };
+    }
+
+    /**
+     * Find the value of the first occurrence of a directive in the given PHP INI file.
+     * Parsing stops as soon as the directive is found.
+     *
+     * @param path          the path of the PHP INI file
+     * @param directiveName the name of the directive, compared ignoring case
+     * @return the value of the directive, or null if the directive is not found
+     * @exception IOException if the file cannot be read
+     */
+    public static @Nullable String findDirectiveValue(@NotNull Path path, @NotNull String directiveName) throws IOException {
+        String[] result = new String[1];
+
+        new PhpIniEventParser().parse(path, new IPhpIniHandler() {
+            @Override
+            public boolean onDirective(String sectionName, @NotNull IIniLineView line) {
+                boolean found = line.nameEqualsIgnoreCase(directiveName);
+                if (found) {
+                    result[0] = line.getValue();
+                }
+                return !found;
+            }
+        });
+
+        return result[0];
+    }
+}
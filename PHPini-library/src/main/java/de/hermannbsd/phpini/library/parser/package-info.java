@@ -0,0 +1,11 @@
+/**
+ * This package contains the parsers for PHP INI files.
+ *
+ * <p>The parsers scan the content of a PHP INI file and split each line into its name, value and
+ * comment parts without creating intermediate strings.</p>
+ *
+ * @author Alexandra Hermann
+ * @version 1.0
+ * @since 1.0
+ */
+package de.hermannbsd.phpini.library.parser;
@@ -1,12 +1,19 @@
 package de.hermannbsd.phpini.library.php_type_interpreter;
 
+import de.hermannbsd.phpini.library.enums.PhpValueType;
+import de.hermannbsd.phpini.library.interfaces.IPhpTypeInterpreter;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
 /**
  * Class to interpret boolean values in PHP INI files.
+ * <p>As in PHP, {@code On}, {@code Yes} and {@code True} are true, {@code Off}, {@code No}, {@code False},
+ * {@code None} and an empty value are false, in any case. Other values are read as integers, which are true if they are
+ * not 0.</p>
+ * <p>An instance holds a value and can be changed, so it is never shared; {@link PhpTypeInterpreters} shares a
+ * stateless {@link BoolTypeInterpreter} instead.</p>
  */
-public class BoolInterpreter {
+public class BoolInterpreter implements IPhpTypeInterpreter {
 
     /**
      * The string value, which should be interpreted as a boolean.
@@ -58,18 +65,80 @@ public class BoolInterpreter {
     }
 
     /**
-     * Interprets the given string value as a boolean.
+     * Interprets the given string value as a boolean, without allocating.
      *
      * @param stringValue the given string value
      * @return the interpreted result
      */
     @Contract(pure = true)
-    public static boolean getBoolValue(@NotNull String stringValue) {
+    public static boolean getBoolValue(@NotNull CharSequence stringValue) {
+        long bounds = ValueBounds.trim(stringValue);
+        int start = ValueBounds.start(bounds);
+        int end = ValueBounds.end(bounds);
+        boolean result;
 
-        return switch (stringValue.toLowerCase()) {
-            case "on", "1", "true" -> true;
-            default -> false;
-        };
+        if (isTrueWord(stringValue, start, end)) {
+            result = true;
+        } else {
+            // like atoi: the leading integer, 0 if there is none
+            int i = start;
+            if (i < end && (stringValue.charAt(i) == '-' || stringValue.charAt(i) == '+')) {
+                i++;
+            }
+            result = false;
+            for (; i < end && stringValue.charAt(i) >= '0' && stringValue.charAt(i) <= '9'; i++) {
+                result |= stringValue.charAt(i) != '0';
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public @NotNull PhpValueType getValueType() {
+        return PhpValueType.BOOL;
+    }
+
+    /**
+     * Check if the given value is a boolean word, empty or an integer.
+     *
+     * @param value the value
+     * @return true if the value is a boolean, false otherwise
+     */
+    @Override
+    public boolean isValid(@NotNull CharSequence value) {
+        return isBool(value);
+    }
+
+    /**
+     * Check if the given value is a boolean word, empty or an integer, without allocating.
+     *
+     * @param value the value
+     * @return true if the value is a boolean, false otherwise
+     */
+    @Contract(pure = true)
+    static boolean isBool(@NotNull CharSequence value) {
+        long bounds = ValueBounds.trim(value);
+        int start = ValueBounds.start(bounds);
+        int end = ValueBounds.end(bounds);
+
+        if (start == end || isTrueWord(value, start, end) || isFalseWord(value, start, end)) {
+            return true;
+        }
+        if (value.charAt(start) == '-' || value.charAt(start) == '+') {
+            start++;
+        }
+        return ValueBounds.parseDigits(value, start, end, 10) >= 0;
+    }
+
+    @Override
+    public long parse(@NotNull CharSequence value) {
+        return getBoolValue(value) ? 1 : 0;
+    }
+
+    @Override
+    public @NotNull String format(long primitiveValue) {
+        return getStringValue(primitiveValue != 0);
     }
 
     /**
@@ -109,4 +178,31 @@ public class BoolInterpreter {
         this.boolValue = boolValue;
         this.stringValue = getStringValue(boolValue);
     }
+
+    /**
+     * Check if the given part of the value is a word for true, ignoring case.
+     *
+     * @param value the value
+     * @param start the start of the part, inclusive
+     * @param end   the end of the part, exclusive
+     * @return true if the part is "on", "yes" or "true", false otherwise
+     */
+    private static boolean isTrueWord(@NotNull CharSequence value, int start, int end) {
+        return ValueBounds.equalsIgnoreCase(value, start, end, "on") || ValueBounds.equalsIgnoreCase(value, start, end, "yes")
+                || ValueBounds.equalsIgnoreCase(value, start, end, "true");
+    }
+
+    /**
+     * Check if the given part of the value is a word for false, ignoring case.
+     *
+     * @param value the value
+     * @param start the start of the part, inclusive
+     * @param end   the end of the part, exclusive
+     * @return true if the part is "off", "no", "false" or "none", false otherwise
+     */
+    private static boolean isFalseWord(@NotNull CharSequence value, int start, int end) {
+        return ValueBounds.equalsIgnoreCase(value, start, end, "off") || ValueBounds.equalsIgnoreCase(value, start, end, "no")
+                || ValueBounds.equalsIgnoreCase(value, start, end, "false")
+                || ValueBounds.equalsIgnoreCase(value, start, end, "none");
+    }
 }
@@ -0,0 +1,33 @@
+package de.hermannbsd.phpini.library.php_type_interpreter;
+
+import de.hermannbsd.phpini.library.enums.PhpValueType;
+import de.hermannbsd.phpini.library.interfaces.IPhpTypeInterpreter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Stateless interpreter of boolean values, shared by {@link PhpTypeInterpreters}.
+ * <p>It reads and writes values like {@link BoolInterpreter}, but holds no value, so it can be shared by all
+ * threads.</p>
+ */
+final class BoolTypeInterpreter implements IPhpTypeInterpreter {
+
+    @Override
+    public @NotNull PhpValueType getValueType() {
+        return PhpValueType.BOOL;
+    }
+
+    @Override
+    public boolean isValid(@NotNull CharSequence value) {
+        return BoolInterpreter.isBool(value);
+    }
+
+    @Override
+    public long parse(@NotNull CharSequence value) {
+        return BoolInterpreter.getBoolValue(value) ? 1 : 0;
+    }
+
+    @Override
+    public @NotNull String format(long primitiveValue) {
+        return BoolInterpreter.getStringValue(primitiveValue != 0);
+    }
+}
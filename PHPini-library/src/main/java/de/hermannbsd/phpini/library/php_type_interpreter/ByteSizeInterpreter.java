@@ -0,0 +1,149 @@
+package de.hermannbsd.phpini.library.php_type_interpreter;
+
+import de.hermannbsd.phpini.library.enums.PhpValueType;
+import de.hermannbsd.phpini.library.interfaces.IPhpTypeInterpreter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Class to interpret byte sizes in PHP INI files, like {@code memory_limit = 512M}.
+ * <p>A value is an optional sign, an integer and an optional shorthand suffix: {@code K} for kilobytes, {@code M} for
+ * megabytes and {@code G} for gigabytes, in either case. As in PHP, the integer may be written in hexadecimal, octal or
+ * binary with the prefixes {@code 0x}, {@code 0o} and {@code 0b}. The value is read in bytes; {@code -1} usually means
+ * no limit.</p>
+ */
+public class ByteSizeInterpreter implements IPhpTypeInterpreter {
+
+    /**
+     * The shift of a kilobyte.
+     */
+    private static final int KILO = 10;
+    /**
+     * The shift of a megabyte.
+     */
+    private static final int MEGA = 20;
+    /**
+     * The shift of a gigabyte.
+     */
+    private static final int GIGA = 30;
+
+    @Override
+    public @NotNull PhpValueType getValueType() {
+        return PhpValueType.SIZE;
+    }
+
+    @Override
+    public boolean isValid(@NotNull CharSequence value) {
+        long bounds = ValueBounds.trim(value);
+        return magnitude(value, ValueBounds.start(bounds), ValueBounds.end(bounds)) >= 0;
+    }
+
+    @Override
+    public long parse(@NotNull CharSequence value) {
+        long bounds = ValueBounds.trim(value);
+        int start = ValueBounds.start(bounds);
+        long result = magnitude(value, start, ValueBounds.end(bounds));
+
+        if (result < 0) {
+            result = 0;
+        } else if (value.charAt(start) == '-') {
+            result = -result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Write the given number of bytes with the largest suffix that keeps it exact, like {@code 512M}.
+     *
+     * @param primitiveValue the number of bytes
+     * @return the value as written to a PHP INI file
+     */
+    @Override
+    public @NotNull String format(long primitiveValue) {
+        String result;
+
+        if (primitiveValue != 0 && primitiveValue % (1L << GIGA) == 0) {
+            result = (primitiveValue >> GIGA) + "G";
+        } else if (primitiveValue != 0 && primitiveValue % (1L << MEGA) == 0) {
+            result = (primitiveValue >> MEGA) + "M";
+        } else if (primitiveValue != 0 && primitiveValue % (1L << KILO) == 0) {
+            result = (primitiveValue >> KILO) + "K";
+        } else {
+            result = Long.toString(primitiveValue);
+        }
+
+        return result;
+    }
+
+    /**
+     * Read the number of bytes after the optional sign of the given part of the value.
+     *
+     * @param value the value
+     * @param start the start of the part, inclusive
+     * @param end   the end of the part, exclusive
+     * @return the number of bytes, or -1 if the part is not a byte size
+     */
+    private static long magnitude(@NotNull CharSequence value, int start, int end) {
+        if (start < end && (value.charAt(start) == '-' || value.charAt(start) == '+')) {
+            start++;
+        }
+
+        int shift = 0;
+        if (end > start) {
+            shift = shift(value.charAt(end - 1));
+            if (shift > 0) {
+                end--;
+                while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+                    end--;
+                }
+            }
+        }
+
+        int radix = 10;
+        if (end - start > 2 && value.charAt(start) == '0') {
+            radix = radix(value.charAt(start + 1));
+            if (radix != 10) {
+                start += 2;
+            }
+        }
+
+        long result = ValueBounds.parseDigits(value, start, end, radix);
+        if (result > Long.MAX_VALUE >> shift) {
+            result = -1;
+        } else if (result > 0) {
+            result <<= shift;
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the shift of the given suffix.
+     *
+     * @param suffix the last character of the value
+     * @return the shift, or 0 if the character is no suffix
+     */
+    private static int shift(char suffix) {
+        return switch (suffix) {
+            case 'k', 'K' -> KILO;
+            case 'm', 'M' -> MEGA;
+            case 'g', 'G' -> GIGA;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Get the radix of the given prefix.
+     *
+     * @param prefix the character after the leading zero
+     * @return the radix, or 10 if the character is no prefix
+     */
+    private static int radix(char prefix) {
+        return switch (prefix) {
+            case 'x', 'X' -> 16;
+            case 'o', 'O' -> 8;
+            case 'b', 'B' -> 2;
+            default -> 10;
+        };
+    }
+}
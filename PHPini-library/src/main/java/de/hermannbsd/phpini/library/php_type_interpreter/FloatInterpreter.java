@@ -0,0 +1,151 @@
+package de.hermannbsd.phpini.library.php_type_interpreter;
+
+import de.hermannbsd.phpini.library.enums.PhpValueType;
+import de.hermannbsd.phpini.library.interfaces.IPhpTypeInterpreter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Class to interpret float values in PHP INI files.
+ * <p>A value is an optional sign, decimal digits with an optional decimal point and an optional exponent, like
+ * {@code 31.7667}, {@code .5} or {@code 1e-3}. Values with up to 15 significant digits and a small exponent are
+ * computed exactly from their digits; only longer values are handed to {@link Double#parseDouble(String)}.</p>
+ */
+public class FloatInterpreter implements IPhpTypeInterpreter {
+
+    /**
+     * The most significant digits which are exact in a double.
+     */
+    private static final int MAX_EXACT_DIGITS = 15;
+    /**
+     * The most significant digits which fit into a long.
+     */
+    private static final int MAX_DIGITS = 18;
+    /**
+     * The largest exponent of an exact power of ten in a double.
+     */
+    private static final int MAX_EXACT_EXPONENT = 22;
+    /**
+     * The largest exponent read; larger exponents overflow or underflow anyway.
+     */
+    private static final int MAX_EXPONENT = 1_000;
+    /**
+     * The powers of ten which are exact in a double.
+     */
+    private static final double[] POWERS_OF_TEN = new double[MAX_EXACT_EXPONENT + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    @Override
+    public @NotNull PhpValueType getValueType() {
+        return PhpValueType.FLOAT;
+    }
+
+    @Override
+    public boolean isValid(@NotNull CharSequence value) {
+        return !Double.isNaN(read(value));
+    }
+
+    @Override
+    public long parse(@NotNull CharSequence value) {
+        double result = read(value);
+        return Double.isNaN(result) ? 0 : Double.doubleToRawLongBits(result);
+    }
+
+    @Override
+    public @NotNull String format(long primitiveValue) {
+        return Double.toString(Double.longBitsToDouble(primitiveValue));
+    }
+
+    /**
+     * Read the given value.
+     *
+     * @param value the value
+     * @return the value, or NaN if the value is not a float
+     */
+    static double read(@NotNull CharSequence value) {
+        long bounds = ValueBounds.trim(value);
+        int start = ValueBounds.start(bounds);
+        int end = ValueBounds.end(bounds);
+        int i = start;
+
+        boolean negative = false;
+        if (i < end && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+            negative = value.charAt(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int significant = 0;
+        int exponent = 0;
+        boolean exact = true;
+        boolean fraction = false;
+
+        for (; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                break;
+            }
+            digits++;
+            if (mantissa == 0 && c == '0') {
+                // leading zeros are not significant
+                exponent -= fraction ? 1 : 0;
+            } else if (significant < MAX_DIGITS) {
+                mantissa = mantissa * 10 + (c - '0');
+                significant++;
+                exponent -= fraction ? 1 : 0;
+            } else {
+                exact &= c == '0';
+                exponent += fraction ? 0 : 1;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+
+        if (i < end && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+                negativeExponent = value.charAt(i) == '-';
+                i++;
+            }
+            int exponentStart = i;
+            int written = 0;
+            for (; i < end && value.charAt(i) >= '0' && value.charAt(i) <= '9'; i++) {
+                written = Math.min(written * 10 + (value.charAt(i) - '0'), MAX_EXPONENT);
+            }
+            if (i == exponentStart) {
+                return Double.NaN;
+            }
+            exponent += negativeExponent ? -written : written;
+        }
+        if (i != end) {
+            return Double.NaN;
+        }
+
+        if (mantissa == 0) {
+            // a zero keeps its sign, so -0 is written back as it was read
+            return negative ? -0.0 : 0.0;
+        }
+
+        double result;
+        if (exact && significant <= MAX_EXACT_DIGITS && Math.abs(exponent) <= MAX_EXACT_EXPONENT) {
+            result = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            // the digits do not fit into an exact computation, so the value is rounded by the JDK
+            return Double.parseDouble(value.subSequence(start, end).toString());
+        }
+
+        return negative ? -result : result;
+    }
+}
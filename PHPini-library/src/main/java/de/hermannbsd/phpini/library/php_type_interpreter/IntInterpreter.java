@@ -0,0 +1,58 @@
+package de.hermannbsd.phpini.library.php_type_interpreter;
+
+import de.hermannbsd.phpini.library.enums.PhpValueType;
+import de.hermannbsd.phpini.library.interfaces.IPhpTypeInterpreter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Class to interpret integer values in PHP INI files.
+ * <p>A value is an optional sign followed by decimal digits, like {@code 60} or {@code -1}.</p>
+ */
+public class IntInterpreter implements IPhpTypeInterpreter {
+
+    @Override
+    public @NotNull PhpValueType getValueType() {
+        return PhpValueType.INT;
+    }
+
+    @Override
+    public boolean isValid(@NotNull CharSequence value) {
+        long bounds = ValueBounds.trim(value);
+        return magnitude(value, ValueBounds.start(bounds), ValueBounds.end(bounds)) >= 0;
+    }
+
+    @Override
+    public long parse(@NotNull CharSequence value) {
+        long bounds = ValueBounds.trim(value);
+        int start = ValueBounds.start(bounds);
+        long result = magnitude(value, start, ValueBounds.end(bounds));
+
+        if (result < 0) {
+            result = 0;
+        } else if (value.charAt(start) == '-') {
+            result = -result;
+        }
+
+        return result;
+    }
+
+    @Override
+    public @NotNull String format(long primitiveValue) {
+        return Long.toString(primitiveValue);
+    }
+
+    /**
+     * Read the digits after the optional sign of the given part of the value.
+     *
+     * @param value the value
+     * @param start the start of the part, inclusive
+     * @param end   the end of the part, exclusive
+     * @return the value of the digits, or -1 if the part is not an integer
+     */
+    private static long magnitude(@NotNull CharSequence value, int start, int end) {
+        if (start < end && (value.charAt(start) == '-' || value.charAt(start) == '+')) {
+            start++;
+        }
+        return ValueBounds.parseDigits(value, start, end, 10);
+    }
+}
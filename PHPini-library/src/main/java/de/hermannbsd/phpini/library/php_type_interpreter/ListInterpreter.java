@@ -0,0 +1,197 @@
+package de.hermannbsd.phpini.library.php_type_interpreter;
+
+import de.hermannbsd.phpini.library.enums.PhpValueType;
+import de.hermannbsd.phpini.library.interfaces.IPhpValueInterpreter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class to interpret comma separated lists in PHP INI files, like {@code disable_functions = exec, system}.
+ * <p>Whitespace around the elements is skipped and empty elements are ignored. Every value is a list, so every value
+ * is valid. {@link #size(CharSequence)} and {@link #contains(CharSequence, CharSequence)} read the list in place,
+ * without allocating; {@link #read(CharSequence)} builds the list of the elements.</p>
+ */
+public final class ListInterpreter implements IPhpValueInterpreter {
+
+    /**
+     * The separator of the elements.
+     */
+    private static final char SEPARATOR = ',';
+
+    @Override
+    public @NotNull PhpValueType getValueType() {
+        return PhpValueType.ARRAY;
+    }
+
+    @Override
+    public boolean isValid(@NotNull CharSequence value) {
+        return true;
+    }
+
+    /**
+     * Read the elements of the given list.
+     *
+     * @param value the list
+     * @return an unmodifiable list of the elements
+     */
+    @Override
+    public @NotNull List<String> read(@NotNull CharSequence value) {
+        return toList(value);
+    }
+
+    /**
+     * Write the given elements as a list.
+     *
+     * @param realValue the elements, a {@link List}; any other value is written as one element
+     * @return the list as written to a PHP INI file
+     */
+    @Override
+    public @NotNull String format(@NotNull Object realValue) {
+        if (!(realValue instanceof List<?> elements)) {
+            return String.valueOf(realValue);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (Object element : elements) {
+            if (!sb.isEmpty()) {
+                sb.append(SEPARATOR);
+            }
+            sb.append(element);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Count the elements of the given list.
+     *
+     * @param value the list
+     * @return the number of elements
+     */
+    public static int size(@NotNull CharSequence value) {
+        int result = 0;
+        long bounds = ValueBounds.trim(value);
+        int end = ValueBounds.end(bounds);
+
+        for (int start = ValueBounds.start(bounds); start < end; start = next(value, start, end) + 1) {
+            int separator = next(value, start, end);
+            if (elementStart(value, start, separator) < separator) {
+                result++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Check if the given list contains the given element, ignoring case.
+     *
+     * @param value   the list
+     * @param element the element
+     * @return true if the list contains the element, false otherwise
+     */
+    public static boolean contains(@NotNull CharSequence value, @NotNull CharSequence element) {
+        long bounds = ValueBounds.trim(value);
+        int end = ValueBounds.end(bounds);
+
+        for (int start = ValueBounds.start(bounds); start < end; start = next(value, start, end) + 1) {
+            int separator = next(value, start, end);
+            int from = elementStart(value, start, separator);
+            int to = elementEnd(value, from, separator);
+            if (to - from == element.length() && regionMatches(value, from, element)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Get the elements of the given list.
+     *
+     * @param value the list
+     * @return an unmodifiable list of the elements
+     */
+    public static @NotNull List<String> toList(@NotNull CharSequence value) {
+        List<String> result = new ArrayList<>();
+        long bounds = ValueBounds.trim(value);
+        int end = ValueBounds.end(bounds);
+
+        for (int start = ValueBounds.start(bounds); start < end; start = next(value, start, end) + 1) {
+            int separator = next(value, start, end);
+            int from = elementStart(value, start, separator);
+            int to = elementEnd(value, from, separator);
+            if (from < to) {
+                result.add(value.subSequence(from, to).toString());
+            }
+        }
+
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Find the next separator.
+     *
+     * @param value the list
+     * @param start the index to start at
+     * @param end   the end of the list
+     * @return the index of the separator or the end of the list
+     */
+    private static int next(@NotNull CharSequence value, int start, int end) {
+        while (start < end && value.charAt(start) != SEPARATOR) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Skip the whitespace at the start of an element.
+     *
+     * @param value the list
+     * @param start the start of the element
+     * @param end   the end of the element
+     * @return the index of the first character of the element which is not whitespace
+     */
+    private static int elementStart(@NotNull CharSequence value, int start, int end) {
+        while (start < end && Character.isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Skip the whitespace at the end of an element.
+     *
+     * @param value the list
+     * @param start the start of the element
+     * @param end   the end of the element
+     * @return the index after the last character of the element which is not whitespace
+     */
+    private static int elementEnd(@NotNull CharSequence value, int start, int end) {
+        while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Check if the list holds the given element at the given index, ignoring case.
+     *
+     * @param value   the list
+     * @param from    the index in the list
+     * @param element the element
+     * @return true if the characters match, false otherwise
+     */
+    private static boolean regionMatches(@NotNull CharSequence value, int from, @NotNull CharSequence element) {
+        for (int i = 0; i < element.length(); i++) {
+            char a = value.charAt(from + i);
+            char b = element.charAt(i);
+            if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,67 @@
+package de.hermannbsd.phpini.library.php_type_interpreter;
+
+import de.hermannbsd.phpini.library.enums.PhpValueType;
+import de.hermannbsd.phpini.library.interfaces.IPhpTypeInterpreter;
+import de.hermannbsd.phpini.library.interfaces.IPhpValueInterpreter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Class to choose the interpreter of a value type.
+ * <p>{@link #forType(PhpValueType)} returns the interpreters of the types kept as primitives and
+ * {@link #forObjectType(PhpValueType)} the interpreters of the types kept as objects. The interpreters do not keep
+ * any state, so one instance of each is shared.</p>
+ */
+public final class PhpTypeInterpreters {
+
+    /**
+     * The interpreter of integers.
+     */
+    private static final IPhpTypeInterpreter INT = new IntInterpreter();
+    /**
+     * The interpreter of byte sizes.
+     */
+    private static final IPhpTypeInterpreter SIZE = new ByteSizeInterpreter();
+    /**
+     * The interpreter of floats.
+     */
+    private static final IPhpTypeInterpreter FLOAT = new FloatInterpreter();
+    /**
+     * The interpreter of booleans.
+     */
+    private static final IPhpTypeInterpreter BOOL = new BoolTypeInterpreter();
+    /**
+     * The interpreter of lists.
+     */
+    private static final IPhpValueInterpreter LIST = new ListInterpreter();
+
+    private PhpTypeInterpreters() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Get the interpreter of the given value type.
+     *
+     * @param type the value type
+     * @return the interpreter, or null if the values of the type are not kept as primitives
+     */
+    public static @Nullable IPhpTypeInterpreter forType(@NotNull PhpValueType type) {
+        return switch (type) {
+            case INT -> INT;
+            case SIZE -> SIZE;
+            case FLOAT -> FLOAT;
+            case BOOL -> BOOL;
+            default -> null;
+        };
+    }
+
+    /**
+     * Get the interpreter of the given value type whose values are kept as objects.
+     *
+     * @param type the value type
+     * @return the interpreter, or null if the values of the type are kept as primitives or as they are written
+     */
+    public static @Nullable IPhpValueInterpreter forObjectType(@NotNull PhpValueType type) {
+        return type == PhpValueType.ARRAY ? LIST : null;
+    }
+}
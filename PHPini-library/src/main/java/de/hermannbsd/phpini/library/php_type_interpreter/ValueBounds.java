@@ -0,0 +1,111 @@
+package de.hermannbsd.phpini.library.php_type_interpreter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Helper to find the part of a value that is interpreted, without copying the value.
+ * <p>Whitespace around the value and a pair of double quotes around it are skipped. The start and the end are packed
+ * into one long, so finding them does not allocate.</p>
+ */
+final class ValueBounds {
+
+    private ValueBounds() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Find the part of the given value without surrounding whitespace and double quotes.
+     *
+     * @param value the value
+     * @return the start and end of the part, to be read with {@link #start(long)} and {@link #end(long)}
+     */
+    static long trim(@NotNull CharSequence value) {
+        int start = 0;
+        int end = value.length();
+
+        while (start < end && Character.isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        if (end - start >= 2 && value.charAt(start) == '"' && value.charAt(end - 1) == '"') {
+            start++;
+            end--;
+            while (start < end && Character.isWhitespace(value.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+                end--;
+            }
+        }
+
+        return ((long) start << 32) | end;
+    }
+
+    /**
+     * Get the start of the bounds.
+     *
+     * @param bounds the bounds returned by {@link #trim(CharSequence)}
+     * @return the index of the first character, inclusive
+     */
+    static int start(long bounds) {
+        return (int) (bounds >>> 32);
+    }
+
+    /**
+     * Get the end of the bounds.
+     *
+     * @param bounds the bounds returned by {@link #trim(CharSequence)}
+     * @return the index after the last character, exclusive
+     */
+    static int end(long bounds) {
+        return (int) bounds;
+    }
+
+    /**
+     * Check if the given part of the value is the given word, ignoring case.
+     *
+     * @param value the value
+     * @param start the start of the part, inclusive
+     * @param end   the end of the part, exclusive
+     * @param word  the word in lower case
+     * @return true if the part is the word, false otherwise
+     */
+    static boolean equalsIgnoreCase(@NotNull CharSequence value, int start, int end, @NotNull String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.toLowerCase(value.charAt(start + i)) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse the digits of the given part of the value.
+     *
+     * @param value the value
+     * @param start the start of the digits, inclusive
+     * @param end   the end of the digits, exclusive
+     * @param radix the radix of the digits
+     * @return the value of the digits, or -1 if the part is empty, holds another character or overflows a long
+     */
+    static long parseDigits(@NotNull CharSequence value, int start, int end, int radix) {
+        if (start >= end) {
+            return -1;
+        }
+
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(value.charAt(i), radix);
+            if (digit < 0 || result > (Long.MAX_VALUE - digit) / radix) {
+                return -1;
+            }
+            result = result * radix + digit;
+        }
+        return result;
+    }
+}
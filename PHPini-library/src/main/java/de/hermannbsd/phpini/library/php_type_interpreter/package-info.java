@@ -1,6 +1,8 @@
 /**
- * This package contains the PhpTypeInterpreter class and its related classes.
- * <p>Since PHP handles types in a very loose way, this package provides classes to interpret</p>
+ * This package contains the interpreters of PHP values and their related classes.
+ * <p>Since PHP handles types in a very loose way, this package provides classes to interpret integers, byte sizes,
+ * floats, booleans and lists the way PHP does. {@link de.hermannbsd.phpini.library.php_type_interpreter.PhpTypeInterpreters}
+ * chooses the interpreter of a value type.</p>
  *
  * @author Alexandra Hermann
  * @version 1.0
@@ -0,0 +1,256 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentPhpIniTest {
+
+    private static final String PHP_INI_FILE = "php.ini";
+    private static final int WRITERS = 8;
+    private static final int READERS = 4;
+    private static final int OPERATIONS = 5_000;
+    private static final int NAMES = 50;
+    private static final int MANY_SECTIONS = 5_000;
+
+    @TempDir
+    Path tempDir;
+
+    private Path phpIniPath;
+    private String original;
+
+    @BeforeEach
+    void setUp() throws URISyntaxException, IOException {
+        URL phpIniFile = getClass().getClassLoader().getResource(PHP_INI_FILE);
+        assertNotNull(phpIniFile, "PHP INI file not found in classpath");
+        original = Files.readString(Paths.get(phpIniFile.toURI()));
+        phpIniPath = tempDir.resolve(PHP_INI_FILE);
+        Files.writeString(phpIniPath, original);
+    }
+
+    @Test
+    void sameModelAsPhpIni() throws IOException {
+        PhpIni phpIni = new PhpIni(phpIniPath.toString());
+        ConcurrentPhpIni concurrent = new ConcurrentPhpIni(phpIniPath.toString());
+
+        assertEquals(phpIni.getIni().size(), concurrent.getIni().size(), "Sections should be copied");
+        assertEquals(phpIni.getDirective("memory_limit").getValue(), concurrent.getDirective("MEMORY_LIMIT").getValue(),
+                "Directives should be found ignoring case");
+        assertThrows(UnsupportedOperationException.class, () -> concurrent.getIni().clear(),
+                "Sections should only be changed through the file");
+    }
+
+    @Test
+    void updateKeepsReadDirectives() throws IOException {
+        ConcurrentPhpIni concurrent = new ConcurrentPhpIni(phpIniPath.toString());
+        IPhpIniDirective before = concurrent.getDirective("memory_limit");
+
+        assertTrue(concurrent.updateDirective("memory_limit", "256M"), "Directive should be updated");
+        assertEquals("128M", before.getValue(), "Directive read before should keep its value");
+        assertEquals("256M", concurrent.getDirective("memory_limit").getValue(), "Directive should have the new value");
+    }
+
+    @Test
+    void saveWritesChanges() throws IOException {
+        ConcurrentPhpIni concurrent = new ConcurrentPhpIni(phpIniPath.toString());
+
+        assertTrue(concurrent.updateDirective("memory_limit", "256M"), "Directive should be updated");
+        assertTrue(concurrent.removeDirective("short_open_tag"), "Directive should be removed");
+        assertTrue(concurrent.addSection(new PhpIniSection("Extra")), "Section should be added");
+        assertTrue(concurrent.addDirective(new PhpIniDirective("extra.value = 1", "Extra")), "Directive should be added");
+        assertTrue(concurrent.save(), "File should be saved");
+
+        PhpIni saved = new PhpIni(phpIniPath.toString());
+        assertEquals("256M", saved.getDirective("memory_limit").getValue(), "Updated value should be saved");
+        assertNull(saved.getDirective("short_open_tag"), "Removed directive should be saved");
+        assertEquals("1", saved.getDirective("extra.value").getValue(), "Added directive should be saved");
+        assertTrue(saved.getFileContent().contains("; About php.ini"), "Comments should be kept");
+    }
+
+    @Test
+    void manySectionsAreSaved() throws IOException {
+        ConcurrentPhpIni concurrent = new ConcurrentPhpIni(phpIniPath.toString());
+        int before = concurrent.getIni().size();
+
+        for (int i = 0; i < MANY_SECTIONS; i++) {
+            assertTrue(concurrent.addSection(new PhpIniSection("many" + i)), "Section should be added");
+            assertTrue(concurrent.addDirective(new PhpIniDirective("many.d" + i + " = " + i, "many" + i)),
+                    "Directive should be added");
+        }
+        assertTrue(concurrent.save(), "File with many sections should be saved");
+
+        PhpIni saved = new PhpIni(phpIniPath.toString());
+        assertEquals(before + MANY_SECTIONS, saved.getIni().size(), "All sections should be saved");
+        assertEquals("4999", saved.getDirective("many.d4999").getValue(), "Last directive should be saved");
+    }
+
+    @Test
+    void nameIsClaimedOnce() throws InterruptedException {
+        ConcurrentPhpIni concurrent = newFile();
+        AtomicInteger added = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+
+        for (int i = 0; i < WRITERS; i++) {
+            String section = "section" + i;
+            executor.execute(() -> {
+                await(start);
+                if (concurrent.addDirective(new PhpIniDirective("shared = 1", section))) {
+                    added.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS), "Writers should finish");
+
+        assertEquals(1, added.get(), "Only one section should get the directive");
+        int found = 0;
+        for (IPhpIniSection section : concurrent.getIni()) {
+            found += section.containsDirectiveByName("shared") ? 1 : 0;
+        }
+        assertEquals(1, found, "Only one section should hold the directive");
+    }
+
+    @Test
+    void stressReadersAndWriters() throws InterruptedException {
+        ConcurrentPhpIni concurrent = newFile();
+        List<Map<String, String>> expected = new ArrayList<>();
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch writers = new CountDownLatch(WRITERS);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+
+        for (int i = 0; i < WRITERS; i++) {
+            Map<String, String> state = new HashMap<>();
+            expected.add(state);
+            int writer = i;
+            executor.execute(() -> {
+                try {
+                    await(start);
+                    write(concurrent, writer, state);
+                } catch (Throwable e) {
+                    errors.add(e);
+                } finally {
+                    writers.countDown();
+                }
+            });
+        }
+        for (int i = 0; i < READERS; i++) {
+            executor.execute(() -> {
+                try {
+                    await(start);
+                    while (writing.get()) {
+                        read(concurrent);
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+
+        start.countDown();
+        assertTrue(writers.await(60, TimeUnit.SECONDS), "Writers should finish");
+        writing.set(false);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS), "Readers should finish");
+
+        assertTrue(errors.isEmpty(), "No thread should fail: " + errors);
+        for (int i = 0; i < WRITERS; i++) {
+            IPhpIniSection section = concurrent.getIni().get(i);
+            assertEquals(expected.get(i).size(), section.getDirectives().size(), "Section should hold the last state");
+            for (Map.Entry<String, String> entry : expected.get(i).entrySet()) {
+                IPhpIniDirective directive = concurrent.getDirective(entry.getKey());
+                assertNotNull(directive, "Directive should be indexed");
+                assertEquals(entry.getValue(), directive.getValue(), "Directive should have the last value");
+                assertSame(directive, section.getDirectiveByName(entry.getKey()), "Index should match the section");
+            }
+        }
+    }
+
+    private ConcurrentPhpIni newFile() {
+        ConcurrentPhpIni concurrent;
+        try {
+            concurrent = new ConcurrentPhpIni(tempDir.resolve("empty.ini").toString());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        for (int i = 0; i < WRITERS; i++) {
+            assertTrue(concurrent.addSection(new ConcurrentPhpIniSection("section" + i)), "Section should be added");
+        }
+        return concurrent;
+    }
+
+    private static void write(ConcurrentPhpIni concurrent, int writer, Map<String, String> state) {
+        Random random = new Random(writer);
+        String section = "section" + writer;
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            String name = "w" + writer + ".d" + random.nextInt(NAMES);
+            String value = Integer.toString(i);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    boolean added = concurrent.addDirective(new PhpIniDirective(name + " = " + value, section));
+                    assertEquals(!state.containsKey(name), added, "Directive should be added once");
+                    state.putIfAbsent(name, value);
+                }
+                case 1 -> {
+                    assertEquals(state.containsKey(name), concurrent.updateDirective(name, value),
+                            "Only existing directives should be updated");
+                    state.computeIfPresent(name, (key, old) -> value);
+                }
+                default -> {
+                    assertEquals(state.containsKey(name), concurrent.removeDirective(name),
+                            "Only existing directives should be removed");
+                    state.remove(name);
+                }
+            }
+        }
+    }
+
+    private static void read(ConcurrentPhpIni concurrent) {
+        for (IPhpIniSection section : concurrent.getIni()) {
+            String prefix = "w" + section.getName().substring("section".length()) + ".";
+            for (IPhpIniDirective directive : section.getDirectives()) {
+                assertNotNull(directive, "Snapshot should not hold gaps");
+                assertTrue(directive.getName().startsWith(prefix), "Directive should be in its own section");
+            }
+        }
+        IPhpIniDirective directive = concurrent.getDirective("w0.d0");
+        if (directive != null) {
+            assertEquals("w0.d0", directive.getName(), "Index should return the directive with the name");
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
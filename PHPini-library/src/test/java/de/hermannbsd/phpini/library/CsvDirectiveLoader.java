@@ -0,0 +1,74 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.enums.DirectiveChangeable;
+import de.hermannbsd.phpini.library.generator.DirectiveCatalogGenerator;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loader parsing the directive catalog from the CSV file, to compare the catalog snapshot with its source.
+ */
+final class CsvDirectiveLoader {
+
+    /**
+     * The name of the CSV file containing the directives.
+     */
+    static final String DIRECTIVES_CSV = "phpini_directives.csv";
+
+    private CsvDirectiveLoader() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Load the directives by parsing the CSV file.
+     *
+     * @return the directives in the order of the CSV file
+     */
+    static @NotNull List<DirectiveDefinition> load() {
+        List<DirectiveDefinition> directives = new ArrayList<>();
+
+        try (InputStream in = CsvDirectiveLoader.class.getClassLoader().getResourceAsStream(DIRECTIVES_CSV)) {
+            if (in == null) {
+                throw new IllegalStateException("CSV file not found in classpath: " + DIRECTIVES_CSV);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            // the first line is the header
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                directives.add(parseLine(line));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return directives;
+    }
+
+    /**
+     * Parse the given line of the CSV file.
+     *
+     * @param line the line
+     * @return the directive of the line
+     */
+    private static @NotNull DirectiveDefinition parseLine(@NotNull String line) {
+        List<String> parts = DirectiveCatalogGenerator.splitCsvLine(line);
+        if (parts.size() < 5) {
+            throw new IllegalArgumentException("Invalid directive format: " + line);
+        }
+
+        return new DirectiveDefinition(parts.get(0).trim(), parts.get(1).replace("\"", ""),
+                parts.get(2).replace("\"", "").trim(),
+                parts.size() >= 6 ? parts.get(5).replace("\"", "").trim() : "",
+                parts.get(4).replace("\"", "").trim(), DirectiveChangeable.valueOf(parts.get(3).trim()),
+                parts.size() >= 7 ? PhpVersion.parseOrNull(parts.get(6).replace("\"", "")) : null,
+                parts.size() >= 8 ? PhpVersion.parseOrNull(parts.get(7).replace("\"", "")) : null);
+    }
+}
@@ -0,0 +1,97 @@
+package de.hermannbsd.phpini.library;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectiveCatalogLoadBenchmarkTest {
+
+    private static final int ITERATIONS = 200;
+    private static final Logger logger = LoggerFactory.getLogger(DirectiveCatalogLoadBenchmarkTest.class);
+
+    @Test
+    void loadersBuildSameDirectives() {
+        List<DirectiveDefinition> snapshot = DirectiveCatalogSnapshot.load();
+        List<DirectiveDefinition> csv = CsvDirectiveLoader.load();
+
+        assertEquals(csv.size(), snapshot.size(), "Both loaders should build every directive");
+        for (int i = 0; i < csv.size(); i++) {
+            DirectiveDefinition expected = csv.get(i);
+            DirectiveDefinition actual = snapshot.get(i);
+            assertEquals(expected.getName(), actual.getName(), "Name should match");
+            assertEquals(expected.getDefaultValue(), actual.getDefaultValue(), "Default value should match");
+            assertEquals(expected.getType(), actual.getType(), "Type should match");
+            assertEquals(expected.getDirectiveChangeable(), actual.getDirectiveChangeable(), "Changeable should match");
+            assertEquals(expected.getChangelog(), actual.getChangelog(), "Changelog should match");
+            assertEquals(expected.getDescription(), actual.getDescription(), "Description should match");
+            assertEquals(expected.getMinVersion(), actual.getMinVersion(), "Minimum version should match");
+            assertEquals(expected.getMaxVersion(), actual.getMaxVersion(), "Maximum version should match");
+        }
+    }
+
+    @Test
+    void mappedSnapshotMatchesResource() throws URISyntaxException, IOException {
+        URL resource = getClass().getClassLoader().getResource(DirectiveCatalogSnapshot.RESOURCE);
+        assertNotNull(resource, "Snapshot not found in classpath");
+
+        List<DirectiveDefinition> mapped = DirectiveCatalogSnapshot.map(Paths.get(resource.toURI()));
+        List<DirectiveDefinition> loaded = DirectiveCatalogSnapshot.load();
+        assertEquals(loaded.size(), mapped.size(), "Mapped snapshot should hold every directive");
+        for (int i = 0; i < loaded.size(); i++) {
+            assertEquals(loaded.get(i).getName(), mapped.get(i).getName(), "Name should match");
+            assertEquals(loaded.get(i).getDescription(), mapped.get(i).getDescription(), "Description should match");
+        }
+        assertSame(loaded.get(0).getType(), loaded.get(1).getType(), "Equal strings should be decoded once");
+    }
+
+    @Test
+    void invalidSnapshotIsRejected() throws IOException {
+        byte[] snapshot;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(DirectiveCatalogSnapshot.RESOURCE)) {
+            assertNotNull(in, "Snapshot not found in classpath");
+            snapshot = in.readAllBytes();
+        }
+
+        byte[] truncated = Arrays.copyOf(snapshot, snapshot.length / 2);
+        assertThrows(IOException.class, () -> DirectiveCatalogSnapshot.read(ByteBuffer.wrap(truncated)),
+                "Truncated snapshot should be rejected");
+        byte[] otherVersion = snapshot.clone();
+        otherVersion[7]++;
+        assertThrows(IOException.class, () -> DirectiveCatalogSnapshot.read(ByteBuffer.wrap(otherVersion)),
+                "Snapshot of another format version should be rejected");
+    }
+
+    @Test
+    void startupTimePerLoader() {
+        long snapshotCold = measureNanos(DirectiveCatalogSnapshot::load, 1);
+        long csvCold = measureNanos(CsvDirectiveLoader::load, 1);
+        long snapshot = measureNanos(DirectiveCatalogSnapshot::load, ITERATIONS);
+        long csv = measureNanos(CsvDirectiveLoader::load, ITERATIONS);
+
+        logger.info("Catalog load time: snapshot {} us cold, {} us warm; CSV {} us cold, {} us warm",
+                snapshotCold / 1000, snapshot / 1000, csvCold / 1000, csv / 1000);
+    }
+
+    private static long measureNanos(Supplier<List<DirectiveDefinition>> loader, int iterations) {
+        long total = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            List<DirectiveDefinition> directives = loader.get();
+            total += System.nanoTime() - start;
+            assertFalse(directives.isEmpty(), "Directives should be loaded");
+        }
+        return total / iterations;
+    }
+}
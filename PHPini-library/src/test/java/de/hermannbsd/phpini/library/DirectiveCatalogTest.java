@@ -0,0 +1,143 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.enums.DirectiveChangeable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectiveCatalogTest {
+
+    @Test
+    void findIgnoresCase() {
+        DirectiveCatalog catalog = PhpIniDirective.getCatalog();
+        DirectiveDefinition directive = catalog.find("allow_url_fopen");
+
+        assertNotNull(directive, "Directive should be in the catalog");
+        assertSame(directive, catalog.find("ALLOW_URL_FOPEN"), "Lookup should ignore case");
+        assertSame(directive, PhpIniDirective.getDirectiveByName("Allow_Url_Fopen"), "Lookup should use the catalog");
+        assertNull(catalog.find("no_such_directive"), "Unknown directive should not be found");
+        assertNull(catalog.find(null), "Null name should not be found");
+    }
+
+    @Test
+    void everyDirectiveIsIndexed() {
+        DirectiveCatalog catalog = PhpIniDirective.getCatalog();
+
+        assertFalse(catalog.isEmpty(), "Catalog should be loaded");
+        for (DirectiveDefinition directive : catalog.getDirectives()) {
+            assertSame(directive, catalog.find(directive.getName()), "Directive should be found by its name");
+        }
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        List<DirectiveDefinition> directives = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            directives.add(definition("directive_" + i));
+        }
+        DirectiveCatalog catalog = new DirectiveCatalog(directives);
+
+        assertEquals(1000, catalog.size(), "Every directive should be indexed");
+        for (int i = 0; i < 1000; i++) {
+            assertSame(directives.get(i), catalog.find("DIRECTIVE_" + i), "Directive should be found");
+        }
+        assertNull(catalog.find("directive_1000"), "Unknown directive should not be found");
+        assertEquals(1000, catalog.getHits(), "Every found directive should be a hit");
+        assertEquals(1, catalog.getMisses(), "Unknown directive should be a miss");
+
+        catalog.resetStatistics();
+        assertEquals(0, catalog.getHits() + catalog.getMisses(), "Counts should be reset");
+    }
+
+    @Test
+    void duplicatesKeepFirst() {
+        DirectiveDefinition first = definition("precision");
+        DirectiveDefinition second = definition("PRECISION");
+        DirectiveCatalog catalog = new DirectiveCatalog(List.of(first, second));
+
+        assertEquals(1, catalog.size(), "Duplicate should be dropped");
+        assertSame(first, catalog.find("Precision"), "First directive should be kept");
+        assertThrows(UnsupportedOperationException.class, () -> catalog.getDirectives().add(second),
+                "Catalog should be immutable");
+    }
+
+    @Test
+    void catalogLoadedOnceForConcurrentReaders() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<DirectiveCatalog>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return PhpIniDirective.getCatalog();
+                }));
+            }
+            start.countDown();
+
+            DirectiveCatalog catalog = futures.get(0).get();
+            for (Future<DirectiveCatalog> future : futures) {
+                assertSame(catalog, future.get(), "Every thread should see the same catalog");
+            }
+
+            Set<String> names = new HashSet<>();
+            for (DirectiveDefinition directive : catalog.getDirectives()) {
+                assertTrue(names.add(directive.getName().toLowerCase(Locale.ROOT)), "Catalog should have no duplicates");
+            }
+            for (DirectiveDefinition directive : CsvDirectiveLoader.load()) {
+                assertTrue(names.contains(directive.getName().toLowerCase(Locale.ROOT)), "Catalog should be complete");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void findValidInVersion() {
+        DirectiveCatalog catalog = PhpIniDirective.getCatalog();
+        PhpVersion php74 = PhpVersion.parse("7.4");
+        PhpVersion php82 = PhpVersion.parse("8.2");
+
+        assertTrue(catalog.isValidIn("assert.quiet_eval", php74), "Directive should be valid before its removal");
+        assertFalse(catalog.isValidIn("assert.quiet_eval", PhpVersion.parse("8.0.0")), "Directive should be removed");
+        assertFalse(catalog.isValidIn("com.dotnet_version", php74), "Directive should not be valid before its start");
+        assertTrue(catalog.isValidIn("com.dotnet_version", php82), "Directive should be valid from its start");
+        assertFalse(catalog.isValidIn("no_such_directive", php82), "Unknown directive should not be valid");
+
+        for (String version : List.of("4.0", "7.4", "7.4.33", "8.0", "8.2", "8.3.0", "8.4")) {
+            PhpVersion phpVersion = PhpVersion.parse(version);
+            List<DirectiveDefinition> expected = new ArrayList<>();
+            for (DirectiveDefinition directive : catalog.getDirectives()) {
+                if (catalog.isValidIn(directive.getName(), phpVersion)) {
+                    expected.add(directive);
+                }
+            }
+            assertEquals(expected, catalog.findValidIn(phpVersion), "Index should match a scan for " + version);
+        }
+    }
+
+    @Test
+    void quotedSeparatorsKeepColumns() {
+        DirectiveDefinition codePage = PhpIniDirective.getCatalog().find("com.code_page");
+
+        assertNotNull(codePage, "Directive should be in the catalog");
+        assertTrue(codePage.getDescription().endsWith("parameter whenever possible."), "Description should be complete");
+        assertNull(codePage.getMaxVersion(), "Description should not spill into the versions");
+    }
+
+    private static DirectiveDefinition definition(String name) {
+        return new DirectiveDefinition(name, "", "string", "", "", DirectiveChangeable.INI_ALL, null, null);
+    }
+}
@@ -0,0 +1,94 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.enums.DirectiveChangeable;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectiveTextIndexTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectiveTextIndexTest.class);
+
+    private final DirectiveCatalog catalog = new DirectiveCatalog(List.of(
+            definition("session.save_path", "Path where session files are stored.", ""),
+            definition("session.name", "Name of the session cookie.", "Cookie names are case sensitive."),
+            definition("assert.active", "Enable assert() evaluation.", "DEPRECATED as of PHP 8.3.0."),
+            definition("allow_url_include", "Allows URL-aware fopen wrappers.", "Deprecated as of PHP 7.4.0.")));
+
+    @Test
+    void tokenize() {
+        assertEquals(List.of("deprecated", "as", "of", "php", "8", "8.3", "8.3.0"),
+                DirectiveTextIndex.tokenize("DEPRECATED as of PHP 8.3.0."), "Versions should add their short forms");
+        assertEquals(List.of("first", "second"), DirectiveTextIndex.tokenize("first\\r\\nsecond"),
+                "Escape sequences should separate terms");
+    }
+
+    @Test
+    void searchRanksMatches() {
+        DirectiveTextIndex index = DirectiveTextIndex.build(catalog);
+
+        List<DirectiveTextIndex.Hit> hits = index.search("session cookie", 10);
+        assertEquals(2, hits.size(), "Only directives with a query term should match");
+        assertEquals("session.name", hits.get(0).getDefinition().getName(), "More matching terms should rank first");
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore(), "Hits should be ordered by score");
+
+        assertEquals(List.of("assert.active"), names(index.search("Deprecated 8.3", 1)),
+                "Version terms should favour the matching version");
+        assertEquals(2, index.search("deprecated", 10).size(), "Changelogs should be indexed");
+        assertEquals(List.of(), index.search("opcache", 10), "Unknown terms should find nothing");
+    }
+
+    @Test
+    void persistedIndexMatchesBuiltIndex() throws IOException {
+        DirectiveTextIndex index = DirectiveTextIndex.build(catalog);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.write(out);
+
+        DirectiveTextIndex read = DirectiveTextIndex.read(new ByteArrayInputStream(out.toByteArray()), catalog);
+        assertNotNull(read, "Index should be read for its catalog");
+        assertEquals(index.getTermCount(), read.getTermCount(), "Terms should be read");
+        assertEquals(names(index.search("session deprecated", 10)), names(read.search("session deprecated", 10)),
+                "Read index should rank like the built one");
+
+        DirectiveCatalog other = new DirectiveCatalog(catalog.getDirectives().subList(0, 2));
+        assertNull(DirectiveTextIndex.read(new ByteArrayInputStream(out.toByteArray()), other),
+                "Index of another catalog should be ignored");
+    }
+
+    @Test
+    void catalogSearchLatency() {
+        DirectiveCatalog bundled = PhpIniDirective.getCatalog();
+        assertFalse(bundled.search("deprecated", 5).isEmpty(), "Bundled catalog should be searchable");
+
+        int iterations = 10_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            assertFalse(bundled.search("assertion warning", 10).isEmpty(), "Query should find directives");
+        }
+        long perQuery = (System.nanoTime() - start) / iterations;
+
+        logger.info("Full-text query over {} directives: {} ns", bundled.size(), perQuery);
+        assertTrue(perQuery < 1_000_000, "Query should take less than a millisecond: " + perQuery);
+    }
+
+    private static DirectiveDefinition definition(String name, String description, String changelog) {
+        return new DirectiveDefinition(name, "", PhpIniDirective.PHP_STRING, description, changelog,
+                DirectiveChangeable.INI_ALL, null, null);
+    }
+
+    private static List<String> names(List<DirectiveTextIndex.Hit> hits) {
+        List<String> result = new ArrayList<>();
+        for (DirectiveTextIndex.Hit hit : hits) {
+            result.add(hit.getDefinition().getName());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.enums.ParseMode;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static de.hermannbsd.phpini.library.PhpIniDirective.getDirectiveByNameAndSetValue;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyPhpIniSectionTest {
+
+    private static final String PHP_INI_FILE = "php.ini";
+
+    private PhpIni lazy;
+    private PhpIni eager;
+
+    @BeforeEach
+    void setUp() throws URISyntaxException, IOException {
+        URL phpIniFile = getClass().getClassLoader().getResource(PHP_INI_FILE);
+        assertNotNull(phpIniFile, "PHP INI file not found in classpath");
+        Path phpIniPath = Paths.get(phpIniFile.toURI());
+
+        lazy = new PhpIni(phpIniPath.toString(), ParseMode.LAZY, false);
+        eager = new PhpIni(phpIniPath.toString(), ParseMode.STREAMING, false);
+    }
+
+    @Test
+    void nothingMaterializedAfterLoad() {
+        assertEquals(0, materializedCount(), "No directive should be built after loading");
+        assertTrue(lazy.getIni().get(0) instanceof LazyPhpIniSection, "Sections should be lazy");
+    }
+
+    @Test
+    void getDirectiveMaterializesOnlyMatch() {
+        IPhpIniDirective directive = lazy.getDirective("SHORT_OPEN_TAG");
+
+        assertNotNull(directive, "Directive should be found");
+        assertEquals("Off", directive.getValue(), "Directive value should match");
+        assertEquals(1, materializedCount(), "Only the found directive should be built");
+        assertSame(directive, lazy.getDirective("short_open_tag"), "Directive should only be built once");
+        assertTrue(lazy.containsDirective("short_open_tag"), "Directive should be found");
+        assertFalse(lazy.containsDirective("nonexistent_directive"), "Directive should not be found");
+        assertEquals(1, materializedCount(), "Lookups should not build other directives");
+    }
+
+    @Test
+    void sameModelAsEager() {
+        List<IPhpIniSection> expected = eager.getIni();
+        List<IPhpIniSection> actual = lazy.getIni();
+        assertEquals(expected.size(), actual.size(), "Number of sections should match");
+
+        for (int i = 0; i < expected.size(); i++) {
+            List<IPhpIniDirective> expectedDirectives = expected.get(i).getDirectives();
+            List<IPhpIniDirective> actualDirectives = actual.get(i).getDirectives();
+            assertEquals(expectedDirectives.size(), actualDirectives.size(), "Number of directives should match");
+
+            for (int j = 0; j < expectedDirectives.size(); j++) {
+                assertEquals(expectedDirectives.get(j).toString(), actualDirectives.get(j).toString(), "Directives should match");
+            }
+        }
+    }
+
+    @Test
+    void addAndRemoveDirective() {
+        String directiveName = "test_directive";
+        IPhpIniDirective directive = getDirectiveByNameAndSetValue(directiveName, "test_value");
+
+        assertTrue(lazy.getIni().get(0).tryAddDirective(directive), "Directive should be added");
+        assertSame(directive, lazy.getDirective(directiveName), "Added directive should be found");
+        assertTrue(lazy.getIni().get(0).tryRemoveDirective(directiveName), "Directive should be removed");
+        assertNull(lazy.getDirective(directiveName), "Directive should be removed");
+    }
+
+    private int materializedCount() {
+        int result = 0;
+        for (IPhpIniSection section : lazy.getIni()) {
+            result += ((LazyPhpIniSection) section).getMaterializedCount();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,99 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NamePrefixIndexTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(NamePrefixIndexTest.class);
+
+    private final NamePrefixIndex<String> index = new NamePrefixIndex<>(
+            List.of("session.save_path", "opcache.enable", "Session.Name", "sessionless", "opcache.enable_cli",
+                    "session.gc_maxlifetime", "precision"), Function.identity());
+
+    @Test
+    void findByPrefix() {
+        assertEquals(List.of("session.gc_maxlifetime", "Session.Name", "session.save_path", "sessionless"),
+                index.findByPrefix("SESSION"), "Prefix should ignore case");
+        assertEquals(List.of(), index.findByPrefix("zend."), "Unknown prefix should find nothing");
+        assertEquals(7, index.findByPrefix("").size(), "Empty prefix should find everything");
+    }
+
+    @Test
+    void findByNamespace() {
+        assertEquals(List.of("session.gc_maxlifetime", "Session.Name", "session.save_path"),
+                index.findByNamespace("session"), "Namespace should not match longer names");
+        assertEquals(List.of("opcache", "session"), index.getNamespaces(), "Namespaces should be distinct");
+    }
+
+    @Test
+    void complete() {
+        assertEquals(List.of("opcache.enable", "opcache.enable_cli"), index.complete("op", 5),
+                "Shorter names should come first");
+        assertEquals(List.of("sessionless", "Session.Name"), index.complete("sess", 2),
+                "Completions should be limited to the best ones");
+        assertEquals(List.of(), index.complete("sess", 0), "No completion should be returned");
+    }
+
+    @Test
+    void catalogAndFileQueries() throws URISyntaxException, IOException {
+        URL phpIniFile = getClass().getClassLoader().getResource("php.ini");
+        assertNotNull(phpIniFile, "PHP INI file not found in classpath");
+        PhpIni phpIni = new PhpIni(Paths.get(phpIniFile.toURI()).toString());
+
+        assertFalse(PhpIniDirective.getCatalog().findByNamespace("assert").isEmpty(), "Catalog should be indexed");
+        assertEquals(List.of("assert.bail"), PhpIniDirective.getCatalog().complete("ASSERT.", 1),
+                "Catalog should complete names");
+
+        List<IPhpIniDirective> session = phpIni.findDirectivesByNamespace("session");
+        assertFalse(session.isEmpty(), "Session directives should be found");
+        for (IPhpIniDirective directive : session) {
+            assertTrue(directive.getName().startsWith("session."), "Only session directives should be found");
+        }
+
+        int before = phpIni.findDirectivesByPrefix("session.").size();
+        assertTrue(phpIni.removeDirective("session.save_path"), "Directive should be removed");
+        assertEquals(before - 1, phpIni.findDirectivesByPrefix("session.").size(), "Index should follow removals");
+
+        IPhpIniDirective replaced = phpIni.findDirectivesByPrefix("session.").get(0);
+        List<IPhpIniDirective> directives = phpIni.getIni().stream()
+                .filter(section -> section.getDirectives().contains(replaced)).findFirst().orElseThrow().getDirectives();
+        directives.set(directives.indexOf(replaced), new PhpIniDirective("replaced.value = 1", replaced.getSection()));
+        assertEquals(before - 2, phpIni.findDirectivesByPrefix("session.").size(),
+                "Index should follow directives replaced in a section");
+        assertEquals(1, phpIni.findDirectivesByPrefix("replaced.").size(), "Replacing directive should be found");
+    }
+
+    @Test
+    void queryLatency() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            names.add("namespace" + (i % 100) + ".directive_" + i);
+        }
+        NamePrefixIndex<String> large = new NamePrefixIndex<>(names, Function.identity());
+
+        int iterations = 1000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            assertEquals(100, large.findByNamespace("namespace" + (i % 100)).size(), "Namespace should be found");
+            assertEquals(10, large.complete("namespace" + (i % 100) + ".directive_", 10).size(),
+                    "Completions should be found");
+        }
+        long perQuery = (System.nanoTime() - start) / iterations / 2;
+
+        logger.info("Prefix query over {} names: {} ns", names.size(), perQuery);
+        assertTrue(perQuery < 1_000_000, "Query should take less than a millisecond: " + perQuery);
+    }
+}
@@ -0,0 +1,93 @@
+package de.hermannbsd.phpini.library;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentHashMapTest {
+
+    @Test
+    void putAndRemoveKeepEarlierVersions() {
+        PersistentHashMap<String, String> empty = PersistentHashMap.empty();
+        PersistentHashMap<String, String> one = empty.put("engine", "php");
+        PersistentHashMap<String, String> two = one.put("precision", "php");
+
+        assertEquals(0, empty.size(), "Empty map should stay empty");
+        assertNull(empty.get("engine"), "Empty map should stay empty");
+        assertEquals(1, one.size(), "Earlier version should keep its size");
+        assertNull(one.get("precision"), "Earlier version should not see later entries");
+        assertEquals(2, two.size(), "Map should hold both entries");
+        assertSame(two, two.put("engine", "php"), "Putting an equal value should not change the map");
+        assertSame(two, two.remove("unknown"), "Removing a missing key should not change the map");
+
+        PersistentHashMap<String, String> removed = two.remove("engine");
+        assertEquals(1, removed.size(), "Entry should be removed");
+        assertFalse(removed.containsKey("engine"), "Entry should be removed");
+        assertEquals("php", two.get("engine"), "Earlier version should keep the removed entry");
+    }
+
+    @Test
+    void collidingKeys() {
+        // "Aa" and "BB" have the same hash code
+        PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>empty().put("Aa", 1).put("BB", 2)
+                .put("AaAa", 3).put("BBBB", 4).put("AaBB", 5);
+
+        assertEquals(5, map.size(), "Colliding keys should be kept apart");
+        assertEquals(Integer.valueOf(2), map.get("BB"), "Colliding key should be found");
+        assertEquals(Integer.valueOf(6), map.put("BB", 6).get("BB"), "Colliding key should be replaced");
+        assertEquals(Integer.valueOf(1), map.remove("BB").get("Aa"), "Other colliding key should be kept");
+        assertNull(map.remove("BB").get("BB"), "Colliding key should be removed");
+        assertEquals(4, map.remove("BB").size(), "Colliding key should be removed");
+    }
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        Random random = new Random(11);
+        Map<String, Integer> expected = new HashMap<>();
+        PersistentHashMap<String, Integer> map = PersistentHashMap.empty();
+        List<Map<String, Integer>> expectedVersions = new ArrayList<>();
+        List<PersistentHashMap<String, Integer>> versions = new ArrayList<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            String key = random.nextBoolean() ? "Aa".repeat(random.nextInt(4)) + "BB".repeat(random.nextInt(4))
+                    : "directive_" + random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                int value = random.nextInt(5);
+                expected.put(key, value);
+                map = map.put(key, value);
+            }
+            if (i % 1000 == 0) {
+                expectedVersions.add(new HashMap<>(expected));
+                versions.add(map);
+            }
+        }
+
+        assertContains(expected, map);
+        for (int i = 0; i < versions.size(); i++) {
+            assertContains(expectedVersions.get(i), versions.get(i));
+        }
+        for (String key : expected.keySet()) {
+            map = map.remove(key);
+        }
+        assertEquals(0, map.size(), "All entries should be removed");
+    }
+
+    private static void assertContains(Map<String, Integer> expected, PersistentHashMap<String, Integer> map) {
+        assertEquals(expected.size(), map.size(), "Size should match");
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()), "Value should match");
+        }
+        for (int i = 0; i < 3000; i++) {
+            assertEquals(expected.get("directive_" + i), map.get("directive_" + i), "Missing key should not be found");
+        }
+    }
+}
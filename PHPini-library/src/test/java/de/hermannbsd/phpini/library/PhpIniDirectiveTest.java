@@ -2,10 +2,13 @@ package de.hermannbsd.phpini.library;
 
 import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
 import de.hermannbsd.phpini.library.enums.DirectiveChangeable;
+import de.hermannbsd.phpini.library.enums.PhpValueType;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class PhpIniDirectiveTest {
@@ -88,4 +91,105 @@ class PhpIniDirectiveTest {
         assertEquals(content, directive.getContent());
     }
 
-}
\ No newline at end of file
+    @Test
+    void definitionIsShared() {
+        IPhpIniDirective other = new PhpIniDirective("allow_url_fopen = 1", "PHP");
+
+        assertSame(((PhpIniDirective) directive).getDefinition(), ((PhpIniDirective) other).getDefinition(),
+                "Directives should share the catalog definition");
+        assertNull(new PhpIniDirective("unknown_directive = 1", "PHP").getDefinition(),
+                "Unknown directive should have no definition");
+    }
+
+    @Test
+    void setValueDoesNotChangeCatalog() {
+        IPhpIniDirective first = PhpIniDirective.getDirectiveByNameAndSetValue("bcmath.scale", "3");
+        IPhpIniDirective second = PhpIniDirective.getDirectiveByNameAndSetValue("bcmath.scale", "5");
+
+        assertNotSame(first, second, "Each call should create its own directive");
+        assertEquals("3", first.getValue(), "Value of the first directive should be kept");
+        assertEquals("5", second.getValue(), "Value of the second directive should be set");
+        assertEquals("0", PhpIniDirective.getCatalog().find("bcmath.scale").getDefaultValue(),
+                "Catalog should not be changed");
+    }
+
+    @Test
+    void typedValuesAreKeptAsPrimitives() {
+        IPhpIniDirective scale = PhpIniDirective.getDirectiveByNameAndSetValue("bcmath.scale", "3");
+        IPhpIniDirective latitude = PhpIniDirective.getDirectiveByNameAndSetValue("date.default_latitude", "31.7667");
+
+        assertEquals(PhpValueType.INT, scale.getValueType(), "Type should be taken from the catalog");
+        assertEquals(3, scale.getLong(), "Integer should be read as long");
+        assertEquals(3.0, scale.getDouble(), "Integer should be read as double");
+        assertEquals(3, scale.getRealValue(), "Real value should still be an Integer");
+        assertEquals(PhpValueType.FLOAT, latitude.getValueType(), "Type should be taken from the catalog");
+        assertEquals(31.7667, latitude.getDouble(), "Float should be read as double");
+        assertEquals(31, latitude.getLong(), "Float should be truncated");
+        assertEquals(31.7667f, latitude.getRealValue(), "Real value should still be a Float");
+        assertEquals(PhpValueType.BOOL, directive.getValueType(), "Type should be taken from the catalog");
+        assertFalse(directive.getBoolean(), "Boolean should be read");
+
+        directive.setValue("On");
+        assertTrue(directive.getBoolean(), "Boolean should be updated");
+        assertEquals(1, directive.getLong(), "True should be read as 1");
+        assertEquals(0, new PhpIniDirective("unknown_directive = 5", "PHP").getLong(),
+                "String should not be read as number");
+    }
+
+    @Test
+    void unparsedValueIsKept() {
+        IPhpIniDirective scale = PhpIniDirective.getDirectiveByNameAndSetValue("bcmath.scale", "many");
+
+        assertEquals("many", scale.getRealValue(), "Unparsed value should be kept");
+        assertEquals(0, scale.getLong(), "Unparsed value should be read as 0");
+        assertTrue(scale.getContent().startsWith("bcmath.scale = many"), "Unparsed value should be written");
+    }
+
+    @Test
+    void setTypeParsesValueAgain() {
+        IPhpIniDirective scale = PhpIniDirective.getDirectiveByNameAndSetValue("bcmath.scale", "3");
+
+        scale.setType("float");
+        assertEquals(PhpValueType.FLOAT, scale.getValueType(), "Type should be changed");
+        assertEquals(3.0, scale.getDouble(), "Value should be read as float");
+        assertEquals(3.0f, scale.getRealValue(), "Real value should be a Float");
+    }
+
+    @Test
+    void byteSizeIsChosenFromCatalog() {
+        IPhpIniDirective memoryLimit = new PhpIniDirective("memory_limit = 512M", "PHP");
+
+        assertEquals(PhpValueType.SIZE, memoryLimit.getValueType(), "Type should be taken from the catalog");
+        assertEquals(512L << 20, memoryLimit.getLong(), "Byte size should be read in bytes");
+        assertEquals("512M", memoryLimit.getValue(), "Value should be kept as written");
+        assertTrue(memoryLimit.getContent().startsWith("memory_limit = 512M"), "Shorthand should be written");
+
+        memoryLimit.setValue("-1");
+        assertEquals(-1, memoryLimit.getLong(), "No limit should be read");
+        assertTrue(memoryLimit.trySetRealValue(1L << 30), "Bytes should be set");
+        assertEquals("1G", memoryLimit.getValue(), "Bytes should be written with a shorthand");
+    }
+
+    @Test
+    void readingTypedValuesDoesNotAllocate() {
+        IPhpIniDirective latitude = PhpIniDirective.getDirectiveByNameAndSetValue("date.default_latitude", "31.7667");
+        IPhpIniDirective scale = PhpIniDirective.getDirectiveByNameAndSetValue("bcmath.scale", "3");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        double sum = read(latitude, scale, 10_000);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        sum += read(latitude, scale, 1_000_000);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(sum > 0, "Values should be read");
+        assertTrue(allocated < 64 * 1024, "Reading typed values should not box: " + allocated + " bytes");
+    }
+
+    private static double read(IPhpIniDirective latitude, IPhpIniDirective scale, int count) {
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += latitude.getDouble() + scale.getLong() + (directive.getBoolean() ? 1 : 0);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,159 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.hermannbsd.phpini.library.PhpIniDirective.getDirectiveByNameAndSetValue;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhpIniDocumentTest {
+
+    private static final String PHP_INI_FILE = "php.ini";
+
+    @TempDir
+    Path tempDir;
+
+    private Path phpIniPath;
+    private String original;
+    private PhpIni phpIni;
+
+    @BeforeEach
+    void setUp() throws URISyntaxException, IOException {
+        URL phpIniFile = getClass().getClassLoader().getResource(PHP_INI_FILE);
+        assertNotNull(phpIniFile, "PHP INI file not found in classpath");
+        original = Files.readString(Paths.get(phpIniFile.toURI()));
+        phpIniPath = tempDir.resolve(PHP_INI_FILE);
+        Files.writeString(phpIniPath, original);
+        phpIni = new PhpIni(phpIniPath.toString());
+    }
+
+    @Test
+    void saveWithoutChangesKeepsFile() throws IOException {
+        assertEquals(2088, phpIni.getDocument().size(), "Every line should be kept");
+        assertTrue(phpIni.save(), "File should be saved");
+        assertEquals(original, Files.readString(phpIniPath), "Unchanged file should be written as it was read");
+    }
+
+    @Test
+    void readSameLinesAsSplit() throws IOException {
+        // the carriage return of the second line ends the first read buffer
+        String content = "a=1\n" + "x".repeat(PhpIni.READ_BUFFER_SIZE - 5) + "\r\nb=2\rc=3\r\n\nd=4";
+        List<PhpIniDocumentLine> expected = PhpIniDocument.split(content);
+        List<PhpIniDocumentLine> actual = PhpIniDocument.read(new StringReader(content)).getLines();
+
+        assertEquals(expected.size(), actual.size(), "Reading should find as many lines as splitting");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getText(), actual.get(i).getText(), "Text of line " + i + " should match");
+            assertEquals(expected.get(i).getSeparator(), actual.get(i).getSeparator(), "Separator of line " + i + " should match");
+        }
+    }
+
+    @Test
+    void commentedDirectives() {
+        PhpIniDocumentLine extension = null;
+        int comments = 0;
+
+        for (PhpIniDocumentLine line : phpIni.getDocument().getLines()) {
+            if (line.getText().equals(";extension=php_intl.dll")) {
+                extension = line;
+            }
+            if (line.getText().startsWith("; ") && line.isCommentedDirective()) {
+                comments++;
+            }
+        }
+
+        assertNotNull(extension, "Commented-out directive should be kept");
+        assertTrue(extension.isCommentedDirective(), "Line should be a commented-out directive");
+        assertNull(extension.getDirective(), "Commented-out directive should not be part of the model");
+        assertTrue(comments < 50, "Prose comments should not be commented-out directives");
+    }
+
+    @Test
+    void updateChangesOnlyItsLine() throws IOException {
+        assertTrue(phpIni.updateDirective("memory_limit", "512M"), "Directive should be updated");
+        assertTrue(phpIni.save(), "File should be saved");
+
+        List<String> changed = diff(original, Files.readString(phpIniPath));
+        assertEquals(List.of("memory_limit = 512M"), changed, "Only the changed line should differ");
+        assertEquals("512M", new PhpIni(phpIniPath.toString()).getDirective("memory_limit").getValue(),
+                "Value should be saved");
+    }
+
+    @Test
+    void updateKeepsTrailingComment() throws IOException {
+        Path path = tempDir.resolve("comment.ini");
+        Files.writeString(path, "[PHP]\nprecision   =  14 ; digits\nserialize_precision\n");
+        PhpIni commented = new PhpIni(path.toString());
+
+        commented.updateDirective("precision", "17");
+        commented.updateDirective("serialize_precision", "-1");
+        assertTrue(commented.save(), "File should be saved");
+        assertEquals("[PHP]\nprecision   =  17 ; digits\nserialize_precision = -1\n", Files.readString(path),
+                "Only the values should be replaced");
+    }
+
+    @Test
+    void addAndRemoveDirectives() throws IOException {
+        IPhpIniDirective directive = getDirectiveByNameAndSetValue("test_directive", "test_value");
+        IPhpIniSection session = new PhpIniSection("test_section");
+        session.tryAddDirective(new PhpIniDirective("other_directive = 1", "test_section"));
+
+        assertTrue(phpIni.getIni().get(phpIni.getIni().size() - 2).tryAddDirective(directive), "Directive should be added");
+        assertTrue(phpIni.addSection(session), "Section should be added");
+        assertTrue(phpIni.removeDirective("short_open_tag"), "Directive should be removed");
+        assertTrue(phpIni.save(), "File should be saved");
+
+        String saved = Files.readString(phpIniPath);
+        assertFalse(saved.contains("\nshort_open_tag = Off\n"), "Removed directive should be dropped");
+        assertTrue(saved.contains("; http://php.net/short-open-tag\n; XAMPP for Linux"),
+                "Comments around the removed directive should be kept");
+        assertTrue(saved.contains("\ntest_directive = test_value\n"), "Added directive should be written");
+        assertTrue(saved.endsWith("\n[test_section]\nother_directive = 1\n"), "Added section should be appended");
+        assertEquals(original.length() - "short_open_tag = Off\n".length()
+                        + "test_directive = test_value\n\n[test_section]\nother_directive = 1\n".length(),
+                saved.length(), "No other line should change");
+
+        PhpIni reloaded = new PhpIni(phpIniPath.toString());
+        assertEquals("test_value", reloaded.getDirective("test_directive").getValue(), "Added directive should be loaded");
+        assertEquals("1", reloaded.getDirective("other_directive").getValue(), "Added section should be loaded");
+    }
+
+    @Test
+    void removeSectionDropsItsLines() throws IOException {
+        assertTrue(phpIni.removeSection("CLI Server"), "Section should be removed");
+        assertTrue(phpIni.save(), "File should be saved");
+
+        String saved = Files.readString(phpIniPath);
+        assertFalse(saved.contains("[CLI Server]"), "Section line should be dropped");
+        assertTrue(saved.contains("[Date]"), "Next section should be kept");
+        assertTrue(saved.startsWith(original.substring(0, original.indexOf("[CLI Server]"))),
+                "Lines before the section should be kept");
+    }
+
+    private static List<String> diff(String expected, String actual) {
+        String[] expectedLines = expected.split("\r?\n", -1);
+        String[] actualLines = actual.split("\r?\n", -1);
+        assertEquals(expectedLines.length, actualLines.length, "Number of lines should match");
+
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < expectedLines.length; i++) {
+            if (!expectedLines[i].equals(actualLines[i])) {
+                result.add(actualLines[i]);
+            }
+        }
+        return result;
+    }
+}
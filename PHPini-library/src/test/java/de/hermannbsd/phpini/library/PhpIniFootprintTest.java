@@ -0,0 +1,133 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures the heap retained by the directives of a parsed file, estimating the object layout the way JOL does
+ * for a 64-bit JVM with compressed references: 12 byte headers, 4 byte references and 8 byte alignment.
+ */
+class PhpIniFootprintTest {
+
+    private static final String PHP_INI_FILE = "php.ini";
+    private static final int HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final Logger logger = LoggerFactory.getLogger(PhpIniFootprintTest.class);
+
+    @Test
+    void retainedBytesPerDirective() throws URISyntaxException, IOException {
+        URL phpIniFile = getClass().getClassLoader().getResource(PHP_INI_FILE);
+        assertNotNull(phpIniFile, "PHP INI file not found in classpath");
+        PhpIni phpIni = new PhpIni(Paths.get(phpIniFile.toURI()).toString(), false);
+
+        // the catalog is shared by every file, so it is not part of the footprint of one
+        Set<Object> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+        retainedBytes(PhpIniDirective.getCatalog(), shared);
+
+        Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        seen.addAll(shared);
+        long total = 0;
+        int count = 0;
+        for (IPhpIniSection section : phpIni.getIni()) {
+            for (IPhpIniDirective directive : section.getDirectives()) {
+                total += retainedBytes(directive, seen);
+                count++;
+            }
+        }
+
+        assertTrue(count > 0, "Directives should be loaded");
+        long perDirective = total / count;
+        logger.info("Retained bytes per directive: {} ({} directives, {} bytes)", perDirective, count, total);
+        assertTrue(perDirective < 256, "Directives should not copy the catalog metadata: " + perDirective);
+    }
+
+    /**
+     * Estimate the bytes of the objects reachable from the given root which are not in the seen set yet.
+     */
+    static long retainedBytes(Object root, Set<Object> seen) {
+        long total = 0;
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+
+        while (!pending.isEmpty()) {
+            Object object = pending.pop();
+            if (object instanceof Class || object instanceof Enum || !seen.add(object)) {
+                continue;
+            }
+            Class<?> type = object.getClass();
+            if (object instanceof String string) {
+                total += align(HEADER + 4 + 2 + REFERENCE) + align(ARRAY_HEADER + (long) string.length());
+            } else if (type.isArray()) {
+                int length = Array.getLength(object);
+                total += align(ARRAY_HEADER + (long) length * sizeOf(type.getComponentType()));
+                if (!type.getComponentType().isPrimitive()) {
+                    for (int i = 0; i < length; i++) {
+                        push(pending, Array.get(object, i));
+                    }
+                }
+            } else {
+                long size = HEADER;
+                for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                    for (Field field : c.getDeclaredFields()) {
+                        if (Modifier.isStatic(field.getModifiers())) {
+                            continue;
+                        }
+                        size += sizeOf(field.getType());
+                        if (!field.getType().isPrimitive() && field.trySetAccessible()) {
+                            try {
+                                push(pending, field.get(object));
+                            } catch (IllegalAccessException e) {
+                                // count the reference only
+                            }
+                        }
+                    }
+                }
+                total += align(size);
+            }
+        }
+
+        return total;
+    }
+
+    private static void push(Deque<Object> pending, Object object) {
+        if (object != null) {
+            pending.push(object);
+        }
+    }
+
+    private static int sizeOf(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        } else if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return REFERENCE;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
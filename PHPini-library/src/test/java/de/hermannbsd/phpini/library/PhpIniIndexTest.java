@@ -0,0 +1,159 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.enums.ParseMode;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static de.hermannbsd.phpini.library.PhpIniDirective.getDirectiveByNameAndSetValue;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhpIniIndexTest {
+
+    private static final int DIRECTIVES_PER_SECTION = 100;
+    private static final int SMALL_SECTIONS = 5_000;
+    private static final int LOOKUPS = 10_000;
+    private static final Logger logger = LoggerFactory.getLogger(PhpIniIndexTest.class);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void indexFollowsChanges() throws IOException {
+        PhpIni phpIni = load(300, ParseMode.STREAMING);
+
+        assertTrue(phpIni.containsSection("SECTION1"), "Section should be found ignoring case");
+        assertEquals("section1", phpIni.getDirective("EXT1.DIRECTIVE_150").getSection(),
+                "Directive should be found in its section");
+
+        IPhpIniDirective added = new PhpIniDirective("ext9.added = 1", "section2");
+        assertTrue(phpIni.addDirective(added), "Directive should be added");
+        assertSame(added, phpIni.getDirective("ext9.added"), "Added directive should be found");
+        assertFalse(phpIni.addDirective(added), "Directive should only be added once");
+
+        assertTrue(phpIni.updateDirective("ext0.directive_5", "changed"), "Directive should be updated");
+        assertEquals("changed", phpIni.getDirective("ext0.directive_5").getValue(), "Value should be updated");
+
+        assertTrue(phpIni.removeDirective("ext9.added"), "Directive should be removed");
+        assertFalse(phpIni.containsDirective("ext9.added"), "Removed directive should not be found");
+
+        assertTrue(phpIni.removeSection("section1"), "Section should be removed");
+        assertFalse(phpIni.containsSection("section1"), "Removed section should not be found");
+        assertFalse(phpIni.containsDirective("ext1.directive_150"), "Directives of the section should be removed");
+        assertTrue(phpIni.containsDirective("ext2.directive_250"), "Other sections should be kept");
+    }
+
+    @Test
+    void indexNoticesDirectChanges() throws IOException {
+        PhpIni phpIni = load(200, ParseMode.STREAMING);
+        IPhpIniSection section = phpIni.getIni().get(0);
+
+        IPhpIniDirective directive = getDirectiveByNameAndSetValue("ext9.direct", "1");
+        assertTrue(section.tryAddDirective(directive), "Directive should be added to the section");
+        assertSame(directive, phpIni.getDirective("ext9.direct"), "Directive added to the section should be found");
+
+        section.getDirectives().clear();
+        assertFalse(phpIni.containsDirective("ext0.directive_1"), "Directives cleared in the section should be gone");
+        assertTrue(phpIni.containsDirective("ext1.directive_101"), "Other sections should be kept");
+
+        IPhpIniSection added = new PhpIniSection("extra");
+        phpIni.getIni().add(added);
+        assertTrue(phpIni.containsSection("EXTRA"), "Section added to the list should be found");
+    }
+
+    @Test
+    void lazyIndexDoesNotBuildDirectives() throws IOException {
+        PhpIni phpIni = load(300, ParseMode.LAZY);
+
+        assertTrue(phpIni.containsDirective("ext2.directive_299"), "Directive should be found");
+        assertTrue(phpIni.removeDirective("ext1.directive_100"), "Directive should be removed");
+        assertFalse(phpIni.containsDirective("ext1.directive_100"), "Removed directive should not be found");
+
+        int built = 0;
+        for (IPhpIniSection section : phpIni.getIni()) {
+            built += ((LazyPhpIniSection) section).getMaterializedCount();
+        }
+        assertEquals(0, built, "Lookups should not build directives");
+    }
+
+    @Test
+    void loadAndLookupTimePerDirectiveCount() throws IOException {
+        for (int count : new int[]{1_000, 4_000, 16_000}) {
+            long start = System.nanoTime();
+            PhpIni phpIni = load(count, ParseMode.STREAMING);
+            long load = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                int directive = (i * 7919) % count;
+                assertNotNull(phpIni.getDirective(name(directive)), "Directive should be found");
+            }
+            long lookup = (System.nanoTime() - start) / LOOKUPS;
+
+            logger.info("{} directives: load {} ms, lookup {} ns", count, load / 1_000_000, lookup);
+        }
+    }
+
+    @Test
+    void manySmallSectionsStayConsistent() throws IOException {
+        for (ParseMode parseMode : new ParseMode[]{ParseMode.STREAMING, ParseMode.LAZY}) {
+            PhpIni phpIni = load(SMALL_SECTIONS * 2, 2, parseMode);
+            assertEquals(SMALL_SECTIONS, phpIni.getIni().size(), "Every section should be loaded");
+            assertTrue(phpIni.containsDirective(name(SMALL_SECTIONS * 2 - 1, 2)), "Last directive should be found");
+
+            IPhpIniSection first = phpIni.getIni().get(0);
+            IPhpIniDirective replacement = getDirectiveByNameAndSetValue("ext9.replaced", "1");
+            first.getDirectives().set(0, replacement);
+            assertFalse(phpIni.containsDirective(name(0, 2)), "Replaced directive should be gone");
+            assertSame(replacement, phpIni.getDirective("ext9.replaced"), "Replacing directive should be found");
+
+            IPhpIniSection last = phpIni.getIni().get(SMALL_SECTIONS - 1);
+            last.getDirectives().remove(1);
+            assertFalse(phpIni.containsDirective(name(SMALL_SECTIONS * 2 - 1, 2)), "Removed directive should be gone");
+            assertTrue(phpIni.containsDirective(name(SMALL_SECTIONS * 2 - 2, 2)), "Other directive should be kept");
+
+            phpIni.getIni().set(1, new PhpIniSection("other"));
+            assertFalse(phpIni.containsSection("section1"), "Replaced section should be gone");
+            assertFalse(phpIni.containsDirective(name(2, 2)), "Directives of the replaced section should be gone");
+            assertTrue(phpIni.containsSection("OTHER"), "Replacing section should be found");
+
+            phpIni.getIni().remove(2);
+            assertFalse(phpIni.containsDirective(name(4, 2)), "Directives of the removed section should be gone");
+            assertTrue(phpIni.addDirective(new PhpIniDirective(name(4, 2) + " = 1", "other")),
+                    "Name of the removed section should be free again");
+        }
+    }
+
+    private PhpIni load(int directives, ParseMode parseMode) throws IOException {
+        return load(directives, DIRECTIVES_PER_SECTION, parseMode);
+    }
+
+    private PhpIni load(int directives, int perSection, ParseMode parseMode) throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < directives; i++) {
+            if (i % perSection == 0) {
+                content.append("[section").append(i / perSection).append("]\n");
+            }
+            content.append(name(i, perSection)).append(" = ").append(i).append('\n');
+        }
+
+        Path file = tempDir.resolve("php" + directives + "_" + perSection + parseMode + ".ini");
+        Files.writeString(file, content);
+        return new PhpIni(file.toString(), parseMode, false);
+    }
+
+    private static String name(int directive) {
+        return name(directive, DIRECTIVES_PER_SECTION);
+    }
+
+    private static String name(int directive, int perSection) {
+        return "ext" + directive / perSection + ".directive_" + directive;
+    }
+}
@@ -0,0 +1,125 @@
+package de.hermannbsd.phpini.library;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhpIniLoadBenchmarkTest {
+
+    private static final String PHP_INI_FILE = "php.ini";
+    private static final int ITERATIONS = 5;
+    private static final Logger logger = LoggerFactory.getLogger(PhpIniLoadBenchmarkTest.class);
+
+    private Path phpIniPath;
+
+    @BeforeEach
+    void setUp() throws URISyntaxException {
+        URL phpIniFile = getClass().getClassLoader().getResource(PHP_INI_FILE);
+        assertNotNull(phpIniFile, "PHP INI file not found in classpath");
+        phpIniPath = Paths.get(phpIniFile.toURI());
+    }
+
+    @Test
+    void bytesReadOncePerFile() throws IOException {
+        long fileSize = Files.size(phpIniPath);
+
+        PhpIni withContent = new PhpIni(phpIniPath.toString());
+        PhpIni withoutContent = new PhpIni(phpIniPath.toString(), false);
+
+        assertEquals(fileSize, withContent.getBytesRead(), "File should be read exactly once");
+        assertEquals(fileSize, withoutContent.getBytesRead(), "File should be read exactly once");
+        logger.info("Bytes read per file: {} (two-pass loader: {})", fileSize, 2 * fileSize);
+    }
+
+    @Test
+    void fileContentOnlyKeptOnRequest() throws IOException {
+        PhpIni withContent = new PhpIni(phpIniPath.toString());
+        PhpIni withoutContent = new PhpIni(phpIniPath.toString(), false);
+
+        assertEquals(Files.readString(phpIniPath), withContent.getFileContent(), "File content should be kept unchanged");
+        assertNull(withoutContent.getFileContent(), "File content should not be kept");
+        assertEquals(withContent.getIni().size(), withoutContent.getIni().size(), "Both loaders should build the same sections");
+    }
+
+    @Test
+    void heapPerFile() throws IOException {
+        Heap twoReads = measureHeap(() -> {
+            // the reads of the former loader, before it built a single directive
+            String content = new String(Files.readAllBytes(phpIniPath), StandardCharsets.UTF_8);
+            List<String> lines = Files.readAllLines(phpIniPath);
+            assertFalse(content.isEmpty() || lines.isEmpty(), "File should be read");
+            return List.of(content, lines);
+        });
+        Heap withContent = measureHeap(() -> load(true));
+        Heap withoutContent = measureHeap(() -> load(false));
+
+        // the numbers depend on the JVM and its collector, so they are reported and not compared
+        logger.info("Peak heap per file: {} with content, {} without content, {} for the two reads of the former "
+                + "loader", withContent.peak, withoutContent.peak, twoReads.peak);
+        logger.info("Retained heap per file: {} with content, {} without content, {} for the two reads of the "
+                + "former loader", withContent.retained, withoutContent.retained, twoReads.retained);
+    }
+
+    private PhpIni load(boolean keepFileContent) throws IOException {
+        PhpIni phpIni = new PhpIni(phpIniPath.toString(), keepFileContent);
+        assertFalse(List.copyOf(phpIni.getIni()).isEmpty(), "Sections should be loaded");
+        return phpIni;
+    }
+
+    // the smallest numbers of a run, so class loading and warm-up of the first runs are not counted
+    private static Heap measureHeap(Load action) throws IOException {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pools.add(pool);
+            }
+        }
+
+        long peak = Long.MAX_VALUE;
+        long retained = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long before = usedHeap();
+            pools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            Object result = action.run();
+            long peakUsed = 0;
+            for (MemoryPoolMXBean pool : pools) {
+                peakUsed += pool.getPeakUsage().getUsed();
+            }
+            long after = usedHeap();
+            assertNotNull(result, "Result should be kept until the heap is measured");
+            peak = Math.min(peak, Math.max(0, peakUsed - before));
+            retained = Math.min(retained, Math.max(0, after - before));
+        }
+
+        return new Heap(peak, retained);
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private record Heap(long peak, long retained) {
+    }
+
+    @FunctionalInterface
+    private interface Load {
+        Object run() throws IOException;
+    }
+}
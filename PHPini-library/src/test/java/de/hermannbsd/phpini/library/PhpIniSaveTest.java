@@ -0,0 +1,274 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.enums.ParseMode;
+import de.hermannbsd.phpini.library.enums.SaveMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhpIniSaveTest {
+
+    private static final String PHP_INI_FILE = "php.ini";
+
+    @TempDir
+    Path tempDir;
+
+    private Path phpIniPath;
+    private String original;
+    private PhpIni phpIni;
+
+    @BeforeEach
+    void setUp() throws URISyntaxException, IOException {
+        URL phpIniFile = getClass().getClassLoader().getResource(PHP_INI_FILE);
+        assertNotNull(phpIniFile, "PHP INI file not found in classpath");
+        original = Files.readString(Paths.get(phpIniFile.toURI()));
+        phpIniPath = tempDir.resolve(PHP_INI_FILE);
+        Files.writeString(phpIniPath, original);
+        phpIni = new PhpIni(phpIniPath.toString());
+    }
+
+    @Test
+    void unchangedWritesNothing() throws IOException {
+        assertTrue(phpIni.save(), "File should be saved");
+        assertEquals(0, phpIni.getBytesWritten(), "Nothing should be written");
+        assertEquals(original, Files.readString(phpIniPath), "File should be unchanged");
+    }
+
+    @Test
+    void sameLengthIsPatchedInPlace() throws IOException {
+        Object key = Files.readAttributes(phpIniPath, BasicFileAttributes.class).fileKey();
+
+        phpIni.updateDirective("memory_limit", "256M");
+        assertTrue(phpIni.save(), "File should be saved");
+
+        assertEquals("memory_limit = 256M\n".length(), phpIni.getBytesWritten(), "Only the changed line should be written");
+        assertEquals(0, phpIni.getBytesCopied(), "Nothing should be copied");
+        assertEquals(original.replace("memory_limit = 128M", "memory_limit = 256M"), Files.readString(phpIniPath),
+                "Only the value should change");
+        assertEquals(key, Files.readAttributes(phpIniPath, BasicFileAttributes.class).fileKey(),
+                "File should be patched in place");
+    }
+
+    @Test
+    void everyParseModeKeepsComments() throws IOException {
+        phpIni.updateDirective("memory_limit", "256M");
+        phpIni.removeDirective("short_open_tag");
+        assertTrue(phpIni.save(), "File should be saved");
+        String expected = Files.readString(phpIniPath);
+
+        for (ParseMode parseMode : ParseMode.values()) {
+            Files.writeString(phpIniPath, original);
+            PhpIni loaded = new PhpIni(phpIniPath.toString(), parseMode, true);
+            assertNotNull(loaded.getDocument(), "Lines should be kept in mode " + parseMode);
+            assertEquals(original, loaded.getFileContent(), "Content should be kept in mode " + parseMode);
+
+            loaded.updateDirective("memory_limit", "256M");
+            loaded.removeDirective("short_open_tag");
+            assertTrue(loaded.save(), "File should be saved in mode " + parseMode);
+            assertEquals(expected, Files.readString(phpIniPath), "Comments should be kept in mode " + parseMode);
+        }
+    }
+
+    @Test
+    void otherLengthIsSpliced() throws IOException {
+        phpIni.updateDirective("memory_limit", "1024M");
+        phpIni.updateDirective("precision", "16");
+        assertTrue(phpIni.save(), "File should be saved");
+
+        String expected = original.replace("memory_limit = 128M", "memory_limit = 1024M")
+                .replace("\nprecision = 14", "\nprecision = 16");
+        assertEquals(expected, Files.readString(phpIniPath), "Only the values should change");
+        assertTrue(phpIni.getBytesWritten() < expected.length() / 4, "Only the changed region should be written");
+        assertEquals(expected.length(), phpIni.getBytesWritten() + phpIni.getBytesCopied(), "The rest should be copied");
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count(), "No temporary file should be left");
+        }
+
+        phpIni.updateDirective("memory_limit", "2048M");
+        assertTrue(phpIni.save(), "File should be saved again");
+        assertEquals("memory_limit = 2048M\n".length(), phpIni.getBytesWritten(), "Only the changed line should be written");
+        assertEquals(expected.replace("1024M", "2048M"), Files.readString(phpIniPath), "Second save should patch the file");
+    }
+
+    @Test
+    void changedOnDiskIsWrittenCompletely() throws IOException {
+        Files.writeString(phpIniPath, original + "\n; appended");
+        phpIni.updateDirective("memory_limit", "256M");
+        assertTrue(phpIni.save(), "File should be saved");
+
+        assertEquals(original.length(), phpIni.getBytesWritten(), "Whole file should be written");
+        assertEquals(original.replace("memory_limit = 128M", "memory_limit = 256M"), Files.readString(phpIniPath),
+                "File should match the model");
+    }
+
+    @Test
+    void changedOnDiskWithSameSizeAndTimeIsWrittenCompletely() throws IOException {
+        FileTime time = Files.getLastModifiedTime(phpIniPath);
+        Files.writeString(phpIniPath, original.replace("precision = 14", "precision = 15"));
+        Files.setLastModifiedTime(phpIniPath, time);
+        phpIni.updateDirective("memory_limit", "256M");
+        assertTrue(phpIni.save(), "File should be saved");
+
+        assertEquals(original.length(), phpIni.getBytesWritten(), "Whole file should be written");
+        assertEquals(original.replace("memory_limit = 128M", "memory_limit = 256M"), Files.readString(phpIniPath),
+                "File should match the model");
+    }
+
+    @Test
+    void atomicSaveReplacesFile() throws IOException {
+        Object key = Files.readAttributes(phpIniPath, BasicFileAttributes.class).fileKey();
+        phpIni.setSaveMode(SaveMode.ATOMIC);
+
+        phpIni.updateDirective("memory_limit", "256M");
+        assertTrue(phpIni.save(), "File should be saved");
+
+        assertEquals(original.replace("memory_limit = 128M", "memory_limit = 256M"), Files.readString(phpIniPath),
+                "Only the value should change");
+        assertNotEquals(key, Files.readAttributes(phpIniPath, BasicFileAttributes.class).fileKey(),
+                "File should be replaced instead of written in place");
+        assertEquals("memory_limit = 256M\n".length(), phpIni.getBytesWritten(), "Only the changed line should be written");
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count(), "No temporary file should be left");
+        }
+
+        assertTrue(phpIni.save(), "Unchanged file should be saved");
+        assertEquals(0, phpIni.getBytesWritten(), "Nothing should be written");
+    }
+
+    @Test
+    void saveAllCommitsEveryFile() throws IOException {
+        List<PhpIni> phpInis = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Path path = tempDir.resolve("php" + i + ".ini");
+            Files.writeString(path, "[PHP]\nmemory_limit = 128M\n");
+            PhpIni other = new PhpIni(path.toString());
+            other.updateDirective("memory_limit", i + "M");
+            phpInis.add(other);
+        }
+        phpInis.add(phpIni);
+
+        assertTrue(PhpIni.saveAll(phpInis), "All files should be saved");
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("[PHP]\nmemory_limit = " + i + "M\n", Files.readString(tempDir.resolve("php" + i + ".ini")),
+                    "File " + i + " should be saved");
+        }
+        assertEquals(original, Files.readString(phpIniPath), "Unchanged file should be kept");
+        try (var files = Files.list(tempDir)) {
+            assertEquals(5, files.count(), "No temporary file should be left");
+        }
+    }
+
+    @Test
+    void createdFileIsSavedAtomically() throws IOException {
+        PhpIni created = new PhpIni(null);
+        created.setSaveMode(SaveMode.ATOMIC);
+        created.addSection(new PhpIniSection("PHP"));
+        created.addDirective(new PhpIniDirective("memory_limit = 64M", "PHP"));
+
+        assertTrue(created.save(), "Created file should be saved");
+        assertTrue(created.getFileContent().contains("memory_limit = 64M"), "Directive should be saved");
+    }
+
+    @Test
+    void saverCoalescesUpdates() throws IOException {
+        try (PhpIniSaver saver = new PhpIniSaver(Duration.ofMillis(200), Duration.ofSeconds(10))) {
+            CompletableFuture<Boolean> first = null;
+
+            for (int i = 1; i <= 20; i++) {
+                synchronized (phpIni) {
+                    phpIni.updateDirective("memory_limit", i + "M");
+                }
+                CompletableFuture<Boolean> future = saver.save(phpIni);
+                if (first == null) {
+                    first = future;
+                }
+                assertSame(first, future, "Saves in the window should share one future");
+            }
+
+            assertEquals(original, Files.readString(phpIniPath), "Nothing should be written before the window closes");
+            assertTrue(first.join(), "File should be saved");
+            assertEquals(original.replace("memory_limit = 128M", "memory_limit = 20M"), Files.readString(phpIniPath),
+                    "Last value should be written");
+            assertEquals("memory_limit = 20M\n".length(), phpIni.getBytesWritten(), "File should be written once");
+
+            CompletableFuture<Boolean> next = saver.save(phpIni);
+            assertNotSame(first, next, "A save after the write should open a new window");
+            assertTrue(next.join(), "Unchanged file should be saved");
+        }
+    }
+
+    @Test
+    void saverRestartsWindow() throws IOException, InterruptedException {
+        try (PhpIniSaver saver = new PhpIniSaver(Duration.ofMillis(500), Duration.ofSeconds(10))) {
+            phpIni.updateDirective("memory_limit", "256M");
+            CompletableFuture<Boolean> first = saver.save(phpIni);
+
+            Thread.sleep(300);
+            assertSame(first, saver.save(phpIni), "Save in the window should share the future");
+            Thread.sleep(300);
+
+            assertFalse(first.isDone(), "Save should wait for the window restarted by the last request");
+            assertEquals(original, Files.readString(phpIniPath), "Nothing should be written before the window closes");
+            assertTrue(first.join(), "File should be saved");
+            assertEquals(original.replace("memory_limit = 128M", "memory_limit = 256M"), Files.readString(phpIniPath),
+                    "Value should be written");
+        }
+    }
+
+    @Test
+    void saverWritesAfterMaxDelay() throws IOException, InterruptedException {
+        try (PhpIniSaver saver = new PhpIniSaver(Duration.ofMillis(200), Duration.ofMillis(500))) {
+            phpIni.updateDirective("memory_limit", "256M");
+            long start = System.nanoTime();
+            CompletableFuture<Boolean> first = saver.save(phpIni);
+
+            // keep restarting the window, the maximum delay still ends it
+            while (!first.isDone() && System.nanoTime() - start < Duration.ofSeconds(5).toNanos()) {
+                saver.save(phpIni);
+                Thread.sleep(50);
+            }
+
+            assertTrue(first.isDone(), "Save should be written after the maximum delay");
+            assertTrue(first.join(), "File should be saved");
+        }
+    }
+
+    @Test
+    void saverFlushAndCloseWriteNow() throws IOException {
+        PhpIniSaver saver = new PhpIniSaver(Duration.ofHours(1), Duration.ofHours(1));
+        phpIni.updateDirective("memory_limit", "256M");
+        CompletableFuture<Boolean> future = saver.save(phpIni);
+
+        saver.flush().join();
+
+        assertTrue(future.isDone(), "Pending save should be written");
+        assertTrue(future.join(), "File should be saved");
+        assertEquals(original.replace("memory_limit = 128M", "memory_limit = 256M"), Files.readString(phpIniPath),
+                "Value should be written");
+
+        phpIni.updateDirective("memory_limit", "512M");
+        CompletableFuture<Boolean> pending = saver.save(phpIni);
+        saver.close();
+
+        assertTrue(pending.join(), "Close should write the pending save");
+        assertEquals(original.replace("memory_limit = 128M", "memory_limit = 512M"), Files.readString(phpIniPath),
+                "Value should be written on close");
+        assertThrows(IllegalStateException.class, () -> saver.save(phpIni), "Closed saver should reject saves");
+    }
+}
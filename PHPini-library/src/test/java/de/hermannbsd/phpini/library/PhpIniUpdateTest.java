@@ -0,0 +1,213 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhpIniUpdateTest {
+
+    private static final String CONTENT = "; comment\r\n[PHP]\r\nengine = On\r\nprecision = 14\r\n\r\n"
+            + "[Date]\r\ndate.timezone = UTC\r\nprecision = 10\r\n[Session]\r\nsession.name = PHPSESSID";
+
+    @TempDir
+    Path tempDir;
+
+    private Path phpIniPath;
+    private PhpIni phpIni;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        phpIniPath = tempDir.resolve("php.ini");
+        Files.writeString(phpIniPath, CONTENT);
+        phpIni = new PhpIni(phpIniPath.toString());
+    }
+
+    @Test
+    void documentKeepsContent() {
+        assertNotNull(phpIni.getDocument(), "Document should be kept");
+        assertEquals(10, phpIni.getDocument().size(), "Number of lines should match");
+        assertEquals(CONTENT, phpIni.getFileContent(), "Content should be reproduced exactly");
+    }
+
+    @Test
+    void unchangedContent() {
+        IPhpIniDirective engine = phpIni.getDirective("engine");
+
+        assertFalse(phpIni.update(CONTENT), "Same content should not change anything");
+        assertSame(engine, phpIni.getDirective("engine"), "Directive should keep its identity");
+    }
+
+    @Test
+    void valueChangeKeepsOtherDirectives() throws IOException {
+        IPhpIniDirective engine = phpIni.getDirective("engine");
+        IPhpIniDirective timezone = phpIni.getDirective("date.timezone");
+        IPhpIniDirective precision = phpIni.getDirective("precision");
+
+        assertTrue(phpIni.update(CONTENT.replace("precision = 14", "precision = 16")), "Content should change");
+
+        assertSame(engine, phpIni.getDirective("engine"), "Unchanged directive should keep its identity");
+        assertSame(timezone, phpIni.getDirective("date.timezone"), "Unchanged directive should keep its identity");
+        assertNotSame(precision, phpIni.getDirective("precision"), "Changed directive should be built again");
+        assertEquals("16", phpIni.getDirective("precision").getValue(), "Changed value should be applied");
+        assertEquals(describe(load(phpIni.getFileContent())), describe(phpIni), "Model should match a fresh load");
+    }
+
+    @Test
+    void insertAndRemoveLines() throws IOException {
+        String inserted = CONTENT.replace("engine = On\r\n", "engine = On\r\nshort_open_tag = Off\r\n");
+        assertTrue(phpIni.update(inserted), "Content should change");
+        assertEquals(List.of("engine", "short_open_tag", "precision"), names(phpIni.getIni().get(0)),
+                "Directive should be inserted at its line position");
+        assertEquals(describe(load(inserted)), describe(phpIni), "Model should match a fresh load");
+
+        assertTrue(phpIni.update(CONTENT.replace("engine = On\r\n", "")), "Content should change");
+        assertFalse(phpIni.containsDirective("engine"), "Removed line should remove the directive");
+        assertFalse(phpIni.containsDirective("short_open_tag"), "Removed line should remove the directive");
+        assertEquals(List.of("precision"), names(phpIni.getIni().get(0)), "Other directives should be kept");
+    }
+
+    @Test
+    void duplicatesFollowFirstOccurrence() throws IOException {
+        String withoutFirst = CONTENT.replace("precision = 14\r\n", "");
+        assertTrue(phpIni.update(withoutFirst), "Content should change");
+        assertEquals("10", phpIni.getDirective("precision").getValue(), "Later duplicate should win");
+        assertEquals("Date", phpIni.getDirective("precision").getSection(), "Later duplicate should win");
+        assertEquals(describe(load(withoutFirst)), describe(phpIni), "Model should match a fresh load");
+
+        assertTrue(phpIni.update(CONTENT), "Content should change");
+        assertEquals("14", phpIni.getDirective("precision").getValue(), "First occurrence should win again");
+        assertEquals(describe(load(CONTENT)), describe(phpIni), "Model should match a fresh load");
+    }
+
+    @Test
+    void sectionChangeStitchesModel() throws IOException {
+        IPhpIniDirective engine = phpIni.getDirective("engine");
+        IPhpIniSection session = phpIni.getIni().get(2);
+        IPhpIniDirective sessionName = phpIni.getDirective("session.name");
+        String renamed = CONTENT.replace("[Date]", "[date_renamed]");
+
+        assertTrue(phpIni.update(renamed), "Content should change");
+        assertEquals(describe(load(renamed)), describe(phpIni), "Model should match a fresh load");
+        assertSame(engine, phpIni.getDirective("engine"), "Directive of an unchanged section should keep its identity");
+        assertSame(session, phpIni.getIni().get(2), "Unchanged section should keep its identity");
+        assertSame(sessionName, phpIni.getDirective("session.name"), "Directive of an unchanged section should keep its identity");
+        assertEquals("date_renamed", phpIni.getDirective("date.timezone").getSection(), "Moved directive should get the new section");
+
+        String merged = CONTENT.replace("[Session]\r\n", "");
+        assertTrue(phpIni.update(merged), "Content should change");
+        assertEquals(describe(load(merged)), describe(phpIni), "Model should match a fresh load");
+    }
+
+    @Test
+    void applyEdits() throws IOException {
+        IPhpIniDirective engine = phpIni.getDirective("engine");
+        int offset = CONTENT.indexOf("UTC");
+        List<TextEdit> edits = List.of(
+                new TextEdit(offset, 3, "Europe/Berlin"),
+                new TextEdit(0, 0, "; header\r\n"));
+
+        assertTrue(phpIni.applyEdits(edits), "Edits should be applied");
+        assertEquals("; header\r\n" + CONTENT.replace("UTC", "Europe/Berlin"), phpIni.getFileContent(), "Content should be edited");
+        assertEquals("Europe/Berlin", phpIni.getDirective("date.timezone").getValue(), "Edited value should be applied");
+        assertSame(engine, phpIni.getDirective("engine"), "Unchanged directive should keep its identity");
+
+        assertFalse(phpIni.applyEdits(List.of(new TextEdit(0, 5, ""), new TextEdit(2, 1, ""))), "Overlapping edits should fail");
+        assertFalse(phpIni.applyEdits(List.of(new TextEdit(0, Integer.MAX_VALUE / 2, ""))), "Edit after the end should fail");
+    }
+
+    @Test
+    void randomEditsMatchFreshLoad() throws IOException {
+        String[] candidates = {"engine = Off", "precision = 12", "[Date]", "[PHP]", "; note", "", "date.timezone = UTC",
+                "session.name = ID", "short_open_tag = On", "[Session]", "invalid line"};
+        Random random = new Random(42);
+        List<String> lines = new ArrayList<>(List.of(CONTENT.split("\r\n")));
+
+        for (int i = 0; i < 200; i++) {
+            int index = random.nextInt(lines.size() + 1);
+            if (random.nextBoolean() || lines.isEmpty()) {
+                lines.add(index, candidates[random.nextInt(candidates.length)]);
+            } else {
+                lines.remove(Math.min(index, lines.size() - 1));
+            }
+
+            String content = String.join("\n", lines);
+            phpIni.update(content);
+            assertEquals(content, phpIni.getFileContent(), "Content should match after edit " + i);
+            assertEquals(describe(load(content)), describe(phpIni), "Model should match a fresh load after edit " + i);
+        }
+    }
+
+    @Test
+    void editsAcrossLineBreaks() throws IOException {
+        assertTrue(phpIni.update("[PHP]\rx\nengine = On\nprecision = 14"), "Content should change");
+
+        assertTrue(phpIni.applyEdits(List.of(new TextEdit(6, 1, ""))), "Line should be removed");
+        assertEquals(List.of("[PHP]", "engine = On", "precision = 14"),
+                phpIni.getDocument().getLines().stream().map(PhpIniDocumentLine::getText).toList(),
+                "Carriage return and line feed should end one line");
+
+        assertTrue(phpIni.applyEdits(List.of(new TextEdit(18, 1, " ; "))), "Lines should be joined");
+        assertEquals("[PHP]\r\nengine = On ; precision = 14", phpIni.getFileContent(), "Content should be edited");
+        assertEquals(2, phpIni.getDocument().size(), "Joined lines should be one line");
+        assertNull(phpIni.getDirective("precision"), "Directive of the joined line should be a comment");
+    }
+
+    @Test
+    void randomTextEditsMatchFreshLoad() throws IOException {
+        String[] replacements = {"", "\r", "\n", "\r\n", "x", " = 1", "[Date]", "; note\n", "precision = 9\r\n",
+                "engine"};
+        Random random = new Random(7);
+        String content = CONTENT;
+
+        for (int i = 0; i < 300; i++) {
+            int offset = random.nextInt(content.length() + 1);
+            int length = random.nextInt(Math.min(6, content.length() - offset) + 1);
+            String replacement = replacements[random.nextInt(replacements.length)];
+            String edited = content.substring(0, offset) + replacement + content.substring(offset + length);
+
+            assertEquals(!edited.equals(content), phpIni.applyEdits(List.of(new TextEdit(offset, length, replacement))),
+                    "Only changing edits should be reported after edit " + i);
+            content = edited;
+            assertEquals(content, phpIni.getFileContent(), "Content should match after edit " + i);
+            assertEquals(PhpIniDocument.split(content).size(), phpIni.getDocument().size(),
+                    "Lines should match a fresh split after edit " + i);
+            assertEquals(describe(load(content)), describe(phpIni), "Model should match a fresh load after edit " + i);
+        }
+    }
+
+    private PhpIni load(String content) throws IOException {
+        Path path = tempDir.resolve("expected.ini");
+        Files.writeString(path, content);
+        return new PhpIni(path.toString());
+    }
+
+    private static List<String> names(IPhpIniSection section) {
+        List<String> result = new ArrayList<>();
+        for (IPhpIniDirective directive : section.getDirectives()) {
+            result.add(directive.getName());
+        }
+        return result;
+    }
+
+    private static List<String> describe(PhpIni phpIni) {
+        List<String> result = new ArrayList<>();
+        for (IPhpIniSection section : phpIni.getIni()) {
+            result.add("section:" + section.getName());
+            for (IPhpIniDirective directive : section.getDirectives()) {
+                result.add(directive.getSection() + ": " + directive);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,67 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhpIniVersionTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path phpIniPath;
+    private PhpIni phpIni;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        phpIniPath = tempDir.resolve("php.ini");
+        Files.writeString(phpIniPath, "[PHP]\nallow_url_fopen = On\nassert.quiet_eval = 0\n"
+                + "unknown_extension.setting = 1\n[COM]\ncom.dotnet_version = 4.0\n");
+        phpIni = new PhpIni(phpIniPath.toString());
+    }
+
+    @Test
+    void parseVersion() {
+        assertEquals(new PhpVersion(8, 2, 0), PhpVersion.parse("8.2"), "Missing parts should be 0");
+        assertEquals("7.4.33", PhpVersion.parse(" 7.4.33 ").toString(), "Version should be trimmed");
+        assertTrue(PhpVersion.parse("8.10").compareTo(PhpVersion.parse("8.9.1")) > 0, "Parts should compare as numbers");
+        assertThrows(IllegalArgumentException.class, () -> PhpVersion.parse("8.x"), "Invalid version should fail");
+        assertThrows(IllegalArgumentException.class, () -> PhpVersion.parse("8.2.1.0"), "Too many parts should fail");
+    }
+
+    @Test
+    void validateAgainstVersion() {
+        assertEquals(List.of("com.dotnet_version"), names(phpIni.getInvalidDirectives(PhpVersion.parse("7.4"))),
+                "Directive added later should be invalid");
+        assertEquals(List.of("assert.quiet_eval"), names(phpIni.getInvalidDirectives(PhpVersion.parse("8.2"))),
+                "Removed directive should be invalid");
+        assertFalse(phpIni.isValidIn(PhpVersion.parse("8.4")), "File should not be valid");
+    }
+
+    @Test
+    void filterAgainstVersion() throws IOException {
+        assertEquals(1, phpIni.removeInvalidDirectives(PhpVersion.parse("8.2")), "Removed directive should be dropped");
+        assertTrue(phpIni.isValidIn(PhpVersion.parse("8.2")), "Filtered file should be valid");
+        assertTrue(phpIni.save(), "File should be saved");
+
+        assertEquals("[PHP]\nallow_url_fopen = On\nunknown_extension.setting = 1\n[COM]\ncom.dotnet_version = 4.0\n",
+                Files.readString(phpIniPath), "Only the invalid line should be dropped");
+    }
+
+    private static List<String> names(List<IPhpIniDirective> directives) {
+        List<String> result = new ArrayList<>();
+        for (IPhpIniDirective directive : directives) {
+            result.add(directive.getName());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,100 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.enums.ParseMode;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhpIniWriterTest {
+
+    private static final String PHP_INI_FILE = "php.ini";
+
+    @TempDir
+    Path tempDir;
+
+    private Path phpIniPath;
+    private String original;
+
+    @BeforeEach
+    void setUp() throws URISyntaxException, IOException {
+        URL phpIniFile = getClass().getClassLoader().getResource(PHP_INI_FILE);
+        assertNotNull(phpIniFile, "PHP INI file not found in classpath");
+        original = Files.readString(Paths.get(phpIniFile.toURI()));
+        phpIniPath = tempDir.resolve(PHP_INI_FILE);
+        Files.writeString(phpIniPath, original);
+    }
+
+    @Test
+    void exportKeptLines() throws IOException {
+        PhpIni phpIni = new PhpIni(phpIniPath.toString());
+        phpIni.updateDirective("memory_limit", "256M");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = phpIni.writeTo(out);
+
+        String expected = original.replace("memory_limit = 128M", "memory_limit = 256M");
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8), "Export should contain the changed lines");
+        assertEquals(expected.getBytes(StandardCharsets.UTF_8).length, written, "Written bytes should be counted");
+        assertEquals(original, Files.readString(phpIniPath), "Export should not change the file");
+    }
+
+    @Test
+    void exportRebuiltSections() throws IOException {
+        PhpIni phpIni = new PhpIni(phpIniPath.toString(), false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        phpIni.writeTo(out);
+
+        assertEquals(rebuilt(phpIni), out.toString(StandardCharsets.UTF_8), "Export should rebuild the sections");
+    }
+
+    @Test
+    void writeSectionsToWriter() throws IOException {
+        PhpIniSection section = new PhpIniSection("PHP");
+        section.tryAddDirective(new PhpIniDirective("engine = On", "PHP"));
+        StringWriter writer = new StringWriter();
+
+        new PhpIniWriter("\n").writeSections(List.of(section), writer);
+
+        assertEquals("[PHP]\n" + section.getDirectives().get(0).getContent() + "\n", writer.toString(),
+                "Section and directive should be written");
+    }
+
+    @Test
+    void saveStreamsRebuiltSections() throws IOException {
+        PhpIni phpIni = new PhpIni(phpIniPath.toString(), ParseMode.MEMORY_MAPPED, false);
+        String expected = rebuilt(phpIni);
+
+        assertTrue(phpIni.save(), "File should be saved");
+
+        assertEquals(expected, Files.readString(phpIniPath), "File should be rebuilt from the sections");
+        assertEquals(expected.getBytes(StandardCharsets.UTF_8).length, phpIni.getBytesWritten(), "Written bytes should be counted");
+        assertNull(phpIni.getFileContent(), "Content should not be kept");
+    }
+
+    private static String rebuilt(PhpIni phpIni) {
+        StringBuilder sb = new StringBuilder();
+        for (IPhpIniSection section : phpIni.getIni()) {
+            sb.append("[").append(section.getName()).append("]").append(System.lineSeparator());
+            for (IPhpIniDirective directive : section.getDirectives()) {
+                sb.append(directive.getContent()).append(System.lineSeparator());
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,179 @@
+package de.hermannbsd.phpini.library;
+
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedPhpIniTest {
+
+    private static final String PHP_INI_FILE = "php.ini";
+    private static final int BATCH = 40;
+    private static final int COMMITS = 2_000;
+    private static final int READERS = 4;
+
+    @TempDir
+    Path tempDir;
+
+    private Path phpIniPath;
+
+    @BeforeEach
+    void setUp() throws URISyntaxException, IOException {
+        URL phpIniFile = getClass().getClassLoader().getResource(PHP_INI_FILE);
+        assertNotNull(phpIniFile, "PHP INI file not found in classpath");
+        phpIniPath = tempDir.resolve(PHP_INI_FILE);
+        Files.writeString(phpIniPath, Files.readString(Paths.get(phpIniFile.toURI())));
+    }
+
+    @Test
+    void snapshotKeepsItsVersion() throws IOException {
+        VersionedPhpIni versioned = new VersionedPhpIni(phpIniPath.toString());
+        PhpIniSnapshot before = versioned.snapshot();
+
+        assertTrue(versioned.transaction(changes -> {
+            changes.updateDirective("memory_limit", "256M");
+            changes.removeDirective("short_open_tag");
+        }), "Transaction should be committed");
+        PhpIniSnapshot after = versioned.snapshot();
+
+        assertEquals(before.getVersion() + 1, after.getVersion(), "Commit should create a new version");
+        assertEquals("128M", before.getDirective("memory_limit").getValue(), "Old snapshot should keep its value");
+        assertTrue(before.containsDirective("short_open_tag"), "Old snapshot should keep its directives");
+        assertEquals("256M", after.getDirective("MEMORY_LIMIT").getValue(), "New snapshot should have the new value");
+        assertFalse(after.containsDirective("short_open_tag"), "New snapshot should not hold the removed directive");
+        assertThrows(UnsupportedOperationException.class, () -> after.getDirective("memory_limit").setValue("1G"),
+                "Directives of a snapshot should not change");
+
+        for (IPhpIniSection section : after.getIni()) {
+            boolean changed = section.getName().equals(after.getDirective("memory_limit").getSection());
+            assertEquals(!changed, section == before.getSection(section.getName()),
+                    "Only the changed section should be copied");
+        }
+    }
+
+    @Test
+    void invalidChangeCommitsNothing() throws IOException {
+        VersionedPhpIni versioned = new VersionedPhpIni(phpIniPath.toString());
+        PhpIniSnapshot before = versioned.snapshot();
+
+        assertFalse(versioned.transaction(changes -> {
+            assertTrue(changes.updateDirective("memory_limit", "256M"), "Valid change should be made");
+            assertEquals("256M", changes.getDirective("memory_limit").getValue(), "Transaction should see its changes");
+            assertFalse(changes.updateDirective("no_such_directive", "1"), "Invalid change should be rejected");
+        }), "Transaction should not be committed");
+
+        assertSame(before, versioned.snapshot(), "Snapshot should not change");
+        assertEquals("128M", versioned.getDirective("memory_limit").getValue(), "No change should be visible");
+    }
+
+    @Test
+    void rollbackAndExceptionCommitNothing() throws IOException {
+        VersionedPhpIni versioned = new VersionedPhpIni(phpIniPath.toString());
+        PhpIniSnapshot before = versioned.snapshot();
+
+        assertFalse(versioned.transaction(changes -> {
+            changes.addSection("Extra");
+            changes.rollback();
+        }), "Rolled back transaction should not be committed");
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> versioned.transaction(changes -> {
+            changes.addSection("Extra");
+            throw new IllegalStateException("aborted");
+        }), "Exception of the changes should be passed on");
+        assertEquals("aborted", thrown.getMessage(), "Exception of the changes should be passed on unchanged");
+
+        assertSame(before, versioned.snapshot(), "Snapshot should not change");
+        assertFalse(versioned.containsSection("Extra"), "Section should not be added");
+    }
+
+    @Test
+    void restoreMakesOldSnapshotCurrent() throws IOException {
+        VersionedPhpIni versioned = new VersionedPhpIni(phpIniPath.toString());
+        PhpIniSnapshot before = versioned.snapshot();
+
+        assertTrue(versioned.removeSection("PHP"), "Section should be removed");
+        assertFalse(versioned.containsDirective("memory_limit"), "Directives of the section should be removed");
+        versioned.restore(before);
+
+        assertEquals(before.getVersion() + 2, versioned.getVersion(), "Restore should create a new version");
+        assertEquals("128M", versioned.getDirective("memory_limit").getValue(), "Old directives should be back");
+    }
+
+    @Test
+    void readersNeverSeeHalfABatch() throws InterruptedException, IOException {
+        VersionedPhpIni versioned = new VersionedPhpIni(tempDir.resolve("batch.ini").toString());
+        assertTrue(versioned.transaction(changes -> {
+            changes.addSection("batch");
+            for (int i = 0; i < BATCH; i++) {
+                changes.addDirective(new PhpIniDirective("batch.d" + i + " = 0", "batch"));
+            }
+        }), "Directives should be added");
+
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        for (int i = 0; i < READERS; i++) {
+            executor.execute(() -> {
+                try {
+                    while (writing.get()) {
+                        PhpIniSnapshot snapshot = versioned.snapshot();
+                        String expected = snapshot.getDirective("batch.d0").getValue();
+                        for (IPhpIniDirective directive : snapshot.getSection("batch").getDirectives()) {
+                            assertEquals(expected, directive.getValue(), "Snapshot should hold one whole batch");
+                        }
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+
+        for (int commit = 1; commit <= COMMITS; commit++) {
+            String value = Integer.toString(commit);
+            assertTrue(versioned.transaction(changes -> {
+                for (int i = 0; i < BATCH; i++) {
+                    changes.updateDirective("batch.d" + i, value);
+                }
+            }), "Batch should be committed");
+        }
+        writing.set(false);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS), "Readers should finish");
+
+        assertTrue(errors.isEmpty(), "No reader should see half a batch: " + errors);
+        assertEquals(COMMITS + 2L, versioned.getVersion(), "Every batch should be one version");
+    }
+
+    @Test
+    void saveWritesCurrentSnapshot() throws IOException {
+        VersionedPhpIni versioned = new VersionedPhpIni(phpIniPath.toString());
+
+        assertTrue(versioned.transaction(changes -> {
+            changes.updateDirective("memory_limit", "256M");
+            changes.removeDirective("short_open_tag");
+            changes.addSection("Extra");
+            changes.addDirective(new PhpIniDirective("extra.value = 1", "Extra"));
+        }), "Transaction should be committed");
+        assertTrue(versioned.save(), "File should be saved");
+
+        PhpIni saved = new PhpIni(phpIniPath.toString());
+        assertEquals("256M", saved.getDirective("memory_limit").getValue(), "Updated value should be saved");
+        assertNull(saved.getDirective("short_open_tag"), "Removed directive should be saved");
+        assertEquals("1", saved.getDirective("extra.value").getValue(), "Added directive should be saved");
+        assertTrue(saved.getFileContent().contains("; About php.ini"), "Comments should be kept");
+    }
+}
@@ -0,0 +1,17 @@
+package de.hermannbsd.phpini.library.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectiveCatalogGeneratorTest {
+
+    @Test
+    void splitCsvLine() {
+        assertEquals(List.of("a", "\"b;c\"", "", "d"), DirectiveCatalogGenerator.splitCsvLine("a;\"b;c\";;d"),
+                "Separators inside quotation marks should be kept");
+        assertEquals(List.of(""), DirectiveCatalogGenerator.splitCsvLine(""), "Empty line should be one field");
+    }
+}
@@ -3,6 +3,8 @@ package de.hermannbsd.phpini.library.helper;
 import de.hermannbsd.phpini.library.interfaces.IIniLine;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class StringHelperTest {
@@ -20,6 +22,16 @@ class StringHelperTest {
         assertNotEquals(s2, s3, "String should be changed");
     }
 
+    @Test
+    void utf8Length() {
+        String[] values = {"", "memory_limit = 128M", "date.timezone = Europe/Z\u00fcrich", "; \u20ac \uD83D\uDE00"};
+
+        for (String value : values) {
+            assertEquals(value.getBytes(StandardCharsets.UTF_8).length, StringHelper.utf8Length(value),
+                    "Length should match the encoded length of " + value);
+        }
+    }
+
     @Test
     void counts() {
         String s1 = ".1.2.3,4";
@@ -0,0 +1,89 @@
+package de.hermannbsd.phpini.library.parser;
+
+import de.hermannbsd.phpini.library.enums.IniLineKind;
+import de.hermannbsd.phpini.library.interfaces.IIniLine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.CharBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IniLineTokenizerTest {
+
+    private IniLineTokenizer tokenizer;
+
+    @BeforeEach
+    void setUp() {
+        tokenizer = new IniLineTokenizer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenizer = null;
+    }
+
+    @Test
+    void tokenizeBlank() {
+        assertEquals(IniLineKind.BLANK, tokenizer.tokenize(""), "Empty line should be blank");
+        assertEquals(IniLineKind.BLANK, tokenizer.tokenize(" \t "), "Whitespace line should be blank");
+    }
+
+    @Test
+    void tokenizeComment() {
+        assertEquals(IniLineKind.COMMENT, tokenizer.tokenize("  ; only comment "), "Line should be a comment");
+        assertEquals("only comment", tokenizer.getComment(), "Comment should be 'only comment'");
+        assertEquals("", tokenizer.getName(), "Name should be empty");
+    }
+
+    @Test
+    void tokenizeSection() {
+        assertEquals(IniLineKind.SECTION, tokenizer.tokenize("[ Date ] ; dates"), "Line should be a section");
+        assertEquals("Date", tokenizer.getName(), "Section name should be 'Date'");
+        assertEquals("dates", tokenizer.getComment(), "Comment should be 'dates'");
+
+        assertEquals(IniLineKind.INVALID, tokenizer.tokenize("[Date"), "Unterminated section should be invalid");
+    }
+
+    @Test
+    void tokenizeDirective() {
+        assertEquals(IniLineKind.DIRECTIVE, tokenizer.tokenize("memory_limit = 128M ; max memory"), "Line should be a directive");
+        assertEquals("memory_limit", tokenizer.getName(), "Name should be 'memory_limit'");
+        assertEquals("128M", tokenizer.getValue(), "Value should be '128M'");
+        assertEquals("max memory", tokenizer.getComment(), "Comment should be 'max memory'");
+        assertTrue(tokenizer.nameEqualsIgnoreCase("MEMORY_LIMIT"), "Name should match ignoring case");
+        assertFalse(tokenizer.nameEqualsIgnoreCase("memory"), "Name should not match a prefix");
+    }
+
+    @Test
+    void tokenizeQuotedValue() {
+        tokenizer.tokenize("url_rewriter.tags = \"a=href,area=href\" ; tags");
+        assertEquals("\"a=href,area=href\"", tokenizer.getValue(), "Assignments inside quotes should be part of the value");
+
+        tokenizer.tokenize("include_path = \".;/usr/share/php\"");
+        assertEquals("\".;/usr/share/php\"", tokenizer.getValue(), "Comment characters inside quotes should be part of the value");
+        assertEquals("", tokenizer.getComment(), "Comment should be empty");
+    }
+
+    @Test
+    void tokenizeRange() {
+        CharBuffer buffer = CharBuffer.wrap("a = 1\nb = 2\n");
+        assertEquals(IniLineKind.DIRECTIVE, tokenizer.tokenize(buffer, 6, 11), "Second line should be a directive");
+        assertEquals("b", tokenizer.getName(), "Name should be 'b'");
+        assertEquals("2", tokenizer.getValue(), "Value should be '2'");
+    }
+
+    @Test
+    void toIniLine() {
+        tokenizer.tokenize("x\nallow_url_fopen = 0 ; remote", 2, 30);
+        IIniLine line = tokenizer.toIniLine();
+
+        assertEquals("allow_url_fopen = 0 ; remote", line.getLine(), "Line should only contain the tokenized range");
+        assertEquals("allow_url_fopen", line.getDirectiveName(), "Name should be 'allow_url_fopen'");
+        assertEquals("0", line.getValue(), "Value should be '0'");
+        assertEquals("remote", line.getComment(), "Comment should be 'remote'");
+        assertTrue(line.hasValue(), "Line should have a value");
+        assertFalse(line.isCommentOnly(), "Line should not be comment only");
+    }
+}
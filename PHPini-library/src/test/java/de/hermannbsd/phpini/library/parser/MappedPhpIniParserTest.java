@@ -0,0 +1,155 @@
+package de.hermannbsd.phpini.library.parser;
+
+import de.hermannbsd.phpini.library.PhpIni;
+import de.hermannbsd.phpini.library.enums.IniLineKind;
+import de.hermannbsd.phpini.library.enums.ParseMode;
+import de.hermannbsd.phpini.library.interfaces.IIniLine;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedPhpIniParserTest {
+
+    private static final String PHP_INI_FILE = "php.ini";
+
+    private Path phpIniPath;
+
+    @BeforeEach
+    void setUp() throws URISyntaxException {
+        URL phpIniFile = getClass().getClassLoader().getResource(PHP_INI_FILE);
+        assertNotNull(phpIniFile, "PHP INI file not found in classpath");
+        phpIniPath = Paths.get(phpIniFile.toURI());
+    }
+
+    @Test
+    void next() throws IOException {
+        Path file = Files.createTempFile("mapped", ".ini");
+        try {
+            Files.writeString(file, "; comment\r\n[PHP]\r\n\r\nname = \"v\u00e4lue;x\" ; note\r\nplain = 1 ; ascii\r\nlast=1");
+
+            try (MappedPhpIniParser parser = new MappedPhpIniParser(file)) {
+                assertEquals(IniLineKind.COMMENT, parser.next(), "First line should be a comment");
+                assertEquals("comment", parser.getComment(), "Comment should be 'comment'");
+                assertEquals(IniLineKind.SECTION, parser.next(), "Second line should be a section");
+                assertEquals("PHP", parser.getName(), "Section name should be 'PHP'");
+                assertEquals(IniLineKind.BLANK, parser.next(), "Third line should be blank");
+                assertEquals(IniLineKind.DIRECTIVE, parser.next(), "Fourth line should be a directive");
+                assertEquals("name", parser.getName(), "Name should be 'name'");
+                assertEquals("\"v\u00e4lue;x\"", parser.getValue(), "Value should be decoded as UTF-8");
+                assertEquals("note", parser.getComment(), "Comment should be 'note'");
+
+                IIniLine line = parser.toIniLine();
+                assertEquals("name", line.getDirectiveName(), "Name of the line should be 'name'");
+                assertEquals("\"v\u00e4lue;x\"", line.getValue(), "Value of the line should be decoded as UTF-8");
+                assertEquals("note", line.getComment(), "Comment of the line should be 'note'");
+
+                assertEquals(IniLineKind.DIRECTIVE, parser.next(), "Fifth line should be a directive");
+                line = parser.toIniLine();
+                assertEquals("1", line.getValue(), "Value of the ASCII line should be '1'");
+                assertEquals("ascii", line.getComment(), "Comment of the ASCII line should be 'ascii'");
+
+                assertEquals(IniLineKind.DIRECTIVE, parser.next(), "Unterminated last line should be a directive");
+                assertEquals("1", parser.getValue(), "Value should be '1'");
+                assertFalse(parser.toIniLine().isCommented(), "Line without comment should not be commented");
+                assertNull(parser.next(), "End of file should be reached");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void nextAcrossRegions() throws IOException {
+        int lines = 0;
+        int directives = 0;
+        try (MappedPhpIniParser parser = new MappedPhpIniParser(phpIniPath, true, 512)) {
+            IniLineKind kind;
+            while ((kind = parser.next()) != null) {
+                lines++;
+                if (kind == IniLineKind.DIRECTIVE) {
+                    directives++;
+                }
+            }
+
+            assertEquals(Files.readString(phpIniPath), parser.getContent(), "Collected content should match the file");
+        }
+
+        assertEquals(Files.readAllLines(phpIniPath).size(), lines, "Every line should be visited once");
+        assertTrue(directives > 0, "Directives should be found");
+    }
+
+    @Test
+    void lineLongerThanRegionFails() throws IOException {
+        Path file = Files.createTempFile("mapped", ".ini");
+        try {
+            Files.writeString(file, "a = 1\nlong = " + "x".repeat(64) + "\nb = 2\n");
+
+            try (MappedPhpIniParser parser = new MappedPhpIniParser(file, false, 32)) {
+                assertEquals(IniLineKind.DIRECTIVE, parser.next(), "First line should fit into the region");
+                IOException e = assertThrows(IOException.class, parser::next, "Long line should not be split");
+                assertTrue(e.getMessage().contains("longer than the mapped region"), "Error should name the cause");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void sameLinesAsTokenizer() throws IOException {
+        Path file = Files.createTempFile("mapped", ".ini");
+        try {
+            String corpus = Files.readString(phpIniPath) + "\n  [ Sect ion ] ; c\n[broken\n= value\n;only\n"
+                    + "name=\"a;b\" ; c ; d\nname ; no value\n\tkey\t=\t\"unclosed ; x\n\u00e4 = \u00f6 ; \u00fc\n";
+            Files.writeString(file, corpus);
+            String[] lines = corpus.split("\n", -1);
+            IniLineTokenizer tokenizer = new IniLineTokenizer();
+
+            try (MappedPhpIniParser parser = new MappedPhpIniParser(file, false, 512)) {
+                for (int i = 0; i < lines.length - 1; i++) {
+                    IniLineKind kind = tokenizer.tokenize(lines[i]);
+                    assertEquals(kind, parser.next(), "Kind should match in line " + i);
+                    assertEquals(tokenizer.getName(), parser.getName(), "Name should match in line " + i);
+                    assertEquals(tokenizer.getValue(), parser.getValue(), "Value should match in line " + i);
+                    assertEquals(tokenizer.getComment(), parser.getComment(), "Comment should match in line " + i);
+                }
+                assertNull(parser.next(), "End of file should be reached");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void sameModelAsStreaming() throws IOException {
+        PhpIni streaming = new PhpIni(phpIniPath.toString(), ParseMode.STREAMING, false);
+        PhpIni mapped = new PhpIni(phpIniPath.toString(), ParseMode.MEMORY_MAPPED, false);
+
+        List<IPhpIniSection> expected = streaming.getIni();
+        List<IPhpIniSection> actual = mapped.getIni();
+        assertEquals(expected.size(), actual.size(), "Number of sections should match");
+
+        for (int i = 0; i < expected.size(); i++) {
+            List<IPhpIniDirective> expectedDirectives = expected.get(i).getDirectives();
+            List<IPhpIniDirective> actualDirectives = actual.get(i).getDirectives();
+            assertEquals(expected.get(i).getName(), actual.get(i).getName(), "Section names should match");
+            assertEquals(expectedDirectives.size(), actualDirectives.size(), "Number of directives should match");
+
+            for (int j = 0; j < expectedDirectives.size(); j++) {
+                assertEquals(expectedDirectives.get(j).toString(), actualDirectives.get(j).toString(), "Directives should match");
+            }
+        }
+
+        assertEquals(Files.size(phpIniPath), mapped.getBytesRead(), "Mapped size should be reported");
+    }
+}
@@ -0,0 +1,137 @@
+package de.hermannbsd.phpini.library.parser;
+
+import de.hermannbsd.phpini.library.PhpIni;
+import de.hermannbsd.phpini.library.enums.ParseMode;
+import de.hermannbsd.phpini.library.interfaces.IIniLineView;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniDirective;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniHandler;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniSection;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelPhpIniParserTest {
+
+    private static final String PHP_INI_FILE = "php.ini";
+    private static final String CONTENT = "[PHP]\nengine = On\nprecision = 14\n[Date]\ndate.timezone = UTC\n"
+            + "engine = Off\n[php]\nprecision = 10\nserialize_precision = -1\n";
+
+    private Path phpIniPath;
+
+    @BeforeEach
+    void setUp() throws URISyntaxException {
+        URL phpIniFile = getClass().getClassLoader().getResource(PHP_INI_FILE);
+        assertNotNull(phpIniFile, "PHP INI file not found in classpath");
+        phpIniPath = Paths.get(phpIniFile.toURI());
+    }
+
+    @Test
+    void split() {
+        List<ParallelPhpIniParser.Chunk> chunks = new ParallelPhpIniParser(ForkJoinPool.commonPool(), 20).split(CONTENT);
+
+        assertTrue(chunks.size() > 1, "Content should be split into several chunks");
+        assertEquals(0, chunks.get(0).getStart(), "First chunk should start at the beginning");
+        assertNull(chunks.get(0).getSectionName(), "First chunk should start outside a section");
+
+        for (ParallelPhpIniParser.Chunk chunk : chunks) {
+            int start = chunk.getStart();
+            assertTrue(start == 0 || CONTENT.charAt(start - 1) == '\n', "Chunks should start at a line boundary");
+            assertEquals(sectionAt(start), chunk.getSectionName(), "Section should be carried over to the chunk");
+        }
+    }
+
+    @Test
+    void sameResultForAllChunkSizes() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<String> expected = stitch(new ParallelPhpIniParser(pool, Integer.MAX_VALUE).parse(CONTENT));
+
+            for (int chunkSize = 1; chunkSize < CONTENT.length(); chunkSize += 7) {
+                List<String> actual = stitch(new ParallelPhpIniParser(pool, chunkSize).parse(CONTENT));
+                assertEquals(expected, actual, "Result should not depend on the chunk size " + chunkSize);
+            }
+
+            assertEquals(List.of("section:PHP", "[PHP]: engine = On (string)", "[PHP]: precision = 14 (string)",
+                    "section:Date", "[Date]: date.timezone = UTC (string)", "section:php",
+                    "[php]: serialize_precision = -1 (string)"), expected, "First occurrence of a directive should win");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void sameModelAsStreaming() throws IOException {
+        List<String> expected = stitch(new ParallelPhpIniParser(ForkJoinPool.commonPool(), Integer.MAX_VALUE)
+                .parse(Files.readString(phpIniPath)));
+        List<String> actual = stitch(new ParallelPhpIniParser(ForkJoinPool.commonPool(), 1024)
+                .parse(Files.readString(phpIniPath)));
+        assertEquals(expected, actual, "Chunked parse should match the single chunk parse");
+
+        PhpIni streaming = new PhpIni(phpIniPath.toString(), ParseMode.STREAMING, false);
+        PhpIni parallel = new PhpIni(phpIniPath.toString(), ParseMode.PARALLEL, false);
+        assertEquals(describe(streaming.getIni()), describe(parallel.getIni()), "Parallel parse should match the streaming parse");
+    }
+
+    private static String sectionAt(int offset) {
+        String[] result = new String[1];
+        new PhpIniEventParser().parse(CONTENT, 0, offset, null, new IPhpIniHandler() {
+            @Override
+            public boolean onDirective(String sectionName, @NotNull IIniLineView line) {
+                result[0] = sectionName;
+                return true;
+            }
+
+            @Override
+            public boolean onSection(@NotNull String sectionName, @NotNull IIniLineView line) {
+                result[0] = sectionName;
+                return true;
+            }
+        });
+        return result[0];
+    }
+
+    private static List<String> stitch(List<ParallelPhpIniParser.Entry> entries) {
+        List<String> result = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        String current = null;
+
+        for (ParallelPhpIniParser.Entry entry : entries) {
+            if (entry.isSection()) {
+                if (!entry.getSectionName().equalsIgnoreCase(current)) {
+                    current = entry.getSectionName();
+                    result.add("section:" + current);
+                }
+            } else if (names.add(entry.getDirective().getName().toLowerCase(Locale.ROOT))) {
+                result.add(entry.getDirective().toString());
+            }
+        }
+
+        return result;
+    }
+
+    private static List<String> describe(List<IPhpIniSection> sections) {
+        List<String> result = new ArrayList<>();
+        for (IPhpIniSection section : sections) {
+            result.add("section:" + section.getName());
+            for (IPhpIniDirective directive : section.getDirectives()) {
+                result.add(directive.toString());
+            }
+        }
+        return result;
+    }
+}
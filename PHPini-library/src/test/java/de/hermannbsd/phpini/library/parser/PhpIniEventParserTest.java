@@ -0,0 +1,134 @@
+package de.hermannbsd.phpini.library.parser;
+
+import de.hermannbsd.phpini.library.interfaces.IIniLine;
+import de.hermannbsd.phpini.library.interfaces.IIniLineView;
+import de.hermannbsd.phpini.library.interfaces.IPhpIniHandler;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhpIniEventParserTest {
+
+    private static final String PHP_INI_FILE = "php.ini";
+    private static final String CONTENT = "; comment\r\n[PHP]\r\n\r\nengine = On\r\n[Date]\r\ndate.timezone = UTC ; zone\r\n[broken";
+
+    private Path phpIniPath;
+
+    @BeforeEach
+    void setUp() throws URISyntaxException {
+        URL phpIniFile = getClass().getClassLoader().getResource(PHP_INI_FILE);
+        assertNotNull(phpIniFile, "PHP INI file not found in classpath");
+        phpIniPath = Paths.get(phpIniFile.toURI());
+    }
+
+    @Test
+    void parseReader() throws IOException {
+        RecordingHandler handler = new RecordingHandler();
+        StringBuilder content = new StringBuilder();
+
+        assertTrue(new PhpIniEventParser(content).parse(new StringReader(CONTENT), handler), "Whole content should be parsed");
+        assertEquals(List.of("comment:comment", "section:PHP", "blank", "directive:PHP:engine=On",
+                "section:Date", "directive:Date:date.timezone=UTC", "invalid"), handler.events, "Events should match");
+        assertEquals(CONTENT, content.toString(), "Collected content should match");
+    }
+
+    @Test
+    void parseCharSequence() throws IOException {
+        RecordingHandler fromSequence = new RecordingHandler();
+        RecordingHandler fromReader = new RecordingHandler();
+        String content = Files.readString(phpIniPath);
+
+        assertTrue(new PhpIniEventParser().parse(content, fromSequence), "Whole content should be parsed");
+        assertTrue(new PhpIniEventParser().parse(phpIniPath, fromReader), "Whole file should be parsed");
+        assertEquals(fromReader.events, fromSequence.events, "Events should not depend on the input");
+        assertEquals(Files.readAllLines(phpIniPath).size(), fromReader.events.size(), "Every line should be an event");
+    }
+
+    @Test
+    void stopEarly() {
+        RecordingHandler handler = new RecordingHandler() {
+            @Override
+            public boolean onDirective(String sectionName, @NotNull IIniLineView line) {
+                super.onDirective(sectionName, line);
+                return false;
+            }
+        };
+
+        assertFalse(new PhpIniEventParser().parse(CONTENT, handler), "Parsing should be stopped");
+        assertEquals("directive:PHP:engine=On", handler.events.get(handler.events.size() - 1), "Last event should be the first directive");
+    }
+
+    @Test
+    void lineViewSpans() {
+        List<IIniLine> lines = new ArrayList<>();
+        IPhpIniHandler handler = new IPhpIniHandler() {
+            @Override
+            public boolean onDirective(String sectionName, @NotNull IIniLineView line) {
+                assertEquals(line.getName(), line.getSource().subSequence(line.getNameStart(), line.getNameEnd()).toString(),
+                        "Name span should match the name");
+                assertEquals(line.getValue(), line.getSource().subSequence(line.getValueStart(), line.getValueEnd()).toString(),
+                        "Value span should match the value");
+                lines.add(line.toIniLine());
+                return true;
+            }
+        };
+
+        assertTrue(new PhpIniEventParser().parse(CONTENT, handler), "Whole content should be parsed");
+        assertEquals(2, lines.size(), "Every directive should be seen");
+        assertEquals("engine", lines.get(0).getDirectiveName(), "Kept line should not change with the next line");
+        assertEquals("UTC", lines.get(1).getValue(), "Kept line should hold its value");
+    }
+
+    @Test
+    void findDirectiveValue() throws IOException {
+        assertEquals("Off", PhpIniEventParser.findDirectiveValue(phpIniPath, "SHORT_OPEN_TAG"), "Value should be 'Off'");
+        assertNull(PhpIniEventParser.findDirectiveValue(phpIniPath, "nonexistent_directive"), "Value should be null");
+    }
+
+    private static class RecordingHandler implements IPhpIniHandler {
+
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public boolean onSection(@NotNull String sectionName, @NotNull IIniLineView line) {
+            events.add("section:" + sectionName);
+            return true;
+        }
+
+        @Override
+        public boolean onDirective(String sectionName, @NotNull IIniLineView line) {
+            events.add("directive:" + sectionName + ":" + line.getName() + "=" + line.getValue());
+            return true;
+        }
+
+        @Override
+        public boolean onComment(@NotNull IIniLineView line) {
+            events.add("comment:" + line.getComment());
+            return true;
+        }
+
+        @Override
+        public boolean onBlank(@NotNull IIniLineView line) {
+            events.add("blank");
+            return true;
+        }
+
+        @Override
+        public boolean onInvalid(@NotNull IIniLineView line) {
+            events.add("invalid");
+            return true;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package de.hermannbsd.phpini.library.php_type_interpreter;
 
+import de.hermannbsd.phpini.library.enums.PhpValueType;
+import de.hermannbsd.phpini.library.interfaces.IPhpTypeInterpreter;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -84,4 +86,36 @@ class BoolInterpreterTest {
         boolInterpreter.setBoolValue(true);
         assertTrue(boolInterpreter.getBoolValue(), "Bool value should be true");
     }
-}
\ No newline at end of file
+
+    @Test
+    void phpBoolWords() {
+        for (String value : new String[]{"Yes", "yes", "ON", "True", "1", "2", " \"on\" "}) {
+            assertTrue(BoolInterpreter.getBoolValue(value), "Value should be true: " + value);
+        }
+        for (String value : new String[]{"No", "none", "OFF", "false", "0", "", "abc"}) {
+            assertFalse(BoolInterpreter.getBoolValue(value), "Value should be false: " + value);
+        }
+        assertTrue(BoolInterpreter.getBoolValue(new StringBuilder("yes")), "Any char sequence should be read");
+    }
+
+    @Test
+    void isValid() {
+        assertTrue(boolInterpreter.isValid("None"), "None should be a boolean");
+        assertTrue(boolInterpreter.isValid("-1"), "Integer should be a boolean");
+        assertFalse(boolInterpreter.isValid("maybe"), "Other words should not be booleans");
+        assertEquals("On", boolInterpreter.format(boolInterpreter.parse("yes")), "True should be written as On");
+    }
+
+    @Test
+    void sharedInterpreterHasNoState() {
+        IPhpTypeInterpreter shared = PhpTypeInterpreters.forType(PhpValueType.BOOL);
+
+        assertNotNull(shared, "Booleans should have an interpreter");
+        assertFalse(shared instanceof BoolInterpreter, "Shared interpreter should not hold a changeable value");
+        assertSame(shared, PhpTypeInterpreters.forType(PhpValueType.BOOL), "Interpreter should be shared");
+        assertEquals(1, shared.parse("yes"), "True should be read as 1");
+        assertTrue(shared.isValid("None"), "None should be a boolean");
+        assertFalse(shared.isValid("maybe"), "Other words should not be booleans");
+        assertEquals("Off", shared.format(0), "False should be written as Off");
+    }
+}
@@ -0,0 +1,65 @@
+package de.hermannbsd.phpini.library.php_type_interpreter;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteSizeInterpreterTest {
+
+    private final ByteSizeInterpreter interpreter = new ByteSizeInterpreter();
+
+    @Test
+    void parseShorthand() {
+        assertEquals(512L << 20, interpreter.parse("512M"), "Megabytes should be read");
+        assertEquals(1L << 30, interpreter.parse("1g"), "Gigabytes should be read ignoring case");
+        assertEquals(8L << 10, interpreter.parse(" \"8K\" "), "Quotes and whitespace should be skipped");
+        assertEquals(1_000, interpreter.parse("1000"), "Plain bytes should be read");
+        assertEquals(-1, interpreter.parse("-1"), "No limit should be read");
+        assertEquals(255L << 20, interpreter.parse("0xFFM"), "Hexadecimal should be read");
+        assertEquals(5, interpreter.parse("0b101"), "Binary should be read");
+    }
+
+    @Test
+    void rejectInvalid() {
+        assertFalse(interpreter.isValid("M"), "Suffix alone should be invalid");
+        assertFalse(interpreter.isValid("12T"), "Unknown suffix should be invalid");
+        assertFalse(interpreter.isValid("1.5G"), "Fraction should be invalid");
+        assertFalse(interpreter.isValid("99999999999G"), "Overflow should be invalid");
+        assertFalse(interpreter.isValid(""), "Empty value should be invalid");
+        assertEquals(0, interpreter.parse("lots"), "Invalid value should be read as 0");
+    }
+
+    @Test
+    void formatShorthand() {
+        assertEquals("512M", interpreter.format(512L << 20), "Megabytes should be written as M");
+        assertEquals("1G", interpreter.format(1L << 30), "Gigabytes should be written as G");
+        assertEquals("1500", interpreter.format(1500), "Other sizes should be written in bytes");
+        assertEquals("-1", interpreter.format(-1), "No limit should be written as -1");
+    }
+
+    @Test
+    void parseDoesNotAllocate() {
+        CharSequence value = new StringBuilder("512M");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long sum = parse(value, 10_000);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        sum += parse(value, 1_000_000);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(sum > 0, "Values should be read");
+        assertTrue(allocated < 64 * 1024, "Parsing should not allocate: " + allocated + " bytes");
+    }
+
+    private long parse(CharSequence value, int count) {
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            if (interpreter.isValid(value)) {
+                sum += interpreter.parse(value);
+            }
+        }
+        return sum;
+    }
+}
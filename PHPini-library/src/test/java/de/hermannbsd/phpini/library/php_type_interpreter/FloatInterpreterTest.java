@@ -0,0 +1,41 @@
+package de.hermannbsd.phpini.library.php_type_interpreter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FloatInterpreterTest {
+
+    private final FloatInterpreter interpreter = new FloatInterpreter();
+
+    @Test
+    void parseFloats() {
+        for (String value : new String[]{"31.7667", "-35.2333", "90.833333", ".5", "5.", "1e3", "2.5E-4", "0.000123",
+                "0", "-0.0", "123456789012.345", "1.7976931348623157e308", "4.9e-324", "0.1234567890123456789"}) {
+            assertEquals(Double.parseDouble(value), Double.longBitsToDouble(interpreter.parse(value)),
+                    "Float should be read like the JDK: " + value);
+        }
+        assertEquals(1.5, Double.longBitsToDouble(interpreter.parse(" \"1.5\" ")), "Quotes should be skipped");
+    }
+
+    @Test
+    void negativeZero() {
+        for (String value : new String[]{"-0", "-0.0", "-.0", "-0e5", " \"-0\" "}) {
+            assertEquals(Double.doubleToRawLongBits(-0.0), interpreter.parse(value), "Zero should keep its sign: " + value);
+        }
+        assertEquals(Double.doubleToRawLongBits(0.0), interpreter.parse("+0"), "Positive zero should be read");
+        assertEquals("-0.0", interpreter.format(interpreter.parse("-0")), "Negative zero should be written");
+    }
+
+    @Test
+    void rejectInvalid() {
+        for (String value : new String[]{"", ".", "1.2.3", "e5", "1e", "12abc", "NaN"}) {
+            assertFalse(interpreter.isValid(value), "Value should be invalid: " + value);
+        }
+    }
+
+    @Test
+    void format() {
+        assertEquals("31.7667", interpreter.format(Double.doubleToRawLongBits(31.7667)), "Float should be written");
+    }
+}
@@ -0,0 +1,27 @@
+package de.hermannbsd.phpini.library.php_type_interpreter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntInterpreterTest {
+
+    private final IntInterpreter interpreter = new IntInterpreter();
+
+    @Test
+    void parseIntegers() {
+        assertEquals(60, interpreter.parse("60"), "Integer should be read");
+        assertEquals(-1, interpreter.parse("-1"), "Negative integer should be read");
+        assertEquals(14, interpreter.parse(" \"14\" "), "Quotes and whitespace should be skipped");
+        assertEquals(Long.MAX_VALUE, interpreter.parse("9223372036854775807"), "Largest long should be read");
+    }
+
+    @Test
+    void rejectInvalid() {
+        assertFalse(interpreter.isValid("128M"), "Byte size should not be an integer");
+        assertFalse(interpreter.isValid("1.5"), "Float should not be an integer");
+        assertFalse(interpreter.isValid("9223372036854775808"), "Overflow should be invalid");
+        assertFalse(interpreter.isValid("-"), "Sign alone should be invalid");
+        assertEquals(0, interpreter.parse("many"), "Invalid value should be read as 0");
+    }
+}
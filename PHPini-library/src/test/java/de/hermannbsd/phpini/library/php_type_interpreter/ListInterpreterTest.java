@@ -0,0 +1,44 @@
+package de.hermannbsd.phpini.library.php_type_interpreter;
+
+import de.hermannbsd.phpini.library.enums.PhpValueType;
+import de.hermannbsd.phpini.library.interfaces.IPhpValueInterpreter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListInterpreterTest {
+
+    private static final String FUNCTIONS = " exec, passthru ,,shell_exec,system ";
+
+    @Test
+    void readInPlace() {
+        assertEquals(4, ListInterpreter.size(FUNCTIONS), "Empty elements should not be counted");
+        assertTrue(ListInterpreter.contains(FUNCTIONS, "passthru"), "Element should be found");
+        assertTrue(ListInterpreter.contains(FUNCTIONS, "SYSTEM"), "Element should be found ignoring case");
+        assertFalse(ListInterpreter.contains(FUNCTIONS, "shell"), "Part of an element should not be found");
+        assertEquals(0, ListInterpreter.size(""), "Empty list should have no elements");
+    }
+
+    @Test
+    void toListAndFormat() {
+        List<String> elements = ListInterpreter.toList(FUNCTIONS);
+
+        assertEquals(List.of("exec", "passthru", "shell_exec", "system"), elements, "Elements should be trimmed");
+        assertEquals("exec,passthru,shell_exec,system", new ListInterpreter().format(elements), "List should be written");
+    }
+
+    @Test
+    void chosenForArrays() {
+        IPhpValueInterpreter interpreter = PhpTypeInterpreters.forObjectType(PhpValueType.ARRAY);
+
+        assertNotNull(interpreter, "Arrays should have an interpreter");
+        assertEquals(PhpValueType.ARRAY, interpreter.getValueType(), "Interpreter should read arrays");
+        assertTrue(interpreter.isValid(FUNCTIONS), "Every value should be a list");
+        assertEquals(List.of("exec", "passthru", "shell_exec", "system"), interpreter.read(FUNCTIONS),
+                "List should be read");
+        assertNull(PhpTypeInterpreters.forObjectType(PhpValueType.INT), "Primitives should have no object interpreter");
+        assertNull(PhpTypeInterpreters.forObjectType(PhpValueType.STRING), "Strings should be kept as they are");
+    }
+}